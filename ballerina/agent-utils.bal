@@ -16,6 +16,7 @@
 
 import ballerina/io;
 import ballerina/log;
+import ballerina/time;
 
 # Execution progress record
 public type ExecutionProgress record {|
@@ -29,10 +30,15 @@ public type ExecutionProgress record {|
 
 # Execution step information
 public type ExecutionStep record {|
-    # Response generated by the LLM
+    # Response generated by the LLM. 
+    # When the LLM requests multiple tools at once, this contains the array of requested tool calls.
     json llmResponse;
-    # Observations produced by the tool during the execution
+    # Observations produced by the tool during the execution. 
+    # When the LLM requests multiple tools at once, this contains the observations in the order of the tool calls.
     anydata|error observation;
+    # Parsed form of the response generated by the LLM, which is reused instead of parsing the response again.
+    # This is not set when the LLM requests multiple tools at once.
+    LlmToolResponse|LlmChatResponse|LlmInvalidGenerationError parsedLlmResponse?;
 |};
 
 # Execution step information
@@ -41,21 +47,29 @@ public type ExecutionResult record {|
     LlmToolResponse tool;
     # Observations produced by the tool during the execution
     anydata|error observation;
+    # Tokens used by the model to decide the tool, if reported by the model.
+    # When the LLM requests multiple tools at once, this is given only with the result of the first tool.
+    TokenUsage usage?;
 |};
 
 public type ExecutionError record {|
     # Response generated by the LLM
     json llmResponse;
-    # Error caused during the execution
-    LlmInvalidGenerationError|ToolExecutionError|MemoryError 'error;
+    # Error caused during the execution, which is an `ExecutionBudgetExceededError` for the last step of an execution
+    # terminated early as its budget is exceeded
+    LlmInvalidGenerationError|ToolExecutionError|MemoryError|ExecutionBudgetExceededError 'error;
     # Observation on the caused error as additional instruction to the LLM
     string observation;
+    # Tokens used by the model to generate the response, if reported by the model
+    TokenUsage usage?;
 |};
 
 # An chat response by the LLM
 public type LlmChatResponse record {|
     # A text response to the question
     string content;
+    # Tokens used by the model to generate the response, if reported by the model
+    TokenUsage usage?;
 |};
 
 # Tool selected by LLM to be performed by the agent
@@ -111,6 +125,21 @@ public class Iterator {
         self.executor = new (agent, sessionId, progress);
     }
 
+    # Retrieves the tokens used by the model in the steps executed so far.
+    #
+    # + return - Aggregated token usage of the execution
+    public isolated function getTokenUsage() returns TokenUsage {
+        return self.executor.getTokenUsage();
+    }
+
+    isolated function setEventQueue(EventQueue eventQueue) {
+        self.executor.setEventQueue(eventQueue);
+    }
+
+    isolated function hasPendingResults() returns boolean {
+        return self.executor.hasPendingResults();
+    }
+
     # Iterate over the agent's execution steps.
     # + return - a record with the execution step or an error if the agent failed
     public function iterator() returns object {
@@ -120,11 +149,118 @@ public class Iterator {
     }
 }
 
+// Builds the messages given to the model across the iterations of an execution. The messages loaded from the memory
+// and the messages of the steps already in the conversation are kept, so that only the messages of the new steps
+// are created in each iteration.
+class ConversationBuilder {
+    // The messages are made immutable once, when they are added, so that the conversation is passed to the strands
+    // calling the model without copying the messages on every iteration.
+    private final (ChatMessage & readonly)[] messages = [];
+    private int stepCount = 0;
+    private boolean isMemoryLoaded = false;
+    // Tokens used by the latest response of the model, which are taken by the executor
+    private TokenUsage? usage = ();
+
+    // Returns the steps of the history which are not yet in the conversation. The messages of the memory are loaded
+    // only once, when the conversation is started.
+    isolated function getNewSteps(Memory memory, string sessionId, ExecutionStep[] history) returns ExecutionStep[] {
+        if history.length() < self.stepCount {
+            // The history is replaced with a shorter one, hence the conversation is built again
+            self.messages.removeAll();
+            self.stepCount = 0;
+            self.isMemoryLoaded = false;
+        }
+        if !self.isMemoryLoaded {
+            self.isMemoryLoaded = true;
+            decimal? startTime = startTimer();
+            ChatMessage[]|MemoryError memoryMessages = memory.get(sessionId);
+            recordDuration(AGENT_MEMORY_GET_TIME_METRIC, startTime);
+            if memoryMessages is MemoryError {
+                log:printError("Failed to get chat messages from memory", memoryMessages);
+            } else {
+                self.append(...memoryMessages);
+            }
+        }
+        ExecutionStep[] newSteps = history.slice(self.stepCount);
+        self.stepCount = history.length();
+        return newSteps;
+    }
+
+    isolated function append(ChatMessage... messages) {
+        foreach ChatMessage message in messages {
+            self.messages.push(message.cloneReadOnly());
+        }
+    }
+
+    // Returns a snapshot of the conversation, which shares the immutable messages with the conversation.
+    isolated function getMessages() returns readonly & ChatMessage[] => self.messages.cloneReadOnly();
+
+    isolated function setUsage(TokenUsage? usage) {
+        self.usage = usage;
+    }
+
+    isolated function takeUsage() returns TokenUsage? {
+        TokenUsage? usage = self.usage;
+        self.usage = ();
+        return usage;
+    }
+}
+
+// Tracks the tokens used by the executions of an agent in each session. The usage of the least recently started
+// sessions is discarded once the usage of too many sessions is tracked.
+isolated class SessionTokenUsage {
+    private final map<TokenUsage> sessions = {};
+
+    isolated function add(string sessionId, TokenUsage usage) {
+        readonly & TokenUsage executionUsage = usage.cloneReadOnly();
+        lock {
+            TokenUsage sessionUsage = self.sessions[sessionId] ?: {};
+            if !self.sessions.hasKey(sessionId) {
+                if self.sessions.length() >= DEFAULT_MAX_TOKEN_USAGE_SESSIONS {
+                    _ = self.sessions.remove(self.sessions.keys()[0]);
+                }
+                self.sessions[sessionId] = sessionUsage;
+            }
+            addTokenUsage(sessionUsage, executionUsage);
+        }
+    }
+
+    isolated function get(string sessionId) returns TokenUsage {
+        lock {
+            return (self.sessions[sessionId] ?: {}).clone();
+        }
+    }
+}
+
+isolated function getSessionTokenUsage(BaseAgent agent) returns SessionTokenUsage? {
+    if agent is FunctionCallAgent {
+        return agent.sessionTokenUsage;
+    }
+    return agent is ReActAgent ? agent.sessionTokenUsage : ();
+}
+
+isolated function addTokenUsage(TokenUsage total, TokenUsage usage) {
+    total.inputTokens += usage.inputTokens;
+    total.outputTokens += usage.outputTokens;
+    total.cachedInputTokens += usage.cachedInputTokens;
+}
+
 # An executor to perform step-by-step execution of the agent.
 public class Executor {
     private boolean isCompleted = false;
     private final string sessionId;
     private final BaseAgent agent;
+    private final int maxParallelToolCalls;
+    private (ExecutionResult|ExecutionError)[] pendingResults = [];
+    private EventQueue? eventQueue = ();
+    private final ConversationBuilder conversation = new;
+    private final readonly & map<string> metricTags;
+    // Span of the current iteration, of which the spans of the model and the tool calls are children
+    private int? iterationSpanId = ();
+    // Tokens used by the latest response of the model, which are given with the result of the next step
+    private TokenUsage? lastUsage = ();
+    private final TokenUsage tokenUsage = {};
+    private final ExecutionBudgetTracker budget;
     # Contains the current execution progress for the agent and the query
     public ExecutionProgress progress;
 
@@ -137,7 +273,28 @@ public class Executor {
     public isolated function init(BaseAgent agent, string sessionId, *ExecutionProgress progress) {
         self.sessionId = sessionId;
         self.agent = agent;
+        self.maxParallelToolCalls = agent is FunctionCallAgent ? agent.maxParallelToolCalls : 1;
         self.progress = progress;
+        self.metricTags = {[AGENT_TAG]: getAgentType(agent)};
+        self.budget = new (getExecutionBudget(agent));
+    }
+
+    // Streams the responses of the model to the given queue as they are generated.
+    isolated function setEventQueue(EventQueue eventQueue) {
+        self.eventQueue = eventQueue;
+    }
+
+    # Retrieves the tokens used by the model in the steps executed so far.
+    #
+    # + return - Aggregated token usage of the execution
+    public isolated function getTokenUsage() returns TokenUsage {
+        return self.tokenUsage.clone();
+    }
+
+    // Returns whether the next steps are the results of the tools already executed for the latest response of
+    // the model, which are given without reasoning again.
+    isolated function hasPendingResults() returns boolean {
+        return self.pendingResults.length() > 0;
     }
 
     # Checks whether agent has more steps to execute.
@@ -154,60 +311,161 @@ public class Executor {
         if self.isCompleted {
             return error TaskCompletedError("Task is already completed. No more reasoning is needed.");
         }
-        return check self.agent.selectNextTool(self.progress, self.sessionId);
+        int? spanId = startSpan(AGENT_LLM_SPAN, self.metricTags, self.iterationSpanId);
+        decimal? startTime = startTimer();
+        json|LlmError llmResponse = self.selectNextTool();
+        recordDuration(AGENT_LLM_LATENCY_METRIC, startTime, self.metricTags);
+        finishSpan(spanId);
+        TokenUsage? usage = self.conversation.takeUsage();
+        if usage is TokenUsage {
+            addTokenUsage(self.tokenUsage, usage);
+        }
+        self.lastUsage = usage;
+        return llmResponse;
+    }
+
+    private isolated function selectNextTool() returns json|LlmError {
+        BaseAgent agent = self.agent;
+        EventQueue? eventQueue = self.eventQueue;
+        decimal? deadline = self.budget.getDeadline();
+        if agent is FunctionCallAgent {
+            return agent.selectNextToolWithEvents(self.progress, self.sessionId, eventQueue, self.conversation,
+                deadline);
+        }
+        if agent is ReActAgent {
+            return agent.selectNextToolInConversation(self.progress, self.sessionId, self.conversation, deadline);
+        }
+        return self.agent.selectNextTool(self.progress, self.sessionId);
     }
 
     # Execute the next step of the agent.
+    # When the LLM requests multiple tools at once, all of them are executed in parallel. The result of the first tool
+    # is returned, and the results of the remaining tools are returned by the subsequent `next` calls
+    # without reasoning again.
     #
     # + llmResponse - LLM response containing the tool to be executed and the raw LLM output
     # + return - Observations from the tool can be any|error|null
     public isolated function act(json llmResponse) returns ExecutionResult|LlmChatResponse|ExecutionError {
-        LlmToolResponse|LlmChatResponse|LlmInvalidGenerationError parseLlmResponse = self.agent.parseLlmResponse(llmResponse);
+        if llmResponse is json[] && llmResponse.length() > 0 {
+            return self.actInParallel(llmResponse);
+        }
+        TokenUsage? usage = self.lastUsage;
+        self.lastUsage = ();
+        LlmToolResponse|LlmChatResponse|LlmInvalidGenerationError parseLlmResponse = self.parseLlmResponse(llmResponse);
         if parseLlmResponse is LlmChatResponse {
             self.isCompleted = true;
+            if usage is TokenUsage {
+                parseLlmResponse.usage = usage;
+            }
             return parseLlmResponse;
         }
 
-        anydata observation;
-        ExecutionResult|ExecutionError executionResult;
+        ToolOutput|LlmInvalidGenerationError|ToolExecutionError? output = ();
         if parseLlmResponse is LlmToolResponse {
-            ToolOutput|ToolExecutionError|LlmInvalidGenerationError output = self.agent.toolStore.execute(parseLlmResponse);
-            if output is Error {
-                if output is ToolNotFoundError {
-                    observation = "Tool is not found. Please check the tool name and retry.";
-                } else if output is ToolInvalidInputError {
-                    observation = "Tool execution failed due to invalid inputs. Retry with correct inputs.";
-                } else {
-                    observation = "Tool execution failed. Retry with correct inputs.";
-                }
-                executionResult = {
-                    llmResponse,
-                    'error: output,
-                    observation: observation.toString()
-                };
-            } else {
-                anydata|error value = output.value;
-                observation = value is error ? value.toString() : value;
-                executionResult = {
-                    tool: parseLlmResponse,
-                    observation: value
-                };
-            }
-        } else {
-            observation = "Tool extraction failed due to invalid JSON_BLOB. Retry with correct JSON_BLOB.";
-            executionResult = {
-                llmResponse,
-                'error: parseLlmResponse,
-                observation: observation.toString()
-            };
+            int? spanId = isTracingEnabled
+                ? startSpan(AGENT_TOOL_SPAN, {[TOOL_TAG]: parseLlmResponse.name}, self.iterationSpanId) : ();
+            decimal startTime = time:monotonicNow();
+            output = self.agent.toolStore.execute(parseLlmResponse, self.budget.getToolDeadline());
+            self.budget.addToolTime(time:monotonicNow() - startTime);
+            self.budget.recordToolCall(parseLlmResponse);
+            finishSpan(spanId);
         }
+        [ExecutionResult|ExecutionError, anydata] [executionResult, observation] =
+            getExecutionResult(llmResponse, parseLlmResponse, output, usage);
+        self.recordExecutionResult(executionResult);
         self.update({
             llmResponse,
-            observation
+            observation,
+            parsedLlmResponse: parseLlmResponse
         });
         return executionResult;
     }
 
+    private isolated function actInParallel(json[] llmResponses) returns ExecutionResult|ExecutionError {
+        TokenUsage? usage = self.lastUsage;
+        self.lastUsage = ();
+        (LlmToolResponse|LlmChatResponse|LlmInvalidGenerationError)[] parsedResponses = [];
+        LlmToolResponse[] tools = [];
+        foreach json llmResponse in llmResponses {
+            LlmToolResponse|LlmChatResponse|LlmInvalidGenerationError parsedResponse = self.parseLlmResponse(llmResponse);
+            if parsedResponse is LlmChatResponse {
+                parsedResponse = error LlmInvalidGenerationError("Chat response is given along with tool calls",
+                    llmResponse = llmResponse);
+            }
+            if parsedResponse is LlmToolResponse {
+                tools.push(parsedResponse);
+            }
+            parsedResponses.push(parsedResponse);
+        }
+
+        int? spanId = isTracingEnabled ? startSpan(AGENT_TOOL_SPAN,
+            {[TOOL_TAG]: string:'join(",", ...from LlmToolResponse tool in tools select tool.name)},
+            self.iterationSpanId) : ();
+        decimal startTime = time:monotonicNow();
+        (ToolOutput|LlmInvalidGenerationError|ToolExecutionError)[] outputs = self.agent.toolStore.executeAll(
+            tools, self.maxParallelToolCalls, self.budget.getToolDeadline());
+        self.budget.addToolTime(time:monotonicNow() - startTime);
+        foreach LlmToolResponse tool in tools {
+            self.budget.recordToolCall(tool);
+        }
+        finishSpan(spanId);
+        (ExecutionResult|ExecutionError)[] executionResults = [];
+        anydata[] observations = [];
+        int outputIndex = 0;
+        foreach int i in 0 ..< llmResponses.length() {
+            LlmToolResponse|LlmChatResponse|LlmInvalidGenerationError parsedResponse = parsedResponses[i];
+            ToolOutput|LlmInvalidGenerationError|ToolExecutionError? output = ();
+            if parsedResponse is LlmToolResponse {
+                output = outputs[outputIndex];
+                outputIndex += 1;
+            }
+            [ExecutionResult|ExecutionError, anydata] [executionResult, observation] =
+                getExecutionResult(llmResponses[i], parsedResponse, output, i == 0 ? usage : ());
+            self.recordExecutionResult(executionResult);
+            executionResults.push(executionResult);
+            observations.push(observation);
+        }
+        self.update({
+            llmResponse: llmResponses,
+            observation: observations
+        });
+        self.pendingResults = executionResults.slice(1);
+        return executionResults[0];
+    }
+
+    private isolated function parseLlmResponse(json llmResponse)
+            returns LlmToolResponse|LlmChatResponse|LlmInvalidGenerationError {
+        decimal? startTime = startTimer();
+        LlmToolResponse|LlmChatResponse|LlmInvalidGenerationError parsedResponse =
+            self.agent.parseLlmResponse(llmResponse);
+        recordDuration(AGENT_PARSE_TIME_METRIC, startTime, self.metricTags);
+        return parsedResponse;
+    }
+
+    private isolated function recordExecutionResult(ExecutionResult|ExecutionError executionResult) {
+        if !isMetricsEnabled {
+            return;
+        }
+        if executionResult is ExecutionResult {
+            if executionResult.observation is error {
+                incrementCounter(AGENT_TOOL_ERRORS_METRIC, {...self.metricTags, [TOOL_TAG]: executionResult.tool.name});
+            }
+            return;
+        }
+        LlmInvalidGenerationError|ToolExecutionError|MemoryError|ExecutionBudgetExceededError executionError =
+            executionResult.'error;
+        if executionError is LlmInvalidGenerationError {
+            incrementCounter(AGENT_INVALID_GENERATIONS_METRIC, self.metricTags);
+        } else if executionError is ToolExecutionError {
+            map<string> tags = {...self.metricTags};
+            string|error toolName = executionError.detail()["toolName"].ensureType();
+            if toolName is string {
+                tags[TOOL_TAG] = toolName;
+            }
+            incrementCounter(AGENT_TOOL_ERRORS_METRIC, tags);
+        }
+    }
+
     # Update the agent with an execution step.
     #
     # + step - Latest step to be added to the history
@@ -219,14 +477,42 @@ public class Executor {
     #
     # + return - A record with ExecutionResult, chat response or an error 
     public isolated function next() returns record {|ExecutionResult|LlmChatResponse|ExecutionError|Error value;|}? {
+        // The execution is stopped once the consumer of its events closes the stream of the events
+        EventQueue? eventQueue = self.eventQueue;
+        if eventQueue is EventQueue && eventQueue.isClosed() {
+            self.isCompleted = true;
+            self.pendingResults = [];
+            return ();
+        }
+        if self.pendingResults.length() > 0 {
+            return {value: self.pendingResults.shift()};
+        }
         if self.isCompleted {
             return ();
         }
+        // The execution is terminated before reasoning again, once its budget is exhausted
+        ExecutionBudgetExceededError? budgetError = self.budget.validate(self.tokenUsage);
+        if budgetError is ExecutionBudgetExceededError {
+            self.isCompleted = true;
+            return {value: budgetError};
+        }
+        incrementCounter(AGENT_ITERATIONS_METRIC, self.metricTags);
+        int? spanId = startSpan(AGENT_ITERATION_SPAN, self.metricTags);
+        self.iterationSpanId = spanId;
         json|TaskCompletedError|LlmError llmResponse = self.reason();
-        if llmResponse is error {
-            return {value: llmResponse};
+        ExecutionResult|LlmChatResponse|ExecutionError|Error value =
+            llmResponse is error ? llmResponse : self.act(llmResponse);
+        if llmResponse is LlmError {
+            // The model is not waited for after the deadline of the execution
+            budgetError = self.budget.validate(self.tokenUsage);
+            if budgetError is ExecutionBudgetExceededError {
+                self.isCompleted = true;
+                value = budgetError;
+            }
         }
-        return {value: self.act(llmResponse)};
+        self.iterationSpanId = ();
+        finishSpan(spanId);
+        return {value};
     }
 }
 
@@ -238,69 +524,121 @@ public class Executor {
 # + context - Context values to be used by the agent to execute the task
 # + verbose - If true, then print the reasoning steps (default: true)
 # + sessionId - The ID associated with the memory
-# + return - Returns the execution steps tracing the agent's reasoning and outputs from the tools
+# + return - Returns the execution steps tracing the agent's reasoning and outputs from the tools. If the execution
+# is terminated early as its budget is exceeded, the last step has the `ExecutionBudgetExceededError`
 public isolated function run(BaseAgent agent, string query, int maxIter, string|map<json> context, boolean verbose,
         string sessionId = DEFAULT_SESSION_ID) returns record {|(ExecutionResult|ExecutionError)[] steps; string answer?;|} {
-    lock {
-        (ExecutionResult|ExecutionError)[] steps = [];
-
-        string? content = ();
-        Iterator iterator = new (agent, sessionId, query = query, context = context);
-        int iter = 0;
-        ChatSystemMessage reactSystemMessage = agent is ReActAgent
-            ? {role: SYSTEM, content: string `${agent.instructionPrompt} You can use these information if needed: ${context.toString()}`}
-            : {role: SYSTEM, content: context.toString()};
-        updateMemory(agent.memory, sessionId, reactSystemMessage);
-
-        ChatUserMessage userMessage = {role: USER, content: query};
-        updateMemory(agent.memory, sessionId, userMessage);
-
-        ChatMessage[] temporaryMemory = [];
-        foreach ExecutionResult|LlmChatResponse|ExecutionError|Error step in iterator {
-            if iter == maxIter {
-                break;
+    AgentExecution execution = runWithEvents(agent, query, maxIter, context, verbose, sessionId, ());
+    (ExecutionResult|ExecutionError)[] steps = execution.steps;
+    ExecutionBudgetExceededError? budgetError = execution.budgetError;
+    if budgetError is ExecutionBudgetExceededError {
+        steps.push({llmResponse: (), 'error: budgetError, observation: budgetError.message()});
+    }
+    return {steps, answer: execution.answer};
+}
+
+// Outcome of an execution of the agent, along with the error terminating the execution early, if any.
+type AgentExecution record {|
+    (ExecutionResult|ExecutionError)[] steps;
+    string answer?;
+    ExecutionBudgetExceededError? budgetError = ();
+|};
+
+isolated function runWithEvents(BaseAgent agent, string query, int maxIter, string|map<json> context,
+        boolean verbose, string sessionId, EventQueue? eventQueue) returns AgentExecution {
+    // Executions are serialized per session of a memory so that the memory of a session is updated in order, even
+    // by different agents sharing the memory, while executions of different sessions run concurrently.
+    Memory memory = agent.memory;
+    acquireSessionLock(memory, sessionId);
+    AgentExecution|error result = trap runInSession(agent, query, maxIter, context, verbose, sessionId, eventQueue);
+    error? released = releaseSessionLock(memory, sessionId);
+    if released is error {
+        panic released;
+    }
+    if result is error {
+        panic result;
+    }
+    return result;
+}
+
+isolated function runInSession(BaseAgent agent, string query, int maxIter, string|map<json> context, boolean verbose,
+        string sessionId, EventQueue? eventQueue) returns AgentExecution {
+    (ExecutionResult|ExecutionError)[] steps = [];
+    ExecutionBudgetExceededError? budgetError = ();
+
+    string? content = ();
+    Iterator iterator = new (agent, sessionId, query = query, context = context);
+    if eventQueue is EventQueue {
+        iterator.setEventQueue(eventQueue);
+    }
+    int iter = 0;
+    ChatSystemMessage reactSystemMessage = agent is ReActAgent
+        ? {role: SYSTEM, content: string `${agent.instructionPrompt} You can use these information if needed: ${context.toString()}`}
+        : {role: SYSTEM, content: context.toString()};
+    updateMemory(agent.memory, sessionId, reactSystemMessage);
+
+    ChatUserMessage userMessage = {role: USER, content: query};
+    updateMemory(agent.memory, sessionId, userMessage);
+
+    ChatMessage[] temporaryMemory = [];
+    // The results of the tools called in parallel by a single response of the model belong to the same iteration
+    boolean isPendingResult = false;
+    foreach ExecutionResult|LlmChatResponse|ExecutionError|Error step in iterator {
+        if !isPendingResult && iter == maxIter {
+            incrementCounter(AGENT_MAX_ITERATIONS_EXCEEDED_METRIC, {[AGENT_TAG]: getAgentType(agent)});
+            break;
+        }
+        if step is ExecutionBudgetExceededError {
+            log:printWarn("Agent execution is terminated early", step);
+            budgetError = step;
+            break;
+        }
+        if step is Error {
+            error? cause = step.cause();
+            log:printError("Error occured while executing the agent", step, cause = cause !is () ? cause.toString() : "");
+            break;
+        }
+        if step is LlmChatResponse {
+            content = step.content;
+            if eventQueue is EventQueue {
+                eventQueue.put({'type: FINAL_ANSWER, content: step.content});
             }
-            if step is Error {
-                error? cause = step.cause();
-                log:printError("Error occured while executing the agent", step, cause = cause !is () ? cause.toString() : "");
-                break;
+            if verbose {
+                io:println(string `${"\n\n"}Final Answer: ${step.content}${"\n\n"}`);
             }
-            if step is LlmChatResponse {
-                content = step.content;
-                if verbose {
-                    io:println(string `${"\n\n"}Final Answer: ${step.content}${"\n\n"}`);
-                }
-                if agent is ReActAgent {
-                    json finalAnswer = {action: "Final Answer", action_input: step.content};
-                    ChatAssistantMessage assistantMessage = {role: ASSISTANT, content: string `${BACKTICKS}${finalAnswer.toJsonString()}${BACKTICKS}\"`};
-                    temporaryMemory.push(assistantMessage);
-                    break;
-                }
-                ChatAssistantMessage assistantMessage = {role: "assistant", content: step.content};
+            if agent is ReActAgent {
+                json finalAnswer = {action: "Final Answer", action_input: step.content};
+                ChatAssistantMessage assistantMessage = {role: ASSISTANT, content: string `${BACKTICKS}${finalAnswer.toJsonString()}${BACKTICKS}\"`};
                 temporaryMemory.push(assistantMessage);
                 break;
             }
+            ChatAssistantMessage assistantMessage = {role: "assistant", content: step.content};
+            temporaryMemory.push(assistantMessage);
+            break;
+        }
+        if !isPendingResult {
             iter += 1;
-            if verbose {
-                io:println(string `${"\n\n"}Agent Iteration ${iter.toString()}`);
-                if step is ExecutionResult {
-                    LlmToolResponse tool = step.tool;
-                    io:println(string `Action:
+        }
+        if verbose {
+            io:println(string `${"\n\n"}Agent Iteration ${iter.toString()}`);
+            if step is ExecutionResult {
+                LlmToolResponse tool = step.tool;
+                io:println(string `Action:
     ${BACKTICKS}
     {
         ${ACTION_NAME_KEY}: ${tool.name},
         ${ACTION_ARGUEMENTS_KEY}: ${(tool.arguments ?: "None").toString()}
     }
     ${BACKTICKS}`);
-                    anydata|error observation = step?.observation;
-                    if observation is error {
-                        io:println(string `${OBSERVATION_KEY} (Error): ${observation.toString()}`);
-                    } else if observation !is () {
-                        io:println(string `${OBSERVATION_KEY}: ${observation.toString()}`);
-                    }
-                } else {
-                    error? cause = step.'error.cause();
-                    io:println(string `LLM Generation Error: 
+                anydata|error observation = step?.observation;
+                if observation is error {
+                    io:println(string `${OBSERVATION_KEY} (Error): ${observation.toString()}`);
+                } else if observation !is () {
+                    io:println(string `${OBSERVATION_KEY}: ${observation.toString()}`);
+                }
+            } else {
+                error? cause = step.'error.cause();
+                io:println(string `LLM Generation Error: 
     ${BACKTICKS}
     {
         message: ${step.'error.message()},
@@ -308,23 +646,87 @@ public isolated function run(BaseAgent agent, string query, int maxIter, string|
         llmResponse: ${step.llmResponse.toString()}
     }
     ${BACKTICKS}`);
-                }
             }
-            updateExecutionResultInMemory(step, temporaryMemory);
-            steps.push(step);
         }
-
-        foreach ChatMessage message in temporaryMemory {
-            updateMemory(agent.memory, sessionId, message);
+        if eventQueue is EventQueue {
+            eventQueue.put(getToolResultEvent(step));
         }
+        updateExecutionResultInMemory(step, temporaryMemory);
+        steps.push(step);
+        isPendingResult = iterator.hasPendingResults();
+    }
+
+    foreach ChatMessage message in temporaryMemory {
+        updateMemory(agent.memory, sessionId, message);
+    }
+
+    SessionTokenUsage? sessionTokenUsage = getSessionTokenUsage(agent);
+    if sessionTokenUsage is SessionTokenUsage {
+        sessionTokenUsage.add(sessionId, iterator.getTokenUsage());
+    }
 
-        if agent.stateless {
-            MemoryError? err = agent.memory.delete(sessionId);
-            // Ignore this error since the stateless agent always relies on DefaultMessageWindowChatMemoryManager,  
-            // which never return an error.
+    if agent.stateless {
+        MemoryError? err = agent.memory.delete(sessionId);
+        // Ignore this error since the stateless agent always relies on DefaultMessageWindowChatMemoryManager,  
+        // which never return an error.
+    }
+    return {steps, answer: content, budgetError};
+}
+
+isolated function getExecutionResult(json llmResponse,
+        LlmToolResponse|LlmChatResponse|LlmInvalidGenerationError parsedResponse,
+        ToolOutput|LlmInvalidGenerationError|ToolExecutionError? output, TokenUsage? usage = ())
+        returns [ExecutionResult|ExecutionError, anydata] {
+    if parsedResponse is LlmToolResponse && output is ToolOutput {
+        anydata|error value = output.value;
+        ExecutionResult executionResult = {tool: parsedResponse, observation: value};
+        if usage is TokenUsage {
+            executionResult.usage = usage;
+        }
+        return [executionResult, value is error ? value.toString() : value];
+    }
+    string observation;
+    LlmInvalidGenerationError|ToolExecutionError executionError;
+    if output is Error {
+        if output is ToolNotFoundError {
+            observation = "Tool is not found. Please check the tool name and retry.";
+        } else if output is ToolUnavailableError {
+            observation = "Tool is temporarily unavailable. Use another tool or answer without using it.";
+        } else if output is ToolInvalidInputError {
+            observation = "Tool execution failed due to invalid inputs. Retry with correct inputs.";
+        } else {
+            observation = "Tool execution failed. Retry with correct inputs.";
         }
-        return {steps, answer: content};
+        executionError = output;
+    } else {
+        observation = "Tool extraction failed due to invalid JSON_BLOB. Retry with correct JSON_BLOB.";
+        executionError = parsedResponse is LlmInvalidGenerationError ? parsedResponse
+            : error LlmInvalidGenerationError("Unable to extract the tool from the LLM response", llmResponse = llmResponse);
+    }
+    ExecutionError executionResult = {llmResponse, 'error: executionError, observation};
+    if usage is TokenUsage {
+        executionResult.usage = usage;
+    }
+    return [executionResult, observation];
+}
+
+isolated function getToolResultEvent(ExecutionResult|ExecutionError step) returns readonly & ToolResultEvent {
+    if step is ExecutionResult {
+        LlmToolResponse tool = step.tool;
+        return {name: tool.name, id: tool.id, observation: getObservationString(step.observation)};
+    }
+    json llmResponse = step.llmResponse;
+    if llmResponse is map<json> {
+        json name = llmResponse["name"];
+        json id = llmResponse["id"];
+        return {
+            name: name is string ? name : (),
+            id: id is string ? id : (),
+            observation: step.observation,
+            isError: true
+        };
     }
+    return {observation: step.observation, isError: true};
 }
 
 isolated function getObservationString(anydata|error observation) returns string {
@@ -351,7 +753,9 @@ isolated function getObservationString(anydata|error observation) returns string
 public isolated function getTools(BaseAgent agent) returns Tool[] => agent.toolStore.tools.toArray();
 
 public isolated function updateMemory(Memory memory, string sessionId, ChatMessage message) {
+    decimal? startTime = startTimer();
     error? updationStation = memory.update(sessionId, message);
+    recordDuration(AGENT_MEMORY_UPDATE_TIME_METRIC, startTime);
     if (updationStation is error) {
         log:printError("Error occured while updating the memory", updationStation);
     }
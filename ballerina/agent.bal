@@ -67,6 +67,15 @@ public type AgentConfiguration record {|
     # The memory used by the agent to store and manage conversation history
     @display {label: "Memory"}
     Memory? memory = new MessageWindowChatMemory();
+
+    # The maximum number of tool calls executed in parallel when the model requests multiple tools at once
+    @display {label: "Maximum Parallel Tool Calls"}
+    int maxParallelToolCalls = DEFAULT_MAX_PARALLEL_TOOL_CALLS;
+
+    # The limits of the resources used by an execution, such as the time and the tokens, which terminate the
+    # execution early once exceeded
+    @display {label: "Execution Budget"}
+    ExecutionBudget budget = {};
 |};
 
 # Represents an agent.
@@ -83,8 +92,10 @@ public isolated distinct client class Agent {
         self.maxIter = config.maxIter;
         self.verbose = config.verbose;
         self.systemPrompt = config.systemPrompt.cloneReadOnly();
-        self.agent = config.agentType is REACT_AGENT ? check new ReActAgent(config.model, config.tools, config.memory)
-            : check new FunctionCallAgent(config.model, config.tools, config.memory);
+        self.agent = config.agentType is REACT_AGENT
+            ? check new ReActAgent(config.model, config.tools, config.memory, config.budget)
+            : check new FunctionCallAgent(config.model, config.tools, config.memory, config.maxParallelToolCalls,
+                config.budget);
     }
 
     # Executes the agent for a given user query.
@@ -93,12 +104,46 @@ public isolated distinct client class Agent {
     # + sessionId - The ID associated with the agent memory
     # + return - The agent's response or an error
     isolated remote function run(@display {label: "Query"} string query, @display {label: "Session ID"} string sessionId = DEFAULT_SESSION_ID) returns string|Error {
-        var result = self.agent->run(query, self.maxIter, getFomatedSystemPrompt(self.systemPrompt), self.verbose, sessionId);
+        AgentExecution result = runWithEvents(self.agent, query, self.maxIter,
+            getFomatedSystemPrompt(self.systemPrompt), self.verbose, sessionId, ());
         string? answer = result.answer;
         if answer is string {
             return answer;
         }
-        return constructError(result.steps, self.maxIter);
+        return result.budgetError ?: constructError(result.steps, self.maxIter);
+    }
+
+    # Retrieves the tokens used by the model in the executions of a session.
+    #
+    # + sessionId - The ID associated with the agent memory
+    # + return - Aggregated token usage of the session
+    public isolated function getTokenUsage(string sessionId = DEFAULT_SESSION_ID) returns TokenUsage {
+        SessionTokenUsage? sessionTokenUsage = getSessionTokenUsage(self.agent);
+        return sessionTokenUsage is SessionTokenUsage ? sessionTokenUsage.get(sessionId) : {};
+    }
+
+    # Executes the agent for a given user query and streams the events of the execution as they occur.
+    # The response of the model is streamed as it is generated when the model is a `StreamingModelProvider`.
+    #
+    # + query - The natural language input provided to the agent
+    # + sessionId - The ID associated with the agent memory
+    # + return - A stream of the execution events, which completes with an error if the agent fails
+    isolated remote function runStream(@display {label: "Query"} string query,
+            @display {label: "Session ID"} string sessionId = DEFAULT_SESSION_ID) returns stream<AgentEvent, Error?> {
+        EventQueue eventQueue = new;
+        _ = start self.executeWithEvents(query, sessionId, eventQueue);
+        return new (new AgentEventStream(eventQueue));
+    }
+
+    private isolated function executeWithEvents(string query, string sessionId, EventQueue eventQueue) {
+        AgentExecution|error result = trap runWithEvents(self.agent, query, self.maxIter,
+            getFomatedSystemPrompt(self.systemPrompt), self.verbose, sessionId, eventQueue);
+        if result is error {
+            eventQueue.put(error Error("Agent execution failed", result));
+            return;
+        }
+        eventQueue.put(result.answer is string ? ()
+            : result.budgetError ?: constructError(result.steps, self.maxIter));
     }
 }
 
@@ -0,0 +1,276 @@
+// Copyright (c) 2025 WSO2 LLC (http://www.wso2.com).
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/log;
+import ballerina/time;
+
+# Configurations of the responses cached by a `CachedModelProvider`.
+public type ModelCacheConfig record {|
+    # The maximum number of responses cached in memory
+    int capacity = DEFAULT_MODEL_CACHE_CAPACITY;
+    # The time in seconds for which a cached response is returned
+    decimal ttl = DEFAULT_MODEL_CACHE_TTL;
+    # The directory in which the responses are also cached on disk, so that they survive restarts.
+    # If not provided, the responses are cached only in memory
+    string? directory = ();
+    # Whether the whitespace of the messages is trimmed and collapsed when matching the cached responses
+    boolean normalizeWhitespace = false;
+|};
+
+# Represents the usage statistics of a model response cache.
+public type ModelCacheStats record {|
+    # Number of responses currently cached in memory
+    int cachedResponseCount;
+    # Number of requests served from the responses cached in memory
+    int cacheHitCount;
+    # Number of requests served from the responses cached on disk
+    int diskCacheHitCount;
+    # Number of requests sent to the model, since no cached response is found
+    int cacheMissCount;
+    # Number of responses evicted from memory as the least recently used response
+    int evictedResponseCount;
+    # Number of responses removed from memory after they expired
+    int expiredResponseCount;
+|};
+
+type CachedModelResponse record {|
+    readonly & ChatAssistantMessage response;
+    decimal expiresAt;
+    // Neighbours of the response in the least recently used order
+    string? previous = ();
+    string? next = ();
+|};
+
+# Caches the responses of a model, so that repeated requests are not sent to the model again.
+# The responses are looked up by a hash of the model identifier, the parameters of the model affecting its responses,
+# such as the model name and the temperature, the messages, the tools and the stop sequence.
+# Recently used responses are cached in memory and, if a directory is configured, on disk as well.
+# Since a cached response is returned for a repeated request, the cache suits deterministic calls,
+# such as calls made with a temperature of zero.
+public isolated client class CachedModelProvider {
+    *ModelProvider;
+    private final ModelProvider model;
+    private final string modelId;
+    private final readonly & map<json> generationParameters;
+    private final int capacity;
+    private final decimal ttl;
+    private final string? directory;
+    private final boolean normalizeWhitespace;
+    private final map<CachedModelResponse> responses = {};
+    private string? leastRecentlyUsed = ();
+    private string? mostRecentlyUsed = ();
+    private final ModelCacheStats stats = {cachedResponseCount: 0, cacheHitCount: 0, diskCacheHitCount: 0,
+        cacheMissCount: 0, evictedResponseCount: 0, expiredResponseCount: 0};
+
+    # Initializes the cache of the responses of a model.
+    #
+    # + model - The model of which the responses are cached
+    # + modelId - Identifies the model. The parameters of the built-in model providers affecting their responses,
+    # such as the model name and the temperature, are identified as well, and need to be included in the identifier
+    # only for other models. The responses cached on disk for a model identifier are never returned for another
+    # + config - Configurations of the cached responses
+    public isolated function init(ModelProvider model, string modelId, *ModelCacheConfig config) {
+        self.model = model;
+        self.modelId = modelId;
+        self.generationParameters = getGenerationParameters(model);
+        self.capacity = int:max(1, config.capacity);
+        self.ttl = config.ttl;
+        self.directory = config.directory;
+        self.normalizeWhitespace = config.normalizeWhitespace;
+    }
+
+    # Returns the cached response for the request, or sends the request to the model and caches its response.
+    #
+    # + messages - List of chat messages
+    # + tools - Tool definitions to be used for the tool call
+    # + stop - Stop sequence to stop the completion
+    # + return - Function to be called, chat response or an error in-case of failures
+    isolated remote function chat(ChatMessage[] messages, ChatCompletionFunctions[] tools = [], string? stop = ())
+        returns ChatAssistantMessage|LlmError {
+        string key = getCanonicalJsonKey({
+            model: self.modelId,
+            parameters: self.generationParameters,
+            messages,
+            tools,
+            stop
+        }, self.normalizeWhitespace);
+        ChatAssistantMessage? cachedResponse = self.getCachedResponse(key);
+        if cachedResponse is ChatAssistantMessage {
+            ChatAssistantMessage response = cachedResponse.clone();
+            // No tokens are used by a response returned from the cache
+            _ = response.removeIfHasKey("usage");
+            return response;
+        }
+        ChatAssistantMessage response = check self.model->chat(messages, tools, stop);
+        readonly & ChatAssistantMessage readonlyResponse = response.cloneReadOnly();
+        self.put(key, readonlyResponse);
+        string? directory = self.directory;
+        if directory is string {
+            error? result = writeCachedModelResponse(directory, key, readonlyResponse.toJsonString());
+            if result is error {
+                log:printWarn("Failed to cache the response of the model on disk", result);
+            }
+        }
+        return response;
+    }
+
+    # Retrieves the usage statistics of the cache.
+    #
+    # + return - Statistics of the cached responses
+    public isolated function getStats() returns ModelCacheStats {
+        lock {
+            self.stats.cachedResponseCount = self.responses.length();
+            return self.stats.clone();
+        }
+    }
+
+    # Removes all the responses cached in memory. The responses cached on disk are retained until they expire.
+    public isolated function clear() {
+        lock {
+            self.responses.removeAll();
+            self.leastRecentlyUsed = ();
+            self.mostRecentlyUsed = ();
+        }
+    }
+
+    isolated function getModel() returns ModelProvider => self.model;
+
+    private isolated function getCachedResponse(string key) returns ChatAssistantMessage? {
+        lock {
+            CachedModelResponse? entry = self.responses[key];
+            if entry is CachedModelResponse {
+                if time:monotonicNow() < entry.expiresAt {
+                    self.unlink(key);
+                    self.linkAsMostRecentlyUsed(key);
+                    self.stats.cacheHitCount += 1;
+                    return entry.response;
+                }
+                self.remove(key);
+                self.stats.expiredResponseCount += 1;
+            }
+        }
+
+        ChatAssistantMessage? diskResponse = self.readFromDisk(key);
+        if diskResponse is () {
+            lock {
+                self.stats.cacheMissCount += 1;
+            }
+            return ();
+        }
+        lock {
+            self.stats.diskCacheHitCount += 1;
+        }
+        readonly & ChatAssistantMessage readonlyResponse = diskResponse.cloneReadOnly();
+        self.put(key, readonlyResponse);
+        return readonlyResponse;
+    }
+
+    private isolated function readFromDisk(string key) returns ChatAssistantMessage? {
+        string? directory = self.directory;
+        if directory is () {
+            return ();
+        }
+        string|error? cachedResponse = readCachedModelResponse(directory, key, <int>(self.ttl * 1000));
+        if cachedResponse is error {
+            log:printWarn("Failed to read the response of the model cached on disk", cachedResponse);
+            return ();
+        }
+        if cachedResponse is () {
+            return ();
+        }
+        ChatAssistantMessage|error response = cachedResponse.fromJsonStringWithType();
+        if response is error {
+            log:printWarn("Invalid response of the model is cached on disk", response, key = key);
+            return ();
+        }
+        return response;
+    }
+
+    private isolated function put(string key, readonly & ChatAssistantMessage response) {
+        lock {
+            if self.responses.hasKey(key) {
+                self.remove(key);
+            }
+            self.responses[key] = {response, expiresAt: time:monotonicNow() + self.ttl};
+            self.linkAsMostRecentlyUsed(key);
+            string? leastRecentlyUsed = self.leastRecentlyUsed;
+            while leastRecentlyUsed is string && self.responses.length() > self.capacity {
+                self.remove(leastRecentlyUsed);
+                self.stats.evictedResponseCount += 1;
+                leastRecentlyUsed = self.leastRecentlyUsed;
+            }
+        }
+    }
+
+    private isolated function remove(string key) {
+        lock {
+            self.unlink(key);
+            _ = self.responses.remove(key);
+        }
+    }
+
+    private isolated function unlink(string key) {
+        lock {
+            CachedModelResponse entry = self.responses.get(key);
+            string? previous = entry.previous;
+            string? next = entry.next;
+            if previous is string {
+                self.responses.get(previous).next = next;
+            } else {
+                self.leastRecentlyUsed = next;
+            }
+            if next is string {
+                self.responses.get(next).previous = previous;
+            } else {
+                self.mostRecentlyUsed = previous;
+            }
+            entry.previous = ();
+            entry.next = ();
+        }
+    }
+
+    private isolated function linkAsMostRecentlyUsed(string key) {
+        lock {
+            CachedModelResponse entry = self.responses.get(key);
+            string? mostRecentlyUsed = self.mostRecentlyUsed;
+            entry.previous = mostRecentlyUsed;
+            if mostRecentlyUsed is string {
+                self.responses.get(mostRecentlyUsed).next = key;
+            } else {
+                self.leastRecentlyUsed = key;
+            }
+            self.mostRecentlyUsed = key;
+        }
+    }
+}
+
+type GenerationParameterProvider isolated object {
+    isolated function getGenerationParameters() returns readonly & map<json>;
+};
+
+# Returns the parameters of the model affecting its responses, such as the model name and the temperature.
+#
+# + model - The model provider
+# + return - The parameters of a built-in model provider, or an empty map for other models
+isolated function getGenerationParameters(ModelProvider model) returns readonly & map<json> {
+    if model is CachedModelProvider {
+        return getGenerationParameters(model.getModel());
+    }
+    if model is GenerationParameterProvider {
+        return model.getGenerationParameters();
+    }
+    return {};
+}
@@ -0,0 +1,100 @@
+// Copyright (c) 2025 WSO2 LLC (http://www.wso2.com).
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/time;
+
+type CircuitBreakerState record {|
+    CircuitBreakerConfig & readonly config;
+    int failureCount = 0;
+    // The time at which the circuit breaker is opened, if it is open
+    decimal? openedAt = ();
+    boolean isTrialInProgress = false;
+|};
+
+// Tracks the consecutive failures of the tools, and rejects the executions of a tool while its circuit breaker is
+// open. Once the reset time passes, a single trial execution is allowed, which closes the circuit breaker if it
+// succeeds and opens it again if it fails.
+isolated class CircuitBreakers {
+    private final map<CircuitBreakerState> tools = {};
+
+    isolated function init(map<CircuitBreakerConfig> & readonly configs) {
+        lock {
+            foreach [string, CircuitBreakerConfig & readonly] [name, config] in configs.entries() {
+                self.tools[name] = {config};
+            }
+        }
+    }
+
+    // Returns whether the tool can be executed. An execution allowed as a trial must be followed by a call to
+    // `recordExecution` or `cancelExecution`.
+    isolated function allowExecution(string toolName) returns boolean {
+        lock {
+            CircuitBreakerState? tool = self.tools[toolName];
+            if tool is () {
+                return true;
+            }
+            decimal? openedAt = tool.openedAt;
+            if openedAt is () {
+                return true;
+            }
+            if tool.isTrialInProgress || time:monotonicNow() < openedAt + tool.config.resetTime {
+                return false;
+            }
+            tool.isTrialInProgress = true;
+            return true;
+        }
+    }
+
+    // Releases the trial of the tool, when the allowed execution requested at the given time is not performed.
+    isolated function cancelExecution(string toolName, decimal requestedAt) {
+        lock {
+            CircuitBreakerState? tool = self.tools[toolName];
+            if tool is CircuitBreakerState && !isRequestedBeforeOpened(tool, requestedAt) {
+                tool.isTrialInProgress = false;
+            }
+        }
+    }
+
+    // Records the outcome of an execution of the tool requested at the given time, and returns `true` if the circuit
+    // breaker is opened by it. The outcomes of the executions requested before the circuit breaker is opened are
+    // ignored, as they do not tell whether the tool has recovered.
+    isolated function recordExecution(string toolName, boolean isFailure, decimal requestedAt) returns boolean {
+        lock {
+            CircuitBreakerState? tool = self.tools[toolName];
+            if tool is () || isRequestedBeforeOpened(tool, requestedAt) {
+                return false;
+            }
+            boolean isTrial = tool.isTrialInProgress;
+            tool.isTrialInProgress = false;
+            if !isFailure {
+                tool.failureCount = 0;
+                tool.openedAt = ();
+                return false;
+            }
+            tool.failureCount += 1;
+            if isTrial || (tool.openedAt is () && tool.failureCount >= tool.config.failureThreshold) {
+                tool.openedAt = time:monotonicNow();
+                return true;
+            }
+            return false;
+        }
+    }
+}
+
+isolated function isRequestedBeforeOpened(CircuitBreakerState tool, decimal requestedAt) returns boolean {
+    decimal? openedAt = tool.openedAt;
+    return openedAt is decimal && requestedAt < openedAt;
+}
@@ -41,13 +41,90 @@ const DEEPSEEK_SERVICE_URL = "https://api.deepseek.com";
 const THOUGHT_KEY = "Thought:";
 const BACKTICKS = "```";
 const DEFAULT_SESSION_ID = "sessionId";
+const DEFAULT_MAX_PARALLEL_TOOL_CALLS = 5;
+// Maximum number of sessions of which the token usage is tracked by an agent
+const DEFAULT_MAX_TOKEN_USAGE_SESSIONS = 10000;
+
+// memory
+const DEFAULT_CHARACTERS_PER_TOKEN = 4;
+const DEFAULT_MAX_MEMORY_TOKENS = 4000;
+// Tokens used by the model to frame each message
+const MESSAGE_TOKEN_OVERHEAD = 4;
+const TOKEN_WINDOW_COMPACTION_THRESHOLD = 32;
+// Kinds of the records written to the memory log
+const SYSTEM_MESSAGE_RECORD = "S";
+const MESSAGE_RECORD = "M";
+const DELETE_RECORD = "D";
+const DEFAULT_MEMORY_FLUSH_INTERVAL = 0.1d;
+const DEFAULT_MEMORY_MAX_BATCH_SIZE = 256;
+const DEFAULT_MAX_CACHED_SESSIONS = 1000;
+
+// model cache
+const DEFAULT_MODEL_CACHE_CAPACITY = 1000;
+const DEFAULT_MODEL_CACHE_TTL = 3600d;
+
+// tool result cache
+const DEFAULT_TOOL_CACHE_CAPACITY = 100;
+const DEFAULT_TOOL_CACHE_TTL = 300d;
+
+// tool resilience
+const DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD = 5;
+const DEFAULT_CIRCUIT_BREAKER_RESET_TIME = 30d;
+const CIRCUIT_BREAKER_REASON = "circuitBreaker";
+const BULKHEAD_REASON = "bulkhead";
+
+// observability
+const AGENT_ITERATION_SPAN = "ai:agent:iteration";
+const AGENT_LLM_SPAN = "ai:agent:llm";
+const AGENT_TOOL_SPAN = "ai:agent:tool";
+const AGENT_ITERATIONS_METRIC = "ai_agent_iterations_total";
+const AGENT_INVALID_GENERATIONS_METRIC = "ai_agent_invalid_generations_total";
+const AGENT_TOOL_ERRORS_METRIC = "ai_agent_tool_errors_total";
+const AGENT_MAX_ITERATIONS_EXCEEDED_METRIC = "ai_agent_max_iterations_exceeded_total";
+const AGENT_LLM_LATENCY_METRIC = "ai_agent_llm_latency_seconds";
+const AGENT_PARSE_TIME_METRIC = "ai_agent_parse_time_seconds";
+const AGENT_TOOL_LATENCY_METRIC = "ai_agent_tool_latency_seconds";
+const AGENT_MEMORY_GET_TIME_METRIC = "ai_agent_memory_get_time_seconds";
+const AGENT_MEMORY_UPDATE_TIME_METRIC = "ai_agent_memory_update_time_seconds";
+const TOOL_CACHE_HITS_METRIC = "ai_agent_tool_cache_hits_total";
+const TOOL_CACHE_MISSES_METRIC = "ai_agent_tool_cache_misses_total";
+const TOOL_REJECTIONS_METRIC = "ai_agent_tool_rejections_total";
+const TOOL_TIMEOUTS_METRIC = "ai_agent_tool_timeouts_total";
+const TOOL_CIRCUIT_BREAKER_TRIPS_METRIC = "ai_agent_tool_circuit_breaker_trips_total";
+const MODEL_PROMPT_TOKENS_METRIC = "ai_model_prompt_tokens";
+const MODEL_COMPLETION_TOKENS_METRIC = "ai_model_completion_tokens";
+const AGENT_TAG = "agent";
+const TOOL_TAG = "tool";
+const PROVIDER_TAG = "provider";
+const REASON_TAG = "reason";
+const OPENAI_PROVIDER = "OpenAI";
+const AZURE_OPENAI_PROVIDER = "AzureOpenAI";
+const ANTHROPIC_PROVIDER = "Anthropic";
+const MISTRAL_AI_PROVIDER = "MistralAI";
+const DEEPSEEK_PROVIDER = "Deepseek";
+const OLLAMA_PROVIDER = "Ollama";
+
+// listener
+// Generated name of the `post chat` resource function of the chat services
+const CHAT_RESOURCE_FUNCTION = "$post$chat";
+
+// tool schemas
+const SCHEMA_DEFINITIONS_KEY = "$defs";
+const SCHEMA_REFERENCE_KEY = "$ref";
+const SCHEMA_DEFINITION_REFERENCE_PREFIX = "#/$defs/";
+
+// streaming
+const SSE_DONE_DATA = "[DONE]";
+const SSE_ERROR_EVENT = "error";
+const byte NEW_LINE_BYTE = 10;
+
+// Approximation of the pre-tokenization pattern used by the OpenAI BPE encodings
+final string:RegExp BPE_PRE_TOKENIZER_REGEX = re `'s|'t|'re|'ve|'m|'ll|'d| ?\p{L}+| ?\p{N}{1,3}| ?[^\s\p{L}\p{N}]+|\s+`;
 
 final string:RegExp FINAL_ANSWER_REGEX = re `^final.?answer`;
 
-const ACTION_KEY = "action";
 const ACTION_NAME_KEY = "name";
 const ACTION_ARGUEMENTS_KEY = "arguments";
-final string:RegExp ACTION_INPUT_REGEX = re `^action.?input`;
 const XML_NAMESPACE = "@xmlns";
 const XML_CONTENT = "#content";
 final string:RegExp XML_MEDIA = re `application/.*xml`;
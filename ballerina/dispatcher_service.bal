@@ -15,6 +15,7 @@
 // under the License.
 
 import ballerina/http;
+import ballerina/log;
 
 // Note: DispatcherService class is not used at the moment, can be used in the future.
 service class DispatcherService {
@@ -35,9 +36,15 @@ service class DispatcherService {
 
     private isolated function executeRemoteFunc(ChatReqMessage chatRequest) returns ChatRespMessage|error {
         ChatService? chatService = self.chatService;
-        if chatService is ChatService {
-            return invokeOnChatMessageFunction(chatRequest, "onChatMessage", chatService);
+        if chatService !is ChatService {
+            return error("ChatService is not attached");
         }
-        return error("ChatService is not attached");
+        ChatRespMessage|error response = invokeOnChatMessageFunction(chatRequest, CHAT_RESOURCE_FUNCTION,
+            chatService);
+        if response is error {
+            log:printError("Failed to dispatch the chat message to the chat service", 'error = response,
+                sessionId = chatRequest.sessionId);
+        }
+        return response;
     }
 }
@@ -68,6 +68,10 @@ public type ToolExecutionError distinct Error;
 # Error during unexpected output by the tool
 public type ToolInvalidOutputError distinct ToolExecutionError;
 
+# Errors occurred as the tool is temporarily unavailable, such as when it failed repeatedly or is busy with too many
+# executions.
+public type ToolUnavailableError distinct ToolExecutionError;
+
 # Errors occurred due to invalid tool name generated by the LLM.
 public type ToolNotFoundError distinct LlmInvalidGenerationError;
 
@@ -80,5 +84,9 @@ public type MissingHttpParameterError distinct ToolInvalidInputError;
 # Represents an error that occurs when the maximum number of iterations has been exceeded.
 public type MaxIterationExceededError distinct (Error & error<record{|(ExecutionResult|ExecutionError)[] steps;|}>);
 
+# Represents an error that occurs when the execution of the agent is terminated as a limit of its
+# `ExecutionBudget` has been exceeded.
+public type ExecutionBudgetExceededError distinct Error;
+
 # Represents errors that occur during memory-related operations.  
 public type MemoryError distinct Error;
@@ -0,0 +1,162 @@
+// Copyright (c) 2025 WSO2 LLC (http://www.wso2.com).
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/lang.runtime;
+import ballerina/time;
+
+# Limits the resources used by an execution of the agent. The execution is terminated early with an
+# `ExecutionBudgetExceededError` once a limit is exceeded, before reaching the maximum number of iterations.
+public type ExecutionBudget record {|
+    # The maximum time in seconds for an execution. The model and the tools still being called when the time
+    # is exceeded are cancelled
+    decimal? timeout = ();
+    # The maximum number of input and output tokens used by the model in an execution
+    int? maxTokens = ();
+    # The maximum time in seconds spent on executing the tools in an execution
+    decimal? maxToolTime = ();
+    # The maximum number of times a tool is called with the same arguments in an execution,
+    # after which the execution is considered to be in a loop
+    int? maxRepeatedToolCalls = ();
+|};
+
+// Tracks the resources used by an execution of the agent against its budget.
+class ExecutionBudgetTracker {
+    private final decimal? deadline;
+    private final int? maxTokens;
+    private final decimal? maxToolTime;
+    private final int? maxRepeatedToolCalls;
+    private decimal toolTime = 0;
+    // Number of times each tool is called, by the canonical form of the tool name and the arguments
+    private final map<int> toolCallCounts = {};
+    private string? repeatedToolName = ();
+
+    isolated function init(ExecutionBudget budget) {
+        decimal? timeout = budget.timeout;
+        self.deadline = timeout is decimal ? time:monotonicNow() + timeout : ();
+        self.maxTokens = budget.maxTokens;
+        self.maxToolTime = budget.maxToolTime;
+        self.maxRepeatedToolCalls = budget.maxRepeatedToolCalls;
+    }
+
+    isolated function getDeadline() returns decimal? => self.deadline;
+
+    // Returns the time by which the tools being executed are cancelled, which is the earlier of the deadline of
+    // the execution and the time at which the remaining tool time is exhausted.
+    isolated function getToolDeadline() returns decimal? {
+        decimal? maxToolTime = self.maxToolTime;
+        if maxToolTime is () {
+            return self.deadline;
+        }
+        decimal toolDeadline = time:monotonicNow() + maxToolTime - self.toolTime;
+        decimal? deadline = self.deadline;
+        return deadline is decimal && deadline < toolDeadline ? deadline : toolDeadline;
+    }
+
+    isolated function addToolTime(decimal toolTime) {
+        self.toolTime += toolTime;
+    }
+
+    isolated function recordToolCall(LlmToolResponse tool) {
+        int? maxRepeatedToolCalls = self.maxRepeatedToolCalls;
+        if maxRepeatedToolCalls is () {
+            return;
+        }
+        string key = getCanonicalJsonKey({name: tool.name, arguments: tool.arguments}, false);
+        int count = (self.toolCallCounts[key] ?: 0) + 1;
+        self.toolCallCounts[key] = count;
+        if count >= maxRepeatedToolCalls && self.repeatedToolName is () {
+            self.repeatedToolName = tool.name;
+        }
+    }
+
+    // Returns an error if a limit of the budget is exceeded by the execution.
+    isolated function validate(TokenUsage usage) returns ExecutionBudgetExceededError? {
+        decimal? deadline = self.deadline;
+        if deadline is decimal && time:monotonicNow() >= deadline {
+            return error ExecutionBudgetExceededError("Execution timed out before obtaining the answer.",
+                budget = "timeout");
+        }
+        int? maxTokens = self.maxTokens;
+        int tokens = usage.inputTokens + usage.outputTokens;
+        if maxTokens is int && tokens >= maxTokens {
+            return error ExecutionBudgetExceededError("Token limit of the execution is exceeded.",
+                budget = "maxTokens", tokens = tokens);
+        }
+        decimal? maxToolTime = self.maxToolTime;
+        if maxToolTime is decimal && self.toolTime >= maxToolTime {
+            return error ExecutionBudgetExceededError("Tool time limit of the execution is exceeded.",
+                budget = "maxToolTime", toolTime = self.toolTime);
+        }
+        string? repeatedToolName = self.repeatedToolName;
+        if repeatedToolName is string {
+            return error ExecutionBudgetExceededError("Tool is called repeatedly with the same arguments.",
+                budget = "maxRepeatedToolCalls", toolName = repeatedToolName);
+        }
+        return ();
+    }
+}
+
+isolated function getExecutionBudget(BaseAgent agent) returns readonly & ExecutionBudget {
+    if agent is FunctionCallAgent {
+        return agent.budget;
+    }
+    return agent is ReActAgent ? agent.budget : {};
+}
+
+// Sends the messages to the model, and stops waiting for the response once the deadline is exceeded. The strand
+// calling the model is not cancelled, as cancelling it does not close the response being streamed by the model.
+// Instead, it stops reading the response by itself once the deadline is exceeded.
+isolated function chatBefore(decimal? deadline, ModelProvider model, readonly & ChatMessage[] messages,
+        readonly & ChatCompletionFunctions[] tools = [], string? stop = (), EventQueue? eventQueue = ())
+        returns ChatAssistantMessage|LlmError {
+    if deadline is () {
+        return chatWithReadOnlyMessages(model, messages, tools, stop, eventQueue);
+    }
+    // The messages are immutable, hence they are passed to the strand as they are
+    future<ChatAssistantMessage|LlmError> response = start chatWithReadOnlyMessages(model, messages, tools, stop,
+        eventQueue, deadline);
+    future<()> timer = start sleepUntil(deadline);
+    ChatAssistantMessage|LlmError|error? result = wait response|timer;
+    if result is () {
+        return getModelTimeoutError();
+    }
+    timer.cancel();
+    if result is ChatAssistantMessage|LlmError {
+        return result;
+    }
+    return error LlmError("Unable to obtain the response of the model.", result);
+}
+
+isolated function chatWithReadOnlyMessages(ModelProvider model, readonly & ChatMessage[] messages,
+        readonly & ChatCompletionFunctions[] tools, string? stop, EventQueue? eventQueue, decimal? deadline = ())
+        returns ChatAssistantMessage|LlmError {
+    // The lists are copied, since the models may modify the given lists. The messages in them are shared.
+    return chatWithEvents(model, [...messages], [...tools], eventQueue, stop, deadline);
+}
+
+isolated function getModelTimeoutError() returns LlmConnectionError =>
+    error LlmConnectionError("Model did not respond before the deadline of the execution.");
+
+isolated function getToolTimeoutError(LlmToolResponse action) returns ToolExecutionError =>
+    error ToolExecutionError("Tool execution is cancelled as it did not complete before the deadline of the execution.",
+        toolName = action.name, inputs = action.arguments);
+
+isolated function sleepUntil(decimal deadline) {
+    decimal remainingTime = deadline - time:monotonicNow();
+    if remainingTime > 0d {
+        runtime:sleep(remainingTime);
+    }
+}
@@ -14,8 +14,6 @@
 // specific language governing permissions and limitations
 // under the License.
 
-import ballerina/log;
-
 # Function call agent. 
 # This agent uses OpenAI function call API to perform the tool selection.
 public isolated distinct client class FunctionCallAgent {
@@ -28,18 +26,32 @@ public isolated distinct client class FunctionCallAgent {
     final Memory memory;
     # Represents if the agent is stateless or not.
     final boolean stateless;
+    # Maximum number of tool calls executed in parallel when the LLM requests multiple tools at once.
+    final int maxParallelToolCalls;
+    # Definitions of the tools given to the LLM, which are computed once for all the executions.
+    final readonly & ChatCompletionFunctions[] toolDefinitions;
+    # Tokens used by the model in each session.
+    final SessionTokenUsage sessionTokenUsage = new;
+    # Limits of the resources used by an execution of the agent.
+    final readonly & ExecutionBudget budget;
 
     # Initialize an Agent.
     #
     # + model - LLM model instance
     # + tools - Tools to be used by the agent
     # + memory - The memory associated with the agent.
+    # + maxParallelToolCalls - Maximum number of tool calls executed in parallel
+    # + budget - Limits of the resources used by an execution of the agent
     public isolated function init(ModelProvider model, (BaseToolKit|ToolConfig|FunctionTool)[] tools,
-            Memory? memory = new MessageWindowChatMemory()) returns Error? {
+            Memory? memory = new MessageWindowChatMemory(),
+            int maxParallelToolCalls = DEFAULT_MAX_PARALLEL_TOOL_CALLS, ExecutionBudget budget = {}) returns Error? {
         self.toolStore = check new (...tools);
         self.model = model;
         self.memory = memory is Memory ? memory : new MessageWindowChatMemory();
         self.stateless = memory is ();
+        self.maxParallelToolCalls = maxParallelToolCalls;
+        self.budget = budget.cloneReadOnly();
+        self.toolDefinitions = getToolDefinitions(self.toolStore, resolvesSchemaReferences(model)).cloneReadOnly();
     }
 
     # Parse the function calling API response and extract the tool to be executed.
@@ -79,26 +91,24 @@ public isolated distinct client class FunctionCallAgent {
     # + sessionId - The ID associated with the agent memory
     # + return - LLM response containing the tool or chat response (or an error if the call fails)
     public isolated function selectNextTool(ExecutionProgress progress, string sessionId = DEFAULT_SESSION_ID) returns json|LlmError {
-        ChatMessage[] messages = createFunctionCallMessages(progress);
-        ChatMessage[]|MemoryError additionalMessages = self.memory.get(sessionId);
-        if additionalMessages is MemoryError {
-            log:printError("Failed to get chat messages from memory", additionalMessages);
-        } else {
-            messages.unshift(...additionalMessages);
+        return self.selectNextToolWithEvents(progress, sessionId, (), new);
+    }
+
+    isolated function selectNextToolWithEvents(ExecutionProgress progress, string sessionId, EventQueue? eventQueue,
+            ConversationBuilder conversation, decimal? deadline = ()) returns json|LlmError {
+        foreach ExecutionStep step in conversation.getNewSteps(self.memory, sessionId, progress.history) {
+            conversation.append(...createFunctionCallStepMessages(step));
         }
 
-        // TODO: Improve handling of multiple tool calls returned by the LLM.  
-        // Currently, tool calls are executed sequentially in separate chat responses.  
-        // Update the logic to execute all tool calls together and return a single response.
-        ChatAssistantMessage response = check self.model->chat(messages,
-        from Tool tool in self.toolStore.tools.toArray()
-        select {
-            name: tool.name,
-            description: tool.description,
-            parameters: tool.variables
-        });
+        ChatAssistantMessage response = check chatBefore(deadline, self.model, conversation.getMessages(),
+            self.toolDefinitions, eventQueue = eventQueue);
+        conversation.setUsage(response?.usage);
         FunctionCall[]? toolCalls = response?.toolCalls;
-        return toolCalls is FunctionCall[] ? toolCalls[0] : response?.content;
+        if toolCalls is () || toolCalls.length() == 0 {
+            return response?.content;
+        }
+        // Multiple tool calls are returned together, so that they are executed in parallel.
+        return toolCalls.length() == 1 ? toolCalls[0] : toolCalls;
     }
 
     # Execute the agent for a given user's query.
@@ -114,17 +124,36 @@ public isolated distinct client class FunctionCallAgent {
         returns record {|(ExecutionResult|ExecutionError)[] steps; string answer?;|} {
         return run(self, query, maxIter, context, verbose, sessionId);
     }
+
+    # Retrieves the tokens used by the model in the executions of a session.
+    #
+    # + sessionId - The ID associated with the agent memory
+    # + return - Aggregated token usage of the session
+    public isolated function getTokenUsage(string sessionId = DEFAULT_SESSION_ID) returns TokenUsage {
+        return self.sessionTokenUsage.get(sessionId);
+    }
 }
 
 isolated function createFunctionCallMessages(ExecutionProgress progress) returns ChatMessage[] {
     ChatMessage[] messages = [];
     foreach ExecutionStep step in progress.history {
-        FunctionCall|error functionCall = step.llmResponse.fromJsonWithType();
-        if functionCall is error {
-            panic error Error("Badly formated history for function call agent", llmResponse = step.llmResponse);
-        }
+        messages.push(...createFunctionCallStepMessages(step));
+    }
+    return messages;
+}
 
-        messages.push({
+isolated function createFunctionCallStepMessages(ExecutionStep step) returns ChatMessage[] {
+    json llmResponse = step.llmResponse;
+    if llmResponse is json[] {
+        return createParallelFunctionCallMessages(llmResponse, step.observation);
+    }
+    FunctionCall|error functionCall = llmResponse.fromJsonWithType();
+    if functionCall is error {
+        panic error Error("Badly formated history for function call agent", llmResponse = llmResponse);
+    }
+
+    return [
+        {
             role: ASSISTANT,
             toolCalls: [functionCall]
         },
@@ -133,6 +162,24 @@ isolated function createFunctionCallMessages(ExecutionProgress progress) returns
             name: functionCall.name,
             content: getObservationString(step.observation),
             id: functionCall?.id
+        }
+    ];
+}
+
+isolated function createParallelFunctionCallMessages(json[] llmResponse, anydata|error observation)
+        returns ChatMessage[] {
+    FunctionCall[]|error functionCalls = llmResponse.fromJsonWithType();
+    if functionCalls is error || observation !is anydata[] || observation.length() != functionCalls.length() {
+        panic error Error("Badly formated history for function call agent", llmResponse = llmResponse);
+    }
+    ChatMessage[] messages = [{role: ASSISTANT, toolCalls: functionCalls}];
+    foreach int i in 0 ..< functionCalls.length() {
+        FunctionCall functionCall = functionCalls[i];
+        messages.push({
+            role: FUNCTION,
+            name: functionCall.name,
+            content: getObservationString(observation[i]),
+            id: functionCall?.id
         });
     }
     return messages;
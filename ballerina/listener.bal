@@ -28,11 +28,12 @@ public class Listener {
         }
     }
 
-    public isolated function attach(ChatService chatService, string[]|string? name = ()) returns error? {
+    public isolated function attach(ChatService|StreamingChatService chatService, string[]|string? name = ())
+            returns error? {
         check self.httpListener.attach(chatService, name);
     }
 
-    public isolated function detach(ChatService chatService) returns error? {
+    public isolated function detach(ChatService|StreamingChatService chatService) returns error? {
         check self.httpListener.detach(chatService);
     }
 
@@ -1,3 +1,5 @@
+import ballerina/time;
+
 # Represents the memory interface for the agents.
 public type Memory isolated object {
 
@@ -80,7 +82,7 @@ public isolated class MessageWindowChatMemory {
             if self.systemMessageSessions.hasKey(sessionId) {
                 _ = self.systemMessageSessions.remove(sessionId);
             }
-            self.sessions.get(sessionId).removeAll();
+            _ = self.sessions.remove(sessionId);
         }
     }
 
@@ -92,3 +94,477 @@ public isolated class MessageWindowChatMemory {
         }
     }
 }
+
+# Represents the usage statistics of a sharded chat memory.
+public type ChatMemoryStats record {|
+    # Number of shards the sessions are partitioned into
+    int shardCount;
+    # Number of sessions currently held in the memory
+    int sessionCount;
+    # Number of sessions evicted as the least recently used session when the session limit is reached
+    int evictedSessionCount;
+    # Number of sessions evicted after being idle longer than the idle timeout
+    int expiredSessionCount;
+|};
+
+# Provides a chat message window per session, partitioned across shards to reduce lock contention.
+# Each session keeps a fixed size window of messages with constant time appends and evictions.
+# Sessions are evicted when they are idle longer than the idle timeout or, in the least recently used order,
+# when the number of sessions in a shard exceeds its share of the session limit.
+public isolated class ShardedMessageWindowChatMemory {
+    *Memory;
+    private final MemoryShard[] shards = [];
+    private final int shardCount;
+
+    # Initializes a new sharded memory.
+    #
+    # + size - The maximum capacity for stored messages per session, including the system message
+    # + shardCount - The number of shards the sessions are partitioned into
+    # + maxSessions - The maximum number of sessions retained. If not provided, sessions are not limited
+    # + sessionIdleTimeout - The time in seconds after which an idle session is evicted. 
+    # If not provided, idle sessions are not evicted
+    public isolated function init(int size = 10, int shardCount = 16, int? maxSessions = (),
+            decimal? sessionIdleTimeout = ()) {
+        self.shardCount = shardCount < 1 ? 1 : shardCount;
+        int? maxSessionsPerShard = maxSessions is int
+            ? int:max(1, (maxSessions + self.shardCount - 1) / self.shardCount) : ();
+        lock {
+            foreach int i in 0 ..< self.shardCount {
+                self.shards.push(new MemoryShard(int:max(1, size - 1), maxSessionsPerShard, sessionIdleTimeout));
+            }
+        }
+    }
+
+    # Retrieves a read-only snapshot of the stored messages, with the system prompt first if available.
+    #
+    # + sessionId - The ID associated with the memory
+    # + return - A read-only array of messages, or an `ai:Error`
+    public isolated function get(string sessionId) returns ChatMessage[]|MemoryError {
+        return self.getShard(sessionId).get(sessionId);
+    }
+
+    # Adds a message to the window of the session.
+    #
+    # + sessionId - The ID associated with the memory
+    # + message - The `ChatMessage` to store or use as system prompt
+    # + return - nil on success, or an `ai:Error` if the operation fails 
+    public isolated function update(string sessionId, ChatMessage message) returns MemoryError? {
+        self.getShard(sessionId).update(sessionId, message.cloneReadOnly());
+    }
+
+    # Removes the session and all of its messages from the memory.
+    #
+    # + sessionId - The ID associated with the memory
+    # + return - nil on success, or an `ai:Error` if the operation fails 
+    public isolated function delete(string sessionId) returns MemoryError? {
+        self.getShard(sessionId).delete(sessionId);
+    }
+
+    # Retrieves the usage statistics of the memory.
+    #
+    # + return - Aggregated statistics of all the shards
+    public isolated function getStats() returns ChatMemoryStats {
+        ChatMemoryStats stats = {shardCount: self.shardCount, sessionCount: 0, evictedSessionCount: 0,
+            expiredSessionCount: 0};
+        foreach int i in 0 ..< self.shardCount {
+            MemoryShard shard;
+            lock {
+                shard = self.shards[i];
+            }
+            [int, int, int] [sessionCount, evictedSessionCount, expiredSessionCount] = shard.getStats();
+            stats.sessionCount += sessionCount;
+            stats.evictedSessionCount += evictedSessionCount;
+            stats.expiredSessionCount += expiredSessionCount;
+        }
+        return stats;
+    }
+
+    private isolated function getShard(string sessionId) returns MemoryShard {
+        int index = getSessionHash(sessionId) % self.shardCount;
+        lock {
+            return self.shards[index];
+        }
+    }
+}
+
+type SessionWindow record {|
+    (readonly & ChatMessage)[] messages = [];
+    // Index of the oldest message. A window of a fixed size is a ring buffer, while the messages evicted from a
+    // window bounded by tokens are compacted away lazily.
+    int head = 0;
+    (readonly & ChatSystemMessage)? systemMessage = ();
+    // Tokens of the messages, if the window is bounded by tokens
+    int[] messageTokens = [];
+    int tokens = 0;
+    int systemMessageTokens = 0;
+    (readonly & ChatMessage[])? snapshot = ();
+    decimal lastAccessedAt;
+    // Neighbours of the session in the least recently used order
+    string? previous = ();
+    string? next = ();
+|};
+
+// Holds the sessions of a shard, with a window of messages per session bounded either by a message count or, if the
+// maximum number of tokens is given, by the tokens of the messages.
+isolated class MemoryShard {
+    private final int windowSize;
+    private final int? maxTokens;
+    private final int? maxSessions;
+    private final decimal? sessionIdleTimeout;
+    private final map<SessionWindow> sessions = {};
+    private string? leastRecentlyUsed = ();
+    private string? mostRecentlyUsed = ();
+    private int evictedSessionCount = 0;
+    private int expiredSessionCount = 0;
+
+    isolated function init(int windowSize, int? maxSessions, decimal? sessionIdleTimeout, int? maxTokens = ()) {
+        self.windowSize = windowSize;
+        self.maxTokens = maxTokens;
+        self.maxSessions = maxSessions;
+        self.sessionIdleTimeout = sessionIdleTimeout;
+    }
+
+    isolated function get(string sessionId) returns readonly & ChatMessage[] => self.getIfPresent(sessionId) ?: [];
+
+    isolated function getIfPresent(string sessionId) returns (readonly & ChatMessage[])? {
+        lock {
+            if !self.touch(sessionId) {
+                return ();
+            }
+            SessionWindow window = self.sessions.get(sessionId);
+            readonly & ChatMessage[]? snapshot = window.snapshot;
+            if snapshot is readonly & ChatMessage[] {
+                return snapshot;
+            }
+            (readonly & ChatMessage)[] messages = [];
+            (readonly & ChatSystemMessage)? systemMessage = window.systemMessage;
+            if systemMessage !is () {
+                messages.push(systemMessage);
+            }
+            int length = window.messages.length();
+            if self.maxTokens is int {
+                messages.push(...window.messages.slice(window.head));
+            } else {
+                foreach int i in 0 ..< length {
+                    messages.push(window.messages[(window.head + i) % length]);
+                }
+            }
+            readonly & ChatMessage[] newSnapshot = messages.cloneReadOnly();
+            window.snapshot = newSnapshot;
+            return newSnapshot;
+        }
+    }
+
+    # Adds a message to the window of the session.
+    #
+    # + sessionId - The ID associated with the memory
+    # + message - The message to store
+    # + tokens - The tokens of the message, if the window is bounded by tokens
+    isolated function update(string sessionId, readonly & ChatMessage message, int tokens = 0) {
+        lock {
+            if !self.touch(sessionId) {
+                self.create(sessionId);
+            }
+            self.append(sessionId, message, tokens);
+        }
+    }
+
+    # Adds a message to the window of the session only if the session is already held.
+    #
+    # + sessionId - The ID associated with the memory
+    # + message - The message to store
+    isolated function updateIfPresent(string sessionId, readonly & ChatMessage message) {
+        lock {
+            if self.touch(sessionId) {
+                self.append(sessionId, message);
+            }
+        }
+    }
+
+    # Populates the window of the session with the given messages, unless the session is already held.
+    #
+    # + sessionId - The ID associated with the memory
+    # + messages - The messages of the session, in the order they were added
+    isolated function load(string sessionId, readonly & ChatMessage[] messages) {
+        lock {
+            if self.touch(sessionId) {
+                return;
+            }
+            self.create(sessionId);
+            foreach readonly & ChatMessage message in messages {
+                self.append(sessionId, message);
+            }
+        }
+    }
+
+    isolated function delete(string sessionId) {
+        lock {
+            if self.sessions.hasKey(sessionId) {
+                self.remove(sessionId);
+            }
+        }
+    }
+
+    isolated function getTokenCount(string sessionId) returns int {
+        lock {
+            SessionWindow? window = self.sessions[sessionId];
+            return window is () ? 0 : window.tokens + window.systemMessageTokens;
+        }
+    }
+
+    isolated function getStats() returns [int, int, int] {
+        lock {
+            return [self.sessions.length(), self.evictedSessionCount, self.expiredSessionCount];
+        }
+    }
+
+    private isolated function create(string sessionId) {
+        lock {
+            self.sessions[sessionId] = {lastAccessedAt: time:monotonicNow()};
+            self.linkAsMostRecentlyUsed(sessionId);
+            self.evictSessions();
+        }
+    }
+
+    private isolated function append(string sessionId, readonly & ChatMessage message, int tokens = 0) {
+        lock {
+            SessionWindow window = self.sessions.get(sessionId);
+            window.snapshot = ();
+            if message is ChatSystemMessage {
+                window.systemMessage = message;
+                window.systemMessageTokens = tokens;
+                return;
+            }
+            int? maxTokens = self.maxTokens;
+            if maxTokens is int {
+                window.messages.push(message);
+                window.messageTokens.push(tokens);
+                window.tokens += tokens;
+                trimTokenWindow(window, maxTokens);
+                return;
+            }
+            if window.messages.length() < self.windowSize {
+                window.messages.push(message);
+                return;
+            }
+            // The window is full, so the oldest message is overwritten.
+            window.messages[window.head] = message;
+            window.head = (window.head + 1) % self.windowSize;
+        }
+    }
+
+    # Marks the session as the most recently used one, and removes it if it has been idle for too long.
+    #
+    # + sessionId - The ID associated with the memory
+    # + return - `true` if the session exists, `false` otherwise
+    private isolated function touch(string sessionId) returns boolean {
+        lock {
+            SessionWindow? window = self.sessions[sessionId];
+            if window is () {
+                return false;
+            }
+            decimal now = time:monotonicNow();
+            decimal? sessionIdleTimeout = self.sessionIdleTimeout;
+            if sessionIdleTimeout is decimal && now - window.lastAccessedAt > sessionIdleTimeout {
+                self.remove(sessionId);
+                self.expiredSessionCount += 1;
+                return false;
+            }
+            window.lastAccessedAt = now;
+            if self.mostRecentlyUsed != sessionId {
+                self.unlink(sessionId);
+                self.linkAsMostRecentlyUsed(sessionId);
+            }
+            return true;
+        }
+    }
+
+    private isolated function evictSessions() {
+        lock {
+            decimal? sessionIdleTimeout = self.sessionIdleTimeout;
+            decimal now = time:monotonicNow();
+            string? sessionId = self.leastRecentlyUsed;
+            // Sessions idle for too long are at the beginning of the least recently used order.
+            while sessionId is string && sessionIdleTimeout is decimal
+                    && now - self.sessions.get(sessionId).lastAccessedAt > sessionIdleTimeout {
+                self.remove(sessionId);
+                self.expiredSessionCount += 1;
+                sessionId = self.leastRecentlyUsed;
+            }
+            int? maxSessions = self.maxSessions;
+            while sessionId is string && maxSessions is int && self.sessions.length() > maxSessions {
+                self.remove(sessionId);
+                self.evictedSessionCount += 1;
+                sessionId = self.leastRecentlyUsed;
+            }
+        }
+    }
+
+    private isolated function remove(string sessionId) {
+        lock {
+            self.unlink(sessionId);
+            _ = self.sessions.remove(sessionId);
+        }
+    }
+
+    private isolated function unlink(string sessionId) {
+        lock {
+            SessionWindow window = self.sessions.get(sessionId);
+            string? previous = window.previous;
+            string? next = window.next;
+            if previous is string {
+                self.sessions.get(previous).next = next;
+            } else {
+                self.leastRecentlyUsed = next;
+            }
+            if next is string {
+                self.sessions.get(next).previous = previous;
+            } else {
+                self.mostRecentlyUsed = previous;
+            }
+            window.previous = ();
+            window.next = ();
+        }
+    }
+
+    private isolated function linkAsMostRecentlyUsed(string sessionId) {
+        lock {
+            SessionWindow window = self.sessions.get(sessionId);
+            string? mostRecentlyUsed = self.mostRecentlyUsed;
+            window.previous = mostRecentlyUsed;
+            if mostRecentlyUsed is string {
+                self.sessions.get(mostRecentlyUsed).next = sessionId;
+            } else {
+                self.leastRecentlyUsed = sessionId;
+            }
+            self.mostRecentlyUsed = sessionId;
+        }
+    }
+}
+
+isolated function getSessionHash(string sessionId) returns int {
+    int hash = 0;
+    foreach int codePoint in sessionId.toCodePointInts() {
+        hash = (hash * 31 + codePoint) % 2147483647;
+    }
+    return hash;
+}
+
+# Provides an in-memory chat message window bounded by a token budget instead of a message count.
+# Messages are trimmed from the oldest on each update, keeping an assistant message with tool calls
+# together with the tool results that follow it. The system message and the latest message group are always retained.
+# Sessions are partitioned across shards and evicted in the same way as the sessions of the
+# `ShardedMessageWindowChatMemory`.
+public isolated class TokenWindowChatMemory {
+    *Memory;
+    private final TokenCounter tokenCounter;
+    private final MemoryShard[] shards = [];
+    private final int shardCount;
+
+    # Initializes a new token bounded memory window.
+    #
+    # + maxTokens - The maximum number of tokens retained per session, including the system message
+    # + tokenCounter - The token counter used to measure the messages. Defaults to a length based estimation
+    # + shardCount - The number of shards the sessions are partitioned into
+    # + maxSessions - The maximum number of sessions retained. If not provided, sessions are not limited
+    # + sessionIdleTimeout - The time in seconds after which an idle session is evicted.
+    # If not provided, idle sessions are not evicted
+    public isolated function init(int maxTokens = DEFAULT_MAX_MEMORY_TOKENS,
+            TokenCounter tokenCounter = new HeuristicTokenCounter(), int shardCount = 16, int? maxSessions = (),
+            decimal? sessionIdleTimeout = ()) {
+        self.tokenCounter = tokenCounter;
+        self.shardCount = shardCount < 1 ? 1 : shardCount;
+        int? maxSessionsPerShard = maxSessions is int
+            ? int:max(1, (maxSessions + self.shardCount - 1) / self.shardCount) : ();
+        lock {
+            foreach int i in 0 ..< self.shardCount {
+                self.shards.push(new MemoryShard(1, maxSessionsPerShard, sessionIdleTimeout, maxTokens));
+            }
+        }
+    }
+
+    # Retrieves a read-only snapshot of the stored messages, with the system prompt first if available.
+    #
+    # + sessionId - The ID associated with the memory
+    # + return - A read-only array of messages, or an `ai:Error`
+    public isolated function get(string sessionId) returns ChatMessage[]|MemoryError {
+        return self.getShard(sessionId).get(sessionId);
+    }
+
+    # Adds a message to the window and trims the oldest messages exceeding the token budget.
+    #
+    # + sessionId - The ID associated with the memory
+    # + message - The `ChatMessage` to store or use as system prompt
+    # + return - nil on success, or an `ai:Error` if the operation fails 
+    public isolated function update(string sessionId, ChatMessage message) returns MemoryError? {
+        readonly & ChatMessage readonlyMessage = message.cloneReadOnly();
+        // Tokens are counted once per message, outside the lock of the shard.
+        int tokens = countMessageTokens(self.tokenCounter, readonlyMessage);
+        self.getShard(sessionId).update(sessionId, readonlyMessage, tokens);
+    }
+
+    # Removes the session and all of its messages from the memory.
+    #
+    # + sessionId - The ID associated with the memory
+    # + return - nil on success, or an `ai:Error` if the operation fails 
+    public isolated function delete(string sessionId) returns MemoryError? {
+        self.getShard(sessionId).delete(sessionId);
+    }
+
+    # Retrieves the number of tokens currently retained for the session, including the system message.
+    #
+    # + sessionId - The ID associated with the memory
+    # + return - The number of retained tokens
+    public isolated function getTokenCount(string sessionId) returns int {
+        return self.getShard(sessionId).getTokenCount(sessionId);
+    }
+
+    # Retrieves the usage statistics of the memory.
+    #
+    # + return - Aggregated statistics of all the shards
+    public isolated function getStats() returns ChatMemoryStats {
+        ChatMemoryStats stats = {shardCount: self.shardCount, sessionCount: 0, evictedSessionCount: 0,
+            expiredSessionCount: 0};
+        foreach int i in 0 ..< self.shardCount {
+            MemoryShard shard;
+            lock {
+                shard = self.shards[i];
+            }
+            [int, int, int] [sessionCount, evictedSessionCount, expiredSessionCount] = shard.getStats();
+            stats.sessionCount += sessionCount;
+            stats.evictedSessionCount += evictedSessionCount;
+            stats.expiredSessionCount += expiredSessionCount;
+        }
+        return stats;
+    }
+
+    private isolated function getShard(string sessionId) returns MemoryShard {
+        int index = getSessionHash(sessionId) % self.shardCount;
+        lock {
+            return self.shards[index];
+        }
+    }
+}
+
+isolated function trimTokenWindow(SessionWindow window, int maxTokens) {
+    int length = window.messages.length();
+    while window.tokens + window.systemMessageTokens > maxTokens {
+        // A group is a message together with the tool results following it, which are evicted as a unit.
+        int groupEnd = window.head + 1;
+        while groupEnd < length && window.messages[groupEnd] is ChatFunctionMessage {
+            groupEnd += 1;
+        }
+        if groupEnd >= length {
+            break;
+        }
+        foreach int i in window.head ..< groupEnd {
+            window.tokens -= window.messageTokens[i];
+        }
+        window.head = groupEnd;
+    }
+    if window.head > TOKEN_WINDOW_COMPACTION_THRESHOLD && window.head * 2 > length {
+        window.messages = window.messages.slice(window.head);
+        window.messageTokens = window.messageTokens.slice(window.head);
+        window.head = 0;
+    }
+}
@@ -207,6 +207,59 @@ type DeepseekChatResponseChoice record {
 type DeepSeekChatCompletionResponse record {
     string id;
     DeepseekChatResponseChoice[] choices;
+    DeepseekUsage usage?;
+};
+
+type DeepseekUsage record {
+    int prompt_tokens;
+    int completion_tokens;
+    int prompt_cache_hit_tokens?;
+};
+
+// Tool call in a request to the tool calling API of OpenAI compatible models
+type OpenAiCompatibleToolCall record {|
+    string id;
+    FUNCTION 'type = FUNCTION;
+    record {|
+        string name;
+        string arguments;
+    |} 'function;
+|};
+
+// Tool call in a response of the tool calling API of OpenAI compatible models
+type OpenAiCompatibleResponseToolCall record {
+    string id;
+    record {
+        string name;
+        string arguments;
+    } 'function;
+};
+
+type OpenAiCompatibleAssistantMessage record {|
+    ASSISTANT role = ASSISTANT;
+    string? content = ();
+    OpenAiCompatibleToolCall[] tool_calls?;
+|};
+
+type OpenAiCompatibleToolMessage record {|
+    TOOL_ROLE role = TOOL_ROLE;
+    string content;
+    string tool_call_id;
+|};
+
+type OpenAiCompatibleMessage ChatUserMessage|ChatSystemMessage|OpenAiCompatibleAssistantMessage
+    |OpenAiCompatibleToolMessage;
+
+// Usage reported by the OpenAI compatible APIs
+type OpenAiCompatibleUsage record {
+    int prompt_tokens;
+    int completion_tokens;
+};
+
+// Usage reported by the Mistral AI API
+type MistralUsage record {
+    int promptTokens;
+    int completionTokens;
 };
 
 type DeepseekChatSystemMessage record {|
@@ -287,6 +340,18 @@ public type ChatAssistantMessage record {|
     string name?;
     # The function calls generated by the model, such as function calls
     FunctionCall[]? toolCalls = ();
+    # The tokens used to generate the message, if reported by the model
+    TokenUsage usage?;
+|};
+
+# Represents the tokens used by a request to a model.
+public type TokenUsage record {|
+    # Number of tokens in the prompt, including the tokens read from the prompt cache
+    int inputTokens = 0;
+    # Number of tokens in the generated response
+    int outputTokens = 0;
+    # Number of tokens in the prompt read from the prompt cache
+    int cachedInputTokens = 0;
 |};
 
 # Function message record.
@@ -389,6 +454,38 @@ type AnthropicTool record {|
     string description;
     # Input schema of the tool in JSON Schema format
     json input_schema;
+    # Marks the end of the prompt prefix to be cached
+    AnthropicCacheControl cache_control?;
+|};
+
+# System prompt block in Anthropic API request
+type AnthropicSystemBlock record {|
+    # The type of the block, which is always "text"
+    string 'type = "text";
+    # The system prompt
+    string text;
+    # Marks the end of the prompt prefix to be cached
+    AnthropicCacheControl cache_control?;
+|};
+
+# Cache breakpoint in Anthropic API request
+type AnthropicCacheControl record {|
+    # The type of the cache, which is always "ephemeral"
+    string 'type = "ephemeral";
+|};
+
+# Represents the usage of the prompt cache of a model provider.
+public type PromptCacheStats record {|
+    # Number of responses received from the model
+    int requestCount;
+    # Number of requests with a prompt prefix read from the cache
+    int cacheHitCount;
+    # Number of input tokens which are neither read from nor written to the cache
+    int inputTokens;
+    # Number of input tokens written to the cache
+    int cacheCreationInputTokens;
+    # Number of input tokens read from the cache
+    int cacheReadInputTokens;
 |};
 
 # Represents an extendable client for interacting with an AI model.
@@ -402,10 +499,47 @@ public type ModelProvider distinct isolated client object {
         returns ChatAssistantMessage|LlmError;
 };
 
+# Represents an incremental fragment of a tool call streamed by the model.
+# Fragments with the same index belong to the same tool call and are concatenated in the order they are received.
+public type FunctionCallDelta record {|
+    # Position of the tool call in the response
+    int index;
+    # Identifier for the tool call, usually sent with the first fragment
+    string id?;
+    # Name of the function, usually sent with the first fragment
+    string name?;
+    # Fragment of the arguments of the function
+    string arguments?;
+|};
+
+# Represents an incremental fragment of an assistant message streamed by the model.
+public type ChatAssistantMessageDelta record {|
+    # Fragment of the text content
+    string content?;
+    # Fragments of the tool calls
+    FunctionCallDelta[] toolCalls?;
+    # Tokens used by the request, which may be reported in parts over several fragments
+    TokenUsage usage?;
+|};
+
+# Represents a client for interacting with an AI model, which supports streaming the response as it is generated.
+public type StreamingModelProvider distinct isolated client object {
+    *ModelProvider;
+
+    # Sends a chat request to the model and streams the response as it is generated.
+    # + messages - List of chat messages 
+    # + tools - Tool definitions to be used for the tool call
+    # + stop - Stop sequence to stop the completion
+    # + return - A stream of message fragments or an error in-case of failures
+    isolated remote function chatStream(ChatMessage[] messages, ChatCompletionFunctions[] tools = [], string? stop = ())
+        returns stream<ChatAssistantMessageDelta, LlmError?>|LlmError;
+};
+
 # OpenAiProvider is a client class that provides an interface for interacting with OpenAI language models.
 public isolated client class OpenAiProvider {
-    *ModelProvider;
+    *StreamingModelProvider;
     private final chat:Client llmClient;
+    private final http:Client streamingClient;
     private final string modelType;
     private final decimal temparature;
     private final int maxTokens;
@@ -452,12 +586,24 @@ public isolated client class OpenAiProvider {
         if llmClient is error {
             return error Error("Failed to initialize OpenAiProvider", llmClient);
         }
+        // The generated client does not support server-sent events, hence streaming requests are sent directly.
+        http:Client|error streamingClient = new (serviceUrl, {...connectionConfig, auth: {token: apiKey}});
+        if streamingClient is error {
+            return error Error("Failed to initialize OpenAiProvider", streamingClient);
+        }
         self.llmClient = llmClient;
+        self.streamingClient = streamingClient;
         self.modelType = modelType;
         self.maxTokens = maxTokens;
         self.temparature = temperature;
     }
 
+    isolated function getGenerationParameters() returns readonly & map<json> => {
+        model: self.modelType,
+        temperature: self.temparature,
+        maxTokens: self.maxTokens
+    };
+
     # Sends a chat request to the OpenAI model with the given messages and tools.
     #
     # + messages - List of chat messages 
@@ -466,16 +612,7 @@ public isolated client class OpenAiProvider {
     # + return - Function to be called, chat response or an error in-case of failures
     isolated remote function chat(ChatMessage[] messages, ChatCompletionFunctions[] tools, string? stop = ())
         returns ChatAssistantMessage|LlmError {
-        chat:CreateChatCompletionRequest request = {
-            stop,
-            model: self.modelType,
-            messages: self.mapToChatCompletionRequestMessage(messages),
-            max_completion_tokens: self.maxTokens,
-            temperature: self.temparature
-        };
-        if tools.length() > 0 {
-            request.functions = tools;
-        }
+        chat:CreateChatCompletionRequest request = self.createRequest(messages, tools, stop);
         chat:CreateChatCompletionResponse|error response = self.llmClient->/chat/completions.post(request);
         if response is error {
             return error LlmConnectionError("Error while connecting to the model", response);
@@ -486,30 +623,55 @@ public isolated client class OpenAiProvider {
         }
         chat:ChatCompletionResponseMessage? message = choices[0].message;
         ChatAssistantMessage chatAssistantMessage = {role: ASSISTANT, content: message?.content};
-        chat:ChatCompletionRequestAssistantMessage_function_call? function_call = message?.function_call;
-        if function_call is chat:ChatCompletionRequestAssistantMessage_function_call {
-            chatAssistantMessage.toolCalls = [{name: function_call.name, arguments: function_call.arguments}];
+        anydata toolCalls = message?.tool_calls;
+        if toolCalls !is () {
+            chatAssistantMessage.toolCalls = check getOpenAiCompatibleFunctionCalls(toolCalls);
+        }
+        OpenAiCompatibleUsage? usage = response?.usage;
+        if usage is OpenAiCompatibleUsage {
+            chatAssistantMessage.usage = reportTokenUsage(OPENAI_PROVIDER, usage.prompt_tokens,
+                usage.completion_tokens);
         }
         return chatAssistantMessage;
     }
 
+    # Sends a chat request to the OpenAI model and streams the response as it is generated.
+    #
+    # + messages - List of chat messages 
+    # + tools - Tool definitions to be used for the tool call
+    # + stop - Stop sequence to stop the completion
+    # + return - A stream of message fragments or an error in-case of failures
+    isolated remote function chatStream(ChatMessage[] messages, ChatCompletionFunctions[] tools = [],
+            string? stop = ()) returns stream<ChatAssistantMessageDelta, LlmError?>|LlmError {
+        map<json> request = check getStreamingRequestPayload(self.createRequest(messages, tools, stop));
+        stream<http:SseEvent, error?>|error events = self.streamingClient->/chat/completions.post(request);
+        if events is error {
+            return error LlmConnectionError("Error while connecting to the model", events);
+        }
+        return new (new SseDeltaStream(events, getOpenAiCompatibleDelta, OPENAI_PROVIDER));
+    }
+
+    private isolated function createRequest(ChatMessage[] messages, ChatCompletionFunctions[] tools, string? stop)
+        returns chat:CreateChatCompletionRequest {
+        chat:CreateChatCompletionRequest request = {
+            stop,
+            model: self.modelType,
+            messages: self.mapToChatCompletionRequestMessage(messages),
+            max_completion_tokens: self.maxTokens,
+            temperature: self.temparature
+        };
+        if tools.length() > 0 {
+            request.tools = from ChatCompletionFunctions tool in sortToolsByName(tools)
+                select {'type: FUNCTION, 'function: tool};
+        }
+        return request;
+    }
+
     private isolated function mapToChatCompletionRequestMessage(ChatMessage[] messages)
         returns chat:ChatCompletionRequestMessage[] {
         chat:ChatCompletionRequestMessage[] chatCompletionRequestMessages = [];
-        foreach ChatMessage message in messages {
-            if message is ChatAssistantMessage {
-                chat:ChatCompletionRequestAssistantMessage assistantMessage = {role: ASSISTANT};
-                FunctionCall[]? toolCalls = message.toolCalls;
-                if toolCalls is FunctionCall[] {
-                    assistantMessage.function_call = toolCalls[0];
-                }
-                if message?.content is string {
-                    assistantMessage.content = message?.content;
-                }
-                chatCompletionRequestMessages.push(assistantMessage);
-            } else {
-                chatCompletionRequestMessages.push(message);
-            }
+        foreach OpenAiCompatibleMessage message in getOpenAiCompatibleMessages(messages) {
+            chatCompletionRequestMessages.push(message);
         }
         return chatCompletionRequestMessages;
     }
@@ -517,8 +679,10 @@ public isolated client class OpenAiProvider {
 
 # AzureOpenAiProvider is a client class that provides an interface for interacting with Azure-hosted OpenAI language models.
 public isolated client class AzureOpenAiProvider {
-    *ModelProvider;
+    *StreamingModelProvider;
     private final azure_chat:Client llmClient;
+    private final http:Client streamingClient;
+    private final string apiKey;
     private final string deploymentId;
     private final string apiVersion;
     private final decimal temparature;
@@ -568,13 +732,27 @@ public isolated client class AzureOpenAiProvider {
         if llmClient is error {
             return error Error("Failed to initialize AzureOpenAiProvider", llmClient);
         }
+        // The generated client does not support server-sent events, hence streaming requests are sent directly.
+        http:Client|error streamingClient = new (serviceUrl, {...connectionConfig});
+        if streamingClient is error {
+            return error Error("Failed to initialize AzureOpenAiProvider", streamingClient);
+        }
         self.llmClient = llmClient;
+        self.streamingClient = streamingClient;
+        self.apiKey = apiKey;
         self.deploymentId = deploymentId;
         self.apiVersion = apiVersion;
         self.temparature = temperature;
         self.maxTokens = maxTokens;
     }
 
+    isolated function getGenerationParameters() returns readonly & map<json> => {
+        deploymentId: self.deploymentId,
+        apiVersion: self.apiVersion,
+        temperature: self.temparature,
+        maxTokens: self.maxTokens
+    };
+
     # Sends a chat request to the OpenAI model with the given messages and tools.
     #
     # + messages - List of chat messages 
@@ -583,15 +761,7 @@ public isolated client class AzureOpenAiProvider {
     # + return - Function to be called, chat response or an error in-case of failures
     isolated remote function chat(ChatMessage[] messages, ChatCompletionFunctions[] tools, string? stop = ())
         returns ChatAssistantMessage|LlmError {
-        azure_chat:CreateChatCompletionRequest request = {
-            stop,
-            messages: self.mapToChatCompletionRequestMessage(messages),
-            temperature: self.temparature,
-            max_tokens: self.maxTokens
-        };
-        if tools.length() > 0 {
-            request.functions = tools;
-        }
+        azure_chat:CreateChatCompletionRequest request = self.createRequest(messages, tools, stop);
         azure_chat:CreateChatCompletionResponse|error response =
             self.llmClient->/deployments/[self.deploymentId]/chat/completions.post(self.apiVersion, request);
         if response is error {
@@ -611,44 +781,83 @@ public isolated client class AzureOpenAiProvider {
         }
         azure_chat:ChatCompletionResponseMessage? message = choices[0].message;
         ChatAssistantMessage chatAssistantMessage = {role: ASSISTANT, content: message?.content};
-        azure_chat:ChatCompletionFunctionCall? function_call = message?.function_call;
-        if function_call is chat:ChatCompletionRequestAssistantMessage_function_call {
-            chatAssistantMessage.toolCalls = [{name: function_call.name, arguments: function_call.arguments}];
+        anydata toolCalls = message?.tool_calls;
+        if toolCalls !is () {
+            chatAssistantMessage.toolCalls = check getOpenAiCompatibleFunctionCalls(toolCalls);
+        }
+        OpenAiCompatibleUsage? usage = response?.usage;
+        if usage is OpenAiCompatibleUsage {
+            chatAssistantMessage.usage = reportTokenUsage(AZURE_OPENAI_PROVIDER, usage.prompt_tokens,
+                usage.completion_tokens);
         }
         return chatAssistantMessage;
     }
 
+    # Sends a chat request to the OpenAI model and streams the response as it is generated.
+    #
+    # + messages - List of chat messages 
+    # + tools - Tool definitions to be used for the tool call
+    # + stop - Stop sequence to stop the completion
+    # + return - A stream of message fragments or an error in-case of failures
+    isolated remote function chatStream(ChatMessage[] messages, ChatCompletionFunctions[] tools = [],
+            string? stop = ()) returns stream<ChatAssistantMessageDelta, LlmError?>|LlmError {
+        map<json> request = check getStreamingRequestPayload(self.createRequest(messages, tools, stop));
+        string path = string `/deployments/${self.deploymentId}/chat/completions?api-version=${self.apiVersion}`;
+        stream<http:SseEvent, error?>|error events = self.streamingClient->post(path, request, {"api-key": self.apiKey});
+        if events is error {
+            return error LlmConnectionError("Error while connecting to the model", events);
+        }
+        return new (new SseDeltaStream(events, getOpenAiCompatibleDelta, AZURE_OPENAI_PROVIDER));
+    }
+
+    private isolated function createRequest(ChatMessage[] messages, ChatCompletionFunctions[] tools, string? stop)
+        returns azure_chat:CreateChatCompletionRequest {
+        azure_chat:CreateChatCompletionRequest request = {
+            stop,
+            messages: self.mapToChatCompletionRequestMessage(messages),
+            temperature: self.temparature,
+            max_tokens: self.maxTokens
+        };
+        if tools.length() > 0 {
+            request.tools = from ChatCompletionFunctions tool in sortToolsByName(tools)
+                select {'type: FUNCTION, 'function: tool};
+        }
+        return request;
+    }
+
     private isolated function mapToChatCompletionRequestMessage(ChatMessage[] messages)
         returns azure_chat:ChatCompletionRequestMessage[] {
         azure_chat:ChatCompletionRequestMessage[] chatCompletionRequestMessages = [];
-        foreach ChatMessage message in messages {
-            if message is ChatAssistantMessage {
-                azure_chat:ChatCompletionRequestMessage assistantMessage = {role: ASSISTANT};
-                FunctionCall[]? toolCalls = message.toolCalls;
-                if toolCalls is FunctionCall[] {
-                    assistantMessage["function_call"] = toolCalls[0];
-                }
-                if message?.content is string {
-                    assistantMessage["content"] = message?.content;
-                }
-                chatCompletionRequestMessages.push(assistantMessage);
-            } else {
-                chatCompletionRequestMessages.push(message);
-            }
+        foreach OpenAiCompatibleMessage message in getOpenAiCompatibleMessages(messages) {
+            chatCompletionRequestMessages.push(message);
         }
         return chatCompletionRequestMessages;
     }
 }
 
+# Configurations for controlling the behaviours when communicating with Anthropic.
+@display {label: "Anthropic Connection Configuration"}
+public type AnthropicConnectionConfig record {|
+    *ConnectionConfig;
+
+    # Whether the tool definitions and the system prompt are cached by the model between requests.
+    # Writing to the cache is billed at a higher rate than the input tokens, hence prompts are not cached by default
+    @display {label: "Prompt Caching"}
+    boolean promptCaching?;
+|};
+
 # AnthropicProvider is a client class that provides an interface for interacting with Anthropic language models.
 public isolated client class AnthropicProvider {
-    *ModelProvider;
+    *StreamingModelProvider;
     private final http:Client AnthropicClient;
     private final string apiKey;
     private final string modelType;
     private final string apiVersion;
     private final int maxTokens;
     private final decimal temperature;
+    private final boolean promptCaching;
+    private final PromptCacheStats cacheStats = {requestCount: 0, cacheHitCount: 0, inputTokens: 0,
+        cacheCreationInputTokens: 0, cacheReadInputTokens: 0};
 
     # Initializes the Anthropic model with the given connection configuration and model configuration.
     #
@@ -658,7 +867,7 @@ public isolated client class AnthropicProvider {
     # + serviceUrl - The base URL of Anthropic API endpoint
     # + maxTokens - The upper limit for the number of tokens in the response generated by the model
     # + temperature - The temperature for controlling randomness in the model's output  
-    # + connectionConfig - Additional HTTP connection configuration
+    # + connectionConfig - Additional HTTP connection configuration, and whether the prompts are cached
     # + return - `nil` on successful initialization; otherwise, returns an `Error`
     public isolated function init(@display {label: "API Key"} string apiKey,
             @display {label: "Model Type"} ANTHROPIC_MODEL_NAMES modelType,
@@ -666,7 +875,8 @@ public isolated client class AnthropicProvider {
             @display {label: "Service URL"} string serviceUrl = ANTHROPIC_SERVICE_URL,
             @display {label: "Maximum Tokens"} int maxTokens = DEFAULT_MAX_TOKEN_COUNT,
             @display {label: "Temperature"} decimal temperature = DEFAULT_TEMPERATURE,
-            @display {label: "Connection Configuration"} *ConnectionConfig connectionConfig) returns Error? {
+            @display {label: "Connection Configuration"} *AnthropicConnectionConfig connectionConfig)
+            returns Error? {
 
         // Convert ConnectionConfig to http:ClientConfiguration
         http:ClientConfiguration anthropicConfig = {
@@ -698,9 +908,27 @@ public isolated client class AnthropicProvider {
         self.apiVersion = apiVersion;
         self.maxTokens = maxTokens;
         self.temperature = temperature;
+        self.promptCaching = connectionConfig?.promptCaching ?: false;
     }
 
-    # Converts standard ChatMessage array to Anthropic's message format
+    isolated function getGenerationParameters() returns readonly & map<json> => {
+        model: self.modelType,
+        apiVersion: self.apiVersion,
+        temperature: self.temperature,
+        maxTokens: self.maxTokens
+    };
+
+    # Retrieves the usage of the prompt cache by the responses received from the model.
+    #
+    # + return - Aggregated prompt cache usage of the responses
+    public isolated function getPromptCacheStats() returns PromptCacheStats {
+        lock {
+            return self.cacheStats.clone();
+        }
+    }
+
+    # Converts standard ChatMessage array to Anthropic's message format.
+    # System messages are given separately as the system prompt of the request.
     #
     # + messages - List of chat messages 
     # + return - return value description
@@ -713,12 +941,6 @@ public isolated client class AnthropicProvider {
                     role: USER,
                     content: message.content
                 });
-            } else if message is ChatSystemMessage {
-                // Add a user message containing the system prompt
-                anthropicMessages.push({
-                    role: USER,
-                    content: string `<system>${message.content}</system>\n\n`
-                });
             } else if message is ChatAssistantMessage && message.content is string {
                 anthropicMessages.push({
                     role: ASSISTANT,
@@ -765,7 +987,52 @@ public isolated client class AnthropicProvider {
     # + return - Chat response or an error in case of failures
     isolated remote function chat(ChatMessage[] messages, ChatCompletionFunctions[] tools = [], string? stop = ())
         returns ChatAssistantMessage|LlmError {
+        map<json> requestPayload = self.createRequestPayload(messages, tools, stop);
+        AnthropicApiResponse|error anthropicResponse =
+            self.AnthropicClient->/messages.post(requestPayload, self.getRequestHeaders());
+        if anthropicResponse is error {
+            return error LlmInvalidResponseError("Unexpected response format from Anthropic API", anthropicResponse);
+        }
+        TokenUsage usage = self.recordUsage(anthropicResponse.usage);
+
+        string? content = ();
+        FunctionCall[] toolCalls = [];
+        foreach ContentBlock block in anthropicResponse.content {
+            string blockType = block.'type;
+            if blockType == "tool_use" {
+                string blockName = block.name ?: "";
+                json inputJson = block?.input;
+                toolCalls.push({
+                    name: blockName,
+                    arguments: inputJson.toJsonString()
+                });
+            } else if blockType == "text" {
+                content = block.text;
+            }
+        }
+        return {role: ASSISTANT, toolCalls: toolCalls == [] ? () : toolCalls, content, usage};
+    }
+
+    # Uses Anthropic API to generate a response, which is streamed as it is generated.
+    #
+    # + messages - List of chat messages 
+    # + tools - Tool definitions to be used for the tool call
+    # + stop - Stop sequence to stop the completion
+    # + return - A stream of message fragments or an error in-case of failures
+    isolated remote function chatStream(ChatMessage[] messages, ChatCompletionFunctions[] tools = [],
+            string? stop = ()) returns stream<ChatAssistantMessageDelta, LlmError?>|LlmError {
+        map<json> requestPayload = self.createRequestPayload(messages, tools, stop);
+        requestPayload["stream"] = true;
+        stream<http:SseEvent, error?>|error events =
+            self.AnthropicClient->/messages.post(requestPayload, self.getRequestHeaders());
+        if events is error {
+            return error LlmConnectionError("Error while connecting to the model", events);
+        }
+        return new (new SseDeltaStream(events, getAnthropicDelta, ANTHROPIC_PROVIDER));
+    }
 
+    private isolated function createRequestPayload(ChatMessage[] messages, ChatCompletionFunctions[] tools,
+            string? stop) returns map<json> {
         // Map messages to Anthropic format
         AnthropicMessage[] anthropicMessages = self.mapToAnthropicMessages(messages);
 
@@ -781,46 +1048,63 @@ public isolated client class AnthropicProvider {
             requestPayload["stop_sequences"] = [stop];
         }
 
-        // If tools are provided, add them to the request
+        // The tools precede the system prompt, and both precede the messages, in the prompt prefix cached by the
+        // model. Hence, a cache breakpoint is set after the tools and another after the system prompt.
         if tools.length() > 0 {
-            requestPayload["tools"] = self.mapToAnthropicTools(tools);
+            AnthropicTool[] anthropicTools = self.mapToAnthropicTools(sortToolsByName(tools));
+            if self.promptCaching {
+                anthropicTools[anthropicTools.length() - 1].cache_control = {};
+            }
+            requestPayload["tools"] = anthropicTools;
         }
 
-        // Send request to Anthropic API with proper headers
-        map<string> headers = {
-            "x-api-key": self.apiKey,
-            "anthropic-version": self.apiVersion,
-            "content-type": "application/json"
-        };
-
-        AnthropicApiResponse|error anthropicResponse = self.AnthropicClient->/messages.post(requestPayload, headers);
-        if anthropicResponse is error {
-            return error LlmInvalidResponseError("Unexpected response format from Anthropic API", anthropicResponse);
+        AnthropicSystemBlock[] systemBlocks = [];
+        foreach ChatMessage message in messages {
+            if message is ChatSystemMessage {
+                systemBlocks.push({text: message.content});
+            }
+        }
+        if systemBlocks.length() > 0 {
+            if self.promptCaching {
+                systemBlocks[systemBlocks.length() - 1].cache_control = {};
+            }
+            requestPayload["system"] = systemBlocks;
         }
+        return requestPayload;
+    }
 
-        string? content = ();
-        FunctionCall[] toolCalls = [];
-        foreach ContentBlock block in anthropicResponse.content {
-            string blockType = block.'type;
-            if blockType == "tool_use" {
-                string blockName = block.name ?: "";
-                json inputJson = block?.input;
-                toolCalls.push({
-                    name: blockName,
-                    arguments: inputJson.toJsonString()
-                });
-            } else if blockType == "text" {
-                content = block.text;
+    private isolated function recordUsage(Usage usage) returns TokenUsage {
+        int cacheCreationInputTokens = usage.cache_creation_input_tokens ?: 0;
+        int cacheReadInputTokens = usage.cache_read_input_tokens ?: 0;
+        int inputTokens = usage.input_tokens;
+        lock {
+            self.cacheStats.requestCount += 1;
+            self.cacheStats.inputTokens += inputTokens;
+            self.cacheStats.cacheCreationInputTokens += cacheCreationInputTokens;
+            self.cacheStats.cacheReadInputTokens += cacheReadInputTokens;
+            if cacheReadInputTokens > 0 {
+                self.cacheStats.cacheHitCount += 1;
             }
         }
-        return {role: ASSISTANT, toolCalls: toolCalls == [] ? () : toolCalls, content};
+        // The input tokens reported by Anthropic exclude the tokens read from and written to the cache
+        return reportTokenUsage(ANTHROPIC_PROVIDER, inputTokens + cacheCreationInputTokens + cacheReadInputTokens,
+            usage.output_tokens, cacheReadInputTokens);
+    }
+
+    private isolated function getRequestHeaders() returns map<string> {
+        return {
+            "x-api-key": self.apiKey,
+            "anthropic-version": self.apiVersion,
+            "content-type": "application/json"
+        };
     }
 }
 
 # MistralAiProvider is a client class that provides an interface for interacting with Mistral AI language models.
 public isolated client class MistralAiProvider {
-    *ModelProvider;
+    *StreamingModelProvider;
     private final mistral:Client llmClient;
+    private final http:Client streamingClient;
     private final string modelType;
     private final string apiKey;
     private final int maxTokens;
@@ -865,14 +1149,26 @@ public isolated client class MistralAiProvider {
         if llmClient is error {
             return error Error("Failed to initialize MistralAiProvider", llmClient);
         }
+        // The generated client does not support server-sent events, hence streaming requests are sent directly.
+        http:Client|error streamingClient = new (serviceUrl, {...connectionConfig, auth: {token: apiKey}});
+        if streamingClient is error {
+            return error Error("Failed to initialize MistralAiProvider", streamingClient);
+        }
 
         self.llmClient = llmClient;
+        self.streamingClient = streamingClient;
         self.modelType = modelType;
         self.apiKey = apiKey;
         self.maxTokens = maxTokens;
         self.temperature = temperature;
     }
 
+    isolated function getGenerationParameters() returns readonly & map<json> => {
+        model: self.modelType,
+        temperature: self.temperature,
+        maxTokens: self.maxTokens
+    };
+
     # Uses function call API to determine next function to be called
     #
     # + messages - List of chat messages 
@@ -881,6 +1177,32 @@ public isolated client class MistralAiProvider {
     # + return - Returns an array of ChatAssistantMessage or an LlmError in case of failures
     isolated remote function chat(ChatMessage[] messages, ChatCompletionFunctions[] tools, string? stop = ())
         returns ChatAssistantMessage|LlmError {
+        mistral:ChatCompletionRequest request = self.createRequest(messages, tools, stop);
+        mistral:ChatCompletionResponse|error response = self.llmClient->/chat/completions.post(request);
+        if response is error {
+            return error LlmConnectionError("Error while connecting to the model", response);
+        }
+        return self.getAssistantMessage(response);
+    }
+
+    # Uses function call API to determine next function to be called, and streams the response as it is generated.
+    #
+    # + messages - List of chat messages 
+    # + tools - Tool definitions to be used for the tool call
+    # + stop - Stop sequence to stop the completion
+    # + return - A stream of message fragments or an error in-case of failures
+    isolated remote function chatStream(ChatMessage[] messages, ChatCompletionFunctions[] tools = [],
+            string? stop = ()) returns stream<ChatAssistantMessageDelta, LlmError?>|LlmError {
+        map<json> request = check getStreamingRequestPayload(self.createRequest(messages, tools, stop), false);
+        stream<http:SseEvent, error?>|error events = self.streamingClient->/chat/completions.post(request);
+        if events is error {
+            return error LlmConnectionError("Error while connecting to the model", events);
+        }
+        return new (new SseDeltaStream(events, getOpenAiCompatibleDelta, MISTRAL_AI_PROVIDER));
+    }
+
+    private isolated function createRequest(ChatMessage[] messages, ChatCompletionFunctions[] tools, string? stop)
+        returns mistral:ChatCompletionRequest {
         MistralMessages[] mistralMessages = self.mapToMistralMessageRecords(messages);
         mistral:ChatCompletionRequest request = {
             model: self.modelType,
@@ -892,7 +1214,7 @@ public isolated client class MistralAiProvider {
 
         if tools.length() > 0 {
             mistral:Function[] mistralFunctions = [];
-            foreach ChatCompletionFunctions toolFunction in tools {
+            foreach ChatCompletionFunctions toolFunction in sortToolsByName(tools) {
                 mistral:Function mistralFunction = {
                     name: toolFunction.name,
                     description: toolFunction.description,
@@ -909,12 +1231,7 @@ public isolated client class MistralAiProvider {
             }
             request.tools = mistralTools;
         }
-
-        mistral:ChatCompletionResponse|error response = self.llmClient->/chat/completions.post(request);
-        if response is error {
-            return error LlmConnectionError("Error while connecting to the model", response);
-        }
-        return self.getAssistantMessage(response);
+        return request;
     }
 
     # Generates a random tool ID.
@@ -955,9 +1272,12 @@ public isolated client class MistralAiProvider {
                 FunctionCall[]? toolCalls = message.toolCalls;
                 mistral:AssistantMessage mistralAssistantMessage = {role: ASSISTANT, content: message.content};
                 if toolCalls is FunctionCall[] {
-                    mistral:FunctionCall functionCall = {name: toolCalls[0].name, arguments: toolCalls[0].arguments};
-                    mistral:ToolCall[] toolCall = [{'function: functionCall, id: toolCalls[0]?.id ?: self.generateToolId()}];
-                    mistralAssistantMessage.toolCalls = toolCall;
+                    mistral:ToolCall[] mistralToolCalls = [];
+                    foreach FunctionCall toolCall in toolCalls {
+                        mistral:FunctionCall functionCall = {name: toolCall.name, arguments: toolCall.arguments};
+                        mistralToolCalls.push({'function: functionCall, id: toolCall?.id ?: self.generateToolId()});
+                    }
+                    mistralAssistantMessage.toolCalls = mistralToolCalls;
                 }
                 mistralMessages.push(mistralAssistantMessage);
             } else if message is ChatFunctionMessage {
@@ -994,9 +1314,15 @@ public isolated client class MistralAiProvider {
             stringContent = string:'join("", ...content.'map(chunk => chunk.text));
         }
 
+        ChatAssistantMessage assistantMessage = {role: ASSISTANT, content: stringContent};
+        MistralUsage? usage = response?.usage;
+        if usage is MistralUsage {
+            assistantMessage.usage = reportTokenUsage(MISTRAL_AI_PROVIDER, usage.promptTokens,
+                usage.completionTokens);
+        }
         mistral:ToolCall[]? toolCalls = message?.toolCalls;
         if toolCalls is () {
-            return {role: ASSISTANT, content: stringContent};
+            return assistantMessage;
         }
         FunctionCall[] functionCalls = [];
         foreach mistral:ToolCall toolcall in toolCalls {
@@ -1006,13 +1332,14 @@ public isolated client class MistralAiProvider {
                 arguments: toolcall.'function.arguments.toString()
             });
         }
-        return {role: ASSISTANT, toolCalls: functionCalls, content: stringContent};
+        assistantMessage.toolCalls = functionCalls;
+        return assistantMessage;
     }
 }
 
 # Deepseek is a client class that provides an interface for interacting with Deepseek language models.
 public isolated client class DeepseekProvider {
-    *ModelProvider;
+    *StreamingModelProvider;
     private final http:Client llmClient;
     private final int maxTokens;
     private final DEEPSEEK_MODEL_NAMES modelType;
@@ -1065,6 +1392,12 @@ public isolated client class DeepseekProvider {
         self.temperature = temperateure;
     }
 
+    isolated function getGenerationParameters() returns readonly & map<json> => {
+        model: self.modelType,
+        temperature: self.temperature,
+        maxTokens: self.maxTokens
+    };
+
     # Generates a chat completion message from a Deepseek model
     #
     # + messages - List of chat messages 
@@ -1073,6 +1406,32 @@ public isolated client class DeepseekProvider {
     # + return - Function to be called, chat response or an error in-case of failures
     isolated remote function chat(ChatMessage[] messages, ChatCompletionFunctions[] tools, string? stop = ())
     returns ChatAssistantMessage|LlmError {
+        DeepSeekChatCompletionRequest request = check self.createRequest(messages, tools, stop);
+        DeepSeekChatCompletionResponse|error response = self.llmClient->/chat/completions.post(request);
+        if response is error {
+            return error LlmConnectionError("Error while connecting to the model", response);
+        }
+        return self.getAssistantMessages(response);
+    }
+
+    # Generates a chat completion message from a Deepseek model, which is streamed as it is generated.
+    #
+    # + messages - List of chat messages 
+    # + tools - Tool definitions to be used for the tool call
+    # + stop - Stop sequence to stop the completion
+    # + return - A stream of message fragments or an error in-case of failures
+    isolated remote function chatStream(ChatMessage[] messages, ChatCompletionFunctions[] tools = [],
+            string? stop = ()) returns stream<ChatAssistantMessageDelta, LlmError?>|LlmError {
+        map<json> request = check getStreamingRequestPayload(check self.createRequest(messages, tools, stop));
+        stream<http:SseEvent, error?>|error events = self.llmClient->/chat/completions.post(request);
+        if events is error {
+            return error LlmConnectionError("Error while connecting to the model", events);
+        }
+        return new (new SseDeltaStream(events, getOpenAiCompatibleDelta, DEEPSEEK_PROVIDER));
+    }
+
+    private isolated function createRequest(ChatMessage[] messages, ChatCompletionFunctions[] tools, string? stop)
+        returns DeepSeekChatCompletionRequest|LlmError {
         DeepSeekChatRequestMessages[] deepseekPayloadMessages = check self.mapDeepseekMessages(messages);
 
         DeepSeekChatCompletionRequest request = {
@@ -1085,7 +1444,7 @@ public isolated client class DeepseekProvider {
 
         if tools.length() > 0 {
             DeepseekFunction[] deepseekFunctions = [];
-            foreach ChatCompletionFunctions toolFunction in tools {
+            foreach ChatCompletionFunctions toolFunction in sortToolsByName(tools) {
                 DeepseekFunction deepseekFunction = {
                     name: toolFunction.name,
                     description: toolFunction.description,
@@ -1096,12 +1455,7 @@ public isolated client class DeepseekProvider {
             DeepseekTool[] deepseekTools = deepseekFunctions.'map(self.transFormFuncToTool);
             request.tools = deepseekTools;
         }
-
-        DeepSeekChatCompletionResponse|error response = self.llmClient->/chat/completions.post(request);
-        if response is error {
-            return error LlmConnectionError("Error while connecting to the model", response);
-        }
-        return self.getAssistantMessages(response);
+        return request;
     }
 
     private isolated function transFormFuncToTool(DeepseekFunction deepseekFunction) returns DeepseekTool {
@@ -1203,10 +1557,15 @@ public isolated client class DeepseekProvider {
             return error LlmInvalidResponseError("Empty response from the model when using function call API");
         }
         DeepseekChatResponseMessage message = choices[0].message;
-        string? content = message?.content;
+        ChatAssistantMessage assistantMessage = {role: ASSISTANT, content: message?.content};
+        DeepseekUsage? usage = response?.usage;
+        if usage is DeepseekUsage {
+            assistantMessage.usage = reportTokenUsage(DEEPSEEK_PROVIDER, usage.prompt_tokens, usage.completion_tokens,
+                usage?.prompt_cache_hit_tokens ?: 0);
+        }
         DeepseekChatResponseToolCall[]? toolCalls = message?.tool_calls;
         if toolCalls is () {
-            return {role: ASSISTANT, content: content};
+            return assistantMessage;
         }
 
         FunctionCall[] functionCalls = [];
@@ -1217,6 +1576,86 @@ public isolated client class DeepseekProvider {
                 arguments: toolCall.'function.arguments.toString()
             });
         }
-        return {role: ASSISTANT, toolCalls: functionCalls, content: content};
+        assistantMessage.toolCalls = functionCalls;
+        return assistantMessage;
+    }
+}
+
+// Maps the messages to the messages of the tool calling API of OpenAI compatible models. Each function call is
+// sent with an identifier, which the result of the call refers to. The function calls without an identifier are
+// given one, and a result without an identifier refers to the call at the same position of the last tool calls.
+isolated function getOpenAiCompatibleMessages(ChatMessage[] messages) returns OpenAiCompatibleMessage[] {
+    OpenAiCompatibleMessage[] openAiMessages = [];
+    string[] toolCallIds = [];
+    int resultCount = 0;
+    foreach int i in 0 ..< messages.length() {
+        ChatMessage message = messages[i];
+        if message is ChatAssistantMessage {
+            OpenAiCompatibleAssistantMessage assistantMessage = {content: message?.content};
+            FunctionCall[]? toolCalls = message.toolCalls;
+            if toolCalls is FunctionCall[] && toolCalls.length() > 0 {
+                toolCallIds = from int j in 0 ..< toolCalls.length()
+                    select toolCalls[j]?.id ?: string `call_${i}_${j}`;
+                resultCount = 0;
+                assistantMessage.tool_calls = from int j in 0 ..< toolCalls.length()
+                    select {
+                        id: toolCallIds[j],
+                        'function: {name: toolCalls[j].name, arguments: toolCalls[j].arguments}
+                    };
+            }
+            openAiMessages.push(assistantMessage);
+        } else if message is ChatFunctionMessage {
+            string toolCallId = message?.id
+                ?: (resultCount < toolCallIds.length() ? toolCallIds[resultCount] : string `call_${i}`);
+            resultCount += 1;
+            OpenAiCompatibleToolMessage toolMessage = {content: message?.content ?: "", tool_call_id: toolCallId};
+            openAiMessages.push(toolMessage);
+        } else {
+            openAiMessages.push(message);
+        }
+    }
+    return openAiMessages;
+}
+
+isolated function getOpenAiCompatibleFunctionCalls(anydata toolCalls) returns FunctionCall[]|LlmInvalidResponseError {
+    OpenAiCompatibleResponseToolCall[]|error responseToolCalls = toolCalls.cloneWithType();
+    if responseToolCalls is error {
+        return error LlmInvalidResponseError("Unexpected tool calls in the response of the model", responseToolCalls);
+    }
+    return from OpenAiCompatibleResponseToolCall toolCall in responseToolCalls
+        select {id: toolCall.id, name: toolCall.'function.name, arguments: toolCall.'function.arguments};
+}
+
+# Returns the tokens used by a request to a model, and records them in the metrics of the model provider.
+#
+# + provider - The name of the model provider
+# + inputTokens - The number of tokens in the prompt
+# + outputTokens - The number of tokens in the generated response
+# + cachedInputTokens - The number of tokens in the prompt read from the prompt cache
+# + return - The tokens used by the request
+isolated function reportTokenUsage(string provider, int inputTokens, int outputTokens, int cachedInputTokens = 0)
+        returns TokenUsage {
+    recordTokenUsage(provider, inputTokens, outputTokens);
+    return {inputTokens, outputTokens, cachedInputTokens};
+}
+
+# Returns the tools ordered by their names. The tools are given to the models in a stable order, so that the prompt
+# prefixes cached by the models are reused regardless of the order in which the tools are provided.
+#
+# + tools - Tool definitions to be used for the tool call
+# + return - Tool definitions ordered by their names
+isolated function sortToolsByName(ChatCompletionFunctions[] tools) returns ChatCompletionFunctions[] =>
+    from ChatCompletionFunctions tool in tools
+    order by tool.name ascending
+    select tool;
+
+# Returns whether the model resolves the `$ref` references to the `$defs` of the tool schemas.
+#
+# + model - The model provider
+# + return - `true` if the tool schemas with references are supported by the model
+isolated function resolvesSchemaReferences(ModelProvider model) returns boolean {
+    if model is CachedModelProvider {
+        return resolvesSchemaReferences(model.getModel());
     }
+    return model is OpenAiProvider|AzureOpenAiProvider|AnthropicProvider;
 }
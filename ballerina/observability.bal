@@ -0,0 +1,182 @@
+// Copyright (c) 2025 WSO2 LLC (http://www.wso2.com).
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/jballerina.java;
+import ballerina/log;
+import ballerina/observe;
+import ballerina/time;
+
+// The metrics and the spans are recorded only when they are enabled for the program, hence the agents have
+// no overhead other than these checks when the observability is disabled.
+final boolean isMetricsEnabled = observe:isMetricsEnabled();
+final boolean isTracingEnabled = observe:isTracingEnabled();
+
+// Metrics are registered once for each name and set of tags, and looked up without a lock afterwards.
+// The distributions of the values, such as the latencies and the token counts, are recorded with gauges. Besides the
+// latest value, a gauge reports statistics of the values recorded within a time window, such as the mean, the maximum
+// and the percentiles, since Ballerina observability provides no histogram metric.
+
+# Starts a span of the agent execution, if tracing is enabled.
+#
+# + name - The name of the span
+# + tags - The tags of the span
+# + parentSpanId - The ID of the parent span. If not provided, the span is a child of the current span of the program
+# + return - The ID of the span, or nil if tracing is disabled or the span cannot be started
+isolated function startSpan(string name, map<string> tags = {}, int? parentSpanId = ()) returns int? {
+    if !isTracingEnabled {
+        return ();
+    }
+    int|error spanId = observe:startSpan(name, tags, parentSpanId ?: -1);
+    if spanId is error {
+        log:printDebug("Failed to start the span", spanId, span = name);
+        return ();
+    }
+    return spanId;
+}
+
+isolated function finishSpan(int? spanId) {
+    if spanId is () {
+        return;
+    }
+    error? result = observe:finishSpan(spanId);
+    if result is error {
+        log:printDebug("Failed to finish the span", result);
+    }
+}
+
+# Returns the start time of an operation to be measured, if metrics are enabled.
+#
+# + return - The start time in seconds, or nil if metrics are disabled
+isolated function startTimer() returns decimal? => isMetricsEnabled ? time:monotonicNow() : ();
+
+# Records the time elapsed since the start time of an operation.
+#
+# + name - The name of the metric
+# + startTime - The start time returned by `startTimer`
+# + tags - The tags of the metric
+isolated function recordDuration(string name, decimal? startTime, map<string> tags = {}) {
+    if startTime is () {
+        return;
+    }
+    recordValue(name, <float>(time:monotonicNow() - startTime), tags);
+}
+
+# Records a value of a gauge, of which the statistics summarize the distribution of the values.
+#
+# + name - The name of the metric
+# + value - The value to be recorded
+# + tags - The tags of the metric
+isolated function recordValue(string name, float value, map<string> tags = {}) {
+    if !isMetricsEnabled {
+        return;
+    }
+    readonly & map<string> metricTags = tags.cloneReadOnly();
+    string key = name + metricTags.toString();
+    observe:Gauge? gauge = getCachedGauge(key);
+    if gauge is () {
+        gauge = registerGauge(key, name, metricTags);
+    }
+    if gauge is observe:Gauge {
+        gauge.setValue(value);
+    }
+}
+
+# Increments a counter of the agent executions.
+#
+# + name - The name of the metric
+# + tags - The tags of the metric
+isolated function incrementCounter(string name, map<string> tags = {}) {
+    if !isMetricsEnabled {
+        return;
+    }
+    readonly & map<string> metricTags = tags.cloneReadOnly();
+    string key = name + metricTags.toString();
+    observe:Counter? counter = getCachedCounter(key);
+    if counter is () {
+        counter = registerCounter(key, name, metricTags);
+    }
+    if counter is observe:Counter {
+        counter.increment();
+    }
+}
+
+isolated function registerGauge(string key, string name, readonly & map<string> tags) returns observe:Gauge? {
+    // Registering is serialized, so that a metric is registered only once when first recorded concurrently
+    lock {
+        observe:Gauge? gauge = getCachedGauge(key);
+        if gauge is observe:Gauge {
+            return gauge;
+        }
+        observe:Gauge newGauge = new (name, tags = tags);
+        error? registration = newGauge.register();
+        if registration is error {
+            log:printDebug("Failed to register the metric", registration, metric = name);
+            return ();
+        }
+        cacheMetric(key, newGauge);
+        return newGauge;
+    }
+}
+
+isolated function registerCounter(string key, string name, readonly & map<string> tags) returns observe:Counter? {
+    lock {
+        observe:Counter? counter = getCachedCounter(key);
+        if counter is observe:Counter {
+            return counter;
+        }
+        observe:Counter newCounter = new (name, tags = tags);
+        error? registration = newCounter.register();
+        if registration is error {
+            log:printDebug("Failed to register the metric", registration, metric = name);
+            return ();
+        }
+        cacheMetric(key, newCounter);
+        return newCounter;
+    }
+}
+
+isolated function getCachedGauge(string key) returns observe:Gauge? = @java:Method {
+    'class: "io.ballerina.lib.ai.MetricCache"
+} external;
+
+isolated function getCachedCounter(string key) returns observe:Counter? = @java:Method {
+    'class: "io.ballerina.lib.ai.MetricCache"
+} external;
+
+isolated function cacheMetric(string key, observe:Gauge|observe:Counter metric) = @java:Method {
+    'class: "io.ballerina.lib.ai.MetricCache"
+} external;
+
+# Records the tokens used by a request to a model.
+#
+# + provider - The name of the model provider
+# + promptTokens - The number of tokens in the prompt
+# + completionTokens - The number of tokens in the completion
+isolated function recordTokenUsage(string provider, int promptTokens, int completionTokens) {
+    if !isMetricsEnabled {
+        return;
+    }
+    map<string> tags = {[PROVIDER_TAG]: provider};
+    recordValue(MODEL_PROMPT_TOKENS_METRIC, <float>promptTokens, tags);
+    recordValue(MODEL_COMPLETION_TOKENS_METRIC, <float>completionTokens, tags);
+}
+
+isolated function getAgentType(BaseAgent agent) returns string {
+    if agent is FunctionCallAgent {
+        return "FunctionCallAgent";
+    }
+    return agent is ReActAgent ? "ReActAgent" : "CustomAgent";
+}
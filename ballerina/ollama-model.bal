@@ -16,6 +16,7 @@
 
 import ballerina/data.jsondata;
 import ballerina/http;
+import ballerina/io;
 
 // Configs obtained from: https://github.com/ollama/ollama/blob/main/docs/modelfile.md#parameter
 # Represents the model parameters for Ollama text generation.
@@ -100,6 +101,8 @@ public type OllamaModelParameters record {|
 type OllamaResponse record {
     string model;
     OllamaMessage message;
+    int prompt_eval_count?;
+    int eval_count?;
 };
 
 type OllamaMessage record {
@@ -123,7 +126,7 @@ const OLLAMA_DEFAULT_SERVICE_URL = "http://localhost:11434";
 
 # Represents a client for interacting with an Ollama models.
 public isolated client class OllamaProvider {
-    *ModelProvider;
+    *StreamingModelProvider;
     private final http:Client ollamaClient;
     private final string modelType;
     private final readonly & map<json> modleParameters;
@@ -149,6 +152,11 @@ public isolated client class OllamaProvider {
         self.modelType = modelType;
     }
 
+    isolated function getGenerationParameters() returns readonly & map<json> => {
+        model: self.modelType,
+        ...self.modleParameters
+    };
+
     # Sends a chat request to the Ollama model with the given messages and tools.
     #
     # + messages - List of chat messages 
@@ -166,8 +174,27 @@ public isolated client class OllamaProvider {
         return self.mapOllamaResponseToAssistantMessage(response);
     }
 
+    # Sends a chat request to the Ollama model and streams the response as it is generated.
+    #
+    # + messages - List of chat messages 
+    # + tools - Tool definitions to be used for the tool call
+    # + stop - Stop sequence to stop the completion
+    # + return - A stream of message fragments or an error in-case of failures
+    isolated remote function chatStream(ChatMessage[] messages, ChatCompletionFunctions[] tools = [],
+            string? stop = ()) returns stream<ChatAssistantMessageDelta, LlmError?>|LlmError {
+        // Ollama streams the response as newline delimited JSON objects
+        map<json> requestPayload = self.prepareRequestPayload(messages, tools, stop);
+        requestPayload["stream"] = true;
+        http:Response response = check getStreamingResponse(self.ollamaClient->/api/chat.post(requestPayload));
+        stream<byte[], io:Error?>|http:ClientError content = response.getByteStream();
+        if content is http:ClientError {
+            return error LlmConnectionError("Error while streaming the response from ollama", content);
+        }
+        return new (new LineDeltaStream(content, getOllamaDelta, OLLAMA_PROVIDER));
+    }
+
     private isolated function prepareRequestPayload(ChatMessage[] messages, ChatCompletionFunctions[] tools, string? stop)
-        returns json {
+        returns map<json> {
         json[] transformedMessages = messages.'map(isolated function(ChatMessage message) returns json {
             if message is ChatFunctionMessage {
                 return {role: TOOL_ROLE, content: message?.content};
@@ -187,7 +214,7 @@ public isolated client class OllamaProvider {
             options
         };
         if tools.length() > 0 {
-            payload["tools"] = tools.'map(tool => {'type: OLLAMA_FUNCTION_TYPE, 'function: tool});
+            payload["tools"] = sortToolsByName(tools).'map(tool => {'type: OLLAMA_FUNCTION_TYPE, 'function: tool});
         }
         return payload;
     }
@@ -195,10 +222,14 @@ public isolated client class OllamaProvider {
     private isolated function mapOllamaResponseToAssistantMessage(OllamaResponse response)
         returns ChatAssistantMessage {
         OllamaToolCall[]? toolCalls = response.message?.tool_calls;
-        if toolCalls is OllamaToolCall[] {
-            return self.mapToolCallsToAssistantMessage(toolCalls);
+        ChatAssistantMessage assistantMessage = toolCalls is OllamaToolCall[]
+            ? self.mapToolCallsToAssistantMessage(toolCalls) : {role: ASSISTANT, content: response.message.content};
+        int? promptTokens = response?.prompt_eval_count;
+        int? completionTokens = response?.eval_count;
+        if promptTokens is int || completionTokens is int {
+            assistantMessage.usage = reportTokenUsage(OLLAMA_PROVIDER, promptTokens ?: 0, completionTokens ?: 0);
         }
-        return {role: ASSISTANT, content: response.message.content};
+        return assistantMessage;
     }
 
     private isolated function mapToolCallsToAssistantMessage(OllamaToolCall[] ollamaToolCalls)
@@ -0,0 +1,223 @@
+// Copyright (c) 2025 WSO2 LLC (http://www.wso2.com).
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+# Represents the usage statistics of a persistent chat memory.
+public type PersistentChatMemoryStats record {|
+    # Number of sessions currently cached in memory
+    int cachedSessionCount;
+    # Number of retrievals served from the cache
+    int cacheHitCount;
+    # Number of retrievals that loaded the session from the log
+    int cacheMissCount;
+    # Number of sessions evicted from the cache as the least recently used session
+    int evictedSessionCount;
+|};
+
+# Provides a chat message window per session, persisted to an append-only log in the given directory,
+# so that the conversations survive restarts of the service.
+# Updates are buffered and written to the log in batches, each followed by a single `fsync`.
+# Recently used sessions are cached in memory, while the others are loaded from the log on demand.
+# The log is compacted when most of it is made up of messages that fell out of their windows or belong to
+# deleted sessions. The log is locked while the memory is open, so a directory is used by a single memory at a time,
+# and another memory in this or another process fails to open it.
+public isolated class PersistentMessageWindowChatMemory {
+    *Memory;
+    private final handle log;
+    private final PersistentMemoryShard[] shards = [];
+    private final int shardCount;
+
+    # Initializes a new persistent memory, recovering the sessions stored in the directory.
+    #
+    # + directory - The directory in which the memory log is stored. It is created if it does not exist
+    # + size - The maximum capacity for stored messages per session, including the system message
+    # + maxCachedSessions - The maximum number of sessions cached in memory
+    # + flushInterval - The maximum time in seconds an update is buffered before it is written to the log
+    # + maxBatchSize - The number of buffered updates after which they are written to the log
+    # + shardCount - The number of shards the cached sessions are partitioned into
+    # + return - nil on success, or an `ai:MemoryError` if the log cannot be opened or is in use by another memory
+    public isolated function init(string directory, int size = 10,
+            int maxCachedSessions = DEFAULT_MAX_CACHED_SESSIONS,
+            decimal flushInterval = DEFAULT_MEMORY_FLUSH_INTERVAL,
+            int maxBatchSize = DEFAULT_MEMORY_MAX_BATCH_SIZE, int shardCount = 16) returns MemoryError? {
+        int windowSize = int:max(1, size - 1);
+        handle|error log = openMemoryLog(directory, windowSize, maxBatchSize, <int>(flushInterval * 1000));
+        if log is error {
+            return error MemoryError(log.message(), log, directory = directory);
+        }
+        self.log = log;
+        self.shardCount = shardCount < 1 ? 1 : shardCount;
+        int maxCachedSessionsPerShard = int:max(1, (maxCachedSessions + self.shardCount - 1) / self.shardCount);
+        lock {
+            foreach int i in 0 ..< self.shardCount {
+                self.shards.push(new PersistentMemoryShard(log, windowSize, maxCachedSessionsPerShard));
+            }
+        }
+    }
+
+    # Retrieves a read-only snapshot of the stored messages, with the system prompt first if available.
+    #
+    # + sessionId - The ID associated with the memory
+    # + return - A read-only array of messages, or an `ai:MemoryError` if the session cannot be loaded
+    public isolated function get(string sessionId) returns ChatMessage[]|MemoryError {
+        return self.getShard(sessionId).get(sessionId);
+    }
+
+    # Adds a message to the window of the session.
+    # The message is written to the log asynchronously, within the flush interval.
+    #
+    # + sessionId - The ID associated with the memory
+    # + message - The `ChatMessage` to store or use as system prompt
+    # + return - nil on success, or an `ai:MemoryError` if writing to the log has failed
+    public isolated function update(string sessionId, ChatMessage message) returns MemoryError? {
+        return self.getShard(sessionId).update(sessionId, message.cloneReadOnly());
+    }
+
+    # Removes the session and all of its messages from the memory.
+    #
+    # + sessionId - The ID associated with the memory
+    # + return - nil on success, or an `ai:MemoryError` if writing to the log has failed
+    public isolated function delete(string sessionId) returns MemoryError? {
+        return self.getShard(sessionId).delete(sessionId);
+    }
+
+    # Writes the buffered updates to the log.
+    #
+    # + return - nil on success, or an `ai:MemoryError` if writing to the log has failed
+    public isolated function flush() returns MemoryError? {
+        error? result = flushMemoryLog(self.log);
+        if result is error {
+            return error MemoryError(result.message(), result);
+        }
+    }
+
+    # Rewrites the log with only the messages retained in the windows of the sessions.
+    #
+    # + return - nil on success, or an `ai:MemoryError` if the compaction has failed
+    public isolated function compact() returns MemoryError? {
+        error? result = compactMemoryLog(self.log);
+        if result is error {
+            return error MemoryError(result.message(), result);
+        }
+    }
+
+    # Writes the buffered updates to the log and closes it. The memory cannot be updated afterwards.
+    #
+    # + return - nil on success, or an `ai:MemoryError` if writing to the log has failed
+    public isolated function close() returns MemoryError? {
+        error? result = closeMemoryLog(self.log);
+        if result is error {
+            return error MemoryError(result.message(), result);
+        }
+    }
+
+    # Retrieves the usage statistics of the memory.
+    #
+    # + return - Aggregated statistics of all the shards
+    public isolated function getStats() returns PersistentChatMemoryStats {
+        PersistentChatMemoryStats stats = {cachedSessionCount: 0, cacheHitCount: 0, cacheMissCount: 0,
+            evictedSessionCount: 0};
+        foreach int i in 0 ..< self.shardCount {
+            PersistentMemoryShard shard;
+            lock {
+                shard = self.shards[i];
+            }
+            PersistentChatMemoryStats shardStats = shard.getStats();
+            stats.cachedSessionCount += shardStats.cachedSessionCount;
+            stats.cacheHitCount += shardStats.cacheHitCount;
+            stats.cacheMissCount += shardStats.cacheMissCount;
+            stats.evictedSessionCount += shardStats.evictedSessionCount;
+        }
+        return stats;
+    }
+
+    private isolated function getShard(string sessionId) returns PersistentMemoryShard {
+        int index = getSessionHash(sessionId) % self.shardCount;
+        lock {
+            return self.shards[index];
+        }
+    }
+}
+
+# Caches the sessions of a shard in front of the memory log.
+# Writing to the log and updating the cache happen under the same lock, so that a session loaded from the log
+# on a cache miss cannot miss a concurrent update.
+isolated class PersistentMemoryShard {
+    private final handle log;
+    private final MemoryShard cache;
+    private int cacheHitCount = 0;
+    private int cacheMissCount = 0;
+
+    isolated function init(handle log, int windowSize, int maxCachedSessions) {
+        self.log = log;
+        self.cache = new (windowSize, maxCachedSessions, ());
+    }
+
+    isolated function get(string sessionId) returns readonly & ChatMessage[]|MemoryError {
+        lock {
+            readonly & ChatMessage[]? cachedMessages = self.cache.getIfPresent(sessionId);
+            if cachedMessages !is () {
+                self.cacheHitCount += 1;
+                return cachedMessages;
+            }
+            self.cacheMissCount += 1;
+            string[]|error records = readMemoryRecords(self.log, sessionId);
+            if records is error {
+                return error MemoryError("Failed to load the session from the memory log", records,
+                    sessionId = sessionId);
+            }
+            (readonly & ChatMessage)[] messages = [];
+            foreach string payload in records {
+                readonly & ChatMessage|error message = payload.fromJsonStringWithType();
+                if message is error {
+                    return error MemoryError("Invalid message in the memory log", message, sessionId = sessionId);
+                }
+                messages.push(message);
+            }
+            self.cache.load(sessionId, messages.cloneReadOnly());
+            return self.cache.get(sessionId);
+        }
+    }
+
+    isolated function update(string sessionId, readonly & ChatMessage message) returns MemoryError? {
+        string kind = message is ChatSystemMessage ? SYSTEM_MESSAGE_RECORD : MESSAGE_RECORD;
+        string payload = message.toJsonString();
+        lock {
+            error? result = appendMemoryRecord(self.log, kind, sessionId, payload);
+            if result is error {
+                return error MemoryError(result.message(), result, sessionId = sessionId);
+            }
+            self.cache.updateIfPresent(sessionId, message);
+        }
+    }
+
+    isolated function delete(string sessionId) returns MemoryError? {
+        lock {
+            error? result = appendMemoryRecord(self.log, DELETE_RECORD, sessionId, "");
+            if result is error {
+                return error MemoryError(result.message(), result, sessionId = sessionId);
+            }
+            self.cache.delete(sessionId);
+        }
+    }
+
+    isolated function getStats() returns PersistentChatMemoryStats {
+        [int, int, int] [cachedSessionCount, evictedSessionCount, _] = self.cache.getStats();
+        lock {
+            return {cachedSessionCount, cacheHitCount: self.cacheHitCount, cacheMissCount: self.cacheMissCount,
+                evictedSessionCount};
+        }
+    }
+}
@@ -14,12 +14,12 @@
 // specific language governing permissions and limitations
 // under the License.
 
-import ballerina/lang.regexp;
 import ballerina/log;
 
 type ToolInfo readonly & record {|
     string toolList;
     string toolIntro;
+    string definitions?;
 |};
 
 # A ReAct Agent that uses ReAct prompt to answer questions by using tools.
@@ -34,18 +34,25 @@ public isolated client class ReActAgent {
     final Memory memory;
     # Represents if the agent is stateless or not.
     final boolean stateless;
+    # Tokens used by the model in each session.
+    final SessionTokenUsage sessionTokenUsage = new;
+    # Limits of the resources used by an execution of the agent.
+    final readonly & ExecutionBudget budget;
 
     # Initialize an Agent.
     #
     # + model - LLM model instance
     # + tools - Tools to be used by the agent
+    # + memory - The memory associated with the agent.
+    # + budget - Limits of the resources used by an execution of the agent
     public isolated function init(ModelProvider model, (BaseToolKit|ToolConfig|FunctionTool)[] tools,
-            Memory? memory = new MessageWindowChatMemory()) returns Error? {
+            Memory? memory = new MessageWindowChatMemory(), ExecutionBudget budget = {}) returns Error? {
         self.toolStore = check new (...tools);
         self.model = model;
         self.memory = memory is Memory ? memory : new MessageWindowChatMemory();
         self.instructionPrompt = constructReActPrompt(extractToolInfo(self.toolStore));
         self.stateless = memory is ();
+        self.budget = budget.cloneReadOnly();
         log:printDebug("Instruction Prompt Generated Successfully", instructionPrompt = self.instructionPrompt);
     }
 
@@ -55,7 +62,7 @@ public isolated client class ReActAgent {
     # + return - A record containing the tool decided by the LLM, chat response or an error if the response is invalid
     public isolated function parseLlmResponse(json llmResponse)
         returns LlmToolResponse|LlmChatResponse|LlmInvalidGenerationError =>
-        parseReActLlmResponse(normalizeLlmResponse(llmResponse.toString()));
+        parseReActLlmResponse(llmResponse.toString());
 
     # Use LLM to decide the next tool/step based on the ReAct prompting.
     #
@@ -63,16 +70,22 @@ public isolated client class ReActAgent {
     # + sessionId - The ID associated with the agent memory
     # + return - LLM response containing the tool or chat response (or an error if the call fails)
     public isolated function selectNextTool(ExecutionProgress progress, string sessionId = DEFAULT_SESSION_ID) returns json|LlmError {
-        ChatMessage[] messages = [];
+        return self.selectNextToolInConversation(progress, sessionId, new);
+    }
+
+    isolated function selectNextToolInConversation(ExecutionProgress progress, string sessionId,
+            ConversationBuilder conversation, decimal? deadline = ()) returns json|LlmError {
         // include the history
-        foreach ExecutionStep step in progress.history {
-            LlmToolResponse|LlmChatResponse|LlmInvalidGenerationError parsedResponse = self.parseLlmResponse(step.llmResponse);
+        foreach ExecutionStep step in conversation.getNewSteps(self.memory, sessionId, progress.history) {
+            // The responses parsed when the steps were executed are reused, instead of parsing the history again
+            LlmToolResponse|LlmChatResponse|LlmInvalidGenerationError parsedResponse =
+                step?.parsedLlmResponse ?: self.parseLlmResponse(step.llmResponse);
             if parsedResponse is LlmInvalidGenerationError {
-                messages.push({role: ASSISTANT, content: step.llmResponse.toJsonString()});
+                conversation.append({role: ASSISTANT, content: step.llmResponse.toJsonString()});
             } else if parsedResponse is LlmChatResponse {
-                messages.push({role: ASSISTANT, content: parsedResponse.content});
+                conversation.append({role: ASSISTANT, content: parsedResponse.content});
             } else {
-                messages.push({
+                conversation.append({
                     role: ASSISTANT,
                     toolCalls: [
                         {
@@ -90,20 +103,16 @@ public isolated client class ReActAgent {
                 });
             }
         }
-
-        ChatMessage[]|MemoryError additionalMessages = self.memory.get(sessionId);
-        if additionalMessages is error {
-            log:printError("Failed to get chat messages from memory", additionalMessages);
-        } else {
-            messages.unshift(...additionalMessages);
-        }
-        return self.generate(messages);
+        return self.generate(conversation, deadline);
     }
 
-    # + messages - Chat history to be processed by the ReAct agent
+    # + conversation - Chat history to be processed by the ReAct agent
+    # + deadline - Time by which the model is expected to respond
     # + return - The processed chat history
-    isolated function generate(ChatMessage[] messages) returns json|LlmError {
-        ChatAssistantMessage assistantMessage = check self.model->chat(messages, stop = OBSERVATION_KEY);
+    isolated function generate(ConversationBuilder conversation, decimal? deadline = ()) returns json|LlmError {
+        ChatAssistantMessage assistantMessage = check chatBefore(deadline, self.model, conversation.getMessages(),
+            stop = OBSERVATION_KEY);
+        conversation.setUsage(assistantMessage?.usage);
         FunctionCall[]? toolCalls = assistantMessage?.toolCalls;
         return toolCalls is FunctionCall[] ? toolCalls[0] : assistantMessage?.content;
     }
@@ -121,47 +130,28 @@ public isolated client class ReActAgent {
         returns record {|(ExecutionResult|ExecutionError)[] steps; string answer?;|} {
         return run(self, query, maxIter, context, verbose, sessionId);
     }
-}
 
-isolated function normalizeLlmResponse(string llmResponse) returns string {
-    string normalizedResponse = llmResponse.trim();
-    if !normalizedResponse.includes(BACKTICKS) {
-        if normalizedResponse.startsWith("{") && normalizedResponse.endsWith("}") {
-            normalizedResponse = string `${BACKTICKS}${normalizedResponse}${BACKTICKS}`;
-        } else {
-            int? jsonStart = normalizedResponse.indexOf("{");
-            int? jsonEnd = normalizedResponse.lastIndexOf("}");
-            if jsonStart is int && jsonEnd is int {
-                normalizedResponse = string `${BACKTICKS}${normalizedResponse.substring(jsonStart, jsonEnd + 1)}${BACKTICKS}`;
-            }
-        }
+    # Retrieves the tokens used by the model in the executions of a session.
+    #
+    # + sessionId - The ID associated with the agent memory
+    # + return - Aggregated token usage of the session
+    public isolated function getTokenUsage(string sessionId = DEFAULT_SESSION_ID) returns TokenUsage {
+        return self.sessionTokenUsage.get(sessionId);
     }
-    normalizedResponse = regexp:replace(re `${BACKTICKS}json`, normalizedResponse, BACKTICKS); // replace ```json  
-    normalizedResponse = regexp:replaceAll(re `"\{\}"`, normalizedResponse, "{}"); // replace "{}"
-    return normalizedResponse;
 }
 
 isolated function parseReActLlmResponse(string llmResponse) returns LlmToolResponse|LlmChatResponse|LlmInvalidGenerationError {
-    string[] content = regexp:split(re `${BACKTICKS}`, llmResponse + "<endtoken>");
-    if content.length() < 3 {
+    map<json>|error? jsonAction = parseReActAction(llmResponse);
+    if jsonAction is () {
         log:printWarn("Unexpected LLM response is given", llmResponse = llmResponse);
         return error LlmInvalidGenerationError("Unable to extract the tool due to invalid generation", llmResponse = llmResponse, instruction = "Tool execution failed due to invalid generation.");
     }
 
-    map<json>|error jsonResponse = content[1].fromJsonStringWithType();
-    if jsonResponse is error {
-        log:printWarn("Invalid JSON is given as the action.", jsonResponse);
-        return error LlmInvalidGenerationError("Invalid JSON is given as the action.", jsonResponse, llmResponse = llmResponse, instruction = "Tool execution failed due to an invalid 'Action' JSON_BLOB.");
+    if jsonAction is error {
+        log:printWarn("Invalid JSON is given as the action.", jsonAction);
+        return error LlmInvalidGenerationError("Invalid JSON is given as the action.", jsonAction, llmResponse = llmResponse, instruction = "Tool execution failed due to an invalid 'Action' JSON_BLOB.");
     }
 
-    map<json> jsonAction = {};
-    foreach [string, json] [key, value] in jsonResponse.entries() {
-        if key.toLowerAscii() == ACTION_KEY {
-            jsonAction[ACTION_NAME_KEY] = value;
-        } else if key.toLowerAscii().matches(ACTION_INPUT_REGEX) {
-            jsonAction[ACTION_ARGUEMENTS_KEY] = value;
-        }
-    }
     json input = jsonAction[ACTION_ARGUEMENTS_KEY];
     if jsonAction[ACTION_NAME_KEY].toString().toLowerAscii().matches(FINAL_ANSWER_REGEX) && input is string {
         return {
@@ -201,20 +191,31 @@ isolated function extractToolInfo(ToolStore toolStore) returns ToolInfo {
         toolNameList.push(string `${tool.name}`);
         record {|string description; map<json> inputSchema?;|} toolDescription = {
             description: tool.description,
-            inputSchema: tool.variables
+            inputSchema: toolStore.schemasWithReferences[tool.name] ?: tool.variables
         };
         toolIntroList.push(string `${tool.name}: ${toolDescription.toString()}`);
     }
-    return {
+    ToolInfo toolInfo = {
         toolList: string:'join(", ", ...toolNameList).trim(),
         toolIntro: string:'join("\n", ...toolIntroList).trim()
     };
+    if toolStore.definitions.length() == 0 {
+        return toolInfo;
+    }
+    // Shared definitions are listed once for all the tools, instead of being repeated in each input schema.
+    return {...toolInfo, definitions: toolStore.definitions.toString()};
+}
+
+isolated function getDefinitionsPrompt(ToolInfo toolInfo) returns string {
+    string? definitions = toolInfo.definitions;
+    return definitions is () ? ""
+        : string `${"\n"}The input schemas refer to the following definitions with "$ref": "#/$defs/<name>":${"\n"}${definitions}${"\n"}`;
 }
 
 isolated function constructReActPrompt(ToolInfo toolInfo) returns string => string `System: Respond to the human as helpfully and accurately as possible. You have access to the following tools:
 
 ${toolInfo.toolIntro}
-
+${getDefinitionsPrompt(toolInfo)}
 Use a json blob to specify a tool by providing an action key (tool name) and an action_input key (tool input).
 
 Valid "action" values: "Final Answer" or ${toolInfo.toolList}
@@ -0,0 +1,663 @@
+// Copyright (c) 2025 WSO2 LLC (http://www.wso2.com).
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/data.jsondata;
+import ballerina/http;
+import ballerina/io;
+import ballerina/log;
+import ballerina/time;
+
+# Represents the types of the events emitted during the execution of an agent.
+public enum AgentEventType {
+    # Fragment of the text response generated by the model
+    CONTENT_DELTA,
+    # Fragment of a tool call generated by the model
+    TOOL_CALL_DELTA,
+    # Result of a tool execution
+    TOOL_RESULT,
+    # Final answer of the agent
+    FINAL_ANSWER
+}
+
+# Represents a fragment of the text response generated by the model.
+public type ContentDeltaEvent record {|
+    # Type of the event
+    CONTENT_DELTA 'type = CONTENT_DELTA;
+    # Fragment of the text content
+    string content;
+|};
+
+# Represents a fragment of a tool call generated by the model.
+public type ToolCallDeltaEvent record {|
+    # Type of the event
+    TOOL_CALL_DELTA 'type = TOOL_CALL_DELTA;
+    # Fragment of the tool call
+    FunctionCallDelta delta;
+|};
+
+# Represents the result of a tool execution.
+public type ToolResultEvent record {|
+    # Type of the event
+    TOOL_RESULT 'type = TOOL_RESULT;
+    # Name of the executed tool
+    string name?;
+    # Identifier for the tool call
+    string id?;
+    # Observation produced by the tool, as given to the model
+    string observation;
+    # Specifies whether the tool execution failed
+    boolean isError = false;
+|};
+
+# Represents the final answer of the agent.
+public type FinalAnswerEvent record {|
+    # Type of the event
+    FINAL_ANSWER 'type = FINAL_ANSWER;
+    # The final answer
+    string content;
+|};
+
+# Represents an event emitted during the execution of an agent.
+public type AgentEvent ContentDeltaEvent|ToolCallDeltaEvent|ToolResultEvent|FinalAnswerEvent;
+
+# Converts a stream of agent events to a stream of server-sent events, which can be returned from an HTTP resource.
+# Each event is sent with the event type as the event name and the event as the JSON data.
+# If the agent fails, an `error` event is sent with the error message before the stream is closed.
+#
+# + events - The stream of agent events
+# + return - A stream of server-sent events
+public isolated function toSseEvents(stream<AgentEvent, Error?> events) returns stream<http:SseEvent, error?> {
+    return new (new SseEventStream(events));
+}
+
+// Transfers the events of an agent execution from the executing strand to the consumer of the stream.
+readonly class EventQueue {
+    private final handle queue;
+
+    isolated function init() {
+        self.queue = createEventQueue();
+    }
+
+    // A nil value or an error marks the end of the events.
+    isolated function put((readonly & AgentEvent)|Error? event) {
+        putEvent(self.queue, event);
+    }
+
+    isolated function take() returns AgentEvent|Error? {
+        AgentEvent|error? event = takeEvent(self.queue);
+        if event is Error? || event is AgentEvent {
+            return event;
+        }
+        return error Error("Interrupted while waiting for the agent events", event);
+    }
+
+    // Discards the queued events, and the events put afterwards, once the consumer stops consuming the events.
+    isolated function close() {
+        closeEventQueue(self.queue);
+    }
+
+    isolated function isClosed() returns boolean => isEventQueueClosed(self.queue);
+}
+
+class AgentEventStream {
+    private final EventQueue eventQueue;
+    private boolean isClosed = false;
+
+    isolated function init(EventQueue eventQueue) {
+        self.eventQueue = eventQueue;
+    }
+
+    public isolated function next() returns record {|AgentEvent value;|}|Error? {
+        if self.isClosed {
+            return;
+        }
+        AgentEvent|Error? event = self.eventQueue.take();
+        if event is AgentEvent {
+            return {value: event};
+        }
+        self.isClosed = true;
+        return event;
+    }
+
+    // Stops the execution producing the events, when the consumer abandons the stream.
+    public isolated function close() returns Error? {
+        self.isClosed = true;
+        self.eventQueue.close();
+    }
+}
+
+class SseEventStream {
+    private final stream<AgentEvent, Error?> events;
+    private boolean isClosed = false;
+
+    isolated function init(stream<AgentEvent, Error?> events) {
+        self.events = events;
+    }
+
+    public isolated function next() returns record {|http:SseEvent value;|}|error? {
+        if self.isClosed {
+            return;
+        }
+        record {|AgentEvent value;|}|Error? event = self.events.next();
+        if event is record {|AgentEvent value;|} {
+            return {value: {event: event.value.'type, data: event.value.toJsonString()}};
+        }
+        self.isClosed = true;
+        if event is () {
+            return;
+        }
+        log:printError("Error occured while streaming the agent events", event);
+        return {value: {event: SSE_ERROR_EVENT, data: {message: event.message()}.toJsonString()}};
+    }
+
+    public isolated function close() returns error? {
+        self.isClosed = true;
+        return self.events.close();
+    }
+}
+
+type SseDeltaMapper isolated function (http:SseEvent event) returns ChatAssistantMessageDelta|LlmError?;
+
+type LineDeltaMapper isolated function (string line) returns ChatAssistantMessageDelta|LlmError?;
+
+// Streams the message fragments of a model, which sends them as server-sent events.
+class SseDeltaStream {
+    private final stream<http:SseEvent, error?> events;
+    private final SseDeltaMapper mapper;
+    private final StreamedTokenUsage usage;
+
+    isolated function init(stream<http:SseEvent, error?> events, SseDeltaMapper mapper, string provider) {
+        self.events = events;
+        self.mapper = mapper;
+        self.usage = new (provider);
+    }
+
+    public isolated function next() returns record {|ChatAssistantMessageDelta value;|}|LlmError? {
+        while true {
+            record {|http:SseEvent value;|}|error? event = self.events.next();
+            if event is () {
+                self.usage.report();
+                return;
+            }
+            if event is error {
+                return error LlmConnectionError("Error while streaming the response from the model", event);
+            }
+            ChatAssistantMessageDelta|LlmError? delta = self.mapper(event.value);
+            if delta is ChatAssistantMessageDelta {
+                self.usage.add(delta);
+                return {value: delta};
+            }
+            if delta is LlmError {
+                return delta;
+            }
+        }
+    }
+
+    public isolated function close() returns LlmError? {
+        error? closed = self.events.close();
+        if closed is error {
+            return error LlmConnectionError("Error while closing the response streamed by the model", closed);
+        }
+    }
+}
+
+// Streams the message fragments of a model, which sends them as newline delimited JSON objects.
+class LineDeltaStream {
+    private final stream<byte[], io:Error?> content;
+    private final LineDeltaMapper mapper;
+    private final StreamedTokenUsage usage;
+    private byte[] buffer = [];
+    private boolean isContentConsumed = false;
+
+    isolated function init(stream<byte[], io:Error?> content, LineDeltaMapper mapper, string provider) {
+        self.content = content;
+        self.mapper = mapper;
+        self.usage = new (provider);
+    }
+
+    public isolated function next() returns record {|ChatAssistantMessageDelta value;|}|LlmError? {
+        while true {
+            string|LlmError? line = self.readLine();
+            if line is string {
+                ChatAssistantMessageDelta|LlmError? delta = self.mapper(line);
+                if delta is ChatAssistantMessageDelta {
+                    self.usage.add(delta);
+                    return {value: delta};
+                }
+                if delta is LlmError {
+                    return delta;
+                }
+                continue;
+            }
+            if line is () {
+                self.usage.report();
+            }
+            return line;
+        }
+    }
+
+    public isolated function close() returns LlmError? {
+        io:Error? closed = self.content.close();
+        if closed is io:Error {
+            return error LlmConnectionError("Error while closing the response streamed by the model", closed);
+        }
+    }
+
+    private isolated function readLine() returns string|LlmError? {
+        int? lineEnd = self.buffer.indexOf(NEW_LINE_BYTE);
+        while lineEnd is () && !self.isContentConsumed {
+            record {|byte[] value;|}|io:Error? chunk = self.content.next();
+            if chunk is io:Error {
+                return error LlmConnectionError("Error while streaming the response from the model", chunk);
+            }
+            if chunk is () {
+                self.isContentConsumed = true;
+            } else {
+                // Only the new chunk needs to be searched for the end of the line.
+                int searchFrom = self.buffer.length();
+                self.buffer.push(...chunk.value);
+                lineEnd = self.buffer.indexOf(NEW_LINE_BYTE, searchFrom);
+            }
+        }
+        if self.buffer.length() == 0 {
+            return;
+        }
+        int end = lineEnd ?: self.buffer.length();
+        byte[] lineBytes = self.buffer.slice(0, end);
+        self.buffer = self.buffer.slice(int:min(end + 1, self.buffer.length()));
+        string|error line = string:fromBytes(lineBytes);
+        if line is error {
+            return error LlmInvalidResponseError("Invalid UTF-8 content in the response from the model", line);
+        }
+        return line.trim() == "" ? self.readLine() : line;
+    }
+}
+
+// Adds up the tokens reported in parts over the fragments of a streamed response, and reports them to the metrics
+// once the response is completely received.
+class StreamedTokenUsage {
+    private final string provider;
+    private TokenUsage? usage = ();
+
+    isolated function init(string provider) {
+        self.provider = provider;
+    }
+
+    isolated function add(ChatAssistantMessageDelta delta) {
+        TokenUsage? usage = delta?.usage;
+        if usage is TokenUsage {
+            TokenUsage total = self.usage ?: {};
+            addTokenUsage(total, usage);
+            self.usage = total;
+        }
+    }
+
+    isolated function report() {
+        TokenUsage? usage = self.usage;
+        if usage is TokenUsage {
+            self.usage = ();
+            _ = reportTokenUsage(self.provider, usage.inputTokens, usage.outputTokens, usage.cachedInputTokens);
+        }
+    }
+}
+
+// Aggregates streamed message fragments into the complete assistant message.
+class ChatAssistantMessageAggregator {
+    private string[] contents = [];
+    private final map<FunctionCall> toolCalls = {};
+    private TokenUsage? usage = ();
+
+    isolated function add(ChatAssistantMessageDelta delta) {
+        string? content = delta?.content;
+        if content is string {
+            self.contents.push(content);
+        }
+        TokenUsage? usage = delta?.usage;
+        if usage is TokenUsage {
+            TokenUsage total = self.usage ?: {};
+            addTokenUsage(total, usage);
+            self.usage = total;
+        }
+        foreach FunctionCallDelta toolCallDelta in delta?.toolCalls ?: [] {
+            string index = toolCallDelta.index.toString();
+            FunctionCall toolCall = self.toolCalls[index] ?: {name: "", arguments: ""};
+            self.toolCalls[index] = toolCall;
+            string? id = toolCallDelta?.id;
+            if id is string {
+                toolCall.id = id;
+            }
+            toolCall.name += toolCallDelta?.name ?: "";
+            toolCall.arguments += toolCallDelta?.arguments ?: "";
+        }
+    }
+
+    isolated function getMessage() returns ChatAssistantMessage {
+        ChatAssistantMessage message = {role: ASSISTANT};
+        if self.contents.length() > 0 {
+            message.content = string:'join("", ...self.contents);
+        }
+        if self.toolCalls.length() > 0 {
+            FunctionCall[] toolCalls = self.toolCalls.toArray();
+            foreach FunctionCall toolCall in toolCalls {
+                // Tools without parameters may be called without streaming any argument fragments
+                if toolCall.arguments == "" {
+                    toolCall.arguments = "{}";
+                }
+            }
+            message.toolCalls = toolCalls;
+        }
+        TokenUsage? usage = self.usage;
+        if usage is TokenUsage {
+            message.usage = usage;
+        }
+        return message;
+    }
+}
+
+// Sends a chat request to the model. When events are requested, the response is streamed if the model supports it,
+// and the fragments are emitted as they are received. Once the deadline is exceeded, no more events are emitted and
+// the rest of the streamed response is not read.
+isolated function chatWithEvents(ModelProvider model, ChatMessage[] messages, ChatCompletionFunctions[] tools,
+        EventQueue? eventQueue, string? stop = (), decimal? deadline = ()) returns ChatAssistantMessage|LlmError {
+    if eventQueue is () {
+        return model->chat(messages, tools, stop);
+    }
+    if model !is StreamingModelProvider {
+        ChatAssistantMessage response = check model->chat(messages, tools, stop);
+        if isDeadlineExceeded(deadline) {
+            return getModelTimeoutError();
+        }
+        emitDeltaEvents(eventQueue, toChatAssistantMessageDelta(response));
+        return response;
+    }
+    stream<ChatAssistantMessageDelta, LlmError?> deltas = check model->chatStream(messages, tools, stop);
+    ChatAssistantMessageAggregator aggregator = new;
+    while true {
+        record {|ChatAssistantMessageDelta value;|}|LlmError? delta = deltas.next();
+        if delta is () {
+            return aggregator.getMessage();
+        }
+        if delta is LlmError {
+            return delta;
+        }
+        if isDeadlineExceeded(deadline) {
+            LlmError? closed = deltas.close();
+            if closed is LlmError {
+                log:printDebug("Unable to close the response streamed by the model", closed);
+            }
+            return getModelTimeoutError();
+        }
+        aggregator.add(delta.value);
+        emitDeltaEvents(eventQueue, delta.value);
+    }
+}
+
+isolated function isDeadlineExceeded(decimal? deadline) returns boolean =>
+    deadline is decimal && time:monotonicNow() >= deadline;
+
+isolated function emitDeltaEvents(EventQueue eventQueue, ChatAssistantMessageDelta delta) {
+    string? content = delta?.content;
+    if content is string && content != "" {
+        eventQueue.put({'type: CONTENT_DELTA, content});
+    }
+    foreach FunctionCallDelta toolCallDelta in delta?.toolCalls ?: [] {
+        eventQueue.put({'type: TOOL_CALL_DELTA, delta: toolCallDelta.cloneReadOnly()});
+    }
+}
+
+isolated function toChatAssistantMessageDelta(ChatAssistantMessage message) returns ChatAssistantMessageDelta {
+    ChatAssistantMessageDelta delta = {};
+    string? content = message.content;
+    if content is string {
+        delta.content = content;
+    }
+    FunctionCall[]? toolCalls = message.toolCalls;
+    if toolCalls is FunctionCall[] {
+        delta.toolCalls = from int index in 0 ..< toolCalls.length()
+            select {index, ...toolCalls[index]};
+    }
+    return delta;
+}
+
+type OpenAiCompatibleFunctionCallDelta record {
+    string? name = ();
+    string? arguments = ();
+};
+
+type OpenAiCompatibleToolCallDelta record {
+    int index = 0;
+    string? id = ();
+    OpenAiCompatibleFunctionCallDelta? 'function = ();
+};
+
+type OpenAiCompatibleMessageDelta record {
+    string? content = ();
+    OpenAiCompatibleToolCallDelta[]? tool_calls = ();
+    OpenAiCompatibleFunctionCallDelta? function_call = ();
+};
+
+type OpenAiCompatibleStreamChoice record {
+    OpenAiCompatibleMessageDelta delta = {};
+};
+
+type OpenAiCompatibleStreamChunk record {
+    OpenAiCompatibleStreamChoice[] choices = [];
+    // Sent in the last chunk, with no choices if the usage is requested with the stream options
+    OpenAiCompatibleUsage? usage = ();
+};
+
+// Maps the chunks of the OpenAI compatible chat completion APIs (OpenAI, Azure OpenAI, Mistral AI and Deepseek).
+isolated function getOpenAiCompatibleDelta(http:SseEvent event) returns ChatAssistantMessageDelta|LlmError? {
+    string? data = event.data;
+    if data is () || data.trim() == SSE_DONE_DATA {
+        return;
+    }
+    OpenAiCompatibleStreamChunk|error chunk = data.fromJsonStringWithType();
+    if chunk is error {
+        return error LlmInvalidResponseError("Unexpected chunk format in the streamed response", chunk, data = data);
+    }
+    ChatAssistantMessageDelta delta = {};
+    OpenAiCompatibleUsage? usage = chunk.usage;
+    if usage is OpenAiCompatibleUsage {
+        delta.usage = {inputTokens: usage.prompt_tokens, outputTokens: usage.completion_tokens};
+    }
+    if chunk.choices.length() == 0 {
+        return usage is () ? () : delta;
+    }
+    OpenAiCompatibleMessageDelta messageDelta = chunk.choices[0].delta;
+    string? content = messageDelta.content;
+    if content is string {
+        delta.content = content;
+    }
+    OpenAiCompatibleFunctionCallDelta? functionCall = messageDelta.function_call;
+    OpenAiCompatibleToolCallDelta[] toolCalls = messageDelta.tool_calls ?: [];
+    if functionCall !is () {
+        // The legacy function call API generates a single function call
+        toolCalls = [{'function: functionCall}];
+    }
+    if toolCalls.length() > 0 {
+        delta.toolCalls = from OpenAiCompatibleToolCallDelta toolCall in toolCalls
+            select getFunctionCallDelta(toolCall.index, toolCall.id, toolCall.'function?.name,
+                    toolCall.'function?.arguments);
+    }
+    return delta;
+}
+
+type AnthropicStreamContentBlock record {
+    string 'type;
+    string id?;
+    string name?;
+};
+
+type AnthropicStreamDelta record {
+    // Not sent with the delta of the message, which has the reason to stop
+    string 'type?;
+    string text?;
+    string partial_json?;
+};
+
+type AnthropicStreamMessage record {
+    Usage usage;
+};
+
+type AnthropicStreamUsage record {
+    int output_tokens;
+};
+
+type AnthropicStreamEvent record {
+    string 'type;
+    int index = 0;
+    AnthropicStreamMessage message?;
+    AnthropicStreamContentBlock content_block?;
+    AnthropicStreamDelta delta?;
+    AnthropicStreamUsage usage?;
+    json 'error?;
+};
+
+// Maps the events of the Anthropic messages API.
+// Reference: https://docs.anthropic.com/en/api/messages-streaming
+isolated function getAnthropicDelta(http:SseEvent event) returns ChatAssistantMessageDelta|LlmError? {
+    string? data = event.data;
+    if data is () {
+        return;
+    }
+    AnthropicStreamEvent|error streamEvent = data.fromJsonStringWithType();
+    if streamEvent is error {
+        return error LlmInvalidResponseError("Unexpected event format in the streamed response", streamEvent,
+            data = data);
+    }
+    match streamEvent.'type {
+        "message_start" => {
+            // The input tokens are reported when the message starts, excluding the tokens read from and written to
+            // the cache. The output tokens are reported when the message ends.
+            Usage? usage = streamEvent?.message?.usage;
+            if usage is () {
+                return;
+            }
+            int cacheReadInputTokens = usage.cache_read_input_tokens ?: 0;
+            int inputTokens = usage.input_tokens + (usage.cache_creation_input_tokens ?: 0) + cacheReadInputTokens;
+            return {usage: {inputTokens, cachedInputTokens: cacheReadInputTokens}};
+        }
+        "message_delta" => {
+            // The output tokens of the message delta are cumulative, and it is sent once at the end of the message
+            AnthropicStreamUsage? usage = streamEvent?.usage;
+            return usage is () ? () : {usage: {outputTokens: usage.output_tokens}};
+        }
+        "content_block_start" => {
+            AnthropicStreamContentBlock? contentBlock = streamEvent?.content_block;
+            if contentBlock is () || contentBlock.'type != "tool_use" {
+                return;
+            }
+            return {toolCalls: [getFunctionCallDelta(streamEvent.index, contentBlock?.id, contentBlock?.name, ())]};
+        }
+        "content_block_delta" => {
+            AnthropicStreamDelta? delta = streamEvent?.delta;
+            if delta is () {
+                return;
+            }
+            string? text = delta?.text;
+            if text is string {
+                return {content: text};
+            }
+            string? partialJson = delta?.partial_json;
+            if partialJson is string {
+                return {toolCalls: [getFunctionCallDelta(streamEvent.index, (), (), partialJson)]};
+            }
+        }
+        "error" => {
+            return error LlmInvalidResponseError("Error event received while streaming the response",
+                'error = streamEvent?.'error);
+        }
+    }
+    return;
+}
+
+type OllamaStreamChunk record {
+    OllamaMessage message?;
+    // Sent in the last chunk
+    int prompt_eval_count?;
+    int eval_count?;
+};
+
+// Maps the newline delimited JSON objects of the Ollama chat API.
+isolated function getOllamaDelta(string line) returns ChatAssistantMessageDelta|LlmError? {
+    OllamaStreamChunk|error chunk = line.fromJsonStringWithType();
+    if chunk is error {
+        return error LlmInvalidResponseError("Unexpected chunk format in the streamed response", chunk, data = line);
+    }
+    ChatAssistantMessageDelta delta = {};
+    int? promptTokens = chunk?.prompt_eval_count;
+    int? completionTokens = chunk?.eval_count;
+    if promptTokens is int || completionTokens is int {
+        delta.usage = {inputTokens: promptTokens ?: 0, outputTokens: completionTokens ?: 0};
+    }
+    OllamaMessage? message = chunk?.message;
+    if message is () {
+        return delta?.usage is () ? () : delta;
+    }
+    if message.content != "" {
+        delta.content = message.content;
+    }
+    OllamaToolCall[]? toolCalls = message?.tool_calls;
+    if toolCalls is OllamaToolCall[] {
+        // Ollama sends the complete tool calls in a single chunk
+        delta.toolCalls = from int index in 0 ..< toolCalls.length()
+            let OllamaFunction 'function = toolCalls[index].'function
+            select getFunctionCallDelta(index, (), 'function.name, 'function.arguments.toJsonString());
+    }
+    return delta;
+}
+
+isolated function getFunctionCallDelta(int index, string? id, string? name, string? arguments)
+        returns FunctionCallDelta {
+    FunctionCallDelta delta = {index};
+    if id is string {
+        delta.id = id;
+    }
+    if name is string {
+        delta.name = name;
+    }
+    if arguments is string {
+        delta.arguments = arguments;
+    }
+    return delta;
+}
+
+// The usage is requested with the stream options by the APIs that do not report it in the stream by default.
+isolated function getStreamingRequestPayload(anydata request, boolean requestsUsage = true)
+        returns map<json>|LlmError {
+    json payload = jsondata:toJson(request);
+    if payload !is map<json> {
+        return error LlmError("Invalid request payload for the model", payload = payload);
+    }
+    payload["stream"] = true;
+    if requestsUsage {
+        payload["stream_options"] = {include_usage: true};
+    }
+    return payload;
+}
+
+isolated function getStreamingResponse(http:Response|error response) returns http:Response|LlmError {
+    if response is error {
+        return error LlmConnectionError("Error while connecting to the model", response);
+    }
+    if response.statusCode >= 300 {
+        string|error payload = response.getTextPayload();
+        return error LlmConnectionError("Error response received from the model",
+            statusCode = response.statusCode, body = payload is string ? payload : ());
+    }
+    return response;
+}
@@ -0,0 +1,110 @@
+import ballerina/io;
+import ballerina/lang.runtime;
+import ballerina/test;
+import ballerina/time;
+
+const decimal MOCK_LLM_LATENCY = 0.2;
+
+// Tracks the maximum number of calls to the model in progress at the same time.
+isolated client class LatencyMockLlm {
+    *ModelProvider;
+    private int activeCallCount = 0;
+    private int maxActiveCallCount = 0;
+
+    isolated remote function chat(ChatMessage[] messages, ChatCompletionFunctions[] tools = [], string? stop = ())
+        returns ChatAssistantMessage|LlmError {
+        lock {
+            self.activeCallCount += 1;
+            self.maxActiveCallCount = int:max(self.maxActiveCallCount, self.activeCallCount);
+        }
+        runtime:sleep(MOCK_LLM_LATENCY);
+        lock {
+            self.activeCallCount -= 1;
+        }
+        return {role: ASSISTANT, content: "Done"};
+    }
+
+    isolated function getMaxActiveCallCount() returns int {
+        lock {
+            return self.maxActiveCallCount;
+        }
+    }
+}
+
+function getLatencyMockAgent(LatencyMockLlm llm = new, Memory memory = new MessageWindowChatMemory())
+    returns Agent|error => new (
+    model = llm,
+    systemPrompt = {role: "Assistant", instructions: "Answer the questions."},
+    memory = memory
+);
+
+function runSessionsConcurrently(Agent[] agents, string[] sessionIds) returns error? {
+    future<string|Error>[] executions = [];
+    foreach int i in 0 ..< sessionIds.length() {
+        Agent agent = agents[i % agents.length()];
+        future<string|Error> execution = start agent->run("Hi", sessionIds[i]);
+        executions.push(execution);
+    }
+    foreach future<string|Error> execution in executions {
+        string answer = check wait execution;
+        test:assertEquals(answer, "Done");
+    }
+}
+
+@test:Config {}
+function testConcurrentSessionsRunInParallel() returns error? {
+    LatencyMockLlm llm = new;
+    string[] sessionIds = from int i in 0 ..< 8
+        select string `session-${i}`;
+    check runSessionsConcurrently([check getLatencyMockAgent(llm)], sessionIds);
+    test:assertTrue(llm.getMaxActiveCallCount() > 1, "Expected distinct sessions to run in parallel");
+}
+
+@test:Config {}
+function testExecutionsWithinSessionAreSerialized() returns error? {
+    LatencyMockLlm llm = new;
+    check runSessionsConcurrently([check getLatencyMockAgent(llm)], ["shared-session", "shared-session"]);
+    test:assertEquals(llm.getMaxActiveCallCount(), 1, "Expected executions of the same session to run sequentially");
+}
+
+@test:Config {}
+function testExecutionsOfAgentsSharingMemoryAreSerialized() returns error? {
+    LatencyMockLlm llm = new;
+    Memory memory = new MessageWindowChatMemory();
+    Agent[] agents = [check getLatencyMockAgent(llm, memory), check getLatencyMockAgent(llm, memory)];
+    check runSessionsConcurrently(agents, [DEFAULT_SESSION_ID, DEFAULT_SESSION_ID]);
+    test:assertEquals(llm.getMaxActiveCallCount(), 1,
+        "Expected the executions of agents sharing the memory of a session to run sequentially");
+}
+
+@test:Config {}
+function testSessionsOfAgentsWithSeparateMemoriesRunInParallel() returns error? {
+    LatencyMockLlm llm = new;
+    Agent[] agents = [check getLatencyMockAgent(llm), check getLatencyMockAgent(llm)];
+    check runSessionsConcurrently(agents, [DEFAULT_SESSION_ID, DEFAULT_SESSION_ID]);
+    test:assertEquals(llm.getMaxActiveCallCount(), 2,
+        "Expected the executions of agents with separate memories to run in parallel");
+}
+
+@test:Config {
+    groups: ["benchmark"]
+}
+function benchmarkAgentThroughputWithConcurrentSessions() returns error? {
+    Agent agent = check getLatencyMockAgent();
+    decimal baselineThroughput = 0;
+    foreach int sessionCount in [1, 4, 16, 64] {
+        string[] sessionIds = from int i in 0 ..< sessionCount
+            select string `benchmark-${sessionCount}-${i}`;
+        decimal startedAt = time:monotonicNow();
+        check runSessionsConcurrently([agent], sessionIds);
+        decimal elapsed = time:monotonicNow() - startedAt;
+        decimal throughput = <decimal>sessionCount / elapsed;
+        io:println(string `sessions: ${sessionCount}, elapsed: ${elapsed}s, throughput: ${throughput} runs/s`);
+        if sessionCount == 1 {
+            baselineThroughput = throughput;
+            continue;
+        }
+        test:assertTrue(throughput > baselineThroughput * <decimal>sessionCount / 4,
+            string `Throughput did not scale with ${sessionCount} concurrent sessions`);
+    }
+}
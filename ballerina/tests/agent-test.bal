@@ -270,3 +270,46 @@ ${"```"}`;
         test:assertFail("Parsed result should be a ChatResponse");
     }
 }
+
+@test:Config {}
+function testParseLlmResponseWithJsonCodeFence() returns error? {
+    string llmResponse = string `I should check the wifi accounts
+Action:
+${"```"}json
+{
+  "Action": "List wifi accounts",
+  "Action Input": "{}"
+}
+${"```"}`;
+
+    LlmToolResponse|LlmChatResponse parsedResult = check parseReActLlmResponse(llmResponse);
+    test:assertEquals(parsedResult, {name: "List wifi accounts", arguments: {}});
+}
+
+@test:Config {}
+function testParseLlmResponseWithoutCodeFence() returns error? {
+    string llmResponse = string `Action: {"action": "Final Answer", "action_input": "No wifi accounts are available."}`;
+
+    LlmToolResponse|LlmChatResponse parsedResult = check parseReActLlmResponse(llmResponse);
+    test:assertEquals(parsedResult, {content: "No wifi accounts are available."});
+
+    LlmToolResponse|LlmChatResponse|LlmInvalidGenerationError invalidResult =
+        parseReActLlmResponse("I know what to respond");
+    test:assertTrue(invalidResult is LlmInvalidGenerationError);
+}
+
+@test:Config {}
+function testAgentObservationsAreSkippedWhenObservabilityIsDisabled() returns error? {
+    // Observability is not enabled for the tests, hence no metrics or spans are recorded
+    test:assertFalse(isMetricsEnabled);
+    test:assertFalse(isTracingEnabled);
+    test:assertEquals(startTimer(), ());
+    test:assertEquals(startSpan(AGENT_ITERATION_SPAN), ());
+
+    FunctionCallAgent agent = check new (new ParallelToolCallMockLlm(), [weatherTool]);
+    test:assertEquals(getAgentType(agent), "FunctionCallAgent");
+    Executor executor = new (agent, "observability", query = "What is the weather in Colombo?");
+    _ = executor.next();
+    map<string> tags = {[AGENT_TAG]: "FunctionCallAgent"};
+    test:assertEquals(getCachedCounter(AGENT_ITERATIONS_METRIC + tags.toString()), ());
+}
@@ -0,0 +1,90 @@
+import ballerina/http;
+import ballerina/io;
+import ballerina/test;
+import ballerina/time;
+
+isolated service class EchoChatService {
+    *ChatService;
+
+    resource function post chat(@http:Payload ChatReqMessage request) returns ChatRespMessage {
+        return {message: request.message};
+    }
+}
+
+isolated service class FailingChatService {
+    *ChatService;
+
+    resource function post chat(@http:Payload ChatReqMessage request) returns ChatRespMessage|error {
+        return error("Chat service failed");
+    }
+}
+
+final http:Listener dispatcherListener = check new (9098);
+
+@test:BeforeGroups {value: ["dispatcher"]}
+function startDispatchers() returns error? {
+    DispatcherService echoDispatcher = new;
+    echoDispatcher.addServiceRef(new EchoChatService());
+    DispatcherService failingDispatcher = new;
+    failingDispatcher.addServiceRef(new FailingChatService());
+    check dispatcherListener.attach(echoDispatcher, "echo");
+    check dispatcherListener.attach(failingDispatcher, "failing");
+    check dispatcherListener.'start();
+}
+
+@test:AfterGroups {value: ["dispatcher"]}
+function stopDispatchers() returns error? {
+    check dispatcherListener.gracefulStop();
+}
+
+@test:Config {groups: ["dispatcher"]}
+function testDispatcherInvokesChatService() returns error? {
+    http:Client dispatcherClient = check new ("http://localhost:9098/echo");
+    ChatRespMessage response = check dispatcherClient->/chatMessage.post({sessionId: "session", message: "Hi"});
+    test:assertEquals(response, {message: "Hi"});
+}
+
+@test:Config {groups: ["dispatcher"]}
+function testDispatcherReturnsChatServiceError() returns error? {
+    http:Client dispatcherClient = check new ("http://localhost:9098/failing");
+    http:Response response = check dispatcherClient->/chatMessage.post({sessionId: "session", message: "Hi"});
+    test:assertEquals(response.statusCode, http:STATUS_INTERNAL_SERVER_ERROR);
+}
+
+@test:Config {groups: ["dispatcher"]}
+function testDispatcherWithConcurrentClients() returns error? {
+    check sendConcurrentChatMessages(8, 10);
+}
+
+@test:Config {groups: ["dispatcher", "benchmark"]}
+function benchmarkDispatcherThroughputWithConcurrentClients() returns error? {
+    int clientCount = 64;
+    int requestsPerClient = 50;
+    decimal startedAt = time:monotonicNow();
+    check sendConcurrentChatMessages(clientCount, requestsPerClient);
+    decimal elapsed = time:monotonicNow() - startedAt;
+    int requestCount = clientCount * requestsPerClient;
+    decimal throughput = <decimal>requestCount / elapsed;
+    io:println(string `${requestCount} dispatched requests from ${clientCount} clients took ${elapsed}s, ` +
+        string `throughput: ${throughput} requests/s`);
+}
+
+function sendConcurrentChatMessages(int clientCount, int requestsPerClient) returns error? {
+    http:Client dispatcherClient = check new ("http://localhost:9098/echo");
+    future<error?>[] executions = [];
+    foreach int i in 0 ..< clientCount {
+        future<error?> execution = start sendChatMessages(dispatcherClient, string `session-${i}`, requestsPerClient);
+        executions.push(execution);
+    }
+    foreach future<error?> execution in executions {
+        check wait execution;
+    }
+}
+
+isolated function sendChatMessages(http:Client dispatcherClient, string sessionId, int count) returns error? {
+    foreach int i in 0 ..< count {
+        string message = string `Message ${i}`;
+        ChatRespMessage response = check dispatcherClient->/chatMessage.post({sessionId, message});
+        test:assertEquals(response.message, message);
+    }
+}
@@ -0,0 +1,114 @@
+import ballerina/lang.runtime;
+import ballerina/test;
+import ballerina/time;
+
+isolated function getWeatherSlowly(string city) returns string {
+    runtime:sleep(2);
+    return string `Sunny in ${city}`;
+}
+
+final ToolConfig slowWeatherTool = {
+    name: "getWeather",
+    description: "Get the current weather of a city",
+    parameters: {
+        properties: {
+            city: {'type: STRING}
+        },
+        required: ["city"]
+    },
+    caller: getWeatherSlowly
+};
+
+isolated client class RepeatingToolCallMockLlm {
+    *ModelProvider;
+    private int callCount = 0;
+
+    isolated remote function chat(ChatMessage[] messages, ChatCompletionFunctions[] tools = [], string? stop = ())
+        returns ChatAssistantMessage|LlmError {
+        lock {
+            self.callCount += 1;
+        }
+        return {
+            role: ASSISTANT,
+            toolCalls: [{name: "getWeather", arguments: {city: "Colombo"}.toJsonString()}],
+            usage: {inputTokens: 100, outputTokens: 10}
+        };
+    }
+
+    isolated function getCallCount() returns int {
+        lock {
+            return self.callCount;
+        }
+    }
+}
+
+function getBudgetExceededReason(string|Error result) returns string? {
+    if result !is ExecutionBudgetExceededError {
+        test:assertFail(string `Expected the execution to exceed its budget, but got ${result.toString()}`);
+    }
+    return <string?>result.detail()["budget"];
+}
+
+@test:Config {}
+function testRepeatedToolCallsTerminateExecution() returns error? {
+    RepeatingToolCallMockLlm llm = new;
+    Agent agent = check new (model = llm, tools = [weatherTool], maxIter = 10, budget = {maxRepeatedToolCalls: 3},
+        systemPrompt = {role: "Assistant", instructions: "Answer the questions."});
+    string|Error result = agent->run("What is the weather in Colombo?", "repeated-tool-calls");
+
+    test:assertEquals(getBudgetExceededReason(result), "maxRepeatedToolCalls");
+    test:assertEquals(llm.getCallCount(), 3);
+}
+
+@test:Config {}
+function testTokenBudgetTerminatesExecution() returns error? {
+    RepeatingToolCallMockLlm llm = new;
+    Agent agent = check new (model = llm, tools = [weatherTool], maxIter = 10, budget = {maxTokens: 200},
+        systemPrompt = {role: "Assistant", instructions: "Answer the questions."});
+    string|Error result = agent->run("What is the weather in Colombo?", "token-budget");
+
+    test:assertEquals(getBudgetExceededReason(result), "maxTokens");
+    test:assertEquals(llm.getCallCount(), 2);
+}
+
+@test:Config {}
+function testTimeoutCancelsToolExecution() returns error? {
+    FunctionCallAgent agent = check new (new RepeatingToolCallMockLlm(), [slowWeatherTool], budget = {timeout: 0.5});
+    decimal startedAt = time:monotonicNow();
+    Executor executor = new (agent, "execution-timeout", query = "What is the weather in Colombo?");
+    record {|ExecutionResult|LlmChatResponse|ExecutionError|Error value;|}? step = executor.next();
+    test:assertTrue(time:monotonicNow() - startedAt < 2d, "Tool execution is not cancelled at the deadline");
+    ExecutionResult|LlmChatResponse|ExecutionError|Error? value = step?.value;
+    if value !is ExecutionError {
+        test:assertFail("Expected the tool execution to be cancelled");
+    }
+    test:assertTrue(value.'error is ToolExecutionError);
+
+    step = executor.next();
+    test:assertTrue(step?.value is ExecutionBudgetExceededError);
+    test:assertEquals(executor.next(), ());
+}
+
+@test:Config {}
+function testToolTimeBudgetTerminatesExecution() returns error? {
+    Agent agent = check new (model = new RepeatingToolCallMockLlm(), tools = [slowWeatherTool], maxIter = 10,
+        budget = {maxToolTime: 0.2}, systemPrompt = {role: "Assistant", instructions: "Answer the questions."});
+    string|Error result = agent->run("What is the weather in Colombo?", "tool-time-budget");
+
+    test:assertEquals(getBudgetExceededReason(result), "maxToolTime");
+}
+
+@test:Config {}
+function testRunReturnsBudgetErrorAsLastStep() returns error? {
+    FunctionCallAgent agent = check new (new RepeatingToolCallMockLlm(), [weatherTool],
+        budget = {maxRepeatedToolCalls: 2});
+    record {|(ExecutionResult|ExecutionError)[] steps; string answer?;|} result =
+        agent->run("What is the weather in Colombo?", maxIter = 10, verbose = false);
+
+    test:assertTrue(result.answer is ());
+    ExecutionResult|ExecutionError lastStep = result.steps[result.steps.length() - 1];
+    if lastStep !is ExecutionError {
+        test:assertFail("Expected the last step to be the error terminating the execution");
+    }
+    test:assertTrue(lastStep.'error is ExecutionBudgetExceededError);
+}
@@ -0,0 +1,174 @@
+import ballerina/test;
+
+isolated function getWeather(string city) returns string => string `Sunny in ${city}`;
+
+final ToolConfig weatherTool = {
+    name: "getWeather",
+    description: "Get the current weather of a city",
+    parameters: {
+        properties: {
+            city: {'type: STRING}
+        },
+        required: ["city"]
+    },
+    caller: getWeather
+};
+
+isolated client class ParallelToolCallMockLlm {
+    *ModelProvider;
+    private int callCount = 0;
+
+    isolated remote function chat(ChatMessage[] messages, ChatCompletionFunctions[] tools = [], string? stop = ())
+        returns ChatAssistantMessage|LlmError {
+        lock {
+            self.callCount += 1;
+        }
+        ChatMessage lastMessage = messages[messages.length() - 1];
+        if lastMessage is ChatUserMessage {
+            return {
+                role: ASSISTANT,
+                toolCalls: [
+                    {name: "getWeather", arguments: {city: "Colombo"}.toJsonString(), id: "call_1"},
+                    {name: "getWeather", arguments: {city: "London"}.toJsonString(), id: "call_2"},
+                    {name: "unknownTool", arguments: {}.toJsonString(), id: "call_3"}
+                ]
+            };
+        }
+        string[] observations = from ChatMessage message in messages
+            where message is ChatFunctionMessage
+            select message.content ?: "";
+        return {role: ASSISTANT, content: string:'join(", ", ...observations)};
+    }
+
+    isolated function getCallCount() returns int {
+        lock {
+            return self.callCount;
+        }
+    }
+}
+
+@test:Config {}
+function testParallelToolCallsExecutedInSingleIteration() returns error? {
+    ParallelToolCallMockLlm llm = new;
+    FunctionCallAgent agent = check new (llm, [weatherTool], maxParallelToolCalls = 2);
+    record {|(ExecutionResult|ExecutionError)[] steps; string answer?;|} result =
+        agent->run("What is the weather in Colombo and London?", verbose = false, sessionId = "parallel-tool-calls");
+
+    test:assertEquals(llm.getCallCount(), 2);
+    test:assertEquals(result.steps.length(), 3);
+    ExecutionResult|ExecutionError firstStep = result.steps[0];
+    ExecutionResult|ExecutionError secondStep = result.steps[1];
+    if firstStep !is ExecutionResult || secondStep !is ExecutionResult {
+        test:assertFail("Parallel tool calls are not executed successfully");
+    }
+    test:assertEquals(firstStep.observation, "Sunny in Colombo");
+    test:assertEquals(secondStep.observation, "Sunny in London");
+    test:assertTrue(result.steps[2] is ExecutionError);
+    test:assertEquals(result.answer, "Sunny in Colombo, Sunny in London, " +
+        "Tool is not found. Please check the tool name and retry.");
+}
+
+@test:Config {}
+function testParallelToolCallsCountAsSingleIteration() returns error? {
+    ParallelToolCallMockLlm llm = new;
+    FunctionCallAgent agent = check new (llm, [weatherTool], maxParallelToolCalls = 3);
+    // The three tool calls of the first response are executed within the first of the two iterations
+    record {|(ExecutionResult|ExecutionError)[] steps; string answer?;|} result = agent->run(
+        "What is the weather in Colombo and London?", maxIter = 2, verbose = false, sessionId = "parallel-tool-iterations");
+
+    test:assertEquals(result.steps.length(), 3);
+    test:assertEquals(result.answer, "Sunny in Colombo, Sunny in London, " +
+        "Tool is not found. Please check the tool name and retry.");
+}
+
+@test:Config {}
+function testCreateFunctionCallMessagesWithParallelToolCalls() {
+    FunctionCall[] toolCalls = [
+        {name: "getWeather", arguments: {city: "Colombo"}.toJsonString(), id: "call_1"},
+        {name: "getWeather", arguments: {city: "London"}.toJsonString(), id: "call_2"}
+    ];
+    ExecutionProgress progress = {
+        query: "What is the weather in Colombo and London?",
+        history: [{llmResponse: toolCalls, observation: ["Sunny in Colombo", ()]}]
+    };
+    ChatMessage[] messages = createFunctionCallMessages(progress);
+    test:assertEquals(messages.length(), 3);
+    test:assertEquals(messages[0], <ChatAssistantMessage>{role: ASSISTANT, toolCalls});
+    test:assertEquals(messages[1], <ChatFunctionMessage>{
+        role: FUNCTION,
+        name: "getWeather",
+        content: "Sunny in Colombo",
+        id: "call_1"
+    });
+    test:assertEquals(messages[2], <ChatFunctionMessage>{
+        role: FUNCTION,
+        name: "getWeather",
+        content: getObservationString(()),
+        id: "call_2"
+    });
+}
+
+@test:Config {}
+function testConversationBuiltIncrementallyAcrossIterations() {
+    MessageWindowChatMemory memory = new;
+    ConversationBuilder conversation = new;
+    ExecutionStep[] history = [
+        {
+            llmResponse: {name: "getWeather", arguments: {city: "Colombo"}.toJsonString(), id: "call_1"},
+            observation: "Sunny in Colombo"
+        }
+    ];
+    foreach ExecutionStep step in conversation.getNewSteps(memory, "incremental-conversation", history) {
+        conversation.append(...createFunctionCallStepMessages(step));
+    }
+    readonly & ChatMessage[] messages = conversation.getMessages();
+    test:assertEquals(messages.length(), 2);
+
+    history.push({
+        llmResponse: {name: "getWeather", arguments: {city: "London"}.toJsonString(), id: "call_2"},
+        observation: "Sunny in London"
+    });
+    ExecutionStep[] newSteps = conversation.getNewSteps(memory, "incremental-conversation", history);
+    test:assertEquals(newSteps.length(), 1);
+    foreach ExecutionStep step in newSteps {
+        conversation.append(...createFunctionCallStepMessages(step));
+    }
+    test:assertEquals(conversation.getMessages(),
+        createFunctionCallMessages({query: "What is the weather in Colombo and London?", history}));
+    // The messages given to the model are a snapshot, which is not changed by the messages added afterwards
+    test:assertEquals(messages.length(), 2);
+}
+
+isolated client class UsageReportingMockLlm {
+    *ModelProvider;
+    private final ParallelToolCallMockLlm llm = new;
+
+    isolated remote function chat(ChatMessage[] messages, ChatCompletionFunctions[] tools = [], string? stop = ())
+        returns ChatAssistantMessage|LlmError {
+        ChatAssistantMessage response = check self.llm->chat(messages, tools, stop);
+        response.usage = {inputTokens: 100, outputTokens: 10, cachedInputTokens: 40};
+        return response;
+    }
+}
+
+@test:Config {}
+function testTokenUsageAggregatedPerExecutionAndSession() returns error? {
+    FunctionCallAgent agent = check new (new UsageReportingMockLlm(), [weatherTool]);
+    record {|(ExecutionResult|ExecutionError)[] steps; string answer?;|} result =
+        agent->run("What is the weather in Colombo and London?", verbose = false, sessionId = "token-usage");
+
+    // The usage of parallel tool calls is given only with the result of the first tool
+    ExecutionResult|ExecutionError firstStep = result.steps[0];
+    test:assertEquals(firstStep?.usage, <TokenUsage>{inputTokens: 100, outputTokens: 10, cachedInputTokens: 40});
+    ExecutionResult|ExecutionError secondStep = result.steps[1];
+    test:assertEquals(secondStep?.usage, ());
+    test:assertEquals(agent.getTokenUsage("token-usage"), <TokenUsage>{
+        inputTokens: 200,
+        outputTokens: 20,
+        cachedInputTokens: 80
+    });
+
+    _ = agent->run("What is the weather in Colombo and London?", verbose = false, sessionId = "token-usage");
+    test:assertEquals(agent.getTokenUsage("token-usage").inputTokens, 400);
+    test:assertEquals(agent.getTokenUsage("other-session"), <TokenUsage>{});
+}
@@ -1,5 +1,7 @@
 import ballerina/test;
 import ballerina/io;
+import ballerina/lang.runtime;
+import ballerina/time;
 
 @test:Config {}
 function testMemoryInitialization() returns error? {
@@ -60,3 +62,222 @@ function testClearEmptyMemory() returns error? {
     _ = check chatMemory.delete(DEFAULT_SESSION_ID);
     test:assertEquals(chatMemory.get(DEFAULT_SESSION_ID), []);
 }
+
+@test:Config {}
+function testShardedMemoryWindow() returns error? {
+    ShardedMessageWindowChatMemory chatMemory = new (3);
+    ChatUserMessage userMessage = {role: "user", content: "Hi im bob"};
+    _ = check chatMemory.update(DEFAULT_SESSION_ID, userMessage);
+    ChatAssistantMessage assistantMessage = {role: "assistant", content: "Hello Bob! How can I assist you today?"};
+    _ = check chatMemory.update(DEFAULT_SESSION_ID, assistantMessage);
+    ChatSystemMessage systemMessage = {role: "system", content: "You are an AI assistant to help users get answers."};
+    _ = check chatMemory.update(DEFAULT_SESSION_ID, systemMessage);
+    ChatUserMessage userMessage2 = {role: "user", content: "Add the numbers [2,3,4,5]"};
+    _ = check chatMemory.update(DEFAULT_SESSION_ID, userMessage2);
+    ChatMessage[] history = check chatMemory.get(DEFAULT_SESSION_ID);
+    test:assertEquals(history, [systemMessage, assistantMessage, userMessage2]);
+    test:assertTrue(history.isReadOnly());
+}
+
+@test:Config {}
+function testShardedMemoryDeleteRemovesSession() returns error? {
+    ShardedMessageWindowChatMemory chatMemory = new (4, shardCount = 4);
+    _ = check chatMemory.update("session-1", {role: "user", content: "Hi im bob"});
+    _ = check chatMemory.update("session-2", {role: "user", content: "Hi im alice"});
+    test:assertEquals(chatMemory.getStats().sessionCount, 2);
+    _ = check chatMemory.delete("session-1");
+    test:assertEquals(chatMemory.get("session-1"), []);
+    test:assertEquals(chatMemory.getStats().sessionCount, 1);
+}
+
+@test:Config {}
+function testShardedMemoryLeastRecentlyUsedEviction() returns error? {
+    ShardedMessageWindowChatMemory chatMemory = new (4, shardCount = 1, maxSessions = 2);
+    ChatUserMessage userMessage = {role: "user", content: "Hi"};
+    _ = check chatMemory.update("session-1", userMessage);
+    _ = check chatMemory.update("session-2", userMessage);
+    // Accessing the first session makes the second session the least recently used one.
+    _ = check chatMemory.get("session-1");
+    _ = check chatMemory.update("session-3", userMessage);
+    test:assertEquals(chatMemory.get("session-1"), [userMessage]);
+    test:assertEquals(chatMemory.get("session-2"), []);
+    test:assertEquals(chatMemory.get("session-3"), [userMessage]);
+    test:assertEquals(chatMemory.getStats(),
+        {shardCount: 1, sessionCount: 2, evictedSessionCount: 1, expiredSessionCount: 0});
+}
+
+@test:Config {}
+function testShardedMemoryIdleSessionExpiry() returns error? {
+    ShardedMessageWindowChatMemory chatMemory = new (4, shardCount = 1, sessionIdleTimeout = 0.1);
+    _ = check chatMemory.update("session-1", {role: "user", content: "Hi"});
+    runtime:sleep(0.2);
+    _ = check chatMemory.update("session-2", {role: "user", content: "Hi"});
+    test:assertEquals(chatMemory.get("session-1"), []);
+    test:assertEquals(chatMemory.getStats(),
+        {shardCount: 1, sessionCount: 1, evictedSessionCount: 0, expiredSessionCount: 1});
+}
+
+@test:Config {}
+function testShardedMemoryWithManySessions() returns error? {
+    int sessionCount = 1000;
+    ShardedMessageWindowChatMemory chatMemory = new (10, maxSessions = sessionCount / 2);
+    ChatUserMessage userMessage = {role: "user", content: "Hi"};
+    ChatAssistantMessage assistantMessage = {role: "assistant", content: "Hello! How can I assist you today?"};
+
+    foreach int i in 0 ..< sessionCount {
+        string sessionId = string `session-${i}`;
+        _ = check chatMemory.update(sessionId, userMessage);
+        _ = check chatMemory.update(sessionId, assistantMessage);
+        _ = check chatMemory.get(sessionId);
+    }
+    ChatMemoryStats stats = chatMemory.getStats();
+    test:assertTrue(stats.sessionCount <= sessionCount / 2);
+    test:assertEquals(stats.sessionCount + stats.evictedSessionCount, sessionCount);
+}
+
+@test:Config {
+    groups: ["benchmark"]
+}
+function benchmarkShardedMemoryWithManySessions() returns error? {
+    int sessionCount = 100000;
+    ShardedMessageWindowChatMemory chatMemory = new (10, maxSessions = sessionCount / 2);
+    ChatUserMessage userMessage = {role: "user", content: "Hi"};
+    ChatAssistantMessage assistantMessage = {role: "assistant", content: "Hello! How can I assist you today?"};
+
+    decimal startedAt = time:monotonicNow();
+    foreach int i in 0 ..< sessionCount {
+        string sessionId = string `session-${i}`;
+        _ = check chatMemory.update(sessionId, userMessage);
+        _ = check chatMemory.update(sessionId, assistantMessage);
+        _ = check chatMemory.get(sessionId);
+    }
+    decimal elapsed = time:monotonicNow() - startedAt;
+    ChatMemoryStats stats = chatMemory.getStats();
+    io:println(string `${sessionCount} sessions took ${elapsed}s: `, stats);
+    test:assertEquals(stats.sessionCount + stats.evictedSessionCount, sessionCount);
+}
+
+@test:Config {}
+function testTokenWindowMemoryTrimsToTokenBudget() returns error? {
+    // Each 8 character message is estimated as 2 content tokens and 4 framing tokens
+    TokenWindowChatMemory chatMemory = new (20);
+    ChatSystemMessage systemMessage = {role: "system", content: "You are helpful."};
+    ChatUserMessage firstMessage = {role: "user", content: "Question"};
+    ChatAssistantMessage secondMessage = {role: "assistant", content: "Answered"};
+    ChatUserMessage thirdMessage = {role: "user", content: "Thanks!!"};
+    _ = check chatMemory.update("session", systemMessage);
+    _ = check chatMemory.update("session", firstMessage);
+    _ = check chatMemory.update("session", secondMessage);
+    test:assertEquals(chatMemory.getTokenCount("session"), 20);
+    test:assertEquals(chatMemory.get("session"), [systemMessage, firstMessage, secondMessage]);
+
+    _ = check chatMemory.update("session", thirdMessage);
+    test:assertEquals(chatMemory.getTokenCount("session"), 20);
+    test:assertEquals(chatMemory.get("session"), [systemMessage, secondMessage, thirdMessage]);
+}
+
+@test:Config {}
+function testTokenWindowMemoryKeepsToolCallsWithToolResults() returns error? {
+    TokenWindowChatMemory chatMemory = new (20);
+    ChatUserMessage userMessage = {role: "user", content: "Weather?"};
+    ChatAssistantMessage toolCallMessage = {
+        role: "assistant",
+        toolCalls: [{name: "getWeather", arguments: "{}", id: "call_1"}]
+    };
+    ChatFunctionMessage toolResultMessage = {role: "function", name: "getWeather", content: "Sunny", id: "call_1"};
+    ChatAssistantMessage answerMessage = {role: "assistant", content: "It is sunny."};
+
+    _ = check chatMemory.update("session", userMessage);
+    _ = check chatMemory.update("session", toolCallMessage);
+    _ = check chatMemory.update("session", toolResultMessage);
+    test:assertEquals(chatMemory.get("session"), [toolCallMessage, toolResultMessage]);
+
+    _ = check chatMemory.update("session", answerMessage);
+    test:assertEquals(chatMemory.get("session"), [answerMessage]);
+}
+
+@test:Config {}
+function testTokenWindowMemoryRetainsLatestMessageExceedingBudget() returns error? {
+    TokenWindowChatMemory chatMemory = new (10);
+    string[] responseBody = from int i in 0 ..< 100
+        select "body";
+    ChatFunctionMessage largeObservation = {role: "function", name: "httpGet", content: string:'join("", ...responseBody)};
+    _ = check chatMemory.update("session", {role: "user", content: "Hi"});
+    _ = check chatMemory.update("session", largeObservation);
+    _ = check chatMemory.update("session", {role: "user", content: "Hello"});
+    test:assertEquals(chatMemory.get("session"), [<ChatUserMessage>{role: "user", content: "Hello"}]);
+    check chatMemory.delete("session");
+    test:assertEquals(chatMemory.get("session"), []);
+    test:assertEquals(chatMemory.getTokenCount("session"), 0);
+}
+
+@test:Config {}
+function testTokenWindowMemoryEvictsSessions() returns error? {
+    TokenWindowChatMemory chatMemory = new (20, shardCount = 1, maxSessions = 2, sessionIdleTimeout = 60);
+    ChatUserMessage userMessage = {role: "user", content: "Question"};
+    _ = check chatMemory.update("session-1", userMessage);
+    _ = check chatMemory.update("session-2", userMessage);
+    _ = check chatMemory.get("session-1");
+    _ = check chatMemory.update("session-3", userMessage);
+    test:assertEquals(chatMemory.get("session-1"), [userMessage]);
+    test:assertEquals(chatMemory.get("session-2"), []);
+    test:assertEquals(chatMemory.getTokenCount("session-2"), 0);
+    test:assertEquals(chatMemory.getStats(),
+        {shardCount: 1, sessionCount: 2, evictedSessionCount: 1, expiredSessionCount: 0});
+}
+
+@test:Config {}
+function testTokenWindowMemoryWithBpeTokenCounter() returns error? {
+    BpeTokenCounter tokenCounter = check new ("tests/resources/bpe/test_ranks.tiktoken");
+    test:assertEquals(tokenCounter.countTokens("hello world"), 2);
+    test:assertEquals(tokenCounter.countTokens("hold"), 3);
+    test:assertEquals(tokenCounter.countTokens(""), 0);
+
+    TokenWindowChatMemory chatMemory = new (12, tokenCounter);
+    _ = check chatMemory.update("session", {role: "user", content: "hello world"});
+    test:assertEquals(chatMemory.getTokenCount("session"), 6);
+}
+
+@test:Config {}
+function testBpeTokenCounterWithInvalidRanksFile() {
+    BpeTokenCounter|Error tokenCounter = new ("tests/resources/bpe/missing.tiktoken");
+    test:assertTrue(tokenCounter is Error);
+}
+
+@test:Config {}
+function testTokenWindowMemoryWithLongSession() returns error? {
+    int messageCount = 1000;
+    TokenWindowChatMemory chatMemory = new (1000);
+    ChatUserMessage userMessage = {role: "user", content: "What is the weather in Colombo today?"};
+    ChatAssistantMessage assistantMessage = {role: "assistant", content: "It is sunny in Colombo today."};
+
+    foreach int i in 0 ..< messageCount / 2 {
+        _ = check chatMemory.update("session", userMessage);
+        _ = check chatMemory.update("session", assistantMessage);
+        _ = check chatMemory.get("session");
+    }
+    test:assertTrue(chatMemory.getTokenCount("session") <= 1000);
+    ChatMessage[] messages = check chatMemory.get("session");
+    test:assertEquals(messages[messages.length() - 1], assistantMessage);
+}
+
+@test:Config {
+    groups: ["benchmark"]
+}
+function benchmarkTokenWindowMemoryWithLongSession() returns error? {
+    int messageCount = 100000;
+    TokenWindowChatMemory chatMemory = new (1000);
+    ChatUserMessage userMessage = {role: "user", content: "What is the weather in Colombo today?"};
+    ChatAssistantMessage assistantMessage = {role: "assistant", content: "It is sunny in Colombo today."};
+
+    decimal startedAt = time:monotonicNow();
+    foreach int i in 0 ..< messageCount / 2 {
+        _ = check chatMemory.update("session", userMessage);
+        _ = check chatMemory.update("session", assistantMessage);
+        _ = check chatMemory.get("session");
+    }
+    decimal elapsed = time:monotonicNow() - startedAt;
+    int tokenCount = chatMemory.getTokenCount("session");
+    io:println(string `${messageCount} messages took ${elapsed}s, retained tokens: ${tokenCount}`);
+    test:assertTrue(tokenCount <= 1000);
+}
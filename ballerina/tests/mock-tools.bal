@@ -1,5 +1,6 @@
 import ballerina/io;
 import ballerina/lang.regexp;
+import ballerina/lang.runtime;
 
 type SearchParams record {|
     string query;
@@ -116,7 +117,69 @@ isolated function testTool(string a, string b = "default-one", string c = "defau
     return string `${a} ${b} ${c}`;
 }
 
+isolated function greetTool(string name, string greeting = "Hello", string message = string `${greeting} ${name}!`)
+    returns string => message;
+
+isolated function farewellTool(string name, string greeting = "Bye", string message = string `${greeting}, ${name}.`)
+    returns string => message;
+
+isolated function defaultableSearchTool(string query, int maxResults = 10, int offset = 0, string language = "en",
+        boolean safeSearch = true, float minScore = 0.5, string sortBy = "relevance") returns string =>
+    string `${query} ${maxResults} ${offset} ${language} ${safeSearch} ${minScore} ${sortBy}`;
+
 isolated function testToolPanic(string data) returns string {
     error e = error(data);
     panic (e);
 }
+
+const decimal SLOW_TOOL_LATENCY = 0.2;
+
+// Executions of the slow tool in progress, and the maximum of them at the same time
+isolated int activeSlowToolCount = 0;
+isolated int maxActiveSlowToolCount = 0;
+
+isolated function slowToolMock(string id) returns string {
+    lock {
+        activeSlowToolCount += 1;
+        maxActiveSlowToolCount = int:max(maxActiveSlowToolCount, activeSlowToolCount);
+    }
+    runtime:sleep(SLOW_TOOL_LATENCY);
+    lock {
+        activeSlowToolCount -= 1;
+    }
+    recordCompletedToolCall(id);
+    return id;
+}
+
+// Identifiers of the calls to the slow and the fast tools, in the order in which they complete
+isolated string[] completedToolCalls = [];
+
+isolated function fastToolMock(string id) returns string {
+    recordCompletedToolCall(id);
+    return id;
+}
+
+isolated function recordCompletedToolCall(string id) {
+    lock {
+        completedToolCalls.push(id);
+    }
+}
+
+isolated function getCompletedToolCalls() returns string[] {
+    lock {
+        return completedToolCalls.clone();
+    }
+}
+
+isolated function resetSlowToolConcurrency() {
+    lock {
+        activeSlowToolCount = 0;
+        maxActiveSlowToolCount = 0;
+    }
+}
+
+isolated function getMaxSlowToolConcurrency() returns int {
+    lock {
+        return maxActiveSlowToolCount;
+    }
+}
@@ -0,0 +1,320 @@
+import ballerina/http;
+import ballerina/test;
+import ballerina/uuid;
+
+service /anthropic on new http:Listener(9099) {
+    resource function post messages(@http:Payload map<json> request) returns json {
+        // Echoes the request, so that the shape of the request sent by the provider can be verified
+        boolean isCached = request.hasKey("system") && request.toJsonString().includes("cache_control");
+        return {
+            id: "msg_1",
+            model: CLAUDE_3_5_HAIKU_20241022,
+            'type: "message",
+            role: ASSISTANT,
+            content: [{'type: "text", text: request.toJsonString()}],
+            stop_reason: "end_turn",
+            stop_sequence: (),
+            usage: {
+                input_tokens: 10,
+                output_tokens: 20,
+                cache_creation_input_tokens: isCached ? 0 : (),
+                cache_read_input_tokens: isCached ? 1500 : ()
+            }
+        };
+    }
+}
+
+// Echoes the request of the OpenAI compatible models, and calls the tools given in the request in parallel
+service / on new http:Listener(9095) {
+    resource function post openai/chat/completions(@http:Payload map<json> request) returns json|error =>
+        getToolCallingResponse(request);
+
+    resource function post azure/deployments/[string deploymentId]/chat/completions(
+            @http:Payload map<json> request) returns json|error => getToolCallingResponse(request);
+}
+
+function getToolCallingResponse(map<json> request) returns json|error {
+    json[] tools = request["tools"] is json[] ? <json[]>request["tools"] : [];
+    return {
+        id: "chatcmpl-1",
+        'object: "chat.completion",
+        created: 1700000000,
+        model: "gpt-4o",
+        choices: [
+            {
+                index: 0,
+                finish_reason: "tool_calls",
+                logprobs: (),
+                message: {
+                    role: ASSISTANT,
+                    content: request.toJsonString(),
+                    refusal: (),
+                    tool_calls: from int i in 0 ..< tools.length()
+                        select {
+                            id: string `call_${i}`,
+                            'type: FUNCTION,
+                            'function: {name: check tools[i].'function.name, arguments: "{}"}
+                        }
+                }
+            }
+        ],
+        usage: {prompt_tokens: 10, completion_tokens: 20, total_tokens: 30}
+    };
+}
+
+final ChatMessage[] parallelToolCallHistory = [
+    {role: USER, content: "What is the weather and the time in Colombo?"},
+    {
+        role: ASSISTANT,
+        toolCalls: [
+            {name: "getWeather", arguments: "{}", id: "call_weather"},
+            {name: "getTime", arguments: "{}"}
+        ]
+    },
+    {role: FUNCTION, name: "getWeather", content: "Sunny", id: "call_weather"},
+    {role: FUNCTION, name: "getTime", content: "10:00"}
+];
+
+function assertToolCallingRequest(ChatAssistantMessage response) returns error? {
+    map<json> request = check (check response.content.ensureType(string)).fromJsonStringWithType();
+    test:assertFalse(request.hasKey("functions"));
+    test:assertEquals(request["tools"], [
+        {'type: FUNCTION, 'function: {name: "getTime", description: "Get the current time of a city"}},
+        {'type: FUNCTION, 'function: {name: "getWeather", description: "Get the current weather of a city"}}
+    ]);
+    // Each call is sent with an identifier, which the result of the call refers to
+    json[] messages = check request["messages"].ensureType();
+    test:assertEquals(check messages[1].tool_calls, [
+        {id: "call_weather", 'type: FUNCTION, 'function: {name: "getWeather", arguments: "{}"}},
+        {id: "call_1_1", 'type: FUNCTION, 'function: {name: "getTime", arguments: "{}"}}
+    ]);
+    test:assertEquals(messages.slice(2), [
+        {role: "tool", content: "Sunny", tool_call_id: "call_weather"},
+        {role: "tool", content: "10:00", tool_call_id: "call_1_1"}
+    ]);
+    test:assertEquals(response?.toolCalls, [
+        {id: "call_0", name: "getTime", arguments: "{}"},
+        {id: "call_1", name: "getWeather", arguments: "{}"}
+    ]);
+}
+
+@test:Config {}
+function testOpenAiProviderUsesParallelToolCalls() returns error? {
+    OpenAiProvider provider = check new ("test-key", GPT_4O, serviceUrl = "http://localhost:9095/openai",
+        httpVersion = http:HTTP_1_1);
+    ChatAssistantMessage response = check provider->chat(parallelToolCallHistory, unorderedTools);
+    check assertToolCallingRequest(response);
+}
+
+@test:Config {}
+function testAzureOpenAiProviderUsesParallelToolCalls() returns error? {
+    AzureOpenAiProvider provider = check new ("http://localhost:9095/azure", "test-key", "gpt-4o",
+        "2024-06-01", httpVersion = http:HTTP_1_1);
+    ChatAssistantMessage response = check provider->chat(parallelToolCallHistory, unorderedTools);
+    check assertToolCallingRequest(response);
+}
+
+final ChatCompletionFunctions[] unorderedTools = [
+    {name: "getWeather", description: "Get the current weather of a city"},
+    {name: "getTime", description: "Get the current time of a city"}
+];
+
+@test:Config {}
+function testAnthropicProviderSetsPromptCacheBreakpoints() returns error? {
+    AnthropicProvider provider = check new ("test-key", CLAUDE_3_5_HAIKU_20241022, "2023-06-01",
+        serviceUrl = "http://localhost:9099/anthropic", promptCaching = true, httpVersion = http:HTTP_1_1);
+    ChatMessage[] messages = [{role: SYSTEM, content: "You are a helpful assistant"}, {role: USER, content: "Hi"}];
+    ChatAssistantMessage response = check provider->chat(messages, unorderedTools);
+    map<json> request = check (check response.content.ensureType(string)).fromJsonStringWithType();
+
+    test:assertEquals(request["system"], [
+        {'type: "text", text: "You are a helpful assistant", cache_control: {'type: "ephemeral"}}
+    ]);
+    test:assertEquals(request["messages"], [{role: USER, content: "Hi"}]);
+    test:assertEquals(request["tools"], [
+        {name: "getTime", description: "Get the current time of a city", input_schema: {'type: "object", properties: {}}},
+        {
+            name: "getWeather",
+            description: "Get the current weather of a city",
+            input_schema: {'type: "object", properties: {}},
+            cache_control: {'type: "ephemeral"}
+        }
+    ]);
+
+    _ = check provider->chat(messages.reverse(), unorderedTools.reverse());
+    test:assertEquals(provider.getPromptCacheStats(), {
+        requestCount: 2,
+        cacheHitCount: 2,
+        inputTokens: 20,
+        cacheCreationInputTokens: 0,
+        cacheReadInputTokens: 3000
+    });
+}
+
+@test:Config {}
+function testAnthropicProviderWithoutPromptCaching() returns error? {
+    AnthropicProvider provider = check new ("test-key", CLAUDE_3_5_HAIKU_20241022, "2023-06-01",
+        serviceUrl = "http://localhost:9099/anthropic", httpVersion = http:HTTP_1_1);
+    ChatAssistantMessage response = check provider->chat([{role: USER, content: "Hi"}], unorderedTools);
+    string request = check response.content.ensureType();
+
+    test:assertFalse(request.includes("cache_control"));
+    test:assertEquals(provider.getPromptCacheStats(), {
+        requestCount: 1,
+        cacheHitCount: 0,
+        inputTokens: 10,
+        cacheCreationInputTokens: 0,
+        cacheReadInputTokens: 0
+    });
+}
+
+@test:Config {}
+function testAnthropicProviderReportsTokenUsage() returns error? {
+    AnthropicProvider provider = check new ("test-key", CLAUDE_3_5_HAIKU_20241022, "2023-06-01",
+        serviceUrl = "http://localhost:9099/anthropic", promptCaching = true, httpVersion = http:HTTP_1_1);
+    ChatAssistantMessage response = check provider->chat([{role: SYSTEM, content: "You are a helpful assistant"}]);
+    // The input tokens include the tokens read from the prompt cache
+    test:assertEquals(response?.usage, <TokenUsage>{inputTokens: 1510, outputTokens: 20, cachedInputTokens: 1500});
+
+    // No tokens are used by a response returned from the cache
+    CachedModelProvider model = new (provider, "anthropic");
+    response = check model->chat([{role: USER, content: "Hi"}]);
+    test:assertEquals(response?.usage, <TokenUsage>{inputTokens: 10, outputTokens: 20, cachedInputTokens: 0});
+    response = check model->chat([{role: USER, content: "Hi"}]);
+    test:assertEquals(response?.usage, ());
+}
+
+isolated client class CountingMockLlm {
+    *ModelProvider;
+    private int callCount = 0;
+
+    isolated remote function chat(ChatMessage[] messages, ChatCompletionFunctions[] tools = [], string? stop = ())
+        returns ChatAssistantMessage|LlmError {
+        lock {
+            self.callCount += 1;
+            return {role: ASSISTANT, content: string `Response ${self.callCount}`};
+        }
+    }
+
+    isolated function getCallCount() returns int {
+        lock {
+            return self.callCount;
+        }
+    }
+}
+
+@test:Config {}
+function testCachedModelProviderReturnsCachedResponses() returns error? {
+    CountingMockLlm llm = new;
+    CachedModelProvider model = new (llm, "mock-model");
+    ChatAssistantMessage firstResponse = check model->chat([{role: USER, content: "Hi"}], unorderedTools);
+    // The fields of the tools are given in a different order, which does not change the request
+    ChatAssistantMessage secondResponse = check model->chat([{role: USER, content: "Hi"}], [
+        {description: "Get the current weather of a city", name: "getWeather"},
+        {description: "Get the current time of a city", name: "getTime"}
+    ]);
+    ChatAssistantMessage thirdResponse = check model->chat([{role: USER, content: "Hi"}], unorderedTools, "stop");
+    ChatAssistantMessage fourthResponse = check model->chat([{role: USER, content: " Hi "}], unorderedTools);
+
+    test:assertEquals(firstResponse.content, "Response 1");
+    test:assertEquals(secondResponse, firstResponse);
+    test:assertEquals(thirdResponse.content, "Response 2");
+    test:assertEquals(fourthResponse.content, "Response 3");
+    test:assertEquals(llm.getCallCount(), 3);
+    test:assertEquals(model.getStats(), {
+        cachedResponseCount: 3,
+        cacheHitCount: 1,
+        diskCacheHitCount: 0,
+        cacheMissCount: 3,
+        evictedResponseCount: 0,
+        expiredResponseCount: 0
+    });
+}
+
+@test:Config {}
+function testCachedModelProviderNormalizesWhitespace() returns error? {
+    CountingMockLlm llm = new;
+    CachedModelProvider model = new (llm, "mock-model", normalizeWhitespace = true);
+    _ = check model->chat([{role: USER, content: "What is   the time?"}]);
+    ChatAssistantMessage response = check model->chat([{role: USER, content: " What is the\ntime? "}]);
+
+    test:assertEquals(response.content, "Response 1");
+    test:assertEquals(llm.getCallCount(), 1);
+}
+
+@test:Config {}
+function testCachedModelProviderEvictsLeastRecentlyUsedResponses() returns error? {
+    CountingMockLlm llm = new;
+    CachedModelProvider model = new (llm, "mock-model", capacity = 2);
+    _ = check model->chat([{role: USER, content: "first"}]);
+    _ = check model->chat([{role: USER, content: "second"}]);
+    // Uses the first response, so that the second response becomes the least recently used one
+    _ = check model->chat([{role: USER, content: "first"}]);
+    _ = check model->chat([{role: USER, content: "third"}]);
+    ChatAssistantMessage firstResponse = check model->chat([{role: USER, content: "first"}]);
+    ChatAssistantMessage secondResponse = check model->chat([{role: USER, content: "second"}]);
+
+    test:assertEquals(firstResponse.content, "Response 1");
+    test:assertEquals(secondResponse.content, "Response 4");
+    test:assertEquals(model.getStats().evictedResponseCount, 2);
+}
+
+@test:Config {}
+function testCachedModelProviderExpiresResponses() returns error? {
+    CountingMockLlm llm = new;
+    CachedModelProvider model = new (llm, "mock-model", ttl = 0);
+    _ = check model->chat([{role: USER, content: "Hi"}]);
+    ChatAssistantMessage response = check model->chat([{role: USER, content: "Hi"}]);
+
+    test:assertEquals(response.content, "Response 2");
+    test:assertEquals(model.getStats().expiredResponseCount, 1);
+}
+
+@test:Config {}
+function testCachedModelProviderReadsResponsesCachedOnDisk() returns error? {
+    string directory = string `build/model-cache-tests/${uuid:createRandomUuid()}`;
+    CountingMockLlm llm = new;
+    CachedModelProvider model = new (llm, "mock-model", directory = directory);
+    _ = check model->chat([{role: USER, content: "Hi"}]);
+
+    // A new cache, such as the cache of a restarted service, reads the response cached on disk
+    CachedModelProvider restartedModel = new (llm, "mock-model", directory = directory);
+    ChatAssistantMessage response = check restartedModel->chat([{role: USER, content: "Hi"}]);
+    test:assertEquals(response.content, "Response 1");
+    test:assertEquals(restartedModel.getStats().diskCacheHitCount, 1);
+
+    // The responses of a different model are not returned
+    CachedModelProvider otherModel = new (llm, "other-model", directory = directory);
+    response = check otherModel->chat([{role: USER, content: "Hi"}]);
+    test:assertEquals(response.content, "Response 2");
+    test:assertEquals(llm.getCallCount(), 2);
+}
+
+@test:Config {}
+function testCachedModelProviderDistinguishesGenerationParameters() returns error? {
+    string directory = string `build/model-cache-tests/${uuid:createRandomUuid()}`;
+    AnthropicProvider deterministicModel = check new ("test-key", CLAUDE_3_5_HAIKU_20241022, "2023-06-01",
+        serviceUrl = "http://localhost:9099/anthropic", temperature = 0, httpVersion = http:HTTP_1_1);
+    AnthropicProvider creativeModel = check new ("test-key", CLAUDE_3_5_HAIKU_20241022, "2023-06-01",
+        serviceUrl = "http://localhost:9099/anthropic", temperature = 0.9, httpVersion = http:HTTP_1_1);
+    CachedModelProvider model = new (deterministicModel, "anthropic", directory = directory);
+    _ = check model->chat([{role: USER, content: "Hi"}]);
+
+    // The responses of the model with a different temperature are not returned for the same model identifier
+    CachedModelProvider otherModel = new (creativeModel, "anthropic", directory = directory);
+    _ = check otherModel->chat([{role: USER, content: "Hi"}]);
+    test:assertEquals(otherModel.getStats().diskCacheHitCount, 0);
+    test:assertEquals(otherModel.getStats().cacheMissCount, 1);
+
+    CachedModelProvider restartedModel = new (deterministicModel, "anthropic", directory = directory);
+    _ = check restartedModel->chat([{role: USER, content: "Hi"}]);
+    test:assertEquals(restartedModel.getStats().diskCacheHitCount, 1);
+}
+
+@test:Config {}
+function testCachedModelProviderResolvesSchemaReferencesOfModel() returns error? {
+    AnthropicProvider anthropicModel = check new ("test-key", CLAUDE_3_5_HAIKU_20241022, "2023-06-01",
+        serviceUrl = "http://localhost:9099/anthropic");
+    test:assertTrue(resolvesSchemaReferences(new CachedModelProvider(anthropicModel, "anthropic")));
+    test:assertFalse(resolvesSchemaReferences(new CachedModelProvider(new CountingMockLlm(), "mock-model")));
+}
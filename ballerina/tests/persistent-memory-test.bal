@@ -0,0 +1,173 @@
+import ballerina/file;
+import ballerina/io;
+import ballerina/test;
+import ballerina/uuid;
+
+function getMemoryDirectory() returns string => string `build/persistent-memory-tests/${uuid:createRandomUuid()}`;
+
+@test:Config {}
+function testPersistentMemoryRecoversAfterCrash() returns error? {
+    string directory = getMemoryDirectory();
+    PersistentMessageWindowChatMemory chatMemory = check new (directory, 3);
+    ChatSystemMessage systemMessage = {role: "system", content: "You are helpful."};
+    ChatUserMessage userMessage = {role: "user", content: "What is the weather in Colombo?"};
+    ChatAssistantMessage assistantMessage = {
+        role: "assistant",
+        toolCalls: [{name: "getWeather", arguments: {city: "Colombo"}.toJsonString(), id: "call_1"}]
+    };
+    ChatFunctionMessage functionMessage = {role: "function", name: "getWeather", content: "Sunny", id: "call_1"};
+    check chatMemory.update("session", systemMessage);
+    check chatMemory.update("session", userMessage);
+    check chatMemory.update("session", assistantMessage);
+    check chatMemory.update("session", functionMessage);
+    check chatMemory.update("deleted-session", userMessage);
+    check chatMemory.delete("deleted-session");
+    check chatMemory.flush();
+
+    // The log of the first memory is recovered before the memory is closed, as if the process had crashed after
+    // the flush. Since the log is locked by the first memory, it is recovered from a copy.
+    string recoveredDirectory = getMemoryDirectory();
+    check file:createDir(recoveredDirectory, file:RECURSIVE);
+    check io:fileWriteBytes(recoveredDirectory + "/memory.log", check io:fileReadBytes(directory + "/memory.log"));
+    PersistentMessageWindowChatMemory recoveredMemory = check new (recoveredDirectory, 3);
+    test:assertEquals(check recoveredMemory.get("session"), [systemMessage, assistantMessage, functionMessage]);
+    test:assertEquals(check recoveredMemory.get("deleted-session"), []);
+    check recoveredMemory.close();
+    check chatMemory.close();
+}
+
+@test:Config {}
+function testPersistentMemoryRejectsLogInUse() returns error? {
+    string directory = getMemoryDirectory();
+    PersistentMessageWindowChatMemory chatMemory = check new (directory);
+    PersistentMessageWindowChatMemory|MemoryError otherMemory = new (directory);
+    test:assertTrue(otherMemory is MemoryError, "Expected the log in use to be rejected");
+    check chatMemory.close();
+
+    // The log is released once the memory is closed
+    PersistentMessageWindowChatMemory reopenedMemory = check new (directory);
+    check reopenedMemory.close();
+    test:assertTrue(chatMemory.update("session", <ChatUserMessage>{role: "user", content: "Hi"}) is MemoryError);
+}
+
+@test:Config {}
+function testPersistentMemoryDiscardsTornWrite() returns error? {
+    string directory = getMemoryDirectory();
+    PersistentMessageWindowChatMemory chatMemory = check new (directory);
+    ChatUserMessage firstMessage = {role: "user", content: "Hi"};
+    ChatUserMessage secondMessage = {role: "user", content: "Are you there?"};
+    check chatMemory.update("session", firstMessage);
+    check chatMemory.close();
+    // A record partially written when the process crashed, and a record with an invalid checksum
+    check io:fileWriteString(directory + "/memory.log", "00000000\tM\tc2Vzc2lvbg\t{\"role\":\"user\"}\n",
+        io:APPEND);
+    check io:fileWriteString(directory + "/memory.log", "1c291ca3\tM\tc2Vzc2lvbg\t{\"role\":", io:APPEND);
+
+    PersistentMessageWindowChatMemory recoveredMemory = check new (directory);
+    test:assertEquals(check recoveredMemory.get("session"), [firstMessage]);
+    check recoveredMemory.update("session", secondMessage);
+    check recoveredMemory.close();
+
+    PersistentMessageWindowChatMemory reopenedMemory = check new (directory);
+    test:assertEquals(check reopenedMemory.get("session"), [firstMessage, secondMessage]);
+    check reopenedMemory.close();
+}
+
+@test:Config {}
+function testPersistentMemoryCompaction() returns error? {
+    string directory = getMemoryDirectory();
+    PersistentMessageWindowChatMemory chatMemory = check new (directory, 3);
+    foreach int i in 0 ..< 100 {
+        check chatMemory.update("session", <ChatUserMessage>{role: "user", content: string `Message ${i}`});
+        check chatMemory.update("deleted-session", <ChatUserMessage>{role: "user", content: string `Message ${i}`});
+    }
+    check chatMemory.delete("deleted-session");
+    check chatMemory.flush();
+    int logSize = (check io:fileReadBytes(directory + "/memory.log")).length();
+    check chatMemory.compact();
+    int compactedLogSize = (check io:fileReadBytes(directory + "/memory.log")).length();
+    test:assertTrue(compactedLogSize < logSize / 50,
+        string `Expected the log of ${logSize} bytes to be compacted, but was ${compactedLogSize} bytes`);
+    check chatMemory.update("session", <ChatUserMessage>{role: "user", content: "Message 100"});
+    check chatMemory.close();
+    // A compaction interrupted by a crash leaves a partially written log behind, which is not recovered.
+    check io:fileWriteString(directory + "/memory.log.compact", "partially written log");
+
+    PersistentMessageWindowChatMemory reopenedMemory = check new (directory, 3);
+    ChatMessage[] expectedMessages = [
+        <ChatUserMessage>{role: "user", content: "Message 99"},
+        <ChatUserMessage>{role: "user", content: "Message 100"}
+    ];
+    test:assertEquals(check reopenedMemory.get("session"), expectedMessages);
+    test:assertEquals(check reopenedMemory.get("deleted-session"), []);
+    check reopenedMemory.close();
+}
+
+@test:Config {}
+function testPersistentMemoryLoadsEvictedSessionsFromLog() returns error? {
+    PersistentMessageWindowChatMemory chatMemory = check new (getMemoryDirectory(), maxCachedSessions = 2,
+        shardCount = 1);
+    foreach int i in 0 ..< 4 {
+        check chatMemory.update(string `session-${i}`, <ChatUserMessage>{role: "user", content: string `Hi ${i}`});
+        _ = check chatMemory.get(string `session-${i}`);
+    }
+    test:assertEquals(check chatMemory.get("session-0"), [<ChatUserMessage>{role: "user", content: "Hi 0"}]);
+    test:assertEquals(check chatMemory.get("session-0"), [<ChatUserMessage>{role: "user", content: "Hi 0"}]);
+    PersistentChatMemoryStats stats = chatMemory.getStats();
+    test:assertEquals(stats, <PersistentChatMemoryStats>{
+        cachedSessionCount: 2,
+        cacheHitCount: 1,
+        cacheMissCount: 5,
+        evictedSessionCount: 3
+    });
+    check chatMemory.close();
+}
+
+@test:Config {}
+function testPersistentMemoryLoadsEvictedSessionsWithoutFlushing() returns error? {
+    string directory = getMemoryDirectory();
+    PersistentMessageWindowChatMemory chatMemory = check new (directory, 3, maxCachedSessions = 1,
+        flushInterval = 60, shardCount = 1);
+    ChatSystemMessage systemMessage = {role: "system", content: "You are helpful."};
+    foreach int i in 0 ..< 3 {
+        check chatMemory.update("session", <ChatUserMessage>{role: "user", content: string `Hi ${i}`});
+    }
+    check chatMemory.update("session", systemMessage);
+    check chatMemory.update("deleted-session", <ChatUserMessage>{role: "user", content: "Hi"});
+    check chatMemory.delete("deleted-session");
+    check chatMemory.update("deleted-session", <ChatUserMessage>{role: "user", content: "Hi again"});
+
+    // The sessions are evicted from the cache, and are read from the buffered updates.
+    test:assertEquals(check chatMemory.get("session"), [
+        systemMessage,
+        <ChatUserMessage>{role: "user", content: "Hi 1"},
+        <ChatUserMessage>{role: "user", content: "Hi 2"}
+    ]);
+    test:assertEquals(check chatMemory.get("deleted-session"), [<ChatUserMessage>{role: "user", content: "Hi again"}]);
+    test:assertEquals((check io:fileReadBytes(directory + "/memory.log")).length(), 0);
+    check chatMemory.close();
+}
+
+@test:Config {}
+function testPersistentMemoryWithUpdateHeavyWorkload() returns error? {
+    int sessionCount = 100;
+    int updatesPerSession = 20;
+    PersistentMessageWindowChatMemory chatMemory = check new (getMemoryDirectory());
+    ChatUserMessage userMessage = {role: "user", content: "What is the weather in Colombo today?"};
+    ChatAssistantMessage assistantMessage = {role: "assistant", content: "It is sunny in Colombo today."};
+
+    foreach int i in 0 ..< updatesPerSession / 2 {
+        foreach int j in 0 ..< sessionCount {
+            string sessionId = string `session-${j}`;
+            check chatMemory.update(sessionId, userMessage);
+            check chatMemory.update(sessionId, assistantMessage);
+        }
+    }
+    check chatMemory.flush();
+
+    foreach int j in 0 ..< sessionCount {
+        ChatMessage[] messages = check chatMemory.get(string `session-${j}`);
+        test:assertEquals(messages.length(), 9);
+    }
+    check chatMemory.close();
+}
@@ -0,0 +1,269 @@
+import ballerina/http;
+import ballerina/lang.runtime;
+import ballerina/test;
+
+isolated client class StreamingMockLlm {
+    *StreamingModelProvider;
+
+    isolated remote function chat(ChatMessage[] messages, ChatCompletionFunctions[] tools = [], string? stop = ())
+        returns ChatAssistantMessage|LlmError {
+        return error LlmError("Expected the response to be streamed");
+    }
+
+    isolated remote function chatStream(ChatMessage[] messages, ChatCompletionFunctions[] tools = [],
+            string? stop = ()) returns stream<ChatAssistantMessageDelta, LlmError?>|LlmError {
+        ChatMessage lastMessage = messages[messages.length() - 1];
+        ChatAssistantMessageDelta[] deltas = lastMessage is ChatUserMessage
+            ? [
+                {toolCalls: [{index: 0, id: "call_1", name: "getWeather"}]},
+                {toolCalls: [{index: 0, arguments: "{\"city\":"}]},
+                {toolCalls: [{index: 0, arguments: "\"Colombo\"}"}]}
+            ]
+            : [{content: "Sunny"}, {content: " in Colombo"}];
+        return deltas.toStream();
+    }
+}
+
+isolated client class FailingStreamingMockLlm {
+    *StreamingModelProvider;
+
+    isolated remote function chat(ChatMessage[] messages, ChatCompletionFunctions[] tools = [], string? stop = ())
+        returns ChatAssistantMessage|LlmError {
+        return error LlmConnectionError("Model is not available");
+    }
+
+    isolated remote function chatStream(ChatMessage[] messages, ChatCompletionFunctions[] tools = [],
+            string? stop = ()) returns stream<ChatAssistantMessageDelta, LlmError?>|LlmError {
+        return error LlmConnectionError("Model is not available");
+    }
+}
+
+@test:Config {}
+function testAgentStreamsEvents() returns error? {
+    Agent agent = check new (
+        model = new StreamingMockLlm(),
+        systemPrompt = {role: "Weather Assistant", instructions: "Answer weather questions."},
+        tools = [weatherTool]
+    );
+    AgentEvent[] events = check from AgentEvent event in agent->runStream("Weather in Colombo?", "streaming-session")
+        select event;
+    AgentEvent[] expectedEvents = [
+        {'type: TOOL_CALL_DELTA, delta: {index: 0, id: "call_1", name: "getWeather"}},
+        {'type: TOOL_CALL_DELTA, delta: {index: 0, arguments: "{\"city\":"}},
+        {'type: TOOL_CALL_DELTA, delta: {index: 0, arguments: "\"Colombo\"}"}},
+        {'type: TOOL_RESULT, name: "getWeather", id: "call_1", observation: "Sunny in Colombo"},
+        {'type: CONTENT_DELTA, content: "Sunny"},
+        {'type: CONTENT_DELTA, content: " in Colombo"},
+        {'type: FINAL_ANSWER, content: "Sunny in Colombo"}
+    ];
+    test:assertEquals(events, expectedEvents);
+}
+
+@test:Config {}
+function testAgentStreamsEventsOfNonStreamingModel() returns error? {
+    Agent agent = check getLatencyMockAgent();
+    AgentEvent[] events = check from AgentEvent event in agent->runStream("Hi", "non-streaming-session")
+        select event;
+    AgentEvent[] expectedEvents = [
+        {'type: CONTENT_DELTA, content: "Done"},
+        {'type: FINAL_ANSWER, content: "Done"}
+    ];
+    test:assertEquals(events, expectedEvents);
+}
+
+@test:Config {}
+function testClosingEventStreamStopsAgentExecution() returns error? {
+    RepeatingToolCallMockLlm llm = new;
+    Agent agent = check new (model = llm, tools = [slowWeatherTool], maxIter = 10,
+        systemPrompt = {role: "Assistant", instructions: "Answer the questions."});
+    stream<AgentEvent, Error?> events = agent->runStream("Weather in Colombo?", "abandoned-session");
+    record {|AgentEvent value;|}|Error? event = events.next();
+    test:assertTrue(event is record {|AgentEvent value;|});
+    check events.close();
+    test:assertEquals(events.next(), ());
+
+    // The model is not called again once the tool executing while the stream is closed completes
+    runtime:sleep(2.5);
+    test:assertEquals(llm.getCallCount(), 1);
+}
+
+@test:Config {}
+function testAgentEventStreamCompletesWithError() returns error? {
+    Agent agent = check new (
+        model = new FailingStreamingMockLlm(),
+        systemPrompt = {role: "Assistant", instructions: "Answer the questions."}
+    );
+    AgentEvent[]|Error events = from AgentEvent event in agent->runStream("Hi", "failing-session")
+        select event;
+    test:assertTrue(events is Error);
+}
+
+@test:Config {}
+function testToSseEvents() returns error? {
+    AgentEvent[] agentEvents = [{'type: CONTENT_DELTA, content: "Do"}, {'type: FINAL_ANSWER, content: "Done"}];
+    http:SseEvent[] events = check from http:SseEvent event in toSseEvents(agentEvents.toStream())
+        select event;
+    test:assertEquals(events, [
+        {event: "CONTENT_DELTA", data: {'type: "CONTENT_DELTA", content: "Do"}.toJsonString()},
+        {event: "FINAL_ANSWER", data: {'type: "FINAL_ANSWER", content: "Done"}.toJsonString()}
+    ]);
+
+    Agent agent = check new (
+        model = new FailingStreamingMockLlm(),
+        systemPrompt = {role: "Assistant", instructions: "Answer the questions."}
+    );
+    events = check from http:SseEvent event in toSseEvents(agent->runStream("Hi", "failing-sse-session"))
+        select event;
+    test:assertEquals(events.length(), 1);
+    test:assertEquals(events[0].event, "error");
+}
+
+@test:Config {}
+function testOpenAiCompatibleDeltaMapping() {
+    test:assertEquals(getOpenAiCompatibleDelta({data: {choices: [{delta: {content: "Hel"}}]}.toJsonString()}),
+        {content: "Hel"});
+    json toolCallChunk = {
+        choices: [
+            {
+                delta: {
+                    tool_calls: [{index: 1, id: "call_2", 'function: {name: "getWeather", arguments: "{\"ci"}}]
+                }
+            }
+        ]
+    };
+    test:assertEquals(getOpenAiCompatibleDelta({data: toolCallChunk.toJsonString()}),
+        {toolCalls: [{index: 1, id: "call_2", name: "getWeather", arguments: "{\"ci"}]});
+    json functionCallChunk = {choices: [{delta: {function_call: {arguments: "ty\"}"}}}]};
+    test:assertEquals(getOpenAiCompatibleDelta({data: functionCallChunk.toJsonString()}),
+        {toolCalls: [{index: 0, arguments: "ty\"}"}]});
+    json usageChunk = {choices: [], usage: {prompt_tokens: 12, completion_tokens: 5, total_tokens: 17}};
+    test:assertEquals(getOpenAiCompatibleDelta({data: usageChunk.toJsonString()}),
+        {usage: {inputTokens: 12, outputTokens: 5}});
+    test:assertEquals(getOpenAiCompatibleDelta({data: "[DONE]"}), ());
+    test:assertTrue(getOpenAiCompatibleDelta({data: "{invalid"}) is LlmInvalidResponseError);
+}
+
+@test:Config {}
+function testAnthropicDeltaMapping() {
+    json messageStart = {
+        'type: "message_start",
+        message: {
+            id: "msg_1",
+            usage: {input_tokens: 10, output_tokens: 1, cache_creation_input_tokens: 4, cache_read_input_tokens: 6}
+        }
+    };
+    test:assertEquals(getAnthropicDelta({event: "message_start", data: messageStart.toJsonString()}),
+        {usage: {inputTokens: 20, cachedInputTokens: 6}});
+    json toolUseStart = {
+        'type: "content_block_start",
+        index: 1,
+        content_block: {'type: "tool_use", id: "toolu_1", name: "getWeather", input: {}}
+    };
+    test:assertEquals(getAnthropicDelta({event: "content_block_start", data: toolUseStart.toJsonString()}),
+        {toolCalls: [{index: 1, id: "toolu_1", name: "getWeather"}]});
+    json inputDelta = {
+        'type: "content_block_delta",
+        index: 1,
+        delta: {'type: "input_json_delta", partial_json: "{\"city\""}
+    };
+    test:assertEquals(getAnthropicDelta({event: "content_block_delta", data: inputDelta.toJsonString()}),
+        {toolCalls: [{index: 1, arguments: "{\"city\""}]});
+    json textDelta = {'type: "content_block_delta", index: 0, delta: {'type: "text_delta", text: "Hi"}};
+    test:assertEquals(getAnthropicDelta({event: "content_block_delta", data: textDelta.toJsonString()}),
+        {content: "Hi"});
+    json messageDelta = {'type: "message_delta", delta: {stop_reason: "end_turn"}, usage: {output_tokens: 15}};
+    test:assertEquals(getAnthropicDelta({event: "message_delta", data: messageDelta.toJsonString()}),
+        {usage: {outputTokens: 15}});
+    test:assertEquals(getAnthropicDelta({event: "message_stop", data: {'type: "message_stop"}.toJsonString()}), ());
+    json errorEvent = {'type: "error", 'error: {'type: "overloaded_error", message: "Overloaded"}};
+    test:assertTrue(getAnthropicDelta({event: "error", data: errorEvent.toJsonString()}) is LlmInvalidResponseError);
+}
+
+@test:Config {}
+function testOllamaLineDeltaStream() returns error? {
+    byte[][] chunks = [
+        "{\"message\":{\"role\":\"assistant\",\"content\":\"Hel\"}}\n{\"mess".toBytes(),
+        "age\":{\"role\":\"assistant\",\"content\":\"lo\"}}\n\n".toBytes(),
+        "{\"message\":{\"role\":\"assistant\",\"content\":\"\",\"tool_calls\":".toBytes(),
+        "[{\"function\":{\"name\":\"getWeather\",\"arguments\":{\"city\":\"Colombo\"}}}]},\"done\":true,".toBytes(),
+        "\"prompt_eval_count\":20,\"eval_count\":8}".toBytes()
+    ];
+    stream<ChatAssistantMessageDelta, LlmError?> deltas =
+        new (new LineDeltaStream(chunks.toStream(), getOllamaDelta, OLLAMA_PROVIDER));
+    ChatAssistantMessageDelta[] result = check from ChatAssistantMessageDelta delta in deltas
+        select delta;
+    test:assertEquals(result, [
+        {content: "Hel"},
+        {content: "lo"},
+        {
+            toolCalls: [{index: 0, name: "getWeather", arguments: {city: "Colombo"}.toJsonString()}],
+            usage: {inputTokens: 20, outputTokens: 8}
+        }
+    ]);
+}
+
+@test:Config {}
+function testChatAssistantMessageAggregator() {
+    ChatAssistantMessageAggregator aggregator = new;
+    aggregator.add({content: "Checking "});
+    aggregator.add({toolCalls: [{index: 0, id: "call_1", name: "getWeather"}, {index: 1, id: "call_2", name: "getTime"}]});
+    aggregator.add({content: "the weather", toolCalls: [{index: 0, arguments: "{\"city\":"}]});
+    aggregator.add({toolCalls: [{index: 0, arguments: "\"Colombo\"}"}]});
+    // The usage reported in parts, such as the input and the output tokens of Anthropic, is added up
+    aggregator.add({usage: {inputTokens: 20, cachedInputTokens: 6}});
+    aggregator.add({usage: {outputTokens: 15}});
+    test:assertEquals(aggregator.getMessage(), {
+        role: ASSISTANT,
+        content: "Checking the weather",
+        toolCalls: [
+            {name: "getWeather", arguments: "{\"city\":\"Colombo\"}", id: "call_1"},
+            {name: "getTime", arguments: "{}", id: "call_2"}
+        ],
+        usage: {inputTokens: 20, outputTokens: 15, cachedInputTokens: 6}
+    });
+}
+
+service /deepseek on new http:Listener(9096) {
+    resource function post chat/completions(@http:Payload json request)
+            returns stream<http:SseEvent, error?>|http:BadRequest {
+        json|error isStreamed = request.'stream;
+        json|error includesUsage = request.stream_options.include_usage;
+        if isStreamed is error || isStreamed != true || includesUsage is error || includesUsage != true {
+            return http:BAD_REQUEST;
+        }
+        http:SseEvent[] events = [
+            {data: {choices: [{delta: {content: "Hello"}}]}.toJsonString()},
+            {data: {choices: [{delta: {content: " there"}}]}.toJsonString()},
+            {data: {choices: [], usage: {prompt_tokens: 9, completion_tokens: 2}}.toJsonString()},
+            {data: SSE_DONE_DATA}
+        ];
+        return events.toStream();
+    }
+}
+
+@test:Config {}
+function testDeepseekProviderStreamsResponse() returns error? {
+    DeepseekProvider provider = check new ("test-key", serviceUrl = "http://localhost:9096/deepseek",
+        httpVersion = http:HTTP_1_1);
+    stream<ChatAssistantMessageDelta, LlmError?> deltas = check provider->chatStream([{role: USER, content: "Hi"}]);
+    ChatAssistantMessageDelta[] result = check from ChatAssistantMessageDelta delta in deltas
+        select delta;
+    test:assertEquals(result, [{content: "Hello"}, {content: " there"}, {usage: {inputTokens: 9, outputTokens: 2}}]);
+}
+
+final Agent sseAgent = check getLatencyMockAgent();
+
+service StreamingChatService /streamingChat on new Listener(9097) {
+    resource function post chat(@http:Payload ChatReqMessage request) returns stream<http:SseEvent, error?>|error {
+        return toSseEvents(sseAgent->runStream(request.message, request.sessionId));
+    }
+}
+
+@test:Config {}
+function testListenerStreamsAgentEvents() returns error? {
+    http:Client chatClient = check new ("http://localhost:9097/streamingChat", httpVersion = http:HTTP_1_1);
+    stream<http:SseEvent, error?> events = check chatClient->/chat.post({sessionId: "sse-session", message: "Hi"});
+    string?[] eventNames = check from http:SseEvent event in events
+        select event.event;
+    test:assertEquals(eventNames, ["CONTENT_DELTA", "FINAL_ANSWER"]);
+}
@@ -1,4 +1,7 @@
+import ballerina/io;
+import ballerina/lang.runtime;
 import ballerina/test;
+import ballerina/time;
 
 @test:Config {}
 function testResolveSchema() {
@@ -241,6 +244,92 @@ function testToolWithDefaultParameters() returns error? {
     test:assertEquals(output.value, "required default-one override");
 }
 
+@test:Config {}
+function testToolsWithSameSignatureAndDependentDefaultParameters() returns error? {
+    ToolConfig greetToolConfig = {name: "greet", description: "greet", caller: greetTool};
+    ToolConfig farewellToolConfig = {name: "farewell", description: "farewell", caller: farewellTool};
+    ToolStore toolStore = check new (greetToolConfig, farewellToolConfig);
+    foreach string name in ["Alice", "Bob"] {
+        ToolOutput greeting = check toolStore.execute({name: "greet", arguments: {name}});
+        test:assertEquals(greeting.value, string `Hello ${name}!`);
+        ToolOutput farewell = check toolStore.execute({name: "farewell", arguments: {name, greeting: "Goodbye"}});
+        test:assertEquals(farewell.value, string `Goodbye, ${name}.`);
+    }
+}
+
+@test:Config {}
+function testToolWithDefaultableParameters() returns error? {
+    ToolStore toolStore = check getDefaultableSearchToolStore();
+    foreach string name in ["search", "searchWithDefaults"] {
+        ToolOutput output = check toolStore.execute({name, arguments: {query: "ballerina"}});
+        test:assertEquals(output.value, "ballerina 10 0 en true 0.5 relevance");
+        output = check toolStore.execute({name, arguments: {query: "ballerina", offset: 20, sortBy: "date"}});
+        test:assertEquals(output.value, "ballerina 10 20 en true 0.5 date");
+    }
+}
+
+@test:Config {
+    groups: ["benchmark"]
+}
+function benchmarkToolWithDefaultableParameters() returns error? {
+    int callCount = 10000;
+    ToolStore toolStore = check getDefaultableSearchToolStore();
+    foreach string name in ["search", "searchWithDefaults"] {
+        decimal startedAt = time:monotonicNow();
+        foreach int i in 0 ..< callCount {
+            ToolOutput output = check toolStore.execute({name, arguments: {query: "ballerina"}});
+            test:assertEquals(output.value, "ballerina 10 0 en true 0.5 relevance");
+        }
+        decimal elapsed = time:monotonicNow() - startedAt;
+        io:println(string `${callCount} calls of '${name}' took ${elapsed}s`);
+    }
+}
+
+// Returns a store with the same search tool registered without and with the default values in its schema.
+function getDefaultableSearchToolStore() returns ToolStore|Error {
+    map<json> properties = {
+        query: {'type: STRING},
+        maxResults: {'type: INTEGER},
+        offset: {'type: INTEGER},
+        language: {'type: STRING},
+        safeSearch: {'type: BOOLEAN},
+        minScore: {'type: NUMBER},
+        sortBy: {'type: STRING}
+    };
+    // The compiler plugin adds the literal default values of the parameters to the generated schema.
+    map<json> propertiesWithDefaults = {
+        query: {'type: STRING},
+        maxResults: {'type: INTEGER, default: 10},
+        offset: {'type: INTEGER, default: 0},
+        language: {'type: STRING, default: "en"},
+        safeSearch: {'type: BOOLEAN, default: true},
+        minScore: {'type: NUMBER, default: 0.5},
+        sortBy: {'type: STRING, default: "relevance"}
+    };
+    ToolConfig searchToolConfig = {
+        name: "search",
+        description: "search",
+        parameters: {properties, required: ["query"]},
+        caller: defaultableSearchTool
+    };
+    ToolConfig searchToolWithDefaultsConfig = {
+        name: "searchWithDefaults",
+        description: "search",
+        parameters: {properties: propertiesWithDefaults, required: ["query"]},
+        caller: defaultableSearchTool
+    };
+    return new (searchToolConfig, searchToolWithDefaultsConfig);
+}
+
+isolated function isReadOnlyInput(record {|string city;|} location) returns boolean => location is readonly;
+
+@test:Config {}
+function testToolInputsAreReadOnly() returns error? {
+    ToolStore toolStore = check new ({name: "isReadOnlyInput", description: "Checks the input", caller: isReadOnlyInput});
+    ToolOutput output = check toolStore.execute({name: "isReadOnlyInput", arguments: {location: {city: "Colombo"}}});
+    test:assertEquals(output.value, true);
+}
+
 @test:Config {}
 function testExecutionPanicError() returns error? {
     ToolConfig sendEmailTool = {
@@ -318,3 +407,451 @@ isolated function testToolExecutionWithEmptyQueryRecordParam() returns error? {
     };
     string _ = check getParamEncodedPath(httpGet, parameters);
 }
+
+function getSlowToolConfig(int? maxConcurrency = ()) returns ToolConfig {
+    ToolConfig slowTool = {
+        name: "slowTool",
+        description: "A tool that takes some time to respond",
+        parameters: {
+            properties: {
+                id: {'type: STRING}
+            },
+            required: ["id"]
+        },
+        caller: slowToolMock
+    };
+    if maxConcurrency is int {
+        slowTool.maxConcurrency = maxConcurrency;
+    }
+    return slowTool;
+}
+
+// Returns the maximum number of executions of the slow tool in progress at the same time
+function executeSlowToolsConcurrently(ToolStore toolStore, int toolCount) returns int|error {
+    LlmToolResponse[] actions = from int i in 0 ..< toolCount
+        select {name: "slowTool", arguments: {id: i.toString()}};
+    resetSlowToolConcurrency();
+    (ToolOutput|LlmInvalidGenerationError|ToolExecutionError)[] outputs = toolStore.executeAll(actions, toolCount);
+    foreach int i in 0 ..< toolCount {
+        ToolOutput output = check outputs[i];
+        test:assertEquals(output.value, i.toString());
+    }
+    return getMaxSlowToolConcurrency();
+}
+
+@test:Config {}
+function testConcurrentToolExecutionsAreNotSerialized() returns error? {
+    ToolStore toolStore = check new (getSlowToolConfig());
+    int maxConcurrency = check executeSlowToolsConcurrently(toolStore, 8);
+    test:assertTrue(maxConcurrency > 1, "Expected concurrent tool executions to overlap");
+}
+
+@test:Config {}
+function testToolWithMaxConcurrency() returns error? {
+    ToolStore toolStore = check new (getSlowToolConfig(1));
+    int maxConcurrency = check executeSlowToolsConcurrently(toolStore, 4);
+    test:assertEquals(maxConcurrency, 1, "Expected tool executions to be serialized");
+}
+
+@test:Config {}
+function testSlowToolDoesNotHoldBackOtherToolCalls() returns error? {
+    ToolStore toolStore = check new (getSlowToolConfig(), {
+        name: "fastTool",
+        description: "A tool that responds immediately",
+        parameters: {
+            properties: {
+                id: {'type: STRING}
+            },
+            required: ["id"]
+        },
+        caller: fastToolMock
+    });
+    string[] ids = ["slow-call", "fast-call-1", "fast-call-2", "fast-call-3"];
+    LlmToolResponse[] actions = from string id in ids
+        select {name: id.startsWith("slow") ? "slowTool" : "fastTool", arguments: {id}};
+    (ToolOutput|LlmInvalidGenerationError|ToolExecutionError)[] outputs = toolStore.executeAll(actions, 2);
+    foreach int i in 0 ..< ids.length() {
+        ToolOutput output = check outputs[i];
+        test:assertEquals(output.value, ids[i]);
+    }
+    // The fast tools are executed one after the other while the slow tool is being executed
+    string[] completedCalls = getCompletedToolCalls().filter(id => ids.indexOf(id) !is ());
+    test:assertEquals(completedCalls, ["fast-call-1", "fast-call-2", "fast-call-3", "slow-call"]);
+}
+
+@test:Config {
+    groups: ["benchmark"]
+}
+function benchmarkConcurrentSlowTools() returns error? {
+    ToolStore toolStore = check new (getSlowToolConfig());
+    foreach int toolCount in [1, 8, 32, 128] {
+        decimal startedAt = time:monotonicNow();
+        _ = check executeSlowToolsConcurrently(toolStore, toolCount);
+        decimal elapsed = time:monotonicNow() - startedAt;
+        io:println(string `${toolCount} concurrent slow tools took ${elapsed}s`);
+        test:assertTrue(elapsed < SLOW_TOOL_LATENCY * 3,
+            string `Expected ${toolCount} concurrent tool executions to overlap, but took ${elapsed}s`);
+    }
+}
+
+@test:Config {}
+function testToolWithInvalidMaxConcurrency() {
+    ToolStore|Error toolStore = new (getSlowToolConfig(0));
+    test:assertTrue(toolStore is Error);
+}
+
+@test:Config {}
+function testToolExecutionTimesOut() returns error? {
+    ToolConfig slowTool = getSlowToolConfig();
+    slowTool.timeout = SLOW_TOOL_LATENCY / 4;
+    ToolStore toolStore = check new (slowTool);
+    ToolOutput|LlmInvalidGenerationError|ToolExecutionError output =
+        toolStore.execute({name: "slowTool", arguments: {id: "1"}});
+    test:assertTrue(output is ToolExecutionError);
+}
+
+@test:Config {}
+function testTimedOutToolExecutionsReleasePermits() returns error? {
+    int maxConcurrency = 2;
+    ToolConfig slowTool = getSlowToolConfig(maxConcurrency);
+    slowTool.maxQueueSize = 0;
+    slowTool.timeout = SLOW_TOOL_LATENCY / 4;
+    ToolStore toolStore = check new (slowTool);
+    // Each execution times out with a permit, which is released once the tool returns. Had the permits of the
+    // executions timed out before been kept, the last execution would be rejected without a permit.
+    foreach int i in 0 ... maxConcurrency {
+        ToolOutput|LlmInvalidGenerationError|ToolExecutionError output =
+            toolStore.execute({name: "slowTool", arguments: {id: i.toString()}});
+        test:assertTrue(output is ToolExecutionError && output !is ToolUnavailableError,
+            string `Expected execution ${i} to time out with a permit`);
+        runtime:sleep(SLOW_TOOL_LATENCY);
+    }
+}
+
+@test:Config {}
+function testToolExecutionAtDeadlineReleasesPermit() returns error? {
+    ToolConfig slowTool = getSlowToolConfig(1);
+    slowTool.maxQueueSize = 0;
+    slowTool.circuitBreaker = {failureThreshold: 1, resetTime: 60};
+    ToolStore toolStore = check new (slowTool);
+    ToolOutput|LlmInvalidGenerationError|ToolExecutionError output = toolStore.execute(
+        {name: "slowTool", arguments: {id: "1"}}, time:monotonicNow() + SLOW_TOOL_LATENCY / 4);
+    test:assertTrue(output is ToolExecutionError);
+
+    // The permit is held until the tool returns, and the circuit breaker does not reject the executions after the
+    // deadline of an execution
+    runtime:sleep(SLOW_TOOL_LATENCY);
+    ToolOutput next = check toolStore.execute({name: "slowTool", arguments: {id: "2"}});
+    test:assertEquals(next.value, "2");
+}
+
+@test:Config {}
+function testToolWithFullQueueRejectsExecutions() returns error? {
+    ToolConfig slowTool = getSlowToolConfig(1);
+    slowTool.maxQueueSize = 0;
+    ToolStore toolStore = check new (slowTool);
+    (ToolOutput|LlmInvalidGenerationError|ToolExecutionError)[] outputs = toolStore.executeAll([
+        {name: "slowTool", arguments: {id: "1"}},
+        {name: "slowTool", arguments: {id: "2"}}
+    ], 2);
+
+    test:assertEquals(outputs.filter(output => output is ToolOutput).length(), 1);
+    test:assertEquals(outputs.filter(output => output is ToolUnavailableError).length(), 1);
+}
+
+@test:Config {}
+function testToolWithInvalidMaxQueueSize() {
+    ToolConfig slowTool = getSlowToolConfig();
+    slowTool.maxQueueSize = 1;
+    ToolStore|Error toolStore = new (slowTool);
+    test:assertTrue(toolStore is Error);
+}
+
+isolated function getStock(string item) returns int|error {
+    if item == "unknown" {
+        return error("Inventory service is unavailable");
+    }
+    return 10;
+}
+
+@test:Config {}
+function testCircuitBreakerRejectsFailingTool() returns error? {
+    ToolStore toolStore = check new ({
+        name: "getStock",
+        description: "Get the number of items in stock",
+        parameters: {
+            properties: {
+                item: {'type: STRING}
+            },
+            required: ["item"]
+        },
+        caller: getStock,
+        circuitBreaker: {failureThreshold: 2, resetTime: SLOW_TOOL_LATENCY}
+    });
+    _ = check toolStore.execute({name: "getStock", arguments: {item: "unknown"}});
+    _ = check toolStore.execute({name: "getStock", arguments: {item: "unknown"}});
+    ToolOutput|LlmInvalidGenerationError|ToolExecutionError output =
+        toolStore.execute({name: "getStock", arguments: {item: "book"}});
+    test:assertTrue(output is ToolUnavailableError, "Failing tool is executed after the failure threshold");
+
+    // Once the reset time passes, a successful execution closes the circuit breaker
+    runtime:sleep(SLOW_TOOL_LATENCY);
+    ToolOutput recovered = check toolStore.execute({name: "getStock", arguments: {item: "book"}});
+    test:assertEquals(recovered.value, 10);
+    ToolOutput next = check toolStore.execute({name: "getStock", arguments: {item: "book"}});
+    test:assertEquals(next.value, 10);
+}
+
+final readonly & map<json> orderDefinitions = {
+    Customer: {
+        'type: OBJECT,
+        required: ["name", "email"],
+        properties: {
+            name: {'type: STRING, description: "Name of the customer"},
+            email: {'type: STRING, description: "Email address of the customer"},
+            tier: {'type: STRING, 'enum: ["GOLD", "SILVER", "BRONZE"], description: "Loyalty tier of the customer"}
+        }
+    },
+    Order: {
+        'type: OBJECT,
+        required: ["id", "customer", "items"],
+        properties: {
+            id: {'type: STRING, description: "Identifier of the order"},
+            customer: {"$ref": "#/$defs/Customer"},
+            items: {
+                'type: ARRAY,
+                items: {
+                    'type: OBJECT,
+                    required: ["sku", "quantity"],
+                    properties: {
+                        sku: {'type: STRING, description: "Stock keeping unit of the item"},
+                        quantity: {'type: INTEGER, description: "Number of units of the item"}
+                    }
+                }
+            }
+        }
+    }
+};
+
+function getOrderToolConfig(string name, boolean withDefinitions = true) returns ToolConfig {
+    map<json> parameters = {
+        'type: OBJECT,
+        required: ["order"],
+        properties: {
+            'order: {"$ref": "#/$defs/Order", description: "Order to process"},
+            notify: {"$ref": "#/$defs/Customer", description: "Customer to notify"}
+        }
+    };
+    return {
+        name,
+        description: string `Processes an order with ${name}`,
+        parameters: withDefinitions ? {...parameters, "$defs": orderDefinitions}
+            : <map<json>>inlineDefinitions(parameters, orderDefinitions),
+        caller: searchToolMock
+    };
+}
+
+@test:Config {}
+function testToolSchemaDefinitionsAreShared() returns error? {
+    ToolStore toolStore = check new (getOrderToolConfig("createOrder"), getOrderToolConfig("cancelOrder"));
+    test:assertEquals(toolStore.definitions, orderDefinitions);
+    // The schemas of the tools are self-contained, as the definitions are shared only with the model.
+    foreach Tool tool in toolStore.tools {
+        test:assertEquals(tool.variables, getOrderToolConfig(tool.name, false).parameters);
+    }
+
+    // Customer is referred to twice by each tool, directly and from Order, hence it is kept as a definition.
+    ChatCompletionFunctions[] toolDefinitions = getToolDefinitions(toolStore, true);
+    map<json> parameters = check toolDefinitions[0].parameters.ensureType();
+    test:assertEquals(parameters["$defs"], {Customer: orderDefinitions["Customer"]});
+    test:assertEquals(parameters["properties"], {
+        'order: {...check orderDefinitions["Order"].ensureType(map<json>), description: "Order to process"},
+        notify: {"$ref": "#/$defs/Customer", description: "Customer to notify"}
+    });
+
+    toolDefinitions = getToolDefinitions(toolStore, false);
+    parameters = check toolDefinitions[0].parameters.ensureType();
+    test:assertFalse(parameters.hasKey("$defs"));
+    test:assertEquals(parameters, getOrderToolConfig("createOrder", false).parameters);
+}
+
+@test:Config {}
+function testConflictingToolSchemaDefinitionsAreInlined() returns error? {
+    ToolConfig conflictingTool = {
+        name: "findCustomer",
+        description: "Finds a customer",
+        parameters: {
+            'type: OBJECT,
+            required: ["customer"],
+            properties: {
+                customer: {"$ref": "#/$defs/Customer"}
+            },
+            "$defs": {
+                Customer: {'type: OBJECT, properties: {id: {'type: STRING}}}
+            }
+        },
+        caller: searchToolMock
+    };
+    ToolStore toolStore = check new (getOrderToolConfig("createOrder"), conflictingTool);
+    test:assertEquals(toolStore.definitions, orderDefinitions);
+    test:assertEquals(toolStore.tools.get("findCustomer").variables, {
+        'type: OBJECT,
+        required: ["customer"],
+        properties: {
+            customer: {'type: OBJECT, properties: {id: {'type: STRING}}}
+        }
+    });
+}
+
+@test:Config {}
+function testSharedToolSchemaDefinitionsReducePromptSize() returns error? {
+    ToolConfig[] sharedTools = from int i in 0 ..< 10
+        select getOrderToolConfig(string `orderTool${i}`);
+    ToolConfig[] inlinedTools = from int i in 0 ..< 10
+        select getOrderToolConfig(string `orderTool${i}`, false);
+    ToolStore sharedToolStore = check new (...sharedTools);
+    ToolStore inlinedToolStore = check new (...inlinedTools);
+
+    int sharedPromptSize = constructReActPrompt(extractToolInfo(sharedToolStore)).length();
+    int inlinedPromptSize = constructReActPrompt(extractToolInfo(inlinedToolStore)).length();
+    test:assertTrue(sharedPromptSize * 2 < inlinedPromptSize);
+    test:assertTrue(getToolDefinitions(sharedToolStore, true).toString().length()
+        < getToolDefinitions(inlinedToolStore, true).toString().length());
+}
+
+@test:Config {}
+function testInvalidInputInstructionHasSelfContainedSchema() returns error? {
+    ToolStore toolStore = check new (getOrderToolConfig("createOrder"), getOrderToolConfig("cancelOrder"));
+    string instruction = toolStore.getInvalidInputsInstruction("createOrder");
+    test:assertFalse(instruction.includes("$ref"), "Instruction refers to definitions that are not given");
+    test:assertTrue(instruction.includes("Stock keeping unit of the item"));
+}
+
+isolated int customerLookupCount = 0;
+
+isolated function lookupCustomer(string id, string region = "eu") returns string {
+    lock {
+        customerLookupCount += 1;
+        return string `${region}-${id}-${customerLookupCount}`;
+    }
+}
+
+function getCustomerToolConfig(ToolCacheConfig cache, boolean mutating = false) returns ToolConfig => {
+    name: "lookupCustomer",
+    description: "Look up a customer by the identifier",
+    parameters: {
+        properties: {
+            id: {'type: STRING},
+            region: {'type: STRING}
+        },
+        required: ["id"]
+    },
+    caller: lookupCustomer,
+    cache,
+    mutating
+};
+
+@test:Config {}
+function testToolResultsAreCached() returns error? {
+    ToolStore toolStore = check new (getCustomerToolConfig({capacity: 2}));
+    ToolOutput first = check toolStore.execute({name: "lookupCustomer", arguments: {id: "1", region: "us"}});
+    // The inputs are given in a different order, which does not change the inputs
+    ToolOutput second = check toolStore.execute({name: "lookupCustomer", arguments: {region: "us", id: "1"}});
+    ToolOutput third = check toolStore.execute({name: "lookupCustomer", arguments: {id: "1"}});
+
+    test:assertEquals(second.value, first.value);
+    test:assertNotEquals(third.value, first.value);
+    test:assertEquals(toolStore.getCacheStats("lookupCustomer"), <ToolCacheStats>{
+        cachedResultCount: 2,
+        cacheHitCount: 1,
+        cacheMissCount: 2,
+        evictedResultCount: 0,
+        hitRatio: 1.0 / 3.0
+    });
+
+    // Uses the first result, so that the third result becomes the least recently used one
+    _ = check toolStore.execute({name: "lookupCustomer", arguments: {id: "1", region: "us"}});
+    _ = check toolStore.execute({name: "lookupCustomer", arguments: {id: "2"}});
+    ToolOutput fourth = check toolStore.execute({name: "lookupCustomer", arguments: {id: "1", region: "us"}});
+    ToolOutput fifth = check toolStore.execute({name: "lookupCustomer", arguments: {id: "1"}});
+    test:assertEquals(fourth.value, first.value);
+    test:assertNotEquals(fifth.value, third.value);
+    test:assertEquals(toolStore.getCacheStats("lookupCustomer")?.evictedResultCount, 2);
+}
+
+@test:Config {}
+function testExpiredToolResultsAreNotReturned() returns error? {
+    ToolStore toolStore = check new (getCustomerToolConfig({ttl: 0}));
+    ToolOutput first = check toolStore.execute({name: "lookupCustomer", arguments: {id: "1"}});
+    ToolOutput second = check toolStore.execute({name: "lookupCustomer", arguments: {id: "1"}});
+    test:assertNotEquals(second.value, first.value);
+}
+
+@test:Config {}
+function testMutatingToolResultsAreNotCached() returns error? {
+    ToolStore toolStore = check new (getCustomerToolConfig({}, mutating = true));
+    ToolOutput first = check toolStore.execute({name: "lookupCustomer", arguments: {id: "1"}});
+    ToolOutput second = check toolStore.execute({name: "lookupCustomer", arguments: {id: "1"}});
+    test:assertNotEquals(second.value, first.value);
+    test:assertEquals(toolStore.getCacheStats("lookupCustomer"), ());
+}
+
+isolated int unavailableServiceCallCount = 0;
+
+isolated function callUnavailableService(string path) returns HttpOutput {
+    lock {
+        unavailableServiceCallCount += 1;
+    }
+    return {code: 503, path, headers: {}};
+}
+
+isolated function getUnavailableServiceCallCount() returns int {
+    lock {
+        return unavailableServiceCallCount;
+    }
+}
+
+@test:Config {}
+function testHttpErrorResponsesAreNotCached() returns error? {
+    ToolStore toolStore = check new ({
+        name: "callUnavailableService",
+        description: "Calls a service which is unavailable",
+        parameters: {properties: {path: {'type: STRING}}, required: ["path"]},
+        caller: callUnavailableService,
+        cache: {}
+    });
+    int callCount = getUnavailableServiceCallCount();
+    ToolOutput first = check toolStore.execute({name: "callUnavailableService", arguments: {path: "/orders"}});
+    ToolOutput second = check toolStore.execute({name: "callUnavailableService", arguments: {path: "/orders"}});
+    test:assertEquals(second.value, first.value);
+    test:assertEquals(getUnavailableServiceCallCount(), callCount + 2);
+    test:assertEquals(toolStore.getCacheStats("callUnavailableService")?.cachedResultCount, 0);
+}
+
+@test:Config {}
+function testCircuitBreakerOpensOnHttpServerErrors() returns error? {
+    ToolStore toolStore = check new ({
+        name: "callUnavailableService",
+        description: "Calls a service which is unavailable",
+        parameters: {properties: {path: {'type: STRING}}, required: ["path"]},
+        caller: callUnavailableService,
+        circuitBreaker: {failureThreshold: 1, resetTime: 60}
+    });
+    _ = check toolStore.execute({name: "callUnavailableService", arguments: {path: "/orders"}});
+    ToolOutput|LlmInvalidGenerationError|ToolExecutionError output =
+        toolStore.execute({name: "callUnavailableService", arguments: {path: "/orders"}});
+    test:assertTrue(output is ToolUnavailableError, "Tool is executed after the server error responses");
+}
+
+@test:Config {}
+function testCircuitBreakerIgnoresExecutionsRequestedBeforeOpened() {
+    CircuitBreakers circuitBreakers = new ({getStock: {failureThreshold: 1, resetTime: 0}});
+    decimal requestedAt = time:monotonicNow() - 1;
+    test:assertTrue(circuitBreakers.recordExecution("getStock", true, time:monotonicNow()));
+
+    // The trial is allowed as the reset time has passed, and the outcome of the earlier execution does not end it
+    test:assertTrue(circuitBreakers.allowExecution("getStock"));
+    test:assertFalse(circuitBreakers.recordExecution("getStock", false, requestedAt));
+    circuitBreakers.cancelExecution("getStock", requestedAt);
+    test:assertFalse(circuitBreakers.allowExecution("getStock"), "Circuit breaker allows a second trial");
+}
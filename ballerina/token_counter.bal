@@ -0,0 +1,141 @@
+// Copyright (c) 2025 WSO2 LLC (http://www.wso2.com).
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/io;
+import ballerina/lang.array;
+import ballerina/lang.regexp;
+
+# Represents a token counter used to estimate the size of the prompts sent to the model.
+public type TokenCounter isolated object {
+
+    # Counts the tokens of the given text.
+    #
+    # + text - The text to be counted
+    # + return - The number of tokens
+    public isolated function countTokens(string text) returns int;
+};
+
+# Provides a fast token estimation based on the length of the text, without loading any vocabulary.
+public isolated class HeuristicTokenCounter {
+    *TokenCounter;
+    private final int charactersPerToken;
+
+    # Initializes the token counter.
+    #
+    # + charactersPerToken - The average number of characters per token
+    public isolated function init(int charactersPerToken = DEFAULT_CHARACTERS_PER_TOKEN) {
+        self.charactersPerToken = charactersPerToken < 1 ? 1 : charactersPerToken;
+    }
+
+    # Estimates the tokens of the given text.
+    #
+    # + text - The text to be counted
+    # + return - The estimated number of tokens
+    public isolated function countTokens(string text) returns int {
+        return (text.length() + self.charactersPerToken - 1) / self.charactersPerToken;
+    }
+}
+
+# Provides a token counter based on byte pair encoding (BPE) ranks loaded from a local file.
+# The file should be in the `tiktoken` format, where each line contains a base64 encoded token and its rank.
+public isolated class BpeTokenCounter {
+    *TokenCounter;
+    private final readonly & map<int> ranks;
+
+    # Initializes the token counter by loading the BPE ranks.
+    #
+    # + filePath - Path to the BPE ranks file
+    # + return - `nil` on successful initialization; otherwise, returns an `Error`
+    public isolated function init(string filePath) returns Error? {
+        string[]|io:Error lines = io:fileReadLines(filePath);
+        if lines is io:Error {
+            return error Error("Failed to read the BPE ranks file", lines, filePath = filePath);
+        }
+        map<int> ranks = {};
+        foreach string line in lines {
+            string entry = line.trim();
+            if entry == "" {
+                continue;
+            }
+            string[] parts = re ` `.split(entry);
+            byte[]|error token = parts.length() == 2 ? array:fromBase64(parts[0]) : error("Missing rank");
+            int|error rank = parts.length() == 2 ? int:fromString(parts[1]) : error("Missing token");
+            if token is error || rank is error {
+                return error Error("Invalid entry in the BPE ranks file", filePath = filePath, entry = entry);
+            }
+            ranks[token.toBase16()] = rank;
+        }
+        self.ranks = ranks.cloneReadOnly();
+    }
+
+    # Counts the tokens of the given text by encoding it with the loaded BPE ranks.
+    #
+    # + text - The text to be counted
+    # + return - The number of tokens
+    public isolated function countTokens(string text) returns int {
+        int count = 0;
+        foreach regexp:Span span in BPE_PRE_TOKENIZER_REGEX.findAll(text) {
+            count += self.countPieceTokens(span.substring().toBytes());
+        }
+        return count;
+    }
+
+    private isolated function countPieceTokens(byte[] piece) returns int {
+        if self.ranks.hasKey(piece.toBase16()) {
+            return 1;
+        }
+        // Boundaries of the parts of the piece, which are merged by the lowest rank until no merge is possible.
+        int[] boundaries = from int i in 0 ... piece.length()
+            select i;
+        while boundaries.length() > 2 {
+            int? minRank = ();
+            int minIndex = -1;
+            foreach int i in 0 ..< boundaries.length() - 2 {
+                int? rank = self.ranks[piece.slice(boundaries[i], boundaries[i + 2]).toBase16()];
+                if rank is int && (minRank is () || rank < minRank) {
+                    minRank = rank;
+                    minIndex = i;
+                }
+            }
+            if minIndex < 0 {
+                break;
+            }
+            _ = boundaries.remove(minIndex + 1);
+        }
+        return boundaries.length() - 1;
+    }
+}
+
+isolated function countMessageTokens(TokenCounter tokenCounter, ChatMessage message) returns int {
+    int tokens = MESSAGE_TOKEN_OVERHEAD;
+    string? content = message.content;
+    if content is string {
+        tokens += tokenCounter.countTokens(content);
+    }
+    string? name = message?.name;
+    if name is string {
+        tokens += tokenCounter.countTokens(name);
+    }
+    if message is ChatAssistantMessage {
+        FunctionCall[]? toolCalls = message.toolCalls;
+        if toolCalls is FunctionCall[] {
+            foreach FunctionCall toolCall in toolCalls {
+                tokens += tokenCounter.countTokens(toolCall.name) + tokenCounter.countTokens(toolCall.arguments);
+            }
+        }
+    }
+    return tokens;
+}
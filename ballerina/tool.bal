@@ -17,6 +17,7 @@
 import ballerina/http;
 import ballerina/lang.regexp;
 import ballerina/log;
+import ballerina/time;
 
 type ToolExecutionResult record {|
     any|error result;
@@ -37,9 +38,42 @@ public type Tool record {|
     isolated function caller;
 |};
 
+# Limits the number of concurrent executions of a tool, and the number of executions waiting to be executed.
+readonly class ConcurrencyLimiter {
+    private final handle limiter;
+
+    isolated function init(int maxConcurrency, int? maxQueueSize = ()) {
+        self.limiter = createLimiter(maxConcurrency, maxQueueSize ?: -1);
+    }
+
+    // Waits for a permit to execute the tool until the deadline, and returns false without waiting if the queue is
+    // full, or once the deadline is exceeded.
+    isolated function acquire(decimal? deadline = ()) returns boolean {
+        int timeoutInMillis = -1;
+        if deadline is decimal {
+            decimal remainingTime = deadline - time:monotonicNow();
+            timeoutInMillis = remainingTime > 0d ? <int>(remainingTime * 1000) : 0;
+        }
+        return acquirePermit(self.limiter, timeoutInMillis);
+    }
+
+    isolated function release() {
+        releasePermit(self.limiter);
+    }
+}
+
 public isolated class ToolStore {
     public final map<Tool> & readonly tools;
-    private map<()> mcpTools = {};
+    # Schema definitions shared by the tools, which are inlined into the input schemas of the `tools`
+    public final map<json> & readonly definitions;
+    // Input schemas of the tools, which refer to the shared definitions by `$ref`
+    final map<map<json>> & readonly schemasWithReferences;
+    private final map<()> & readonly mcpTools;
+    private final map<ConcurrencyLimiter> & readonly concurrencyLimiters;
+    private final map<ToolCacheConfig> & readonly cacheConfigs;
+    private final ToolResultCache resultCache;
+    private final map<decimal> & readonly timeouts;
+    private final CircuitBreakers circuitBreakers;
 
     # Register tools to the agent. 
     # These tools will be by the LLM to perform tasks.
@@ -49,9 +83,18 @@ public isolated class ToolStore {
     public isolated function init((BaseToolKit|ToolConfig|FunctionTool)... tools) returns Error? {
         if tools.length() == 0 {
             self.tools = {};
+            self.definitions = {};
+            self.schemasWithReferences = {};
+            self.mcpTools = {};
+            self.concurrencyLimiters = {};
+            self.cacheConfigs = {};
+            self.resultCache = new ({});
+            self.timeouts = {};
+            self.circuitBreakers = new ({});
             return;
         }
         ToolConfig[] toolList = [];
+        map<()> mcpTools = {};
         foreach BaseToolKit|ToolConfig|FunctionTool tool in tools {
             if tool is FunctionTool {
                 ToolConfig toolConfig = check getToolConfig(tool);
@@ -60,9 +103,7 @@ public isolated class ToolStore {
                 ToolConfig[] toolsFromToolKit = tool.getTools(); // TODO remove this after Ballerina fixes nullpointer exception
                 if tool is McpToolKit {
                     foreach ToolConfig element in toolsFromToolKit {
-                        lock {
-                            self.mcpTools[element.name] = ();
-                        }
+                        mcpTools[element.name] = ();
                     }
                 }
                 toolList.push(...toolsFromToolKit);
@@ -71,15 +112,59 @@ public isolated class ToolStore {
             }
         }
         map<Tool & readonly> toolMap = {};
-        check registerTool(toolMap, toolList);
+        map<ConcurrencyLimiter> concurrencyLimiters = {};
+        map<json> definitions = {};
+        map<ToolCacheConfig> cacheConfigs = {};
+        map<decimal> timeouts = {};
+        map<CircuitBreakerConfig> circuitBreakerConfigs = {};
+        check registerTool(toolMap, toolList, concurrencyLimiters, definitions, cacheConfigs, timeouts,
+            circuitBreakerConfigs);
+        // The schemas exposed by the tools are self-contained, while the schemas given to the model refer to the
+        // shared definitions to avoid repeating them.
+        map<map<json>> schemasWithReferences = {};
+        if definitions.length() > 0 {
+            foreach [string, Tool & readonly] [name, tool] in toolMap.entries() {
+                map<json>? variables = tool.variables;
+                if variables is map<json> {
+                    schemasWithReferences[name] = variables;
+                    Tool selfContainedTool = {
+                        name: tool.name,
+                        description: tool.description,
+                        variables: <map<json>>inlineDefinitions(variables, definitions),
+                        constants: tool.constants,
+                        caller: tool.caller
+                    };
+                    toolMap[name] = selfContainedTool.cloneReadOnly();
+                }
+            }
+        }
+        // Registered tools are immutable after initialization, so they are executed without a shared lock.
         self.tools = toolMap.cloneReadOnly();
+        self.schemasWithReferences = schemasWithReferences.cloneReadOnly();
+        self.definitions = definitions.cloneReadOnly();
+        self.mcpTools = mcpTools.cloneReadOnly();
+        self.concurrencyLimiters = concurrencyLimiters.cloneReadOnly();
+        self.cacheConfigs = cacheConfigs.cloneReadOnly();
+        self.resultCache = new (self.cacheConfigs);
+        self.timeouts = timeouts.cloneReadOnly();
+        self.circuitBreakers = new (circuitBreakerConfigs.cloneReadOnly());
+    }
+
+    # Retrieves the usage statistics of the results cached for a tool.
+    #
+    # + toolName - Name of the tool
+    # + return - Statistics of the cached results, or nil if the results of the tool are not cached
+    public isolated function getCacheStats(string toolName) returns ToolCacheStats? {
+        return self.resultCache.getStats(toolName);
     }
 
     # execute the tool decided by the LLM.
     #
     # + action - Action object that contains the tool name and inputs
+    # + deadline - Monotonic time by which the execution is cancelled, if the execution of the agent has a deadline
     # + return - ActionResult containing the results of the tool execution or an error if tool execution fails
-    isolated function execute(LlmToolResponse action) returns ToolOutput|LlmInvalidGenerationError|ToolExecutionError {
+    isolated function execute(LlmToolResponse action, decimal? deadline = ())
+            returns ToolOutput|LlmInvalidGenerationError|ToolExecutionError {
         string name = action.name;
         map<json>? inputs = action.arguments;
         if !self.tools.hasKey(name) {
@@ -89,28 +174,83 @@ public isolated class ToolStore {
         }
         map<json>|error inputValues = mergeInputs(inputs, self.tools.get(name).constants);
         if inputValues is error {
-            string instruction = string `Tool "${name}"  execution failed due to invalid inputs provided.` +
-                string ` Use the schema to provide inputs: ${self.tools.get(name).variables.toString()}`;
             return error ToolInvalidInputError("Tool is provided with invalid inputs.", inputValues, toolName = name,
-                inputs = inputs ?: (), instruction = instruction);
+                inputs = inputs ?: (), instruction = self.getInvalidInputsInstruction(name));
         }
-        isolated function caller = self.tools.get(name).caller;
-        ToolExecutionResult|error execution;
-        lock {
-            execution = trap callFunction(caller, self.mcpTools.hasKey(name) 
-                ? {
-                    params: {
-                        name,
-                        arguments: inputValues.cloneReadOnly()
-                    }
+        // The results of the read-only tools are looked up by the canonical form of the inputs,
+        // so that the order of the inputs given by the LLM does not matter
+        string? cacheKey = self.cacheConfigs.hasKey(name) ? getCanonicalJsonKey(inputValues, false) : ();
+        if cacheKey is string {
+            record {|anydata & readonly value;|}? cachedResult = self.resultCache.get(name, cacheKey);
+            incrementCounter(cachedResult is () ? TOOL_CACHE_MISSES_METRIC : TOOL_CACHE_HITS_METRIC,
+                {[TOOL_TAG]: name});
+            if cachedResult !is () {
+                return {value: cachedResult.value};
+            }
+        }
+        // A tool failing repeatedly is not executed until it recovers, so that the LLM can choose another tool
+        decimal requestedAt = time:monotonicNow();
+        if !self.circuitBreakers.allowExecution(name) {
+            incrementCounter(TOOL_REJECTIONS_METRIC, {[TOOL_TAG]: name, [REASON_TAG]: CIRCUIT_BREAKER_REASON});
+            return error ToolUnavailableError("Tool is temporarily unavailable as it failed repeatedly.",
+                toolName = name, instruction = string `Tool "${name}" is temporarily unavailable.`
+                + " Use another tool or answer without using it.");
+        }
+        ConcurrencyLimiter? concurrencyLimiter = self.concurrencyLimiters[name];
+        if concurrencyLimiter is ConcurrencyLimiter && !concurrencyLimiter.acquire(deadline) {
+            self.circuitBreakers.cancelExecution(name, requestedAt);
+            if deadline is decimal && time:monotonicNow() >= deadline {
+                return getToolTimeoutError(action);
+            }
+            incrementCounter(TOOL_REJECTIONS_METRIC, {[TOOL_TAG]: name, [REASON_TAG]: BULKHEAD_REASON});
+            return error ToolUnavailableError("Tool is busy with too many executions waiting.",
+                toolName = name, instruction = string `Tool "${name}" is busy.`
+                + " Retry later, use another tool or answer without using it.");
+        }
+        decimal? startTime = startTimer();
+        map<json> & readonly toolInputs = self.mcpTools.hasKey(name)
+            ? {
+                params: {
+                    name,
+                    arguments: inputValues.cloneReadOnly()
                 }
-                : inputValues.cloneReadOnly());
+            }
+            : inputValues.cloneReadOnly();
+        // The tool is called with a time limit in a new strand, so that the trial of the circuit breaker held by this
+        // strand is released when the time limit is exceeded. The permit is released by the strand of the tool once
+        // the tool returns, as the tool may still be running after the time limit.
+        decimal? timeout = self.timeouts[name];
+        decimal? toolDeadline = timeout is decimal ? time:monotonicNow() + timeout : ();
+        boolean isExecutionDeadline = deadline is decimal && (toolDeadline is () || deadline < toolDeadline);
+        decimal? callDeadline = isExecutionDeadline ? deadline : toolDeadline;
+        ToolExecutionResult|error? result = callDeadline is decimal
+            ? self.callBefore(name, toolInputs, concurrencyLimiter, callDeadline)
+            : self.callTool(name, toolInputs, concurrencyLimiter);
+        if startTime is decimal {
+            recordDuration(AGENT_TOOL_LATENCY_METRIC, startTime, {[TOOL_TAG]: name});
+        }
+        if result is () && isExecutionDeadline {
+            // The tool is not at fault when the execution of the agent runs out of time.
+            self.circuitBreakers.cancelExecution(name, requestedAt);
+            return getToolTimeoutError(action);
         }
+        ToolExecutionResult|error execution;
+        if result is () {
+            incrementCounter(TOOL_TIMEOUTS_METRIC, {[TOOL_TAG]: name});
+            execution = error ToolExecutionError(string `Tool execution timed out after ${timeout ?: 0d} seconds.`,
+                toolName = name);
+        } else {
+            execution = result;
+        }
+        self.recordExecution(name, execution, requestedAt);
         if execution is error {
             return error ToolExecutionError("Tool execution failed.", execution, toolName = name,
                 inputs = inputValues.length() == 0 ? {} : inputValues);
         }
         any|error observation = execution.result;
+        // The error responses of the HTTP tools are not cached, as the request may succeed when it is retried
+        int? statusCode = getHttpStatusCode(observation);
+        boolean isCacheable = statusCode is () || (statusCode >= 200 && statusCode < 300);
         if observation is http:Response {
             observation = observation.getStatusCodeRecord();
         }
@@ -120,6 +260,9 @@ public isolated class ToolStore {
             observation = result;
         }
         if observation is anydata {
+            if cacheKey is string && isCacheable {
+                self.resultCache.put(name, cacheKey, observation.cloneReadOnly());
+            }
             return {value: observation};
         }
         if observation !is error {
@@ -127,14 +270,133 @@ public isolated class ToolStore {
                 outputType = typeof observation, toolName = name, inputs = inputValues.length() == 0 ? {} : inputValues);
         }
         if observation.message() == "{ballerina/lang.function}IncompatibleArguments" {
-            string instruction = string `Tool "${name}"  execution failed due to invalid inputs provided.`
-                + string ` Use the schema to provide inputs: ${self.tools.get(name).variables.toString()}`;
             return error ToolInvalidInputError("Tool is provided with invalid inputs.",
                 observation, toolName = name, inputs = inputValues.length() == 0 ? {} : inputValues,
-                instruction = instruction);
+                instruction = self.getInvalidInputsInstruction(name));
         }
         return {value: observation};
     }
+
+    // Calls the tool in a new strand, and stops waiting for the tool once the deadline is exceeded, in which case
+    // nil is returned. The strand of the tool is not cancelled, since it releases the permit of the tool once the
+    // tool returns, and cancelling it would leak the permit.
+    private isolated function callBefore(string name, map<json> & readonly inputs,
+            ConcurrencyLimiter? concurrencyLimiter, decimal deadline) returns ToolExecutionResult|error? {
+        future<ToolExecutionResult|error> execution = start self.callTool(name, inputs, concurrencyLimiter);
+        future<()> timer = start sleepUntil(deadline);
+        ToolExecutionResult|error? result = wait execution|timer;
+        if result is () {
+            return;
+        }
+        timer.cancel();
+        return result;
+    }
+
+    // Calls the tool, and releases the permit of the tool once the tool returns.
+    private isolated function callTool(string name, map<json> & readonly inputs,
+            ConcurrencyLimiter? concurrencyLimiter) returns ToolExecutionResult|error {
+        ToolExecutionResult|error result = trap callFunction(self.tools.get(name).caller, inputs);
+        if concurrencyLimiter is ConcurrencyLimiter {
+            concurrencyLimiter.release();
+        }
+        return result;
+    }
+
+    // The schemas of the tools are self-contained, hence the instruction does not need the shared definitions.
+    isolated function getInvalidInputsInstruction(string name) returns string =>
+        string `Tool "${name}"  execution failed due to invalid inputs provided.`
+            + string ` Use the schema to provide inputs: ${self.tools.get(name).variables.toString()}`;
+
+    // Records the outcome of an execution in the circuit breaker of the tool. The errors returned by the tool and
+    // the server errors of the HTTP tools are failures, except for the errors due to the inputs given by the LLM.
+    private isolated function recordExecution(string name, ToolExecutionResult|error execution,
+            decimal requestedAt) {
+        boolean isFailure = execution is error;
+        if execution is ToolExecutionResult {
+            any|error result = execution.result;
+            int? statusCode = getHttpStatusCode(result);
+            isFailure = (result is error && result.message() != "{ballerina/lang.function}IncompatibleArguments")
+                || (statusCode is int && statusCode >= 500);
+        }
+        if self.circuitBreakers.recordExecution(name, isFailure, requestedAt) {
+            incrementCounter(TOOL_CIRCUIT_BREAKER_TRIPS_METRIC, {[TOOL_TAG]: name});
+            log:printWarn(string `Circuit breaker of the tool '${name}' is opened as the tool failed repeatedly.`);
+        }
+    }
+
+    # Execute the tools decided by the LLM in parallel.
+    #
+    # + actions - Action objects that contain the tool names and inputs
+    # + maxParallelism - Maximum number of tools executed at the same time
+    # + deadline - Monotonic time by which the executions are cancelled, if the execution of the agent has a deadline
+    # + return - Results of the tool executions in the same order as the given actions
+    isolated function executeAll(LlmToolResponse[] actions, int maxParallelism, decimal? deadline = ())
+            returns (ToolOutput|LlmInvalidGenerationError|ToolExecutionError)[] {
+        // Each strand takes the next action as soon as it completes one, so that a slow tool holds back only the
+        // strand executing it, while at most the given number of tools are executed at the same time.
+        ToolCallQueue queue = new (actions.cloneReadOnly());
+        int strandCount = int:min(maxParallelism < 1 ? 1 : maxParallelism, actions.length());
+        future<[int, ToolOutput|LlmInvalidGenerationError|ToolExecutionError][]>[] executions = [];
+        foreach int i in 0 ..< strandCount {
+            future<[int, ToolOutput|LlmInvalidGenerationError|ToolExecutionError][]> execution =
+                start self.executeQueued(queue, deadline);
+            executions.push(execution);
+        }
+        (ToolOutput|LlmInvalidGenerationError|ToolExecutionError)?[] outputs = [];
+        outputs.setLength(actions.length());
+        error? failure = ();
+        foreach future<[int, ToolOutput|LlmInvalidGenerationError|ToolExecutionError][]> execution in executions {
+            [int, ToolOutput|LlmInvalidGenerationError|ToolExecutionError][]|error results = wait execution;
+            if results is error {
+                failure = results;
+                continue;
+            }
+            foreach [int, ToolOutput|LlmInvalidGenerationError|ToolExecutionError] [index, output] in results {
+                outputs[index] = output;
+            }
+        }
+        // The actions taken by a strand which failed unexpectedly have no output
+        return from int i in 0 ..< actions.length()
+            let ToolOutput|LlmInvalidGenerationError|ToolExecutionError? output = outputs[i]
+            select output ?: error ToolExecutionError("Tool execution failed.", failure, toolName = actions[i].name);
+    }
+
+    // Executes the actions taken from the queue one after the other, and returns the outputs along with the
+    // positions of the actions.
+    private isolated function executeQueued(ToolCallQueue queue, decimal? deadline)
+            returns [int, ToolOutput|LlmInvalidGenerationError|ToolExecutionError][] {
+        [int, ToolOutput|LlmInvalidGenerationError|ToolExecutionError][] outputs = [];
+        while true {
+            [int, LlmToolResponse & readonly]? next = queue.next();
+            if next is () {
+                break;
+            }
+            [int, LlmToolResponse & readonly] [index, action] = next;
+            outputs.push([index, self.execute(action, deadline)]);
+        }
+        return outputs;
+    }
+}
+
+// Hands out the actions of a parallel tool call, one at a time, to the strands executing them.
+isolated class ToolCallQueue {
+    private final LlmToolResponse[] & readonly actions;
+    private int nextIndex = 0;
+
+    isolated function init(LlmToolResponse[] & readonly actions) {
+        self.actions = actions;
+    }
+
+    isolated function next() returns [int, LlmToolResponse & readonly]? {
+        lock {
+            if self.nextIndex >= self.actions.length() {
+                return;
+            }
+            int index = self.nextIndex;
+            self.nextIndex += 1;
+            return [index, self.actions[index]];
+        }
+    }
 }
 
 isolated function getToolConfig(FunctionTool tool) returns ToolConfig|Error {
@@ -148,7 +410,13 @@ isolated function getToolConfig(FunctionTool tool) returns ToolConfig|Error {
             name: check config?.name.ensureType(),
             description: check config?.description.ensureType(),
             parameters: check config?.parameters.ensureType(),
-            caller: tool
+            caller: tool,
+            cache: config?.cache,
+            mutating: config?.mutating ?: false,
+            maxConcurrency: config?.maxConcurrency,
+            maxQueueSize: config?.maxQueueSize,
+            timeout: config?.timeout,
+            circuitBreaker: config?.circuitBreaker
         };
     } on fail error e {
         return error Error("Unable to register the function '" + getFunctionName(tool) + "' as agent tool", e);
@@ -164,20 +432,34 @@ isolated function callFunction(FunctionTool tool, map<json> llmToolInput) return
     return {result};
 }
 
+// Returns the status code of the response, if the tool returns the response of an HTTP request.
+isolated function getHttpStatusCode(any|error result) returns int? {
+    if result is http:Response {
+        return result.statusCode;
+    }
+    if result is HttpOutput {
+        return result.code;
+    }
+    return;
+}
+
 isolated function getInputArgumentsOfFunction(FunctionTool tool, map<json> inputValues) returns anydata[]|error {
     map<anydata> inputArgs = {};
-    map<typedesc<anydata>> typedescs = getToolParameterTypes(tool);
-    foreach [string, typedesc<anydata>] [parameterName, typedescriptor] in typedescs.entries() {
-        if (inputValues.hasKey(parameterName)) {
-            anydata inputArg = check inputValues.get(parameterName).cloneWithType(typedescriptor);
-            inputArgs[parameterName] = inputArg;
+    foreach [string, any] [parameterName, typedescriptor] in getParameterTypes(tool).entries() {
+        if typedescriptor is typedesc<anydata> && inputValues.hasKey(parameterName) {
+            inputArgs[parameterName] = check inputValues.get(parameterName).cloneWithType(typedescriptor);
         }
     }
-    map<anydata> argsWithDefaultValues = check trap getArgsWithDefaultValues(tool, inputArgs);
-    return argsWithDefaultValues.toArray().cloneReadOnly();
+    // The arguments are positional, with the default values of the parameters without an input value.
+    // They are given to the tool as read-only values, so that the tool cannot modify the inputs of the LLM.
+    anydata[] arguments = check trap getToolArguments(tool, inputArgs);
+    return arguments.cloneReadOnly();
 }
 
-isolated function registerTool(map<Tool & readonly> toolMap, ToolConfig[] tools) returns Error? {
+isolated function registerTool(map<Tool & readonly> toolMap, ToolConfig[] tools,
+        map<ConcurrencyLimiter> concurrencyLimiters = {}, map<json> definitions = {},
+        map<ToolCacheConfig> cacheConfigs = {}, map<decimal> timeouts = {},
+        map<CircuitBreakerConfig> circuitBreakerConfigs = {}) returns Error? {
     foreach ToolConfig tool in tools {
         string name = tool.name;
         if name.toLowerAscii().matches(FINAL_ANSWER_REGEX) {
@@ -198,6 +480,9 @@ isolated function registerTool(map<Tool & readonly> toolMap, ToolConfig[] tools)
         if variables is error {
             return error Error("Unable to regesiter tool", variables);
         }
+        if variables is map<json> {
+            variables = shareDefinitions(variables, definitions);
+        }
         map<json> constants = {};
 
         if variables is JsonInputSchema {
@@ -212,6 +497,47 @@ isolated function registerTool(map<Tool & readonly> toolMap, ToolConfig[] tools)
             caller: tool.caller
         };
         toolMap[name] = agentTool.cloneReadOnly();
+
+        int? maxConcurrency = tool.maxConcurrency;
+        int? maxQueueSize = tool.maxQueueSize;
+        if maxConcurrency is int {
+            if maxConcurrency < 1 {
+                return error Error("Maximum concurrency of a tool should be a positive integer.", toolName = name);
+            }
+            if maxQueueSize is int && maxQueueSize < 0 {
+                return error Error("Maximum queue size of a tool should not be negative.", toolName = name);
+            }
+            concurrencyLimiters[name] = new ConcurrencyLimiter(maxConcurrency, maxQueueSize);
+        } else if maxQueueSize is int {
+            return error Error("Maximum queue size of a tool requires the maximum concurrency of the tool.",
+                toolName = name);
+        }
+
+        decimal? timeout = tool.timeout;
+        if timeout is decimal {
+            if timeout <= 0d {
+                return error Error("Timeout of a tool should be a positive number.", toolName = name);
+            }
+            timeouts[name] = timeout;
+        }
+
+        CircuitBreakerConfig? circuitBreaker = tool?.circuitBreaker;
+        if circuitBreaker is CircuitBreakerConfig {
+            if circuitBreaker.failureThreshold < 1 {
+                return error Error("Failure threshold of a circuit breaker should be a positive integer.",
+                    toolName = name);
+            }
+            circuitBreakerConfigs[name] = circuitBreaker;
+        }
+
+        ToolCacheConfig? cache = tool?.cache;
+        if cache is ToolCacheConfig {
+            if tool.mutating {
+                log:printWarn(string `Results of the tool '${name}' are not cached, since it is a mutating tool.`);
+            } else {
+                cacheConfigs[name] = cache;
+            }
+        }
     }
 }
 
@@ -241,7 +567,7 @@ isolated function resolveSchema(JsonInputSchema schema) returns map<json>? {
                         where requiredKey != tempKey
                         select requiredKey;
                 }
-            } else {
+            } else if subSchema is JsonInputSchema {
                 returnedValue = resolveSchema(subSchema);
             }
             if returnedValue !is () {
@@ -257,19 +583,161 @@ isolated function resolveSchema(JsonInputSchema schema) returns map<json>? {
     return ();
 }
 
+# Moves the definitions of a tool schema to the definitions shared by the tools. If a shared definition with the same
+# name differs from a definition of the tool, the definitions of the tool are inlined instead.
+#
+# + schema - Schema of the tool inputs
+# + sharedDefinitions - Definitions shared by the tools
+# + return - Schema of the tool inputs without the definitions
+isolated function shareDefinitions(map<json> schema, map<json> sharedDefinitions) returns map<json> {
+    json toolDefinitions = schema[SCHEMA_DEFINITIONS_KEY];
+    if toolDefinitions !is map<json> {
+        return schema;
+    }
+    map<json> variables = {...schema};
+    _ = variables.remove(SCHEMA_DEFINITIONS_KEY);
+    foreach [string, json] [name, definition] in toolDefinitions.entries() {
+        if sharedDefinitions.hasKey(name) && sharedDefinitions.get(name) != definition {
+            return <map<json>>inlineDefinitions(variables, toolDefinitions);
+        }
+    }
+    foreach [string, json] [name, definition] in toolDefinitions.entries() {
+        sharedDefinitions[name] = definition;
+    }
+    return variables;
+}
+
+# Returns the definitions of the tools to be sent to the model. If the model resolves the schema references, the
+# shared definitions referred to more than once by a tool are added to the `$defs` of the tool schema, as the
+# tool schemas cannot refer to each other. Otherwise, all the references are replaced with the referred definitions.
+#
+# + toolStore - Tools of the agent
+# + resolvesReferences - Whether the model resolves the `$ref` references to the `$defs` of the tool schemas
+# + return - Definitions of the tools
+isolated function getToolDefinitions(ToolStore toolStore, boolean resolvesReferences)
+        returns ChatCompletionFunctions[] {
+    map<json> definitions = toolStore.definitions;
+    ChatCompletionFunctions[] toolDefinitions = [];
+    foreach Tool tool in toolStore.tools {
+        ChatCompletionFunctions toolDefinition = {name: tool.name, description: tool.description};
+        map<json>? schemaWithReferences = toolStore.schemasWithReferences[tool.name];
+        map<json>? variables = tool.variables;
+        if schemaWithReferences is map<json> {
+            toolDefinition.parameters = getSelfContainedSchema(schemaWithReferences, definitions, resolvesReferences);
+        } else if variables is map<json> {
+            toolDefinition.parameters = variables;
+        }
+        toolDefinitions.push(toolDefinition);
+    }
+    return toolDefinitions;
+}
+
+isolated function getSelfContainedSchema(map<json> schema, map<json> definitions, boolean resolvesReferences)
+        returns map<json> {
+    map<()> sharedNames = {};
+    if resolvesReferences {
+        map<int> referenceCounts = {};
+        countReferences(schema, definitions, referenceCounts);
+        foreach [string, int] [name, count] in referenceCounts.entries() {
+            if count > 1 {
+                sharedNames[name] = ();
+            }
+        }
+    }
+    map<json> selfContainedSchema = <map<json>>inlineDefinitions(schema, definitions, sharedNames);
+    if sharedNames.length() > 0 {
+        map<json> toolDefinitions = {};
+        foreach string name in sharedNames.keys() {
+            toolDefinitions[name] = inlineDefinitions(definitions.get(name), definitions, sharedNames);
+        }
+        selfContainedSchema[SCHEMA_DEFINITIONS_KEY] = toolDefinitions;
+    }
+    return selfContainedSchema;
+}
+
+isolated function countReferences(json schema, map<json> definitions, map<int> referenceCounts) {
+    if schema is json[] {
+        foreach json item in schema {
+            countReferences(item, definitions, referenceCounts);
+        }
+        return;
+    }
+    if schema !is map<json> {
+        return;
+    }
+    string? name = getReferredDefinitionName(schema);
+    if name is string && definitions.hasKey(name) {
+        int count = referenceCounts[name] ?: 0;
+        referenceCounts[name] = count + 1;
+        if count == 0 {
+            // The references in a definition are counted once, as the definition is written once.
+            countReferences(definitions.get(name), definitions, referenceCounts);
+        }
+        return;
+    }
+    foreach json value in schema {
+        countReferences(value, definitions, referenceCounts);
+    }
+}
+
+# Replaces the references in a schema with the referred definitions.
+#
+# + schema - Schema with references
+# + definitions - Definitions referred to by the schema
+# + sharedNames - Names of the definitions that are not inlined
+# + inliningNames - Names of the definitions being inlined, which are not inlined again to support cyclic definitions
+# + return - Schema with the definitions inlined
+isolated function inlineDefinitions(json schema, map<json> definitions, map<()> sharedNames = {},
+        string[] inliningNames = []) returns json {
+    if schema is json[] {
+        return from json item in schema
+            select inlineDefinitions(item, definitions, sharedNames, inliningNames);
+    }
+    if schema !is map<json> {
+        return schema;
+    }
+    string? name = getReferredDefinitionName(schema);
+    if name is string && definitions.hasKey(name) && !sharedNames.hasKey(name) && inliningNames.indexOf(name) is () {
+        json definition = inlineDefinitions(definitions.get(name), definitions, sharedNames, [...inliningNames, name]);
+        if definition is map<json> {
+            // Keywords along with the reference, such as the description, override the ones of the definition.
+            map<json> inlinedSchema = {...definition};
+            foreach [string, json] [key, value] in schema.entries() {
+                if key != SCHEMA_REFERENCE_KEY {
+                    inlinedSchema[key] = value;
+                }
+            }
+            return inlinedSchema;
+        }
+    }
+    map<json> inlinedSchema = {};
+    foreach [string, json] [key, value] in schema.entries() {
+        inlinedSchema[key] = inlineDefinitions(value, definitions, sharedNames, inliningNames);
+    }
+    return inlinedSchema;
+}
+
+isolated function getReferredDefinitionName(map<json> schema) returns string? {
+    json reference = schema[SCHEMA_REFERENCE_KEY];
+    return reference is string && reference.startsWith(SCHEMA_DEFINITION_REFERENCE_PREFIX)
+        ? reference.substring(SCHEMA_DEFINITION_REFERENCE_PREFIX.length()) : ();
+}
+
 isolated function mergeInputs(map<json>? inputs, map<json> constants) returns map<json> {
     if inputs is () {
         return constants;
     }
+    // Inputs are copied before merging since they can be shared with other strands as immutable values.
+    map<json> mergedInputs = {...inputs};
     foreach [string, json] [key, value] in constants.entries() {
         if inputs.hasKey(key) {
             json inputValue = inputs[key];
             if inputValue is map<json> && value is map<json> {
-                inputs[key] = mergeInputs(inputValue, value);
+                mergedInputs[key] = mergeInputs(inputValue, value);
             }
         } else {
-            inputs[key] = value;
+            mergedInputs[key] = value;
         }
     }
-    return inputs;
+    return mergedInputs;
 }
@@ -0,0 +1,116 @@
+// Copyright (c) 2025 WSO2 LLC (http://www.wso2.com).
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/time;
+
+# Represents the usage statistics of the results cached for a tool.
+public type ToolCacheStats record {|
+    # Number of results currently cached
+    int cachedResultCount;
+    # Number of executions served from the cached results
+    int cacheHitCount;
+    # Number of executions of the tool, since no cached result is found
+    int cacheMissCount;
+    # Number of results evicted as the least recently used result
+    int evictedResultCount;
+    # Ratio of the executions served from the cached results
+    float hitRatio;
+|};
+
+type CachedToolResult record {|
+    readonly string key;
+    anydata & readonly value;
+    decimal expiresAt;
+|};
+
+type ToolResults record {|
+    ToolCacheConfig & readonly config;
+    map<CachedToolResult> results = {};
+    int cacheHitCount = 0;
+    int cacheMissCount = 0;
+    int evictedResultCount = 0;
+|};
+
+// Caches the results of the tools by the canonical form of their inputs. A cached result is moved to the end of the
+// insertion order of the map when it is used, so that the first result of the map is the least recently used one.
+isolated class ToolResultCache {
+    private final map<ToolResults> tools = {};
+
+    isolated function init(map<ToolCacheConfig> & readonly configs) {
+        lock {
+            foreach [string, ToolCacheConfig & readonly] [name, config] in configs.entries() {
+                self.tools[name] = {config: {capacity: int:max(1, config.capacity), ttl: config.ttl}};
+            }
+        }
+    }
+
+    // Returns the cached result of the tool for the given key, if it has not expired.
+    isolated function get(string toolName, string key) returns record {|anydata & readonly value;|}? {
+        lock {
+            ToolResults? tool = self.tools[toolName];
+            if tool is () {
+                return ();
+            }
+            CachedToolResult? result = tool.results[key];
+            if result is CachedToolResult && time:monotonicNow() < result.expiresAt {
+                _ = tool.results.remove(key);
+                tool.results[key] = result;
+                tool.cacheHitCount += 1;
+                return {value: result.value};
+            }
+            if result is CachedToolResult {
+                _ = tool.results.remove(key);
+            }
+            tool.cacheMissCount += 1;
+            return ();
+        }
+    }
+
+    isolated function put(string toolName, string key, anydata & readonly value) {
+        lock {
+            ToolResults? tool = self.tools[toolName];
+            if tool is () {
+                return;
+            }
+            _ = tool.results.removeIfHasKey(key);
+            tool.results[key] = {key, value, expiresAt: time:monotonicNow() + tool.config.ttl};
+            if tool.results.length() > tool.config.capacity {
+                record {|CachedToolResult value;|}? leastRecentlyUsed = tool.results.iterator().next();
+                if leastRecentlyUsed !is () {
+                    _ = tool.results.remove(leastRecentlyUsed.value.key);
+                    tool.evictedResultCount += 1;
+                }
+            }
+        }
+    }
+
+    isolated function getStats(string toolName) returns ToolCacheStats? {
+        lock {
+            ToolResults? tool = self.tools[toolName];
+            if tool is () {
+                return ();
+            }
+            int lookupCount = tool.cacheHitCount + tool.cacheMissCount;
+            return {
+                cachedResultCount: tool.results.length(),
+                cacheHitCount: tool.cacheHitCount,
+                cacheMissCount: tool.cacheMissCount,
+                evictedResultCount: tool.evictedResultCount,
+                hitRatio: lookupCount == 0 ? 0.0 : <float>tool.cacheHitCount / <float>lookupCount
+            };
+        }
+    }
+}
@@ -124,13 +124,25 @@ public type ObjectInputSchema record {|
     string[] required?;
     # Schema of the object properties
     map<JsonSubSchema> properties?;
+    # Schema definitions referred to by the `ReferenceSchema` inputs of the tool
+    map<JsonSubSchema> \$defs?;
+|};
+
+# Defines an input field whose schema is a definition in the `$defs` of the tool schema.
+public type ReferenceSchema record {|
+    # Reference to the definition, such as `#/$defs/Order`
+    string \$ref;
+    # Description of the input
+    string description?;
+    # Indicates whether the value can be null.
+    boolean nullable?;
 |};
 
 # Defines a json input schema
 public type JsonInputSchema ObjectInputSchema|ArrayInputSchema|AnyOfInputSchema|OneOfInputSchema|AllOfInputSchema|NotInputSchema;
 
 # Defines a json sub schema
-public type JsonSubSchema JsonInputSchema|PrimitiveInputSchema|ConstantValueSchema;
+public type JsonSubSchema JsonInputSchema|PrimitiveInputSchema|ConstantValueSchema|ReferenceSchema;
 
 // tool definitions ----------------------------
 # Defines a tool. This is the only tool type directly understood by the agent. All other tool types are converted to this type using toolkits.
@@ -143,6 +155,41 @@ public type ToolConfig record {|
     map<json>? parameters = ();
     # Pointer to the function that should be called when the tool is invoked.
     FunctionTool caller;
+    # Maximum number of concurrent executions of the tool. Set to `1` for tools that must not be executed concurrently.
+    # If not provided, the executions of the tool are not limited.
+    int maxConcurrency?;
+    # Maximum number of executions waiting for the executions of the tool limited by `maxConcurrency`.
+    # Further executions are rejected without waiting. If not provided, the waiting executions are not limited.
+    int maxQueueSize?;
+    # The time in seconds after which an execution of the tool is cancelled. If not provided, the executions of the
+    # tool are not timed out.
+    decimal timeout?;
+    # Stops executing the tool for a while once it fails repeatedly. If not provided, the tool is always executed.
+    CircuitBreakerConfig circuitBreaker?;
+    # Caches the results of the tool, so that the tool is not executed again for the same inputs.
+    # If not provided, the results are not cached.
+    ToolCacheConfig cache?;
+    # Indicates whether the tool modifies any state, such as creating or updating a record.
+    # The results of a mutating tool are never cached.
+    boolean mutating = false;
+|};
+
+# Configurations of the circuit breaker of a tool. Once the tool fails consecutively for the failure threshold,
+# the executions of the tool are rejected until the reset time passes, after which a single execution is allowed
+# to check whether the tool has recovered.
+public type CircuitBreakerConfig record {|
+    # The number of consecutive failures of the tool, after which the tool is no longer executed
+    int failureThreshold = DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD;
+    # The time in seconds for which the executions of the tool are rejected
+    decimal resetTime = DEFAULT_CIRCUIT_BREAKER_RESET_TIME;
+|};
+
+# Configurations of the results cached for a tool. Only the successful results are cached.
+public type ToolCacheConfig record {|
+    # The maximum number of results cached for the tool
+    int capacity = DEFAULT_TOOL_CACHE_CAPACITY;
+    # The time in seconds for which a cached result is returned
+    decimal ttl = DEFAULT_TOOL_CACHE_TTL;
 |};
 
 # Defines the configuration of the Tool annotation.
@@ -155,6 +202,21 @@ public type ToolAnnotationConfig record {|
     # The input schema expected by the tool. If the tool does not expect any input, this should be null.  
     # If not provided, the input schema is generated automatically. 
     ObjectInputSchema? parameters?;
+    # Caches the results of the tool, so that the tool is not executed again for the same inputs.
+    # If not provided, the results are not cached.
+    ToolCacheConfig cache?;
+    # Indicates whether the tool modifies any state. The results of a mutating tool are never cached.
+    boolean mutating?;
+    # Maximum number of concurrent executions of the tool. If not provided, the executions are not limited.
+    int maxConcurrency?;
+    # Maximum number of executions waiting for the executions of the tool limited by `maxConcurrency`.
+    # If not provided, the waiting executions are not limited.
+    int maxQueueSize?;
+    # The time in seconds after which an execution of the tool is cancelled. If not provided, the executions are
+    # not timed out.
+    decimal timeout?;
+    # Stops executing the tool for a while once it fails repeatedly. If not provided, the tool is always executed.
+    CircuitBreakerConfig circuitBreaker?;
 |};
 
 # Represents the annotation of a function tool.
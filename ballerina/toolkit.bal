@@ -173,8 +173,11 @@ public isolated class HttpServiceToolKit {
     # + httpTools - The http tools to be initialized
     # + clientConfig - The http client configuration associated to the tools
     # + headers - The http headers to be used in the requests
+    # + cache - Caches the responses of the `GET` resources, so that a resource is not called again with the same
+    # inputs. The other resources are treated as mutating, and their responses are never cached
     # + returns - error if the initialization fails
-    public isolated function init(string serviceUrl, HttpTool[] httpTools, http:ClientConfiguration clientConfig = {}, map<string|string[]> headers = {}) returns Error? {
+    public isolated function init(string serviceUrl, HttpTool[] httpTools, http:ClientConfiguration clientConfig = {},
+            map<string|string[]> headers = {}, ToolCacheConfig? cache = ()) returns Error? {
         self.headers = headers.cloneReadOnly();
         http:Client|http:Error httpClient = new (serviceUrl, clientConfig);
         if httpClient is http:Error {
@@ -249,7 +252,9 @@ public isolated class HttpServiceToolKit {
                     },
                     required: ["httpInput"]
                 },
-                caller
+                caller,
+                cache: httpTool.method == GET ? cache : (),
+                mutating: httpTool.method is POST|PUT|PATCH|DELETE
             });
         }
         self.tools = tools.cloneReadOnly();
@@ -42,3 +42,10 @@ public type ChatService distinct service object {
     *http:Service;
     resource function post chat(@http:Payload ChatReqMessage request) returns ChatRespMessage|error;
 };
+
+# Defines a chat service interface that streams the response to incoming chat messages as server-sent events.
+# The events of an agent execution can be returned using `ai:toSseEvents(agent->runStream(...))`.
+public type StreamingChatService distinct service object {
+    *http:Service;
+    resource function post chat(@http:Payload ChatReqMessage request) returns stream<http:SseEvent, error?>|error;
+};
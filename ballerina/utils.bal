@@ -16,18 +16,7 @@
 
 import ballerina/jballerina.java;
 
-isolated function getToolParameterTypes(FunctionTool functionPointer) returns map<typedesc<anydata>> {
-    map<any> typedescriptors = getParameterTypes(functionPointer);
-    map<typedesc<anydata>> anydataTypeDesc = {};
-    foreach [string, any] [parmeterName, typedescriptor] in typedescriptors.entries() {
-        if typedescriptor is typedesc<anydata> {
-            anydataTypeDesc[parmeterName] = typedescriptor;
-        }
-    }
-    return anydataTypeDesc;
-}
-
-isolated function getParameterTypes(FunctionTool functionPointer) returns map<any> = @java:Method {
+isolated function getParameterTypes(FunctionTool functionPointer) returns readonly & map<any> = @java:Method {
     'class: "io.ballerina.lib.ai.Utils"
 } external;
 
@@ -39,8 +28,7 @@ isolated function getFunctionName(FunctionTool toolFunction) returns string = @j
     'class: "io.ballerina.lib.ai.Utils"
 } external;
 
-isolated function getArgsWithDefaultValues(FunctionTool toolFunction, map<anydata> value)
-returns map<anydata> = @java:Method {
+isolated function getToolArguments(FunctionTool toolFunction, map<anydata> value) returns anydata[] = @java:Method {
     'class: "io.ballerina.lib.ai.Utils"
 } external;
 
@@ -48,3 +36,87 @@ isolated function invokeOnChatMessageFunction(any event, string eventFunction, s
     returns ChatRespMessage|error = @java:Method {
         'class: "io.ballerina.lib.ai.NativeHttpToChatServiceAdaptor"
 } external;
+
+isolated function acquireSessionLock(Memory memory, string sessionId) = @java:Method {
+    'class: "io.ballerina.lib.ai.SessionLocks"
+} external;
+
+isolated function releaseSessionLock(Memory memory, string sessionId) returns error? = @java:Method {
+    'class: "io.ballerina.lib.ai.SessionLocks"
+} external;
+
+isolated function createLimiter(int permits, int maxQueueSize) returns handle = @java:Method {
+    'class: "io.ballerina.lib.ai.ConcurrencyLimiter"
+} external;
+
+isolated function acquirePermit(handle limiter, int timeoutInMillis) returns boolean = @java:Method {
+    'class: "io.ballerina.lib.ai.ConcurrencyLimiter"
+} external;
+
+isolated function releasePermit(handle limiter) = @java:Method {
+    'class: "io.ballerina.lib.ai.ConcurrencyLimiter"
+} external;
+
+isolated function createEventQueue() returns handle = @java:Method {
+    'class: "io.ballerina.lib.ai.EventQueue"
+} external;
+
+isolated function putEvent(handle queue, (readonly & AgentEvent)|Error? event) = @java:Method {
+    'class: "io.ballerina.lib.ai.EventQueue"
+} external;
+
+isolated function takeEvent(handle queue) returns AgentEvent|error? = @java:Method {
+    'class: "io.ballerina.lib.ai.EventQueue"
+} external;
+
+isolated function closeEventQueue(handle queue) = @java:Method {
+    'class: "io.ballerina.lib.ai.EventQueue"
+} external;
+
+isolated function isEventQueueClosed(handle queue) returns boolean = @java:Method {
+    'class: "io.ballerina.lib.ai.EventQueue"
+} external;
+
+isolated function openMemoryLog(string directory, int windowSize, int maxBatchSize, int flushIntervalMillis)
+    returns handle|error = @java:Method {
+    'class: "io.ballerina.lib.ai.MemoryLog"
+} external;
+
+isolated function appendMemoryRecord(handle log, string kind, string sessionId, string payload)
+    returns error? = @java:Method {
+    'class: "io.ballerina.lib.ai.MemoryLog"
+} external;
+
+isolated function readMemoryRecords(handle log, string sessionId) returns string[]|error = @java:Method {
+    'class: "io.ballerina.lib.ai.MemoryLog"
+} external;
+
+isolated function flushMemoryLog(handle log) returns error? = @java:Method {
+    'class: "io.ballerina.lib.ai.MemoryLog"
+} external;
+
+isolated function compactMemoryLog(handle log) returns error? = @java:Method {
+    'class: "io.ballerina.lib.ai.MemoryLog"
+} external;
+
+isolated function closeMemoryLog(handle log) returns error? = @java:Method {
+    'class: "io.ballerina.lib.ai.MemoryLog"
+} external;
+
+isolated function parseReActAction(string llmResponse) returns map<json>|error? = @java:Method {
+    'class: "io.ballerina.lib.ai.ReActParser"
+} external;
+
+isolated function getCanonicalJsonKey(map<json> value, boolean normalizeWhitespace) returns string = @java:Method {
+    'class: "io.ballerina.lib.ai.ResponseCache"
+} external;
+
+isolated function readCachedModelResponse(string directory, string key, int ttlMillis)
+    returns string|error? = @java:Method {
+    'class: "io.ballerina.lib.ai.ResponseCache"
+} external;
+
+isolated function writeCachedModelResponse(string directory, string key, string response)
+    returns error? = @java:Method {
+    'class: "io.ballerina.lib.ai.ResponseCache"
+} external;
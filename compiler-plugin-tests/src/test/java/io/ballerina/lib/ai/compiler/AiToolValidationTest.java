@@ -20,6 +20,7 @@ package io.ballerina.lib.ai.compiler;
 
 import io.ballerina.lib.ai.plugin.diagnostics.CompilationDiagnostic;
 import io.ballerina.projects.DiagnosticResult;
+import io.ballerina.projects.Module;
 import io.ballerina.projects.ProjectEnvironmentBuilder;
 import io.ballerina.projects.directory.BuildProject;
 import io.ballerina.projects.environment.Environment;
@@ -165,6 +166,33 @@ public class AiToolValidationTest {
         assertErrorMessage(diagnostic, message, 100, 1);
     }
 
+    @Test
+    public void testGeneratedToolSchema() {
+        String packagePath = "07_tool_with_generated_schema";
+        BuildProject project = BuildProject.load(getEnvironmentBuilder(), RESOURCE_DIRECTORY.resolve(packagePath));
+        Assert.assertEquals(project.currentPackage().runCodeGenAndModifyPlugins().errorCount(), 0);
+        // The generated schema must conform to the tool input schema types of the annotation.
+        Assert.assertEquals(project.currentPackage().getCompilation().diagnosticResult().errorCount(), 0);
+
+        Module module = project.currentPackage().getDefaultModule();
+        String source = module.document(module.documentIds().iterator().next()).syntaxTree().toSourceCode();
+        String expectedSchema = "{\"type\":\"object\",\"required\":[\"task\",\"dueInDays\"],\"properties\":{"
+                + "\"task\":{\"$ref\":\"#/$defs/Task\","
+                + "\"description\":\"Task to create, with the title kept as { is }\"},"
+                + "\"dueInDays\":{\"type\":\"integer\",\"nullable\":true,"
+                + "\"description\":\"Days until the task is due\"},"
+                + "\"owner\":{\"type\":\"string\",\"default\":\"me\"}},"
+                + "\"$defs\":{\"Task\":{\"type\":\"object\",\"required\":[\"title\"],\"properties\":{"
+                + "\"title\":{\"type\":\"string\","
+                + "\"description\":\"Title of the task, such as \\\"Buy milk : today , tomorrow\\\"\"},"
+                + "\"done\":{\"type\":\"boolean\",\"description\":\"Whether the task is done\"},"
+                + "\"tags\":{\"type\":\"array\",\"items\":{\"type\":\"string\"}}}}}}";
+        Assert.assertTrue(source.contains("parameters:" + expectedSchema), source);
+        // The generated description is escaped, and added after the fields given in the annotation.
+        Assert.assertTrue(source.contains("{name: \"completeTask\","
+                + "description:\"Marks a task as \\\"done\\\" in the C:\\\\tasks folder."), source);
+    }
+
     private DiagnosticResult getDiagnosticResult(String path) {
         Path projectDirPath = RESOURCE_DIRECTORY.resolve(path);
         BuildProject project = BuildProject.load(getEnvironmentBuilder(), projectDirPath);
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.lib.ai.compiler;
+
+import io.ballerina.projects.DiagnosticResult;
+import io.ballerina.projects.directory.BuildProject;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Contains benchmarks of the compile time of packages with many tools, with parallel schema generation and with
+ * the tool schema cache, and of packages with many chat services, with the OpenAPI contracts exported. The benchmarks are in the benchmark group,
+ * which is excluded from the tests unless the build is run with the {@code benchmark} property.
+ */
+public class CompilerPluginBenchmarkTest {
+    private static final String BENCHMARK_GROUP = "benchmark";
+    private static final int MODULE_COUNT = 8;
+    private static final int TOOLS_PER_MODULE = 100;
+    private static final int CACHED_TOOL_COUNT = 500;
+    private static final int SERVICE_COUNT = 200;
+
+    @Test(groups = BENCHMARK_GROUP)
+    public void benchmarkParallelSchemaGeneration() throws IOException {
+        Path projectDirPath = ParallelSchemaGenerationTest.createProject("parallel-schema-generation-benchmark",
+                MODULE_COUNT, TOOLS_PER_MODULE);
+        try {
+            long startTime = System.nanoTime();
+            ParallelSchemaGenerationTest.compile(projectDirPath, "1");
+            long serialBuildTime = System.nanoTime() - startTime;
+
+            int processorCount = Runtime.getRuntime().availableProcessors();
+            startTime = System.nanoTime();
+            ParallelSchemaGenerationTest.compile(projectDirPath, String.valueOf(processorCount));
+            long parallelBuildTime = System.nanoTime() - startTime;
+
+            System.out.printf("Compiled %d tools in %d modules in %d ms with serial schema generation and in %d ms " +
+                            "with parallel schema generation on %d processors%n", MODULE_COUNT * TOOLS_PER_MODULE,
+                    MODULE_COUNT, serialBuildTime / 1_000_000, parallelBuildTime / 1_000_000, processorCount);
+        } finally {
+            ParallelSchemaGenerationTest.deleteDirectory(projectDirPath);
+        }
+    }
+
+    @Test(groups = BENCHMARK_GROUP)
+    public void benchmarkToolSchemaCache() throws IOException {
+        Path projectDirPath = ToolSchemaCacheTest.createProject("tool-schema-cache-benchmark", CACHED_TOOL_COUNT);
+        try {
+            long startTime = System.nanoTime();
+            BuildProject coldProject = ToolSchemaCacheTest.compile(projectDirPath);
+            long coldBuildTime = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            BuildProject warmProject = ToolSchemaCacheTest.compile(projectDirPath);
+            long warmBuildTime = System.nanoTime() - startTime;
+
+            System.out.printf("Compiled %d tools in %d ms without the tool schema cache and in %d ms with it%n",
+                    CACHED_TOOL_COUNT, coldBuildTime / 1_000_000, warmBuildTime / 1_000_000);
+            Assert.assertEquals(ToolSchemaCacheTest.getModifiedSource(warmProject),
+                    ToolSchemaCacheTest.getModifiedSource(coldProject));
+        } finally {
+            ParallelSchemaGenerationTest.deleteDirectory(projectDirPath);
+        }
+    }
+
+    @Test(groups = BENCHMARK_GROUP)
+    public void benchmarkOpenAPIGenerationForManyServices() throws IOException {
+        Path projectDirPath = OpenAPIGeneratorTest.createProject("openapi-generation-benchmark", SERVICE_COUNT);
+        try {
+            long startTime = System.nanoTime();
+            DiagnosticResult diagnosticResult = OpenAPIGeneratorTest.getDiagnosticResult(projectDirPath);
+            long buildTime = System.nanoTime() - startTime;
+            System.out.printf("Compiled and exported the OpenAPI contracts of %d chat services in %d ms%n",
+                    SERVICE_COUNT, buildTime / 1_000_000);
+
+            Assert.assertEquals(diagnosticResult.errorCount(), 0);
+            OpenAPIGeneratorTest.assertContractCount(projectDirPath, SERVICE_COUNT);
+        } finally {
+            ParallelSchemaGenerationTest.deleteDirectory(projectDirPath);
+        }
+    }
+}
@@ -28,9 +28,11 @@ import io.ballerina.projects.environment.EnvironmentBuilder;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.stream.Stream;
 
 public class OpenAPIGeneratorTest {
     private static final String BALLERINA_HOME = "BALLERINA_HOME";
@@ -39,6 +41,7 @@ public class OpenAPIGeneratorTest {
             "ballerina_sources", "openapi_tests").toAbsolutePath();
     private static final Path DISTRIBUTION_PATH = Paths.get(System.getenv(BALLERINA_HOME),
             "distributions", System.getProperty(BALLERINA_DISTRIBUTION_VERSION)).toAbsolutePath();
+    private static final int SERVICE_COUNT = 20;
 
     @Test
     public void testOpenAPIGenerationForListenerVariable() {
@@ -58,8 +61,60 @@ public class OpenAPIGeneratorTest {
                 "/target/openapi/api_v1_openapi.yaml")));
     }
 
-    private DiagnosticResult getDiagnosticResult(String path) {
-        Path projectDirPath = RESOURCE_DIRECTORY.resolve(path);
+    @Test
+    public void testOpenAPIGenerationForManyServices() throws IOException {
+        Path projectDirPath = createProject("openapi-generation-test", SERVICE_COUNT);
+        try {
+            DiagnosticResult diagnosticResult = getDiagnosticResult(projectDirPath);
+            Assert.assertEquals(diagnosticResult.errorCount(), 0);
+            assertContractCount(projectDirPath, SERVICE_COUNT);
+        } finally {
+            ParallelSchemaGenerationTest.deleteDirectory(projectDirPath);
+        }
+    }
+
+    static Path createProject(String name, int serviceCount) throws IOException {
+        Path projectDirPath = Files.createTempDirectory(name);
+        Files.copy(RESOURCE_DIRECTORY.resolve("01_sample").resolve("Ballerina.toml"),
+                projectDirPath.resolve("Ballerina.toml"));
+        Files.writeString(projectDirPath.resolve("main.bal"), generateServices(serviceCount));
+        return projectDirPath;
+    }
+
+    static void assertContractCount(Path projectDirPath, int serviceCount) throws IOException {
+        try (Stream<Path> contracts = Files.list(projectDirPath.resolve("target").resolve("openapi"))) {
+            Assert.assertEquals(contracts.count(), serviceCount);
+        }
+    }
+
+    private static String generateServices(int serviceCount) {
+        StringBuilder source = new StringBuilder("""
+                import ballerinax/ai;
+                import ballerina/http;
+
+                listener http:Listener httpListener = http:getDefaultListener();
+                listener ai:Listener chatListener = new (httpListener);
+
+                """);
+        for (int i = 0; i < serviceCount; i++) {
+            source.append(String.format("""
+                    service /chatService%d on chatListener {
+                        resource function post chat(@http:Payload ai:ChatReqMessage request)
+                                returns ai:ChatRespMessage|error {
+                            return {message: request.sessionId + ": " + request.message};
+                        }
+                    }
+
+                    """, i));
+        }
+        return source.toString();
+    }
+
+    private static DiagnosticResult getDiagnosticResult(String path) {
+        return getDiagnosticResult(RESOURCE_DIRECTORY.resolve(path));
+    }
+
+    static DiagnosticResult getDiagnosticResult(Path projectDirPath) {
         BuildOptions buildOptions = BuildOptions.builder().setExportOpenAPI(true).build();
         BuildProject project = BuildProject.load(getEnvironmentBuilder(), projectDirPath, buildOptions);
         project.currentPackage().runCodeGenAndModifyPlugins();
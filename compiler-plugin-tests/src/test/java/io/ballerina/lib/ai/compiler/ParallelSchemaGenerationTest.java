@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.lib.ai.compiler;
+
+import io.ballerina.projects.DiagnosticResult;
+import io.ballerina.projects.Document;
+import io.ballerina.projects.DocumentId;
+import io.ballerina.projects.Module;
+import io.ballerina.projects.ProjectEnvironmentBuilder;
+import io.ballerina.projects.directory.BuildProject;
+import io.ballerina.projects.environment.Environment;
+import io.ballerina.projects.environment.EnvironmentBuilder;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Contains compiler plugin tests for generating the tool schemas in parallel.
+ */
+public class ParallelSchemaGenerationTest {
+    private static final String BALLERINA_HOME = "BALLERINA_HOME";
+    private static final String BALLERINA_DISTRIBUTION_VERSION = "ballerina.distribution.version";
+    private static final String SCHEMA_GENERATION_PARALLELISM = "ballerinax.ai.schemaGenerationParallelism";
+    private static final Path RESOURCE_DIRECTORY = Paths.get("src", "test", "resources",
+            "ballerina_sources", "openapi_tests").toAbsolutePath();
+    private static final Path DISTRIBUTION_PATH = Paths.get(System.getenv(BALLERINA_HOME),
+            "distributions", System.getProperty(BALLERINA_DISTRIBUTION_VERSION)).toAbsolutePath();
+    private static final int MODULE_COUNT = 4;
+    private static final int TOOLS_PER_MODULE = 25;
+    private static final int PARALLEL_BUILD_COUNT = 3;
+
+    private Path projectDirPath;
+
+    @BeforeClass
+    public void createProject() throws IOException {
+        projectDirPath = createProject("parallel-schema-generation-test", MODULE_COUNT, TOOLS_PER_MODULE);
+    }
+
+    @AfterClass
+    public void deleteProject() throws IOException {
+        deleteDirectory(projectDirPath);
+    }
+
+    @Test
+    public void testSerialSchemaGenerationByDefault() throws IOException {
+        Assert.assertEquals(compile(projectDirPath, null), compile(projectDirPath, "1"));
+    }
+
+    @Test
+    public void testParallelSchemaGeneration() throws IOException {
+        Map<String, String> serialSources = compile(projectDirPath, "1");
+        // The schemas generated in parallel must generate the same source as the schemas generated serially,
+        // irrespective of the order the threads generate them in.
+        for (int i = 0; i < PARALLEL_BUILD_COUNT; i++) {
+            Assert.assertEquals(compile(projectDirPath, "8"), serialSources);
+        }
+    }
+
+    static Path createProject(String name, int moduleCount, int toolsPerModule) throws IOException {
+        Path projectDirPath = Files.createTempDirectory(name);
+        Files.copy(RESOURCE_DIRECTORY.resolve("01_sample").resolve("Ballerina.toml"),
+                projectDirPath.resolve("Ballerina.toml"));
+        Files.writeString(projectDirPath.resolve("main.bal"), "public function main() {\n}\n");
+        for (int i = 0; i < moduleCount; i++) {
+            Path moduleDirPath = Files.createDirectories(projectDirPath.resolve("modules").resolve("m" + i));
+            Files.writeString(moduleDirPath.resolve("tools.bal"), generateTools(toolsPerModule));
+        }
+        return projectDirPath;
+    }
+
+    static Map<String, String> compile(Path projectDirPath, String parallelism) throws IOException {
+        // Deletes the schemas cached by the previous build, so that all the schemas are generated again
+        Path targetDirPath = projectDirPath.resolve("target");
+        if (Files.exists(targetDirPath)) {
+            deleteDirectory(targetDirPath);
+        }
+        String previousParallelism = System.getProperty(SCHEMA_GENERATION_PARALLELISM);
+        setParallelism(parallelism);
+        try {
+            BuildProject project = BuildProject.load(getEnvironmentBuilder(), projectDirPath);
+            project.currentPackage().runCodeGenAndModifyPlugins();
+            DiagnosticResult diagnosticResult = project.currentPackage().getCompilation().diagnosticResult();
+            Assert.assertEquals(diagnosticResult.errorCount(), 0);
+            return getModifiedSources(project);
+        } finally {
+            setParallelism(previousParallelism);
+        }
+    }
+
+    static void deleteDirectory(Path directoryPath) throws IOException {
+        try (Stream<Path> paths = Files.walk(directoryPath)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static void setParallelism(String parallelism) {
+        if (parallelism == null) {
+            System.clearProperty(SCHEMA_GENERATION_PARALLELISM);
+        } else {
+            System.setProperty(SCHEMA_GENERATION_PARALLELISM, parallelism);
+        }
+    }
+
+    private static Map<String, String> getModifiedSources(BuildProject project) {
+        Map<String, String> sources = new TreeMap<>();
+        for (Module module : project.currentPackage().modules()) {
+            for (DocumentId documentId : module.documentIds()) {
+                Document document = module.document(documentId);
+                sources.put(module.moduleName() + "/" + document.name(), document.syntaxTree().toSourceCode());
+            }
+        }
+        return sources;
+    }
+
+    private static String generateTools(int toolCount) {
+        StringBuilder source = new StringBuilder("""
+                import ballerinax/ai;
+
+                # Address of a customer.
+                type Address record {|
+                    # Street of the address
+                    string street;
+                    # City of the address
+                    string city;
+                    # Postal code of the address
+                    string? postalCode = ();
+                |};
+
+                # Customer placing an order.
+                type Customer record {|
+                    # Name of the customer
+                    string name;
+                    # Addresses of the customer
+                    Address[] addresses;
+                    # Tier of the customer
+                    "GOLD"|"SILVER"|"BRONZE" tier;
+                |};
+
+                """);
+        for (int i = 0; i < toolCount; i++) {
+            source.append(String.format("""
+                    # Creates order %1$d of a customer.
+                    # + customer - Customer placing the order
+                    # + items - Items of the order with their quantities
+                    # + note - Note of the order
+                    # + return - Identifier of the order
+                    @ai:AgentTool
+                    isolated function createOrder%1$d(Customer customer, map<int> items, string note = "none")
+                            returns string => customer.name + note;
+
+                    """, i));
+        }
+        return source.toString();
+    }
+
+    private static ProjectEnvironmentBuilder getEnvironmentBuilder() {
+        Environment environment = EnvironmentBuilder.getBuilder().setBallerinaHome(DISTRIBUTION_PATH).build();
+        return ProjectEnvironmentBuilder.getBuilder(environment);
+    }
+}
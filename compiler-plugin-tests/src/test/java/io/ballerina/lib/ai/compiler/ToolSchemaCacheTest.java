@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.lib.ai.compiler;
+
+import io.ballerina.projects.DiagnosticResult;
+import io.ballerina.projects.Document;
+import io.ballerina.projects.DocumentId;
+import io.ballerina.projects.Module;
+import io.ballerina.projects.ProjectEnvironmentBuilder;
+import io.ballerina.projects.directory.BuildProject;
+import io.ballerina.projects.environment.Environment;
+import io.ballerina.projects.environment.EnvironmentBuilder;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Contains compiler plugin tests for the tool schema cache.
+ */
+public class ToolSchemaCacheTest {
+    private static final String BALLERINA_HOME = "BALLERINA_HOME";
+    private static final String BALLERINA_DISTRIBUTION_VERSION = "ballerina.distribution.version";
+    private static final Path RESOURCE_DIRECTORY = Paths.get("src", "test", "resources",
+            "ballerina_sources", "openapi_tests").toAbsolutePath();
+    private static final Path DISTRIBUTION_PATH = Paths.get(System.getenv(BALLERINA_HOME),
+            "distributions", System.getProperty(BALLERINA_DISTRIBUTION_VERSION)).toAbsolutePath();
+    private static final Path CACHE_FILE = Paths.get("target", "ai", "tool-schema-cache.properties");
+    private static final int TOOL_COUNT = 20;
+
+    private Path projectDirPath;
+
+    @BeforeClass
+    public void createProject() throws IOException {
+        projectDirPath = createProject("tool-schema-cache-test", TOOL_COUNT);
+    }
+
+    @AfterClass
+    public void deleteProject() throws IOException {
+        ParallelSchemaGenerationTest.deleteDirectory(projectDirPath);
+    }
+
+    @Test
+    public void testToolSchemaCacheAcrossBuilds() {
+        BuildProject coldProject = compile(projectDirPath);
+        Assert.assertTrue(Files.exists(projectDirPath.resolve(CACHE_FILE)));
+
+        BuildProject warmProject = compile(projectDirPath);
+        // The cached schemas must generate the same source as the schemas generated from scratch.
+        Assert.assertEquals(getModifiedSource(warmProject), getModifiedSource(coldProject));
+    }
+
+    static Path createProject(String name, int toolCount) throws IOException {
+        Path projectDirPath = Files.createTempDirectory(name);
+        Files.copy(RESOURCE_DIRECTORY.resolve("01_sample").resolve("Ballerina.toml"),
+                projectDirPath.resolve("Ballerina.toml"));
+        Files.writeString(projectDirPath.resolve("main.bal"), generateTools(toolCount));
+        return projectDirPath;
+    }
+
+    static BuildProject compile(Path projectDirPath) {
+        BuildProject project = BuildProject.load(getEnvironmentBuilder(), projectDirPath);
+        project.currentPackage().runCodeGenAndModifyPlugins();
+        DiagnosticResult diagnosticResult = project.currentPackage().getCompilation().diagnosticResult();
+        Assert.assertEquals(diagnosticResult.errorCount(), 0);
+        return project;
+    }
+
+    static String getModifiedSource(BuildProject project) {
+        Module module = project.currentPackage().getDefaultModule();
+        DocumentId documentId = module.documentIds().iterator().next();
+        Document document = module.document(documentId);
+        return document.syntaxTree().toSourceCode();
+    }
+
+    private static String generateTools(int toolCount) {
+        StringBuilder source = new StringBuilder("""
+                import ballerinax/ai;
+
+                # Address of a customer.
+                type Address record {|
+                    # Street of the address
+                    string street;
+                    # City of the address
+                    string city;
+                    # Postal code of the address
+                    string? postalCode = ();
+                |};
+
+                # Customer placing an order.
+                type Customer record {|
+                    # Name of the customer
+                    string name;
+                    # Addresses of the customer
+                    Address[] addresses;
+                    # Tier of the customer
+                    "GOLD"|"SILVER"|"BRONZE" tier;
+                |};
+
+                """);
+        for (int i = 0; i < toolCount; i++) {
+            source.append(String.format("""
+                    # Creates order %1$d of a customer.
+                    # + customer - Customer placing the order
+                    # + items - Items of the order with their quantities
+                    # + note - Note of the order
+                    # + return - Identifier of the order
+                    @ai:AgentTool
+                    isolated function createOrder%1$d(Customer customer, map<int> items, string note = "none")
+                            returns string => customer.name + note;
+
+                    """, i));
+        }
+        return source.toString();
+    }
+
+    private static ProjectEnvironmentBuilder getEnvironmentBuilder() {
+        Environment environment = EnvironmentBuilder.getBuilder().setBallerinaHome(DISTRIBUTION_PATH).build();
+        return ProjectEnvironmentBuilder.getBuilder(environment);
+    }
+}
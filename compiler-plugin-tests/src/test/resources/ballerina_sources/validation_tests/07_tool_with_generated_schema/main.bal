@@ -0,0 +1,38 @@
+// Copyright (c) 2025 WSO2 LLC (http://www.wso2.com).
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerinax/ai;
+
+type Task record {|
+    # Title of the task, such as "Buy milk : today , tomorrow"
+    string title;
+    # Whether the task is done
+    boolean done = false;
+    string[] tags?;
+|};
+
+# Creates a task.
+# + task - Task to create, with the title kept as { is }
+# + dueInDays - Days until the task is due
+# + return - Identifier of the task
+@ai:AgentTool
+isolated function createTask(Task task, int|byte? dueInDays, string owner = "me") returns string => task.title;
+
+# Marks a task as "done" in the C:\tasks folder.
+# + id - Identifier of the task
+# + return - Whether the task was found
+@ai:AgentTool {name: "completeTask"}
+isolated function markTaskAsDone(string id) returns boolean => id.length() > 0;
@@ -24,17 +24,18 @@ import io.ballerina.projects.ModuleId;
 import io.ballerina.projects.plugins.CodeModifier;
 import io.ballerina.projects.plugins.CodeModifierContext;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Analyzes a Ballerina AI tools and report diagnostics, and generates json schema for tools.
  */
 public class AiCodeModifier extends CodeModifier {
-    private final Map<DocumentId, ModifierContext> modifierContextMap = new HashMap<>();
-    private final Set<ModuleId> modulesWithPredefinedInitMethods = new HashSet<>();
+    // The state is shared by the tasks, which may be performed concurrently for different documents.
+    private final Map<DocumentId, ModifierContext> modifierContextMap = new ConcurrentHashMap<>();
+    private final Set<ModuleId> modulesWithPredefinedInitMethods = ConcurrentHashMap.newKeySet();
+    private final ToolSchemaCache toolSchemaCache = new ToolSchemaCache();
 
     @Override
     public void init(CodeModifierContext codeModifierContext) {
@@ -45,6 +46,6 @@ public class AiCodeModifier extends CodeModifier {
         codeModifierContext.addSyntaxNodeAnalysisTask(new InitFunctionAnalysisTask(modulesWithPredefinedInitMethods),
                 SyntaxKind.FUNCTION_DEFINITION);
         codeModifierContext.addSourceModifierTask(new AiSourceModifier(modifierContextMap,
-                modulesWithPredefinedInitMethods));
+                modulesWithPredefinedInitMethods, toolSchemaCache));
     }
 }
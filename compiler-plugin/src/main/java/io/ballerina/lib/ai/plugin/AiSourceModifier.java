@@ -18,12 +18,19 @@
 
 package io.ballerina.lib.ai.plugin;
 
+import io.ballerina.compiler.api.symbols.FunctionSymbol;
 import io.ballerina.compiler.syntax.tree.AnnotationNode;
+import io.ballerina.compiler.syntax.tree.CaptureBindingPatternNode;
 import io.ballerina.compiler.syntax.tree.ClassDefinitionNode;
+import io.ballerina.compiler.syntax.tree.ExpressionNode;
+import io.ballerina.compiler.syntax.tree.FunctionBodyBlockNode;
 import io.ballerina.compiler.syntax.tree.FunctionDefinitionNode;
+import io.ballerina.compiler.syntax.tree.IdentifierToken;
 import io.ballerina.compiler.syntax.tree.MappingConstructorExpressionNode;
 import io.ballerina.compiler.syntax.tree.MappingFieldNode;
 import io.ballerina.compiler.syntax.tree.MetadataNode;
+import io.ballerina.compiler.syntax.tree.Minutiae;
+import io.ballerina.compiler.syntax.tree.MinutiaeList;
 import io.ballerina.compiler.syntax.tree.ModuleMemberDeclarationNode;
 import io.ballerina.compiler.syntax.tree.ModulePartNode;
 import io.ballerina.compiler.syntax.tree.ModuleVariableDeclarationNode;
@@ -34,60 +41,149 @@ import io.ballerina.compiler.syntax.tree.NodeParser;
 import io.ballerina.compiler.syntax.tree.QualifiedNameReferenceNode;
 import io.ballerina.compiler.syntax.tree.SeparatedNodeList;
 import io.ballerina.compiler.syntax.tree.SpecificFieldNode;
+import io.ballerina.compiler.syntax.tree.StatementNode;
 import io.ballerina.compiler.syntax.tree.SyntaxTree;
 import io.ballerina.compiler.syntax.tree.Token;
+import io.ballerina.lib.ai.plugin.diagnostics.CompilationDiagnostic;
 import io.ballerina.projects.DocumentId;
 import io.ballerina.projects.Module;
 import io.ballerina.projects.ModuleId;
 import io.ballerina.projects.plugins.ModifierTask;
 import io.ballerina.projects.plugins.SourceModifierContext;
+import io.ballerina.tools.diagnostics.Diagnostic;
+import io.ballerina.tools.diagnostics.Location;
 import io.ballerina.tools.text.TextDocument;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static io.ballerina.compiler.syntax.tree.SyntaxKind.CLOSE_BRACE_TOKEN;
 import static io.ballerina.compiler.syntax.tree.SyntaxKind.COLON_TOKEN;
 import static io.ballerina.compiler.syntax.tree.SyntaxKind.COMMA_TOKEN;
+import static io.ballerina.compiler.syntax.tree.SyntaxKind.END_OF_LINE_MINUTIAE;
 import static io.ballerina.compiler.syntax.tree.SyntaxKind.EQUAL_TOKEN;
 import static io.ballerina.compiler.syntax.tree.SyntaxKind.OBJECT_METHOD_DEFINITION;
 import static io.ballerina.compiler.syntax.tree.SyntaxKind.OPEN_BRACE_TOKEN;
 import static io.ballerina.compiler.syntax.tree.SyntaxKind.QUALIFIED_NAME_REFERENCE;
 import static io.ballerina.compiler.syntax.tree.SyntaxKind.SEMICOLON_TOKEN;
 import static io.ballerina.compiler.syntax.tree.SyntaxKind.SPECIFIC_FIELD;
+import static io.ballerina.lib.ai.plugin.ToolAnnotationAnalysisTask.NIL_EXPRESSION;
 import static io.ballerina.lib.ai.plugin.ToolAnnotationConfig.DESCRIPTION_FIELD_NAME;
 import static io.ballerina.lib.ai.plugin.ToolAnnotationConfig.NAME_FIELD_NAME;
 import static io.ballerina.lib.ai.plugin.ToolAnnotationConfig.PARAMETERS_FIELD_NAME;
+import static io.ballerina.lib.ai.plugin.diagnostics.CompilationDiagnostic.UNABLE_TO_GENERATE_SCHEMA_FOR_FUNCTION;
 
 /**
  * Modifies the AI tool annotations with the generated tool configuration.
  */
 class AiSourceModifier implements ModifierTask<SourceModifierContext> {
-    private static final String EMPTY_STRING = "";
+    private static final List<String> CONFIG_FIELD_NAMES = List.of(NAME_FIELD_NAME, DESCRIPTION_FIELD_NAME,
+            PARAMETERS_FIELD_NAME);
+    // Skeleton of the init function generated to initialize the module level agents
+    private static final FunctionDefinitionNode INIT_FUNCTION = (FunctionDefinitionNode) NodeParser
+            .parseModuleMemberDeclaration("function init() returns error? {}");
+    // System property to opt in to generating the tool schemas with the given number of threads instead of serially
+    static final String SCHEMA_GENERATION_PARALLELISM_PROPERTY = "ballerinax.ai.schemaGenerationParallelism";
     private final Map<DocumentId, ModifierContext> modifierContextMap;
     private final Set<ModuleId> modulesWithPredefinedInitMethods;
     private final Set<ModuleId> modulesWithDesugaredAgentsWithInitMethod = new HashSet<>();
+    private final ToolSchemaCache toolSchemaCache;
 
     AiSourceModifier(Map<DocumentId, ModifierContext> modifierContextMap,
-                     Set<ModuleId> modulesWithPredefinedInitMethods) {
+                     Set<ModuleId> modulesWithPredefinedInitMethods, ToolSchemaCache toolSchemaCache) {
         this.modifierContextMap = modifierContextMap;
         this.modulesWithPredefinedInitMethods = modulesWithPredefinedInitMethods;
+        this.toolSchemaCache = toolSchemaCache;
     }
 
     @Override
     public void modify(SourceModifierContext context) {
-        for (Map.Entry<DocumentId, ModifierContext> entry : modifierContextMap.entrySet()) {
-            modifyDocumentWithTools(context, entry.getKey(), entry.getValue());
+        try {
+            generateToolSchemas(context);
+            for (Map.Entry<DocumentId, ModifierContext> entry : modifierContextMap.entrySet()) {
+                modifyDocumentWithTools(context, entry.getKey(), entry.getValue());
+            }
+        } finally {
+            toolSchemaCache.save();
         }
     }
 
+    private void generateToolSchemas(SourceModifierContext context) {
+        List<Map.Entry<AnnotationNode, ToolFunction>> tools = new ArrayList<>();
+        List<ModifierContext> modifierContexts = new ArrayList<>();
+        for (ModifierContext modifierContext : modifierContextMap.values()) {
+            for (Map.Entry<AnnotationNode, ToolFunction> tool : modifierContext.getToolsWithoutSchema().entrySet()) {
+                tools.add(tool);
+                modifierContexts.add(modifierContext);
+            }
+        }
+        if (tools.isEmpty()) {
+            return;
+        }
+
+        toolSchemaCache.load(context.currentPackage().project());
+        Queue<Diagnostic> diagnostics = new ConcurrentLinkedQueue<>();
+        int parallelism = Math.min(tools.size(), Integer.getInteger(SCHEMA_GENERATION_PARALLELISM_PROPERTY, 1));
+        if (parallelism > 1) {
+            // The semantic model is only read while generating the schemas, hence the tools are independent
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                List<ForkJoinTask<?>> tasks = new ArrayList<>();
+                for (int i = 0; i < tools.size(); i++) {
+                    Map.Entry<AnnotationNode, ToolFunction> tool = tools.get(i);
+                    ModifierContext modifierContext = modifierContexts.get(i);
+                    tasks.add(pool.submit(() -> generateToolSchema(modifierContext, tool.getKey(), tool.getValue(),
+                            diagnostics)));
+                }
+                tasks.forEach(ForkJoinTask::join);
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            for (int i = 0; i < tools.size(); i++) {
+                Map.Entry<AnnotationNode, ToolFunction> tool = tools.get(i);
+                generateToolSchema(modifierContexts.get(i), tool.getKey(), tool.getValue(), diagnostics);
+            }
+        }
+        // Report the diagnostics in a deterministic order irrespective of the order the schemas were generated
+        diagnostics.stream()
+                .sorted(Comparator.comparing((Diagnostic diagnostic) -> diagnostic.location().lineRange().fileName())
+                        .thenComparingInt(diagnostic -> diagnostic.location().textRange().startOffset()))
+                .forEach(context::reportDiagnostic);
+    }
+
+    private void generateToolSchema(ModifierContext modifierContext, AnnotationNode annotationNode,
+                                    ToolFunction toolFunction, Queue<Diagnostic> diagnostics) {
+        FunctionSymbol functionSymbol = toolFunction.functionSymbol();
+        String schema;
+        try {
+            String fingerprint = ToolSchemaCache.getFingerprint(functionSymbol, toolFunction.functionDefinitionNode());
+            schema = toolSchemaCache.get(fingerprint);
+            if (schema == null) {
+                schema = SchemaUtils.getParameterSchema(functionSymbol, toolFunction.functionDefinitionNode());
+                toolSchemaCache.put(fingerprint, schema);
+            }
+        } catch (Exception e) {
+            Location functionLocation = functionSymbol.getLocation()
+                    .orElse(toolFunction.functionDefinitionNode().location());
+            diagnostics.add(CompilationDiagnostic.getDiagnostic(UNABLE_TO_GENERATE_SCHEMA_FOR_FUNCTION,
+                    functionLocation, functionSymbol.getName().orElse("unknownFunction")));
+            schema = NIL_EXPRESSION;
+        }
+        // The schema is the only source parsed, as it is generated and cached as a JSON string
+        modifierContext.setParameterSchema(annotationNode, NodeParser.parseExpression(schema));
+    }
+
     private void modifyDocumentWithTools(SourceModifierContext context, DocumentId documentId,
                                          ModifierContext modifierContext) {
         Module module = context.currentPackage().module(documentId.moduleId());
@@ -106,12 +202,12 @@ class AiSourceModifier implements ModifierTask<SourceModifierContext> {
     private List<ModuleMemberDeclarationNode> getModifiedModuleMembers(NodeList<ModuleMemberDeclarationNode> members,
                                                                        ModifierContext modifierContext,
                                                                        DocumentId documentId) {
-        Map<AnnotationNode, AnnotationNode> modifiedAnnotations = getModifiedAnnotations(modifierContext);
+        Map<AnnotationNode, ToolAnnotationConfig> annotationConfigs = modifierContext.getAnnotationConfigMap();
         Set<ModuleVariableDeclarationNode> agentDeclarations = modifierContext.getModuleLevelAgentDeclarations();
         List<ModuleMemberDeclarationNode> modifiedMembers = new ArrayList<>();
 
         for (ModuleMemberDeclarationNode member : members) {
-            modifiedMembers.add(getModifiedModuleMember(member, modifiedAnnotations, agentDeclarations));
+            modifiedMembers.add(getModifiedModuleMember(member, annotationConfigs, agentDeclarations));
         }
         ModuleId moduleId = documentId.moduleId();
         if (!modulesWithPredefinedInitMethods.contains(moduleId)
@@ -124,39 +220,35 @@ class AiSourceModifier implements ModifierTask<SourceModifierContext> {
     }
 
     private ModuleMemberDeclarationNode desugarAgentsWithinInitFunction(ModuleId moduleId) {
-        Set<DocumentId> documentIds = this.modifierContextMap
-                .keySet().stream()
-                .filter(doc -> doc.moduleId().equals(moduleId)).collect(Collectors.toSet());
-        Stream<ModifierContext> modifierContextStream = this.modifierContextMap.entrySet().stream()
-                .filter(entry -> documentIds.contains(entry.getKey())).map(Map.Entry::getValue);
-        List<ModuleVariableDeclarationNode> agentDeclarations = modifierContextStream
-                .map(ModifierContext::getModuleLevelAgentDeclarations).flatMap(Collection::stream).toList();
-        String agentInitializationSourceCode = agentDeclarations.stream().map(Node::toSourceCode)
-                .map(code -> code.replaceFirst(".*:Agent", EMPTY_STRING))
-                .collect(Collectors.joining(EMPTY_STRING));
-        return NodeParser.parseModuleMemberDeclaration("function init() returns error? {"
-                + agentInitializationSourceCode + "}");
+        // The agents are initialized in the order they are declared, irrespective of the order of the documents
+        List<StatementNode> agentInitializations = this.modifierContextMap.entrySet().stream()
+                .filter(entry -> entry.getKey().moduleId().equals(moduleId))
+                .map(Map.Entry::getValue)
+                .map(ModifierContext::getModuleLevelAgentDeclarations).flatMap(Collection::stream)
+                .sorted(Comparator.comparing((ModuleVariableDeclarationNode declaration) ->
+                                declaration.location().lineRange().fileName())
+                        .thenComparingInt(declaration -> declaration.textRange().startOffset()))
+                .map(AiSourceModifier::createAgentInitialization)
+                .toList();
+        FunctionBodyBlockNode functionBody = (FunctionBodyBlockNode) INIT_FUNCTION.functionBody();
+        return INIT_FUNCTION.modify()
+                .withFunctionBody(functionBody.modify()
+                        .withStatements(NodeFactory.createNodeList(agentInitializations)).apply())
+                .apply();
     }
 
-    /**
-     * Retrieves a map of modified annotations based on the provided modifier context.
-     * <p>
-     * This method iterates through the annotation configuration map from the
-     * given {@link ModifierContext}, applies modifications to each annotation using
-     * the {@link #getModifiedAnnotation} method, and returns a new map with the
-     * original annotations as keys and the modified annotations as values.
-     *
-     * @param modifierContext the context containing annotation configurations to be modified
-     * @return a map where the keys are the original {@link AnnotationNode} objects
-     * and the values are the modified {@link AnnotationNode} objects
-     */
-    private Map<AnnotationNode, AnnotationNode> getModifiedAnnotations(ModifierContext modifierContext) {
-        Map<AnnotationNode, AnnotationNode> updatedAnnotationMap = new HashMap<>();
-        for (Map.Entry<AnnotationNode, ToolAnnotationConfig> entry : modifierContext
-                .getAnnotationConfigMap().entrySet()) {
-            updatedAnnotationMap.put(entry.getKey(), getModifiedAnnotation(entry.getKey(), entry.getValue()));
-        }
-        return updatedAnnotationMap;
+    private static StatementNode createAgentInitialization(ModuleVariableDeclarationNode agentDeclaration) {
+        // The agent declarations are analyzed to have a capture binding pattern and an initializer
+        CaptureBindingPatternNode bindingPattern = (CaptureBindingPatternNode) agentDeclaration.typedBindingPattern()
+                .bindingPattern();
+        @SuppressWarnings("OptionalGetWithoutIsPresent")
+        ExpressionNode initializer = agentDeclaration.initializer().get();
+        return NodeFactory.createAssignmentStatementNode(
+                NodeFactory.createSimpleNameReferenceNode(
+                        NodeFactory.createIdentifierToken(bindingPattern.variableName().text())),
+                NodeFactory.createToken(EQUAL_TOKEN),
+                initializer,
+                NodeFactory.createToken(SEMICOLON_TOKEN));
     }
 
     private AnnotationNode getModifiedAnnotation(AnnotationNode targetNode, ToolAnnotationConfig config) {
@@ -172,58 +264,68 @@ class AiSourceModifier implements ModifierTask<SourceModifierContext> {
 
     private AnnotationNode handleAnnotationWithoutMappingConstructor(AnnotationNode targetNode,
                                                                      ToolAnnotationConfig config) {
-        String mappingConstructorExpression = generateConfigMappingConstructor(config);
-        MappingConstructorExpressionNode mappingConstructorNode = (MappingConstructorExpressionNode) NodeParser
-                .parseExpression(mappingConstructorExpression);
-
         Node annotationReference = targetNode.annotReference();
+        MinutiaeList closeBraceTrailingMinutiae = NodeFactory.createEmptyMinutiaeList();
         if (annotationReference.kind() == QUALIFIED_NAME_REFERENCE) {
+            // Move the line break after the annotation reference to after the mapping constructor.
             QualifiedNameReferenceNode qualifiedNameReferenceNode = (QualifiedNameReferenceNode) annotationReference;
-            String identifier = qualifiedNameReferenceNode.identifier().text().replaceAll("\\R", EMPTY_STRING);
-            String modulePrefix = qualifiedNameReferenceNode.modulePrefix().text();
-            annotationReference = NodeFactory.createQualifiedNameReferenceNode(
-                    NodeFactory.createIdentifierToken(modulePrefix),
-                    NodeFactory.createToken(COLON_TOKEN),
-                    NodeFactory.createIdentifierToken(identifier)
-            );
-            Token closeBraceTokenWithNewLine = NodeFactory.createToken(
-                    CLOSE_BRACE_TOKEN,
-                    NodeFactory.createEmptyMinutiaeList(),
-                    NodeFactory.createMinutiaeList(
-                            NodeFactory.createEndOfLineMinutiae(System.lineSeparator())));
-            mappingConstructorNode = mappingConstructorNode.modify().withCloseBrace(closeBraceTokenWithNewLine).apply();
+            IdentifierToken identifier = qualifiedNameReferenceNode.identifier();
+            closeBraceTrailingMinutiae = identifier.trailingMinutiae();
+            annotationReference = qualifiedNameReferenceNode.modify()
+                    .withIdentifier(NodeFactory.createIdentifierToken(identifier.text(),
+                            identifier.leadingMinutiae(), NodeFactory.createEmptyMinutiaeList()))
+                    .apply();
         }
+        MappingConstructorExpressionNode mappingConstructorNode = createConfigMappingConstructor(
+                NodeFactory.createToken(OPEN_BRACE_TOKEN), NodeFactory.createSeparatedNodeList(),
+                NodeFactory.createToken(CLOSE_BRACE_TOKEN, NodeFactory.createEmptyMinutiaeList(),
+                        closeBraceTrailingMinutiae), config);
         return NodeFactory.createAnnotationNode(targetNode.atToken(), annotationReference, mappingConstructorNode);
     }
 
-    private String generateConfigMappingConstructor(ToolAnnotationConfig config) {
-        return generateConfigMappingConstructor(config, OPEN_BRACE_TOKEN.stringValue(),
-                CLOSE_BRACE_TOKEN.stringValue());
-    }
-
-    private String generateConfigMappingConstructor(ToolAnnotationConfig config, String openBraceSource,
-                                                    String closeBraceSource) {
-        String name = config.name().replaceAll("\\R", " ");
-        return openBraceSource + String.format("name:%s,description:%s,parameters:%s",
-                name,
-                config.description() != null ? config.description().replaceAll("\\R", " ") : name,
-                config.parameterSchema()) + closeBraceSource;
-    }
-
     private AnnotationNode handleAnnotationWithMappingConstructor(AnnotationNode targetNode,
                                                                   ToolAnnotationConfig config) {
         MappingConstructorExpressionNode mappingConstructorNode = getMappingConstructorExpressionNode(targetNode);
-        Set<String> existingFieldNames = extractFieldNames(mappingConstructorNode.fields());
-        List<MappingFieldNode> missingFields = getMissingFields(existingFieldNames, config);
-
-        String missingFieldSourceCode = generateMissingFieldSourceCode(missingFields);
-        if (missingFieldSourceCode == null) {
+        SeparatedNodeList<MappingFieldNode> fields = mappingConstructorNode.fields();
+        if (extractFieldNames(fields).containsAll(CONFIG_FIELD_NAMES)) {
             return targetNode;
         }
-        String annotationSourceCode = targetNode.toSourceCode();
-        String modifiedAnnotationSourceCode = getModifiedAnnotationSourceCode(annotationSourceCode,
-                missingFieldSourceCode);
-        return NodeParser.parseAnnotation(modifiedAnnotationSourceCode);
+        // The missing fields are added before the close brace, without adding line breaks.
+        MappingConstructorExpressionNode modifiedMappingConstructorNode = createConfigMappingConstructor(
+                mappingConstructorNode.openBrace(), fields, mappingConstructorNode.closeBrace(), config);
+        return NodeFactory.createAnnotationNode(targetNode.atToken(), targetNode.annotReference(),
+                modifiedMappingConstructorNode);
+    }
+
+    private MappingConstructorExpressionNode createConfigMappingConstructor(Token openBrace,
+                                                                            SeparatedNodeList<MappingFieldNode> fields,
+                                                                            Token closeBrace,
+                                                                            ToolAnnotationConfig config) {
+        List<Node> fieldsWithSeparators = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++) {
+            fieldsWithSeparators.add(fields.get(i));
+            if (i < fields.separatorSize()) {
+                fieldsWithSeparators.add(fields.getSeparator(i));
+            }
+        }
+        Set<String> existingFieldNames = extractFieldNames(fields);
+        for (String fieldName : CONFIG_FIELD_NAMES) {
+            if (existingFieldNames.contains(fieldName)) {
+                continue;
+            }
+            if (!fieldsWithSeparators.isEmpty()
+                    && fieldsWithSeparators.get(fieldsWithSeparators.size() - 1).kind() != COMMA_TOKEN) {
+                fieldsWithSeparators.add(NodeFactory.createToken(COMMA_TOKEN));
+            }
+            fieldsWithSeparators.add(NodeFactory.createSpecificFieldNode(
+                    null,
+                    NodeFactory.createIdentifierToken(fieldName),
+                    NodeFactory.createToken(COLON_TOKEN),
+                    config.get(fieldName)
+            ));
+        }
+        return NodeFactory.createMappingConstructorExpressionNode(openBrace,
+                NodeFactory.createSeparatedNodeList(fieldsWithSeparators), closeBrace);
     }
 
     private Set<String> extractFieldNames(SeparatedNodeList<MappingFieldNode> fields) {
@@ -234,62 +336,26 @@ class AiSourceModifier implements ModifierTask<SourceModifierContext> {
                 .collect(Collectors.toSet());
     }
 
-    private String generateMissingFieldSourceCode(List<MappingFieldNode> missingFields) {
-        return missingFields.isEmpty() ? null :
-                missingFields.stream()
-                        .map(Node::toSourceCode)
-                        .collect(Collectors.joining(COMMA_TOKEN.stringValue()));
-    }
-
-    private static String getModifiedAnnotationSourceCode(String annotationSourceCode,
-                                                          String missingFieldSourceCode) {
-        int closeBraceTokenIndex = annotationSourceCode.lastIndexOf(CLOSE_BRACE_TOKEN.stringValue());
-        String sourceBeforeCloseBrace = annotationSourceCode.substring(0, closeBraceTokenIndex);
-        String sourceAfterCloseBrace = annotationSourceCode.substring(closeBraceTokenIndex);
-
-        String endsWithBracesRegex = ".*\\{\\s*$";
-        if (sourceBeforeCloseBrace.matches(endsWithBracesRegex)) {
-            return sourceBeforeCloseBrace + missingFieldSourceCode + sourceAfterCloseBrace;
-        }
-        return sourceBeforeCloseBrace + COMMA_TOKEN.stringValue() + missingFieldSourceCode + sourceAfterCloseBrace;
-    }
-
     private MappingConstructorExpressionNode getMappingConstructorExpressionNode(AnnotationNode targetNode) {
         @SuppressWarnings("OptionalGetWithoutIsPresent")
         MappingConstructorExpressionNode mappingConstructorExpressionNode = targetNode.annotValue().get();
         return mappingConstructorExpressionNode;
     }
 
-    private List<MappingFieldNode> getMissingFields(Set<String> existingFieldNames, ToolAnnotationConfig config) {
-        List<String> requiredFields = List.of(NAME_FIELD_NAME, DESCRIPTION_FIELD_NAME, PARAMETERS_FIELD_NAME);
-        List<MappingFieldNode> missingFields = new ArrayList<>();
-        for (String fieldName : requiredFields) {
-            if (!existingFieldNames.contains(fieldName)) {
-                missingFields.add(NodeFactory.createSpecificFieldNode(
-                        null,
-                        NodeFactory.createIdentifierToken(fieldName),
-                        NodeFactory.createToken(COLON_TOKEN),
-                        NodeParser.parseExpression(config.get(fieldName))
-                ));
-            }
-        }
-        return missingFields;
-    }
-
     private ModuleMemberDeclarationNode getModifiedModuleMember(ModuleMemberDeclarationNode member,
-                                                                Map<AnnotationNode, AnnotationNode> modifiedAnnotations,
+                                                                Map<AnnotationNode, ToolAnnotationConfig> configs,
                                                                 Set<ModuleVariableDeclarationNode> agentDeclarations) {
         return switch (member.kind()) {
-            case FUNCTION_DEFINITION -> modifyFunction((FunctionDefinitionNode) member, modifiedAnnotations);
+            case FUNCTION_DEFINITION -> modifyFunction((FunctionDefinitionNode) member, configs);
             case MODULE_VAR_DECL -> modifyVariableDeclaration((ModuleVariableDeclarationNode) member,
                     agentDeclarations);
-            case CLASS_DEFINITION -> modifyClassDefinition((ClassDefinitionNode) member, modifiedAnnotations);
+            case CLASS_DEFINITION -> modifyClassDefinition((ClassDefinitionNode) member, configs);
             default -> member;
         };
     }
 
     private ModuleMemberDeclarationNode modifyClassDefinition(ClassDefinitionNode classDefinitionNode,
-                                                              Map<AnnotationNode, AnnotationNode> modifiedAnnotations) {
+                                                              Map<AnnotationNode, ToolAnnotationConfig> configs) {
         NodeList<Node> members = classDefinitionNode.members();
         ArrayList<Node> modifiedMembers = new ArrayList<>();
 
@@ -297,8 +363,7 @@ class AiSourceModifier implements ModifierTask<SourceModifierContext> {
             if (member.kind() == OBJECT_METHOD_DEFINITION) {
                 FunctionDefinitionNode methodDeclarationNode = (FunctionDefinitionNode) member;
                 if (methodDeclarationNode.metadata().isPresent()) {
-                    MetadataNode modifiedMetadata = modifyMetadata(methodDeclarationNode.metadata().get(),
-                            modifiedAnnotations);
+                    MetadataNode modifiedMetadata = modifyMetadata(methodDeclarationNode.metadata().get(), configs);
                     methodDeclarationNode = methodDeclarationNode.modify().withMetadata(modifiedMetadata).apply();
                 }
                 modifiedMembers.add(methodDeclarationNode);
@@ -314,28 +379,57 @@ class AiSourceModifier implements ModifierTask<SourceModifierContext> {
         if (!agentDeclarations.contains(member)) {
             return member;
         }
-        String sourceCode = member.toSourceCode();
-        int numberOfNewLines = sourceCode.length() - sourceCode.replaceAll("\\R", EMPTY_STRING).length();
-        sourceCode = sourceCode.replace(member.leadingMinutiae().toString(), EMPTY_STRING);
-        String modifiedSource = sourceCode.split(EQUAL_TOKEN.stringValue())[0].trim() + SEMICOLON_TOKEN.stringValue()
-                + System.lineSeparator().repeat(numberOfNewLines);
-        return NodeParser.parseModuleMemberDeclaration(modifiedSource);
+        // The initializer is moved to the init function. The line breaks removed along with it are added after the
+        // semicolon, to keep the line numbers of the following members unchanged.
+        Token semicolon = member.semicolonToken();
+        int removedLineBreaks = semicolon.lineRange().startLine().line()
+                - member.typedBindingPattern().lineRange().endLine().line()
+                - countLineBreaks(member.typedBindingPattern().trailingMinutiae())
+                - countLineBreaks(semicolon.leadingMinutiae());
+        MinutiaeList trailingMinutiae = semicolon.trailingMinutiae();
+        for (int i = 0; i < removedLineBreaks; i++) {
+            trailingMinutiae = trailingMinutiae.add(NodeFactory.createEndOfLineMinutiae(System.lineSeparator()));
+        }
+        return member.modify()
+                .withEqualsToken(null)
+                .withInitializer(null)
+                .withSemicolonToken(semicolon.modify(semicolon.leadingMinutiae(), trailingMinutiae))
+                .apply();
+    }
+
+    private static int countLineBreaks(MinutiaeList minutiaeList) {
+        int lineBreaks = 0;
+        for (Minutiae minutiae : minutiaeList) {
+            if (minutiae.kind() == END_OF_LINE_MINUTIAE) {
+                lineBreaks++;
+            }
+        }
+        return lineBreaks;
     }
 
     private FunctionDefinitionNode modifyFunction(FunctionDefinitionNode functionNode,
-                                                  Map<AnnotationNode, AnnotationNode> modifiedAnnotations) {
+                                                  Map<AnnotationNode, ToolAnnotationConfig> configs) {
         if (functionNode.metadata().isEmpty()) {
             return functionNode;
         }
-        MetadataNode modifiedMetadata = modifyMetadata(functionNode.metadata().get(), modifiedAnnotations);
+        MetadataNode modifiedMetadata = modifyMetadata(functionNode.metadata().get(), configs);
         return functionNode.modify().withMetadata(modifiedMetadata).apply();
     }
 
-    private MetadataNode modifyMetadata(MetadataNode metadata,
-                                        Map<AnnotationNode, AnnotationNode> modifiedAnnotations) {
+    private MetadataNode modifyMetadata(MetadataNode metadata, Map<AnnotationNode, ToolAnnotationConfig> configs) {
         List<AnnotationNode> updatedAnnotations = new ArrayList<>();
+        boolean isModified = false;
         for (AnnotationNode annotation : metadata.annotations()) {
-            updatedAnnotations.add(modifiedAnnotations.getOrDefault(annotation, annotation));
+            ToolAnnotationConfig config = configs.get(annotation);
+            if (config == null) {
+                updatedAnnotations.add(annotation);
+                continue;
+            }
+            updatedAnnotations.add(getModifiedAnnotation(annotation, config));
+            isModified = true;
+        }
+        if (!isModified) {
+            return metadata;
         }
         return metadata.modify().withAnnotations(NodeFactory.createNodeList(updatedAnnotations)).apply();
     }
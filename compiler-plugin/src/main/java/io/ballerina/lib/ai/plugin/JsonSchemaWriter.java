@@ -0,0 +1,463 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.lib.ai.plugin;
+
+import io.ballerina.compiler.api.symbols.ArrayTypeSymbol;
+import io.ballerina.compiler.api.symbols.ConstantSymbol;
+import io.ballerina.compiler.api.symbols.IntersectionTypeSymbol;
+import io.ballerina.compiler.api.symbols.RecordFieldSymbol;
+import io.ballerina.compiler.api.symbols.RecordTypeSymbol;
+import io.ballerina.compiler.api.symbols.SingletonTypeSymbol;
+import io.ballerina.compiler.api.symbols.TableTypeSymbol;
+import io.ballerina.compiler.api.symbols.TupleTypeSymbol;
+import io.ballerina.compiler.api.symbols.TypeDescKind;
+import io.ballerina.compiler.api.symbols.TypeReferenceTypeSymbol;
+import io.ballerina.compiler.api.symbols.TypeSymbol;
+import io.ballerina.compiler.api.symbols.UnionTypeSymbol;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Writes compact JSON schemas of Ballerina types in a single pass over the type symbols.
+ * <p>
+ * The schemas only include the keywords supported by the input schemas of the tools, so that they can be used as the
+ * value of the {@code parameters} field of the tool annotation. Constraints that cannot be expressed by these
+ * keywords, such as the value ranges of the integer subtypes and the rest fields of the records, are not written.
+ * The strings are written with the escapes common to JSON and Ballerina, since the schema is added to the source as a
+ * Ballerina mapping constructor.
+ * <p>
+ * The schemas of the named record types are written once as definitions, which are referred to by {@code $ref}.
+ * The agent shares the definitions among its tools, and inlines them for the models that do not resolve references.
+ */
+final class JsonSchemaWriter {
+    private static final String TYPE = "type";
+    private static final String ITEMS = "items";
+    private static final String REQUIRED = "required";
+    private static final String PROPERTIES = "properties";
+    private static final String ENUM = "enum";
+    private static final String CONST = "const";
+    private static final String REF = "$ref";
+    private static final String DEFINITIONS = "$defs";
+    private static final String DEFINITION_REFERENCE_PREFIX = "#/$defs/";
+    private static final String ONE_OF = "oneOf";
+    private static final String NULLABLE = "nullable";
+    private static final String DESCRIPTION = "description";
+    private static final String DEFAULT = "default";
+    private static final String STRING = "string";
+    private static final String INTEGER = "integer";
+    private static final String NUMBER = "number";
+    private static final String BOOLEAN = "boolean";
+    private static final String OBJECT = "object";
+    private static final String ARRAY = "array";
+    private static final String NULL = "null";
+    private static final String TRUE = "true";
+
+    private final StringBuilder json = new StringBuilder();
+    // Schemas of the named record types, by the definition name
+    private final Map<String, String> definitions;
+    // Definition names of the named record types, by the type signature
+    private final Map<String, String> definitionNames;
+    // Referred types of the schema being written, which are used to detect cyclic types
+    private final Set<String> typesInProgress;
+
+    JsonSchemaWriter() {
+        this(new LinkedHashMap<>(), new HashMap<>(), new HashSet<>());
+    }
+
+    private JsonSchemaWriter(Map<String, String> definitions, Map<String, String> definitionNames,
+                             Set<String> typesInProgress) {
+        this.definitions = definitions;
+        this.definitionNames = definitionNames;
+        this.typesInProgress = typesInProgress;
+    }
+
+    JsonSchemaWriter beginObject() {
+        separate();
+        json.append('{');
+        return this;
+    }
+
+    JsonSchemaWriter endObject() {
+        json.append('}');
+        return this;
+    }
+
+    JsonSchemaWriter beginArray() {
+        separate();
+        json.append('[');
+        return this;
+    }
+
+    JsonSchemaWriter endArray() {
+        json.append(']');
+        return this;
+    }
+
+    JsonSchemaWriter name(String name) {
+        separate();
+        writeString(name);
+        json.append(':');
+        return this;
+    }
+
+    JsonSchemaWriter value(String value) {
+        separate();
+        writeString(value);
+        return this;
+    }
+
+    /**
+     * Writes the schema of the given type.
+     *
+     * @param typeSymbol   the type of the value
+     * @param description  the description of the value, or {@code null} if there is no description
+     * @param defaultValue the JSON literal of the default value, or {@code null} if there is no default value
+     * @return this writer
+     * @throws IllegalArgumentException if the type is cyclic or is not supported by the tool input schemas
+     */
+    JsonSchemaWriter schema(TypeSymbol typeSymbol, String description, String defaultValue) {
+        writeSchema(typeSymbol, false, description, defaultValue);
+        return this;
+    }
+
+    /**
+     * Writes the definitions referred to by the schemas written so far.
+     *
+     * @return this writer
+     */
+    JsonSchemaWriter definitions() {
+        if (definitions.isEmpty()) {
+            return this;
+        }
+        name(DEFINITIONS).beginObject();
+        definitions.forEach((definitionName, schema) -> name(definitionName).literal(schema));
+        return endObject();
+    }
+
+    @Override
+    public String toString() {
+        return json.toString();
+    }
+
+    private void writeSchema(TypeSymbol typeSymbol, boolean isNullable, String description, String defaultValue) {
+        switch (typeSymbol.typeKind()) {
+            case TYPE_REFERENCE -> {
+                TypeReferenceTypeSymbol typeReference = (TypeReferenceTypeSymbol) typeSymbol;
+                String typeName = typeReference.signature();
+                if (!typesInProgress.add(typeName)) {
+                    throw new IllegalArgumentException("cyclic type '" + typeName + "' is not supported");
+                }
+                if (typeReference.typeDescriptor().typeKind() == TypeDescKind.RECORD) {
+                    writeReferenceSchema(typeReference, isNullable, description);
+                } else {
+                    writeSchema(typeReference.typeDescriptor(), isNullable, description, defaultValue);
+                }
+                typesInProgress.remove(typeName);
+            }
+            case INTERSECTION -> writeSchema(((IntersectionTypeSymbol) typeSymbol).effectiveTypeDescriptor(),
+                    isNullable, description, defaultValue);
+            case UNION -> writeUnionSchema((UnionTypeSymbol) typeSymbol, isNullable, description, defaultValue);
+            case SINGLETON -> {
+                SingletonTypeSymbol singletonType = (SingletonTypeSymbol) typeSymbol;
+                writeEnumSchema(getLiteralType(singletonType), List.of(getLiteral(singletonType)), isNullable,
+                        description, defaultValue);
+            }
+            case NIL -> writeNilSchema();
+            default -> {
+                beginObject();
+                writeTypeKeywords(typeSymbol);
+                writeAnnotationKeywords(isNullable, description, defaultValue);
+                endObject();
+            }
+        }
+    }
+
+    private void writeReferenceSchema(TypeReferenceTypeSymbol typeReference, boolean isNullable,
+                                      String description) {
+        String definitionName = definitionNames.get(typeReference.signature());
+        if (definitionName == null) {
+            definitionName = getDefinitionName(typeReference);
+            definitionNames.put(typeReference.signature(), definitionName);
+            JsonSchemaWriter definitionWriter = new JsonSchemaWriter(definitions, definitionNames, typesInProgress);
+            definitionWriter.writeSchema(typeReference.typeDescriptor(), false, null, null);
+            definitions.put(definitionName, definitionWriter.toString());
+        }
+        beginObject().name(REF).value(DEFINITION_REFERENCE_PREFIX + definitionName);
+        writeAnnotationKeywords(isNullable, description, null);
+        endObject();
+    }
+
+    private String getDefinitionName(TypeReferenceTypeSymbol typeReference) {
+        // Types with the same name from different modules are distinguished by a suffix.
+        String typeName = unescapeIdentifier(typeReference.definition().getName().orElse(OBJECT));
+        String definitionName = typeName;
+        for (int suffix = 1; definitionNames.containsValue(definitionName); suffix++) {
+            definitionName = typeName + "_" + suffix;
+        }
+        return definitionName;
+    }
+
+    private void writeTypeKeywords(TypeSymbol typeSymbol) {
+        switch (typeSymbol.typeKind()) {
+            case STRING, STRING_CHAR, INT, BYTE, INT_SIGNED8, INT_SIGNED16, INT_SIGNED32, INT_UNSIGNED8,
+                 INT_UNSIGNED16, INT_UNSIGNED32, FLOAT, DECIMAL, BOOLEAN ->
+                    name(TYPE).value(getPrimitiveType(typeSymbol.typeKind()));
+            case ARRAY -> {
+                name(TYPE).value(ARRAY).name(ITEMS);
+                writeSchema(((ArrayTypeSymbol) typeSymbol).memberTypeDescriptor(), false, null, null);
+            }
+            case TUPLE -> {
+                TupleTypeSymbol tupleType = (TupleTypeSymbol) typeSymbol;
+                List<TypeSymbol> memberTypes = new ArrayList<>(tupleType.memberTypeDescriptors());
+                tupleType.restTypeDescriptor().ifPresent(memberTypes::add);
+                name(TYPE).value(ARRAY).name(ITEMS);
+                writeAlternativeSchemas(getDistinctTypes(memberTypes));
+            }
+            case TABLE -> {
+                name(TYPE).value(ARRAY).name(ITEMS);
+                writeSchema(((TableTypeSymbol) typeSymbol).rowTypeParameter(), false, null, null);
+            }
+            case MAP -> name(TYPE).value(OBJECT);
+            case RECORD -> writeRecordKeywords((RecordTypeSymbol) typeSymbol);
+            case JSON, ANYDATA -> {
+                // Any value is accepted, hence the schema does not restrict the type.
+            }
+            default -> throw new IllegalArgumentException("type '" + typeSymbol.signature() + "' is not supported");
+        }
+    }
+
+    private void writeRecordKeywords(RecordTypeSymbol recordType) {
+        name(TYPE).value(OBJECT);
+        Map<String, RecordFieldSymbol> fields = recordType.fieldDescriptors();
+        List<String> requiredFields = fields.entrySet().stream()
+                .filter(field -> !field.getValue().isOptional() && !field.getValue().hasDefaultValue())
+                .map(field -> unescapeIdentifier(field.getKey()))
+                .toList();
+        if (!requiredFields.isEmpty()) {
+            name(REQUIRED).beginArray();
+            requiredFields.forEach(this::value);
+            endArray();
+        }
+        if (fields.isEmpty()) {
+            return;
+        }
+        name(PROPERTIES).beginObject();
+        for (Map.Entry<String, RecordFieldSymbol> field : fields.entrySet()) {
+            name(unescapeIdentifier(field.getKey()));
+            writeSchema(field.getValue().typeDescriptor(), false, Utils.getDescription(field.getValue()), null);
+        }
+        endObject();
+    }
+
+    private void writeUnionSchema(UnionTypeSymbol unionType, boolean isNullable, String description,
+                                  String defaultValue) {
+        List<TypeSymbol> memberTypes = new ArrayList<>();
+        boolean isNullableUnion = addUnionMembers(unionType, memberTypes) || isNullable;
+        // Singleton members of the same type are merged into a single enum, as done for the Ballerina enums
+        Map<String, List<String>> enumValues = new LinkedHashMap<>();
+        List<TypeSymbol> otherMemberTypes = new ArrayList<>();
+        for (TypeSymbol memberType : memberTypes) {
+            Optional<SingletonTypeSymbol> singletonType = getSingletonType(memberType);
+            if (singletonType.isPresent()) {
+                enumValues.computeIfAbsent(getLiteralType(singletonType.get()), type -> new ArrayList<>())
+                        .add(getLiteral(singletonType.get()));
+            } else {
+                otherMemberTypes.add(memberType);
+            }
+        }
+
+        otherMemberTypes = getDistinctTypes(otherMemberTypes);
+        for (TypeSymbol memberType : otherMemberTypes) {
+            // Enums are subsumed by the members of the same primitive type
+            enumValues.remove(getSchemaKey(memberType));
+        }
+        int alternativeCount = enumValues.size() + otherMemberTypes.size();
+        if (alternativeCount == 0) {
+            writeNilSchema();
+        } else if (alternativeCount == 1 && enumValues.isEmpty()) {
+            writeSchema(otherMemberTypes.get(0), isNullableUnion, description, defaultValue);
+        } else if (alternativeCount == 1) {
+            Map.Entry<String, List<String>> enumValue = enumValues.entrySet().iterator().next();
+            writeEnumSchema(enumValue.getKey(), enumValue.getValue(), isNullableUnion, description, defaultValue);
+        } else {
+            beginObject().name(ONE_OF).beginArray();
+            enumValues.forEach((type, literals) -> writeEnumSchema(type, literals, false, null, null));
+            otherMemberTypes.forEach(memberType -> writeSchema(memberType, false, null, null));
+            endArray();
+            // The default value is not supported by the oneOf schemas.
+            writeAnnotationKeywords(isNullableUnion, description, null);
+            endObject();
+        }
+    }
+
+    private static boolean addUnionMembers(UnionTypeSymbol unionType, List<TypeSymbol> memberTypes) {
+        boolean isNullable = false;
+        for (TypeSymbol memberType : unionType.memberTypeDescriptors()) {
+            TypeSymbol referredType = getReferredType(memberType);
+            if (referredType.typeKind() == TypeDescKind.NIL) {
+                isNullable = true;
+            } else if (referredType.typeKind() == TypeDescKind.UNION) {
+                isNullable |= addUnionMembers((UnionTypeSymbol) referredType, memberTypes);
+            } else {
+                memberTypes.add(memberType);
+            }
+        }
+        return isNullable;
+    }
+
+    private void writeAlternativeSchemas(List<TypeSymbol> typeSymbols) {
+        if (typeSymbols.size() == 1) {
+            writeSchema(typeSymbols.get(0), false, null, null);
+            return;
+        }
+        beginObject().name(ONE_OF).beginArray();
+        typeSymbols.forEach(typeSymbol -> writeSchema(typeSymbol, false, null, null));
+        endArray().endObject();
+    }
+
+    private void writeEnumSchema(String type, List<String> literals, boolean isNullable, String description,
+                                 String defaultValue) {
+        beginObject().name(TYPE).value(type).name(ENUM).beginArray();
+        literals.forEach(this::literal);
+        if (isNullable) {
+            literal(NULL);
+        }
+        endArray();
+        writeAnnotationKeywords(isNullable, description, defaultValue);
+        endObject();
+    }
+
+    private void writeNilSchema() {
+        // The nil value is the only possible value, hence it is resolved as a constant at registration.
+        beginObject().name(CONST).literal(NULL).endObject();
+    }
+
+    private void writeAnnotationKeywords(boolean isNullable, String description, String defaultValue) {
+        if (isNullable) {
+            name(NULLABLE).literal(TRUE);
+        }
+        if (description != null) {
+            name(DESCRIPTION).value(description);
+        }
+        if (defaultValue != null) {
+            name(DEFAULT).literal(defaultValue);
+        }
+    }
+
+    private JsonSchemaWriter literal(String literal) {
+        separate();
+        json.append(literal);
+        return this;
+    }
+
+    private void separate() {
+        if (json.isEmpty()) {
+            return;
+        }
+        char previous = json.charAt(json.length() - 1);
+        if (previous != '{' && previous != '[' && previous != ':') {
+            json.append(',');
+        }
+    }
+
+    private void writeString(String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            switch (character) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                // Other control characters have no escape common to JSON and Ballerina strings.
+                default -> json.append(Character.isISOControl(character) ? ' ' : character);
+            }
+        }
+        json.append('"');
+    }
+
+    private static String getLiteral(SingletonTypeSymbol singletonType) {
+        String literal = singletonType.signature();
+        if (literal.startsWith("\"")) {
+            // String literals are already quoted and escaped.
+            return literal;
+        }
+        return literal.replaceFirst("[dDfF]$", "");
+    }
+
+    private static String getLiteralType(SingletonTypeSymbol singletonType) {
+        String primitiveType = getPrimitiveType(getReferredType(singletonType.originalType()).typeKind());
+        if (primitiveType == null) {
+            throw new IllegalArgumentException("singleton type '" + singletonType.signature() + "' is not supported");
+        }
+        return primitiveType;
+    }
+
+    private static String getPrimitiveType(TypeDescKind typeKind) {
+        return switch (typeKind) {
+            case STRING, STRING_CHAR -> STRING;
+            case INT, BYTE, INT_SIGNED8, INT_SIGNED16, INT_SIGNED32, INT_UNSIGNED8, INT_UNSIGNED16, INT_UNSIGNED32 ->
+                    INTEGER;
+            case FLOAT, DECIMAL -> NUMBER;
+            case BOOLEAN -> BOOLEAN;
+            default -> null;
+        };
+    }
+
+    private static Optional<SingletonTypeSymbol> getSingletonType(TypeSymbol typeSymbol) {
+        if (typeSymbol instanceof ConstantSymbol constantSymbol) {
+            return getSingletonType(constantSymbol.typeDescriptor());
+        }
+        TypeSymbol referredType = getReferredType(typeSymbol);
+        return referredType.typeKind() == TypeDescKind.SINGLETON
+                ? Optional.of((SingletonTypeSymbol) referredType) : Optional.empty();
+    }
+
+    private static TypeSymbol getReferredType(TypeSymbol typeSymbol) {
+        TypeSymbol referredType = typeSymbol;
+        while (referredType.typeKind() == TypeDescKind.TYPE_REFERENCE) {
+            referredType = ((TypeReferenceTypeSymbol) referredType).typeDescriptor();
+        }
+        return referredType;
+    }
+
+    private static List<TypeSymbol> getDistinctTypes(List<TypeSymbol> typeSymbols) {
+        Map<String, TypeSymbol> distinctTypes = new LinkedHashMap<>();
+        typeSymbols.forEach(typeSymbol -> distinctTypes.putIfAbsent(getSchemaKey(typeSymbol), typeSymbol));
+        return new ArrayList<>(distinctTypes.values());
+    }
+
+    private static String getSchemaKey(TypeSymbol typeSymbol) {
+        // Types written with the same schema, such as int and byte, share the key.
+        String primitiveType = getPrimitiveType(getReferredType(typeSymbol).typeKind());
+        return primitiveType != null ? primitiveType : typeSymbol.signature();
+    }
+
+    static String unescapeIdentifier(String identifier) {
+        return identifier.startsWith("'") ? identifier.substring(1) : identifier;
+    }
+}
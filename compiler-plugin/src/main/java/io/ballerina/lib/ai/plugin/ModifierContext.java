@@ -18,20 +18,26 @@
 
 package io.ballerina.lib.ai.plugin;
 
+import io.ballerina.compiler.api.symbols.FunctionSymbol;
 import io.ballerina.compiler.syntax.tree.AnnotationNode;
+import io.ballerina.compiler.syntax.tree.ExpressionNode;
+import io.ballerina.compiler.syntax.tree.FunctionDefinitionNode;
 import io.ballerina.compiler.syntax.tree.ModuleVariableDeclarationNode;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Maintains a mapping between annotation nodes and their configurations.
+ * <p>
+ * The context is safe to be updated concurrently, as the schemas of the tools are generated in parallel.
  */
 class ModifierContext {
-    private final Map<AnnotationNode, ToolAnnotationConfig> annotationConfigMap = new HashMap<>();
-    private final Set<ModuleVariableDeclarationNode> moduleLevelAgentDeclaration = new HashSet<>();
+    private final Map<AnnotationNode, ToolAnnotationConfig> annotationConfigMap = new ConcurrentHashMap<>();
+    // Tools whose parameter schemas are to be generated before modifying the source
+    private final Map<AnnotationNode, ToolFunction> toolsWithoutSchema = new ConcurrentHashMap<>();
+    private final Set<ModuleVariableDeclarationNode> moduleLevelAgentDeclaration = ConcurrentHashMap.newKeySet();
 
     void add(ModuleVariableDeclarationNode node) {
         moduleLevelAgentDeclaration.add(node);
@@ -41,6 +47,21 @@ class ModifierContext {
         annotationConfigMap.put(node, config);
     }
 
+    void add(AnnotationNode node, ToolAnnotationConfig config, ToolFunction toolFunction) {
+        annotationConfigMap.put(node, config);
+        toolsWithoutSchema.put(node, toolFunction);
+    }
+
+    void setParameterSchema(AnnotationNode node, ExpressionNode parameterSchema) {
+        annotationConfigMap.computeIfPresent(node, (annotationNode, config) ->
+                new ToolAnnotationConfig(config.name(), config.description(), parameterSchema));
+        toolsWithoutSchema.remove(node);
+    }
+
+    Map<AnnotationNode, ToolFunction> getToolsWithoutSchema() {
+        return toolsWithoutSchema;
+    }
+
     Map<AnnotationNode, ToolAnnotationConfig> getAnnotationConfigMap() {
         return annotationConfigMap;
     }
@@ -50,16 +71,21 @@ class ModifierContext {
     }
 }
 
+record ToolFunction(
+        FunctionSymbol functionSymbol,
+        FunctionDefinitionNode functionDefinitionNode) {
+}
+
 record ToolAnnotationConfig(
-        String name,
-        String description,
-        String parameterSchema) {
+        ExpressionNode name,
+        ExpressionNode description,
+        ExpressionNode parameterSchema) {
 
     public static final String NAME_FIELD_NAME = "name";
     public static final String DESCRIPTION_FIELD_NAME = "description";
     public static final String PARAMETERS_FIELD_NAME = "parameters";
 
-    public String get(String field) {
+    public ExpressionNode get(String field) {
         return switch (field) {
             case NAME_FIELD_NAME -> name();
             case DESCRIPTION_FIELD_NAME -> description();
@@ -73,7 +73,9 @@ class ModuleLevelAgentAnalysisTask implements AnalysisTask<SyntaxNodeAnalysisCon
         String agentModulePrefix = getAgentModuleNamePrefix(context);
         if (!identifier.text().equals(AGENT_CLASS_NAME)
                 || !modulePrefix.text().equals(agentModulePrefix)
-                || moduleVariableDeclarationNode.initializer().isEmpty()) {
+                || moduleVariableDeclarationNode.initializer().isEmpty()
+                || moduleVariableDeclarationNode.typedBindingPattern().bindingPattern().kind()
+                != SyntaxKind.CAPTURE_BINDING_PATTERN) {
             return;
         }
         validateAgentFinalQualifier(context, moduleVariableDeclarationNode);
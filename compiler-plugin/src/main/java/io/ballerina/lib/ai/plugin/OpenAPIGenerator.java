@@ -38,7 +38,10 @@ import io.ballerina.openapi.service.mapper.model.OASResult;
 import io.ballerina.openapi.service.mapper.model.ServiceDeclaration;
 import io.ballerina.openapi.service.mapper.model.ServiceNode;
 import io.ballerina.projects.BuildOptions;
+import io.ballerina.projects.DocumentId;
+import io.ballerina.projects.ModuleId;
 import io.ballerina.projects.Package;
+import io.ballerina.projects.PackageCompilation;
 import io.ballerina.projects.Project;
 import io.ballerina.projects.plugins.AnalysisTask;
 import io.ballerina.projects.plugins.SyntaxNodeAnalysisContext;
@@ -61,6 +64,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import static io.ballerina.openapi.service.mapper.Constants.HYPHEN;
 import static io.ballerina.openapi.service.mapper.Constants.OPENAPI_SUFFIX;
@@ -82,6 +87,9 @@ public class OpenAPIGenerator implements AnalysisTask<SyntaxNodeAnalysisContext>
 
     static boolean isErrorPrinted = false;
 
+    // Lookups shared by the services of the compilation, which are otherwise repeated for each service
+    private CompilationCache compilationCache;
+
     static void setIsWarningPrinted() {
         OpenAPIGenerator.isErrorPrinted = true;
     }
@@ -97,12 +105,10 @@ public class OpenAPIGenerator implements AnalysisTask<SyntaxNodeAnalysisContext>
         if (!buildOptions.exportOpenAPI()) {
             return;
         }
-        boolean hasErrors = context.compilation().diagnosticResult()
-                .diagnostics().stream()
-                .anyMatch(d -> DiagnosticSeverity.ERROR.equals(d.diagnosticInfo().severity()));
+        CompilationCache cache = getCompilationCache(context.compilation());
 
         // if there are any compilation errors, do not proceed
-        if (hasErrors) {
+        if (cache.hasErrors) {
             if (!isErrorPrinted) {
                 setIsWarningPrinted();
                 PrintStream outStream = System.out;
@@ -116,15 +122,20 @@ public class OpenAPIGenerator implements AnalysisTask<SyntaxNodeAnalysisContext>
         Optional<Path> path = currentPackage.project().documentPath(context.documentId());
         Path inputPath = path.orElse(null);
         ServiceDeclarationNode serviceNode = (ServiceDeclarationNode) context.node();
-        Map<Integer, String> services = new HashMap<>();
+        ModuleId moduleId = context.moduleId();
         List<Diagnostic> diagnostics = new ArrayList<>();
 
         // Spec generation won't proceed, If diagnostic includes error type.
-        if (containErrors(semanticModel.diagnostics())) {
+        if (cache.hasSemanticErrors(moduleId, semanticModel)) {
             diagnostics.addAll(semanticModel.diagnostics());
-        } else if (isAiAgentService(serviceNode, semanticModel)) {
-            generateOpenAPISpec(semanticModel, serviceNode, syntaxTree, services, inputPath, project, outPath,
-                    diagnostics);
+        } else {
+            Optional<ClassSymbol> listenerType = cache.getListenerType(moduleId, semanticModel);
+            if (listenerType.isPresent() && isAiAgentService(serviceNode, semanticModel, listenerType.get())) {
+                Map<Integer, String> services = cache.getServiceNames(context.documentId(),
+                        () -> extractServiceNodes(syntaxTree.rootNode(), semanticModel, listenerType.get()));
+                generateOpenAPISpec(semanticModel, serviceNode, syntaxTree, services, inputPath, project, outPath,
+                        diagnostics);
+            }
         }
         if (!diagnostics.isEmpty()) {
             for (Diagnostic diagnostic : diagnostics) {
@@ -140,7 +151,6 @@ public class OpenAPIGenerator implements AnalysisTask<SyntaxNodeAnalysisContext>
         if (serviceSymbol.isEmpty() || !(serviceSymbol.get() instanceof ServiceDeclarationSymbol)) {
             return;
         }
-        extractServiceNodes(syntaxTree.rootNode(), services, semanticModel);
         OASGenerationMetaInfo.OASGenerationMetaInfoBuilder builder =
                 new OASGenerationMetaInfo.OASGenerationMetaInfoBuilder();
         ServiceNode service = new ServiceDeclaration(serviceNode, semanticModel);
@@ -153,20 +163,27 @@ public class OpenAPIGenerator implements AnalysisTask<SyntaxNodeAnalysisContext>
     }
 
     public static boolean isAiAgentService(ServiceDeclarationNode serviceNode, SemanticModel semanticModel) {
+        Optional<ClassSymbol> listenerTypeSymbol = getAiAgentListenerType(semanticModel);
+        return listenerTypeSymbol.isPresent() && isAiAgentService(serviceNode, semanticModel, listenerTypeSymbol.get());
+    }
+
+    private static boolean isAiAgentService(ServiceDeclarationNode serviceNode, SemanticModel semanticModel,
+                                            ClassSymbol listenerTypeSymbol) {
         Optional<Symbol> serviceSymbol = semanticModel.symbol(serviceNode);
         if (serviceSymbol.isEmpty() || !(serviceSymbol.get() instanceof ServiceDeclarationSymbol serviceNodeSymbol)) {
             return false;
         }
+        return serviceNodeSymbol.listenerTypes().stream()
+                .anyMatch(listenerType -> isAiAgentListener(listenerType, listenerTypeSymbol));
+    }
 
+    private static Optional<ClassSymbol> getAiAgentListenerType(SemanticModel semanticModel) {
         Optional<Symbol> listenerTypeSymbol = semanticModel.types().getTypeByName(BALLERINAX, AI_AGENT, EMPTY,
                 LISTENER);
         if (listenerTypeSymbol.isEmpty() || listenerTypeSymbol.get().kind() != SymbolKind.CLASS) {
-            return false;
+            return Optional.empty();
         }
-
-        return serviceNodeSymbol.listenerTypes().stream()
-                .anyMatch(listenerType -> isAiAgentListener(listenerType,
-                        (ClassSymbol) listenerTypeSymbol.get()));
+        return Optional.of((ClassSymbol) listenerTypeSymbol.get());
     }
 
     private static boolean isAiAgentListener(TypeSymbol listenerType, TypeSymbol aiAgentListenerType) {
@@ -219,14 +236,16 @@ public class OpenAPIGenerator implements AnalysisTask<SyntaxNodeAnalysisContext>
     /**
      * Filter all the end points and service nodes for avoiding the generated file name conflicts.
      */
-    private static void extractServiceNodes(ModulePartNode modulePartNode, Map<Integer, String> services,
-                                            SemanticModel semanticModel) {
+    private static Map<Integer, String> extractServiceNodes(ModulePartNode modulePartNode,
+                                                            SemanticModel semanticModel,
+                                                            ClassSymbol listenerTypeSymbol) {
+        Map<Integer, String> services = new HashMap<>();
         List<String> allServices = new ArrayList<>();
         for (Node node : modulePartNode.members()) {
             SyntaxKind syntaxKind = node.kind();
             if (syntaxKind.equals(SyntaxKind.SERVICE_DECLARATION)) {
                 ServiceDeclarationNode serviceNode = (ServiceDeclarationNode) node;
-                if (isAiAgentService(serviceNode, semanticModel)) {
+                if (isAiAgentService(serviceNode, semanticModel, listenerTypeSymbol)) {
                     // Here check the service is related to the ai
                     // module by checking listener type that attached to service endpoints.
                     Optional<Symbol> serviceSymbol = semanticModel.symbol(serviceNode);
@@ -244,6 +263,14 @@ public class OpenAPIGenerator implements AnalysisTask<SyntaxNodeAnalysisContext>
                 }
             }
         }
+        return services;
+    }
+
+    private synchronized CompilationCache getCompilationCache(PackageCompilation compilation) {
+        if (compilationCache == null || compilationCache.compilation != compilation) {
+            compilationCache = new CompilationCache(compilation);
+        }
+        return compilationCache;
     }
 
     public static Diagnostic getDiagnostics(OpenAPIMapperDiagnostic diagnostic) {
@@ -253,6 +280,37 @@ public class OpenAPIGenerator implements AnalysisTask<SyntaxNodeAnalysisContext>
         return DiagnosticFactory.createDiagnostic(diagnosticInfo, location);
     }
 
+    /**
+     * Caches the lookups of a compilation, which are the same for all the services analyzed in it.
+     */
+    private static final class CompilationCache {
+        private final PackageCompilation compilation;
+        private final boolean hasErrors;
+        private final Map<ModuleId, Boolean> modulesWithSemanticErrors = new ConcurrentHashMap<>();
+        private final Map<ModuleId, Optional<ClassSymbol>> listenerTypes = new ConcurrentHashMap<>();
+        private final Map<DocumentId, Map<Integer, String>> serviceNames = new ConcurrentHashMap<>();
+
+        private CompilationCache(PackageCompilation compilation) {
+            this.compilation = compilation;
+            this.hasErrors = compilation.diagnosticResult().diagnostics().stream()
+                    .anyMatch(d -> DiagnosticSeverity.ERROR.equals(d.diagnosticInfo().severity()));
+        }
+
+        private boolean hasSemanticErrors(ModuleId moduleId, SemanticModel semanticModel) {
+            return modulesWithSemanticErrors.computeIfAbsent(moduleId,
+                    module -> containErrors(semanticModel.diagnostics()));
+        }
+
+        private Optional<ClassSymbol> getListenerType(ModuleId moduleId, SemanticModel semanticModel) {
+            return listenerTypes.computeIfAbsent(moduleId, module -> getAiAgentListenerType(semanticModel));
+        }
+
+        private Map<Integer, String> getServiceNames(DocumentId documentId,
+                                                     Supplier<Map<Integer, String>> serviceNamesSupplier) {
+            return serviceNames.computeIfAbsent(documentId, document -> serviceNamesSupplier.get());
+        }
+    }
+
     private static class NullLocation implements Location {
         @Override
         public LineRange lineRange() {
@@ -22,171 +22,125 @@ import io.ballerina.compiler.api.symbols.FunctionSymbol;
 import io.ballerina.compiler.api.symbols.FunctionTypeSymbol;
 import io.ballerina.compiler.api.symbols.ParameterKind;
 import io.ballerina.compiler.api.symbols.ParameterSymbol;
-import io.ballerina.openapi.service.mapper.type.TypeMapper;
-import io.ballerina.openapi.service.mapper.type.TypeMapperImpl;
-import io.ballerina.projects.plugins.SyntaxNodeAnalysisContext;
-import io.swagger.v3.core.util.Json;
-import io.swagger.v3.core.util.OpenAPISchema2JsonSchema;
-import io.swagger.v3.oas.models.media.Schema;
+import io.ballerina.compiler.api.symbols.TypeDescKind;
+import io.ballerina.compiler.syntax.tree.BasicLiteralNode;
+import io.ballerina.compiler.syntax.tree.DefaultableParameterNode;
+import io.ballerina.compiler.syntax.tree.FunctionDefinitionNode;
+import io.ballerina.compiler.syntax.tree.Node;
+import io.ballerina.compiler.syntax.tree.ParameterNode;
+import io.ballerina.compiler.syntax.tree.SyntaxKind;
+import io.ballerina.compiler.syntax.tree.UnaryExpressionNode;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
-import static io.ballerina.lib.ai.plugin.ToolAnnotationAnalysisTask.EMPTY_STRING;
 import static io.ballerina.lib.ai.plugin.ToolAnnotationAnalysisTask.NIL_EXPRESSION;
 
 /**
  * Utility class for generating and manipulating function tool parameter schemas.
  */
 public class SchemaUtils {
-    private static final String STRING = "string";
-    private static final String BYTE = "byte";
-    private static final String NUMBER = "number";
+    private static final String TYPE = "type";
+    private static final String OBJECT = "object";
+    private static final String REQUIRED = "required";
+    private static final String PROPERTIES = "properties";
 
     private SchemaUtils() {
     }
 
-    public static String getParameterSchema(FunctionSymbol functionSymbol, SyntaxNodeAnalysisContext context)
-            throws Exception {
+    public static String getParameterSchema(FunctionSymbol functionSymbol,
+                                            FunctionDefinitionNode functionDefinitionNode) throws Exception {
         FunctionTypeSymbol functionTypeSymbol = functionSymbol.typeDescriptor();
         List<ParameterSymbol> parameterSymbolList = functionTypeSymbol.params().get();
         if (functionTypeSymbol.params().isEmpty() || parameterSymbolList.isEmpty()) {
             return NIL_EXPRESSION;
         }
 
-        Map<String, String> individualParamSchema = new HashMap<>();
-        List<String> requiredParams = new ArrayList<>();
-        TypeMapper typeMapper = new TypeMapperImpl(context);
-        for (ParameterSymbol parameterSymbol : parameterSymbolList) {
-            try {
-                String parameterName = parameterSymbol.getName().orElseThrow();
+        Map<String, Node> defaultValues = getDefaultValueExpressions(functionDefinitionNode);
+        JsonSchemaWriter writer = new JsonSchemaWriter();
+        try {
+            writer.beginObject().name(TYPE).value(OBJECT).name(REQUIRED).beginArray();
+            for (ParameterSymbol parameterSymbol : parameterSymbolList) {
                 if (parameterSymbol.paramKind() != ParameterKind.DEFAULTABLE) {
-                    requiredParams.add(parameterName);
+                    writer.value(getParameterName(parameterSymbol));
                 }
-                @SuppressWarnings("rawtypes")
-                Schema schema = typeMapper.getSchema(parameterSymbol.typeDescriptor());
+            }
+            writer.endArray().name(PROPERTIES).beginObject();
+            for (ParameterSymbol parameterSymbol : parameterSymbolList) {
+                String parameterName = getParameterName(parameterSymbol);
                 String parameterDescription = Utils.getParameterDescription(functionSymbol, parameterName);
-                schema.setDescription(parameterDescription);
-                String jsonSchema = SchemaUtils.getJsonSchema(schema);
-                individualParamSchema.put(parameterName, jsonSchema);
-            } catch (RuntimeException e) {
-                throw new Exception(e);
+                Node defaultValue = defaultValues.get(parameterName);
+                String constantDefaultValue = defaultValue == null ? null
+                        : getConstantDefaultValue(parameterSymbol.typeDescriptor().typeKind(), defaultValue);
+                writer.name(parameterName)
+                        .schema(parameterSymbol.typeDescriptor(), parameterDescription, constantDefaultValue);
             }
+            writer.endObject().definitions().endObject();
+        } catch (RuntimeException e) {
+            throw new Exception(e);
         }
-        String properties = individualParamSchema.entrySet().stream()
-                .map(entry -> String.format("\"%s\": %s", entry.getKey(), entry.getValue()))
-                .collect(Collectors.joining(", ", "{", "}"));
-
-        String required = requiredParams.stream()
-                .map(paramName -> String.format("\"%s\"", paramName))
-                .collect(Collectors.joining(", ", "[", "]"));
-        return String.format("{\"type\":\"object\",\"required\":%s,\"properties\":%s}",
-                required, properties);
+        return writer.toString();
     }
 
-    @SuppressWarnings("rawtypes")
-    private static String getJsonSchema(Schema schema) {
-        modifySchema(schema);
-        OpenAPISchema2JsonSchema openAPISchema2JsonSchema = new OpenAPISchema2JsonSchema();
-        openAPISchema2JsonSchema.process(schema);
-        String newLineRegex = "\\R";
-        String jsonCompressionRegex = "\\s*([{}\\[\\]:,])\\s*";
-        return Json.pretty(schema.getJsonSchema())
-                .replaceAll(newLineRegex, EMPTY_STRING)
-                .replaceAll(jsonCompressionRegex, "$1");
+    private static String getParameterName(ParameterSymbol parameterSymbol) {
+        return JsonSchemaWriter.unescapeIdentifier(parameterSymbol.getName().orElseThrow());
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    private static void modifySchema(Schema schema) {
-        if (schema == null) {
-            return;
-        }
-        modifySchema(schema.getItems());
-        modifySchema(schema.getNot());
-
-        Map<String, Schema> properties = schema.getProperties();
-        if (properties != null) {
-            properties.values().forEach(SchemaUtils::modifySchema);
-        }
-
-        List<Schema> allOf = schema.getAllOf();
-        if (allOf != null) {
-            schema.setType(null);
-            allOf.forEach(SchemaUtils::modifySchema);
-        }
-
-        List<Schema> anyOf = schema.getAnyOf();
-        if (anyOf != null) {
-            schema.setType(null);
-            anyOf.forEach(SchemaUtils::modifySchema);
+    private static Map<String, Node> getDefaultValueExpressions(FunctionDefinitionNode functionDefinitionNode) {
+        Map<String, Node> defaultValues = new HashMap<>();
+        for (ParameterNode parameterNode : functionDefinitionNode.functionSignature().parameters()) {
+            if (parameterNode instanceof DefaultableParameterNode defaultableParameterNode
+                    && defaultableParameterNode.paramName().isPresent()) {
+                String parameterName = defaultableParameterNode.paramName().get().text();
+                defaultValues.put(JsonSchemaWriter.unescapeIdentifier(parameterName),
+                        defaultableParameterNode.expression());
+            }
         }
+        return defaultValues;
+    }
 
-        List<Schema> oneOf = schema.getOneOf();
-        if (oneOf != null) {
-            schema.setType(null);
-            oneOf.forEach(SchemaUtils::modifySchema);
-        }
+    /**
+     * Returns the source of the default value of a parameter if it is a literal of a primitive type, which evaluates
+     * to the same value on every call. Such defaults are added to the schema, so that the agent uses the value
+     * resolved at registration instead of evaluating the default value on each call of the tool. Defaults that refer
+     * to other parameters or call functions are left to be evaluated on each call.
+     *
+     * @param parameterType the type of the parameter
+     * @param defaultValue  the default value expression of the parameter
+     * @return the source of the literal, or {@code null} if the default value is not a constant literal
+     */
+    private static String getConstantDefaultValue(TypeDescKind parameterType, Node defaultValue) {
+        return switch (defaultValue.kind()) {
+            case STRING_LITERAL -> parameterType == TypeDescKind.STRING ? getLiteralSource(defaultValue) : null;
+            case BOOLEAN_LITERAL -> parameterType == TypeDescKind.BOOLEAN ? getLiteralSource(defaultValue) : null;
+            case NUMERIC_LITERAL -> isConstantNumericLiteral(parameterType, (BasicLiteralNode) defaultValue)
+                    ? getLiteralSource(defaultValue) : null;
+            case UNARY_EXPRESSION -> {
+                UnaryExpressionNode unaryExpressionNode = (UnaryExpressionNode) defaultValue;
+                Node operand = unaryExpressionNode.expression();
+                yield unaryExpressionNode.unaryOperator().kind() == SyntaxKind.MINUS_TOKEN
+                        && operand.kind() == SyntaxKind.NUMERIC_LITERAL
+                        && isConstantNumericLiteral(parameterType, (BasicLiteralNode) operand)
+                        ? "-" + getLiteralSource(operand) : null;
+            }
+            default -> null;
+        };
+    }
 
-        // Override default ballerina byte to json schema mapping
-        if (BYTE.equals(schema.getFormat()) && STRING.equals(schema.getType())) {
-            schema.setFormat(null);
-            schema.setType(NUMBER);
-        }
-        removeUnwantedFields(schema);
+    private static boolean isConstantNumericLiteral(TypeDescKind parameterType, BasicLiteralNode literalNode) {
+        // Floating point literals are not converted to decimals, as the conversion from float may lose precision.
+        return switch (literalNode.literalToken().kind()) {
+            case DECIMAL_INTEGER_LITERAL_TOKEN -> parameterType == TypeDescKind.INT
+                    || parameterType == TypeDescKind.FLOAT || parameterType == TypeDescKind.DECIMAL;
+            case DECIMAL_FLOATING_POINT_LITERAL_TOKEN -> parameterType == TypeDescKind.FLOAT
+                    && !literalNode.literalToken().text().matches(".*[dDfF]$");
+            default -> false;
+        };
     }
 
-    @SuppressWarnings({"rawtypes", "unchecked"})
-    private static void removeUnwantedFields(Schema schema) {
-        schema.setSpecVersion(null);
-        schema.setSpecVersion(null);
-        schema.setContains(null);
-        schema.set$id(null);
-        schema.set$schema(null);
-        schema.set$anchor(null);
-        schema.setExclusiveMaximumValue(null);
-        schema.setExclusiveMinimumValue(null);
-        schema.setDiscriminator(null);
-        schema.setTitle(null);
-        schema.setMaximum(null);
-        schema.setExclusiveMaximum(null);
-        schema.setMinimum(null);
-        schema.setExclusiveMinimum(null);
-        schema.setMaxLength(null);
-        schema.setMinLength(null);
-        schema.setMaxItems(null);
-        schema.setMinItems(null);
-        schema.setMaxProperties(null);
-        schema.setMinProperties(null);
-        schema.setAdditionalProperties(null);
-        schema.setAdditionalProperties(null);
-        schema.set$ref(null);
-        schema.set$ref(null);
-        schema.setReadOnly(null);
-        schema.setWriteOnly(null);
-        schema.setExample(null);
-        schema.setExample(null);
-        schema.setExternalDocs(null);
-        schema.setDeprecated(null);
-        schema.setPrefixItems(null);
-        schema.setContentEncoding(null);
-        schema.setContentMediaType(null);
-        schema.setContentSchema(null);
-        schema.setPropertyNames(null);
-        schema.setUnevaluatedProperties(null);
-        schema.setMaxContains(null);
-        schema.setMinContains(null);
-        schema.setAdditionalItems(null);
-        schema.setUnevaluatedItems(null);
-        schema.setIf(null);
-        schema.setElse(null);
-        schema.setThen(null);
-        schema.setDependentSchemas(null);
-        schema.set$comment(null);
-        schema.setExamples(null);
-        schema.setExtensions(null);
-        schema.setConst(null);
+    private static String getLiteralSource(Node literalNode) {
+        // The token text excludes the minutiae, such as comments following the literal.
+        return ((BasicLiteralNode) literalNode).literalToken().text();
     }
 }
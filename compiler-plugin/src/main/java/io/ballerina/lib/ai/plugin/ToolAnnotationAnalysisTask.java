@@ -53,18 +53,19 @@ import static io.ballerina.lib.ai.plugin.ToolAnnotationConfig.NAME_FIELD_NAME;
 import static io.ballerina.lib.ai.plugin.ToolAnnotationConfig.PARAMETERS_FIELD_NAME;
 import static io.ballerina.lib.ai.plugin.diagnostics.CompilationDiagnostic.INVALID_RETURN_TYPE_IN_TOOL;
 import static io.ballerina.lib.ai.plugin.diagnostics.CompilationDiagnostic.PARAMETER_IS_NOT_A_SUBTYPE_OF_ANYDATA;
-import static io.ballerina.lib.ai.plugin.diagnostics.CompilationDiagnostic.UNABLE_TO_GENERATE_SCHEMA_FOR_FUNCTION;
 import static io.ballerina.lib.ai.plugin.diagnostics.CompilationDiagnostic.XML_PARAMETER_NOT_SUPPORTED_BY_TOOL;
 
 /**
  * Analyzes a Ballerina AI tools and report diagnostics.
+ * <p>
+ * The task is stateless as it may be performed concurrently for different documents. The parameter schemas of the
+ * tools are generated later by the {@link AiSourceModifier}, in parallel across all documents.
  */
 class ToolAnnotationAnalysisTask implements AnalysisTask<SyntaxNodeAnalysisContext> {
     public static final String EMPTY_STRING = "";
     public static final String NIL_EXPRESSION = "()";
 
     private final Map<DocumentId, ModifierContext> modifierContextMap;
-    private SyntaxNodeAnalysisContext context;
 
     ToolAnnotationAnalysisTask(Map<DocumentId, ModifierContext> modifierContextMap) {
         this.modifierContextMap = modifierContextMap;
@@ -72,7 +73,6 @@ class ToolAnnotationAnalysisTask implements AnalysisTask<SyntaxNodeAnalysisConte
 
     @Override
     public void perform(SyntaxNodeAnalysisContext context) {
-        this.context = context;
         Optional<Symbol> symbol = context.semanticModel().symbol(context.node());
         if (symbol.isEmpty() || symbol.get().kind() != SymbolKind.ANNOTATION
                 || !Utils.isAgentToolAnnotation((AnnotationSymbol) symbol.get())) {
@@ -85,22 +85,21 @@ class ToolAnnotationAnalysisTask implements AnalysisTask<SyntaxNodeAnalysisConte
             return;
         }
 
-        Optional<FunctionSymbol> functionSymbol = getFunctionSymbol(functionDefinitionNode.get());
+        Optional<FunctionSymbol> functionSymbol = getFunctionSymbol(context, functionDefinitionNode.get());
         if (functionSymbol.isEmpty() || functionSymbol.get().getName().isEmpty()) {
             return;
         }
 
         Location functionLocation = functionSymbol.get().getLocation()
                 .orElse(functionDefinitionNode.get().location());
-        if (!hasValidParameterTypes(functionSymbol.get(), functionLocation)
-                || !hasValidateReturnType(functionSymbol.get(), functionLocation)) {
+        if (!hasValidParameterTypes(context, functionSymbol.get(), functionLocation)
+                || !hasValidateReturnType(context, functionSymbol.get(), functionLocation)) {
             return;
         }
         if (hasSpreadAnnotationFieldValue(toolAnnotationNode)) {
             return;
         }
-        ToolAnnotationConfig config = createAnnotationConfig(toolAnnotationNode, functionDefinitionNode.get());
-        addToModifierContext(context, toolAnnotationNode, config);
+        addToModifierContext(context, toolAnnotationNode, functionSymbol.get(), functionDefinitionNode.get());
     }
 
     private boolean hasSpreadAnnotationFieldValue(AnnotationNode toolAnnotationNode) {
@@ -109,18 +108,20 @@ class ToolAnnotationAnalysisTask implements AnalysisTask<SyntaxNodeAnalysisConte
                 && toolAnnotationNode.annotValue().get().fields().get(0).kind() == SyntaxKind.SPREAD_FIELD;
     }
 
-    private boolean hasValidateReturnType(FunctionSymbol functionSymbol, Location functionLocation) {
+    private boolean hasValidateReturnType(SyntaxNodeAnalysisContext context, FunctionSymbol functionSymbol,
+                                          Location functionLocation) {
         Optional<TypeSymbol> returnType = functionSymbol.typeDescriptor().returnTypeDescriptor();
-        if (returnType.isEmpty() || Utils.isAllowedReturnType(returnType.get(), this.context)) {
+        if (returnType.isEmpty() || Utils.isAllowedReturnType(returnType.get(), context)) {
             return true;
         }
         Diagnostic diagnostic = CompilationDiagnostic.getDiagnostic(INVALID_RETURN_TYPE_IN_TOOL, functionLocation,
                 functionSymbol.getName().orElse("unknownFunction"));
-        reportDiagnostic(diagnostic);
+        context.reportDiagnostic(diagnostic);
         return false;
     }
 
-    private boolean hasValidParameterTypes(FunctionSymbol functionSymbol, Location alternativeLocation) {
+    private boolean hasValidParameterTypes(SyntaxNodeAnalysisContext context, FunctionSymbol functionSymbol,
+                                           Location alternativeLocation) {
         FunctionTypeSymbol functionTypeSymbol = functionSymbol.typeDescriptor();
         List<ParameterSymbol> parameterSymbolList = functionTypeSymbol.params().get();
         if (functionTypeSymbol.params().isEmpty() || parameterSymbolList.isEmpty()) {
@@ -132,19 +133,19 @@ class ToolAnnotationAnalysisTask implements AnalysisTask<SyntaxNodeAnalysisConte
         String functionName = functionSymbol.getName().orElse("unknownFunction");
         for (ParameterSymbol parameterSymbol : parameterSymbolList) {
             TypeSymbol paramTypeSymbol = parameterSymbol.typeDescriptor();
-            if (!Utils.isAnydataType(paramTypeSymbol, this.context)) {
+            if (!Utils.isAnydataType(paramTypeSymbol, context)) {
                 isAnydata = false;
                 Diagnostic diagnostic = CompilationDiagnostic.getDiagnostic(PARAMETER_IS_NOT_A_SUBTYPE_OF_ANYDATA,
                         parameterSymbol.getLocation().orElse(alternativeLocation),
                         functionName, parameterSymbol.getName().orElse("<unknown>"));
-                reportDiagnostic(diagnostic);
+                context.reportDiagnostic(diagnostic);
             }
             XmlTypeInspector xmlTypeInspector = new XmlTypeInspector(context);
             if (xmlTypeInspector.includesXmlType(paramTypeSymbol)) {
                 Diagnostic diagnostic = CompilationDiagnostic.getDiagnostic(XML_PARAMETER_NOT_SUPPORTED_BY_TOOL,
                         parameterSymbol.getLocation().orElse(alternativeLocation),
                         functionName, parameterSymbol.getName().orElse("<unknown>"));
-                reportDiagnostic(diagnostic);
+                context.reportDiagnostic(diagnostic);
                 isXml = true;
             }
         }
@@ -152,11 +153,8 @@ class ToolAnnotationAnalysisTask implements AnalysisTask<SyntaxNodeAnalysisConte
         return isAnydata && !isXml;
     }
 
-    private void reportDiagnostic(Diagnostic diagnostic) {
-        this.context.reportDiagnostic(diagnostic);
-    }
-
-    private Optional<FunctionSymbol> getFunctionSymbol(FunctionDefinitionNode functionDefinitionNode) {
+    private Optional<FunctionSymbol> getFunctionSymbol(SyntaxNodeAnalysisContext context,
+                                                       FunctionDefinitionNode functionDefinitionNode) {
         Optional<Symbol> functionSymbol = context.semanticModel().symbol(functionDefinitionNode);
         return functionSymbol.filter(symbol -> symbol.kind() == SymbolKind.FUNCTION
                 || symbol.kind() == SymbolKind.METHOD).map(FunctionSymbol.class::cast);
@@ -173,23 +171,28 @@ class ToolAnnotationAnalysisTask implements AnalysisTask<SyntaxNodeAnalysisConte
         return Optional.of((FunctionDefinitionNode) possibleFunctionOrMethodNode);
     }
 
-    private ToolAnnotationConfig createAnnotationConfig(AnnotationNode annotationNode,
-                                                        FunctionDefinitionNode functionDefinitionNode) {
-        @SuppressWarnings("OptionalGetWithoutIsPresent") // is present already check in perform method
-        FunctionSymbol functionSymbol = getFunctionSymbol(functionDefinitionNode).get();
+    private void addToModifierContext(SyntaxNodeAnalysisContext context, AnnotationNode annotationNode,
+                                      FunctionSymbol functionSymbol, FunctionDefinitionNode functionDefinitionNode) {
+        ModifierContext modifierContext = this.modifierContextMap.computeIfAbsent(context.documentId(),
+                document -> new ModifierContext());
         String functionName = functionSymbol.getName().orElse("unknownFunction");
         SeparatedNodeList<MappingFieldNode> fields = annotationNode.annotValue().isEmpty() ?
                 NodeFactory.createSeparatedNodeList() : annotationNode.annotValue().get().fields();
         Map<String, ExpressionNode> fieldValues = extractFieldValues(fields);
-        String name = fieldValues.containsKey(NAME_FIELD_NAME) ? fieldValues.get(NAME_FIELD_NAME).toSourceCode()
-                : Utils.addDoubleQuotes(functionName);
-        String description = fieldValues.containsKey(DESCRIPTION_FIELD_NAME)
-                ? fieldValues.get(DESCRIPTION_FIELD_NAME).toSourceCode()
-                : Utils.addDoubleQuotes(Objects.requireNonNullElse(Utils.getDescription(functionSymbol), functionName));
-        String parameters = fieldValues.containsKey(PARAMETERS_FIELD_NAME)
-                ? fieldValues.get(PARAMETERS_FIELD_NAME).toSourceCode()
-                : getParameterSchema(functionSymbol, functionDefinitionNode.location());
-        return new ToolAnnotationConfig(name, description, parameters);
+        ExpressionNode name = fieldValues.containsKey(NAME_FIELD_NAME) ? fieldValues.get(NAME_FIELD_NAME)
+                : Utils.createStringLiteral(functionName);
+        ExpressionNode description = fieldValues.containsKey(DESCRIPTION_FIELD_NAME)
+                ? fieldValues.get(DESCRIPTION_FIELD_NAME)
+                : Utils.createStringLiteral(Objects.requireNonNullElse(Utils.getDescription(functionSymbol),
+                functionName));
+        if (fieldValues.containsKey(PARAMETERS_FIELD_NAME)) {
+            ExpressionNode parameters = fieldValues.get(PARAMETERS_FIELD_NAME);
+            modifierContext.add(annotationNode, new ToolAnnotationConfig(name, description, parameters));
+            return;
+        }
+        // The schema is generated by the source modifier, along with the schemas of the tools in other documents
+        modifierContext.add(annotationNode, new ToolAnnotationConfig(name, description, null),
+                new ToolFunction(functionSymbol, functionDefinitionNode));
     }
 
     private Map<String, ExpressionNode> extractFieldValues(SeparatedNodeList<MappingFieldNode> fields) {
@@ -202,22 +205,4 @@ class ToolAnnotationAnalysisTask implements AnalysisTask<SyntaxNodeAnalysisConte
                         field -> field.valueExpr().orElse(NodeParser.parseExpression(NIL_EXPRESSION))
                 ));
     }
-
-    private String getParameterSchema(FunctionSymbol functionSymbol, Location alternativeFunctionLocation) {
-        try {
-            return SchemaUtils.getParameterSchema(functionSymbol, this.context);
-        } catch (Exception e) {
-            Diagnostic diagnostic = CompilationDiagnostic.getDiagnostic(UNABLE_TO_GENERATE_SCHEMA_FOR_FUNCTION,
-                    functionSymbol.getLocation().orElse(alternativeFunctionLocation),
-                    functionSymbol.getName().orElse("unknownFunction"));
-            reportDiagnostic(diagnostic);
-            return NIL_EXPRESSION;
-        }
-    }
-
-    private void addToModifierContext(SyntaxNodeAnalysisContext context, AnnotationNode annotationNode,
-                                      ToolAnnotationConfig functionDefinitionNode) {
-        this.modifierContextMap.computeIfAbsent(context.documentId(), document -> new ModifierContext())
-                .add(annotationNode, functionDefinitionNode);
-    }
 }
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.lib.ai.plugin;
+
+import io.ballerina.compiler.api.symbols.Annotatable;
+import io.ballerina.compiler.api.symbols.AnnotationAttachmentSymbol;
+import io.ballerina.compiler.api.symbols.ArrayTypeSymbol;
+import io.ballerina.compiler.api.symbols.Documentable;
+import io.ballerina.compiler.api.symbols.Documentation;
+import io.ballerina.compiler.api.symbols.FunctionSymbol;
+import io.ballerina.compiler.api.symbols.IntersectionTypeSymbol;
+import io.ballerina.compiler.api.symbols.MapTypeSymbol;
+import io.ballerina.compiler.api.symbols.ParameterSymbol;
+import io.ballerina.compiler.api.symbols.RecordFieldSymbol;
+import io.ballerina.compiler.api.symbols.RecordTypeSymbol;
+import io.ballerina.compiler.api.symbols.Symbol;
+import io.ballerina.compiler.api.symbols.TableTypeSymbol;
+import io.ballerina.compiler.api.symbols.TupleTypeSymbol;
+import io.ballerina.compiler.api.symbols.TypeReferenceTypeSymbol;
+import io.ballerina.compiler.api.symbols.TypeSymbol;
+import io.ballerina.compiler.api.symbols.UnionTypeSymbol;
+import io.ballerina.compiler.syntax.tree.FunctionDefinitionNode;
+import io.ballerina.compiler.syntax.tree.MetadataNode;
+import io.ballerina.projects.Project;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the generated parameter schemas of the tools in the target directory of the project across builds.
+ * <p>
+ * A schema is keyed by a fingerprint of the function signature, the documentation of the function, and the
+ * definitions and documentation of the types referred to by its parameters. Therefore, the schema of a tool is
+ * generated only when one of them changes. The schemas are kept for the root of the project being compiled, and the
+ * state of a compilation is reset once it is saved, so that the same plugin instance can compile the project again or
+ * compile a different project. The cache is best effort, and a failure to read or write it only results in the
+ * schemas being generated again.
+ */
+class ToolSchemaCache {
+    private static final String CACHE_DIRECTORY_NAME = "ai";
+    private static final String CACHE_FILE_NAME = "tool-schema-cache.properties";
+    // Changes to the generated schemas must update the version, to discard the schemas cached by earlier versions.
+    private static final String CACHE_VERSION = "3";
+    private static final String CACHE_VERSION_KEY = "version";
+
+    // Schemas cached for the project at the root, which are reused by the later compilations of the same project
+    private final Map<String, String> cachedSchemas = new ConcurrentHashMap<>();
+    // Schemas used by the current compilation, which replace the cached schemas to drop the ones of removed tools
+    private final Map<String, String> usedSchemas = new ConcurrentHashMap<>();
+    private Path projectRoot;
+    private Path cacheFile;
+    // Whether the cache is loaded by the current compilation
+    private boolean isLoaded;
+    private volatile boolean isModified;
+
+    synchronized void load(Project project) {
+        if (isLoaded) {
+            return;
+        }
+        isLoaded = true;
+        Path sourceRoot;
+        try {
+            sourceRoot = project.sourceRoot();
+        } catch (RuntimeException e) {
+            sourceRoot = null;
+        }
+        if (sourceRoot != null && sourceRoot.equals(projectRoot)) {
+            return;
+        }
+        cachedSchemas.clear();
+        projectRoot = sourceRoot;
+        cacheFile = null;
+        if (sourceRoot == null) {
+            return;
+        }
+        try {
+            cacheFile = project.targetDir().resolve(CACHE_DIRECTORY_NAME).resolve(CACHE_FILE_NAME);
+        } catch (RuntimeException e) {
+            return;
+        }
+        if (!Files.isRegularFile(cacheFile)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(cacheFile)) {
+            properties.load(inputStream);
+        } catch (IOException | IllegalArgumentException e) {
+            return;
+        }
+        if (!CACHE_VERSION.equals(properties.getProperty(CACHE_VERSION_KEY))) {
+            return;
+        }
+        properties.remove(CACHE_VERSION_KEY);
+        properties.forEach((fingerprint, schema) -> cachedSchemas.put((String) fingerprint, (String) schema));
+    }
+
+    String get(String fingerprint) {
+        String schema = cachedSchemas.get(fingerprint);
+        if (schema != null) {
+            usedSchemas.put(fingerprint, schema);
+        }
+        return schema;
+    }
+
+    void put(String fingerprint, String schema) {
+        usedSchemas.put(fingerprint, schema);
+        isModified = true;
+    }
+
+    // Writes the schemas used by the current compilation, and resets the cache for the next compilation.
+    synchronized void save() {
+        try {
+            if (isLoaded && cacheFile != null && (isModified || usedSchemas.size() != cachedSchemas.size())) {
+                write();
+            }
+        } finally {
+            usedSchemas.clear();
+            isLoaded = false;
+            isModified = false;
+        }
+    }
+
+    private void write() {
+        Properties properties = new Properties();
+        properties.putAll(usedSchemas);
+        properties.setProperty(CACHE_VERSION_KEY, CACHE_VERSION);
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            Path temporaryFile = Files.createTempFile(cacheFile.getParent(), CACHE_FILE_NAME, null);
+            try (OutputStream outputStream = Files.newOutputStream(temporaryFile)) {
+                properties.store(outputStream, null);
+            }
+            Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The schemas are generated again in the next build.
+            return;
+        }
+        cachedSchemas.clear();
+        cachedSchemas.putAll(usedSchemas);
+    }
+
+    static String getFingerprint(FunctionSymbol functionSymbol, FunctionDefinitionNode functionDefinitionNode) {
+        StringBuilder source = new StringBuilder();
+        functionDefinitionNode.metadata().flatMap(MetadataNode::documentationString)
+                .ifPresent(documentation -> source.append(documentation.toSourceCode()));
+        source.append(functionDefinitionNode.functionSignature().toSourceCode());
+        Set<String> visitedTypes = new HashSet<>();
+        for (ParameterSymbol parameterSymbol : functionSymbol.typeDescriptor().params().orElse(List.of())) {
+            appendTypeDefinition(source, parameterSymbol.typeDescriptor(), visitedTypes);
+        }
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(source.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void appendTypeDefinition(StringBuilder source, TypeSymbol typeSymbol, Set<String> visitedTypes) {
+        source.append('\n').append(typeSymbol.signature());
+        switch (typeSymbol.typeKind()) {
+            case TYPE_REFERENCE -> {
+                TypeReferenceTypeSymbol typeReference = (TypeReferenceTypeSymbol) typeSymbol;
+                if (visitedTypes.add(typeReference.signature())) {
+                    appendMetadata(source, typeReference.definition());
+                    appendTypeDefinition(source, typeReference.typeDescriptor(), visitedTypes);
+                }
+            }
+            case RECORD -> {
+                RecordTypeSymbol recordType = (RecordTypeSymbol) typeSymbol;
+                for (Map.Entry<String, RecordFieldSymbol> field : recordType.fieldDescriptors().entrySet()) {
+                    source.append('\n').append(field.getKey());
+                    appendMetadata(source, field.getValue());
+                    appendTypeDefinition(source, field.getValue().typeDescriptor(), visitedTypes);
+                }
+                recordType.restTypeDescriptor()
+                        .ifPresent(restType -> appendTypeDefinition(source, restType, visitedTypes));
+            }
+            case UNION -> ((UnionTypeSymbol) typeSymbol).memberTypeDescriptors()
+                    .forEach(memberType -> appendTypeDefinition(source, memberType, visitedTypes));
+            case INTERSECTION -> ((IntersectionTypeSymbol) typeSymbol).memberTypeDescriptors()
+                    .forEach(memberType -> appendTypeDefinition(source, memberType, visitedTypes));
+            case ARRAY -> appendTypeDefinition(source, ((ArrayTypeSymbol) typeSymbol).memberTypeDescriptor(),
+                    visitedTypes);
+            case MAP -> appendTypeDefinition(source, ((MapTypeSymbol) typeSymbol).typeParam(), visitedTypes);
+            case TABLE -> appendTypeDefinition(source, ((TableTypeSymbol) typeSymbol).rowTypeParameter(),
+                    visitedTypes);
+            case TUPLE -> {
+                TupleTypeSymbol tupleType = (TupleTypeSymbol) typeSymbol;
+                tupleType.memberTypeDescriptors()
+                        .forEach(memberType -> appendTypeDefinition(source, memberType, visitedTypes));
+                tupleType.restTypeDescriptor()
+                        .ifPresent(restType -> appendTypeDefinition(source, restType, visitedTypes));
+            }
+            default -> {
+            }
+        }
+    }
+
+    private static void appendMetadata(StringBuilder source, Symbol symbol) {
+        if (symbol instanceof Documentable documentable) {
+            documentable.documentation().ifPresent(documentation -> appendDocumentation(source, documentation));
+        }
+        if (symbol instanceof Annotatable annotatable) {
+            for (AnnotationAttachmentSymbol annotationAttachment : annotatable.annotAttachments()) {
+                source.append('\n').append(annotationAttachment.typeDescriptor().getName().orElse(""));
+                annotationAttachment.attachmentValue().ifPresent(value -> source.append(value.value()));
+            }
+        }
+    }
+
+    private static void appendDocumentation(StringBuilder source, Documentation documentation) {
+        documentation.description().ifPresent(description -> source.append('\n').append(description));
+        documentation.parameterMap().forEach((name, description) ->
+                source.append('\n').append(name).append(' ').append(description));
+    }
+}
@@ -27,6 +27,9 @@ import io.ballerina.compiler.api.symbols.TypeDescKind;
 import io.ballerina.compiler.api.symbols.TypeReferenceTypeSymbol;
 import io.ballerina.compiler.api.symbols.TypeSymbol;
 import io.ballerina.compiler.api.symbols.UnionTypeSymbol;
+import io.ballerina.compiler.syntax.tree.BasicLiteralNode;
+import io.ballerina.compiler.syntax.tree.NodeFactory;
+import io.ballerina.compiler.syntax.tree.SyntaxKind;
 import io.ballerina.projects.plugins.SyntaxNodeAnalysisContext;
 
 /**
@@ -115,7 +118,25 @@ public class Utils {
         return documentable.documentation().get().description().get();
     }
 
-    public static String addDoubleQuotes(String functionName) {
-        return "\"" + functionName + "\"";
+    public static BasicLiteralNode createStringLiteral(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"', '\\' -> literal.append('\\').append(c);
+                // Line breaks are replaced to keep the line numbers of the modified source unchanged
+                case '\n', '\r' -> {
+                    if (c == '\n' && i > 0 && value.charAt(i - 1) == '\r') {
+                        continue;
+                    }
+                    literal.append(' ');
+                }
+                default -> literal.append(c);
+            }
+        }
+        literal.append('"');
+        return NodeFactory.createBasicLiteralNode(SyntaxKind.STRING_LITERAL,
+                NodeFactory.createLiteralValueToken(SyntaxKind.STRING_LITERAL_TOKEN, literal.toString(),
+                        NodeFactory.createEmptyMinutiaeList(), NodeFactory.createEmptyMinutiaeList()));
     }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.lib.ai;
+
+import io.ballerina.runtime.api.Environment;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits the number of concurrent executions of a tool, and the number of executions waiting for a permit.
+ */
+public final class ConcurrencyLimiter {
+
+    private ConcurrencyLimiter() {
+    }
+
+    private record Bulkhead(Semaphore permits, int maxQueueSize, AtomicInteger queueSize) {
+    }
+
+    @SuppressWarnings("unused")
+    public static Object createLimiter(long permits, long maxQueueSize) {
+        // A negative queue size does not limit the executions waiting for a permit.
+        int queueSize = maxQueueSize < 0 ? Integer.MAX_VALUE : (int) Math.min(maxQueueSize, Integer.MAX_VALUE);
+        return new Bulkhead(new Semaphore((int) Math.max(1, permits), true), queueSize, new AtomicInteger());
+    }
+
+    @SuppressWarnings("unused")
+    public static boolean acquirePermit(Environment env, Object limiter, long timeoutInMillis) {
+        Bulkhead bulkhead = (Bulkhead) limiter;
+        try {
+            // Unlike tryAcquire(), the timed variant does not take a permit ahead of the waiting executions.
+            if (bulkhead.permits().tryAcquire(0, TimeUnit.SECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        if (bulkhead.queueSize().incrementAndGet() > bulkhead.maxQueueSize()) {
+            bulkhead.queueSize().decrementAndGet();
+            return false;
+        }
+        try {
+            // Waiting for a permit must not block other strands scheduled on the runtime.
+            return env.yieldAndRun(() -> {
+                // A negative timeout waits for a permit without a time limit.
+                if (timeoutInMillis < 0) {
+                    bulkhead.permits().acquireUninterruptibly();
+                    return true;
+                }
+                try {
+                    return bulkhead.permits().tryAcquire(timeoutInMillis, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            });
+        } finally {
+            bulkhead.queueSize().decrementAndGet();
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public static void releasePermit(Object limiter) {
+        ((Bulkhead) limiter).permits().release();
+    }
+}
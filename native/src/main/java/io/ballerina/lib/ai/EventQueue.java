@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.lib.ai;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.creators.ErrorCreator;
+
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+
+/**
+ * Transfers the events of an agent execution from the strand executing the agent to the consumer of the events.
+ * Once the consumer closes the queue, the queued events are discarded and further events are not queued.
+ */
+public final class EventQueue {
+    // Marks the end of the events, since the queue does not accept null values.
+    private static final Object END_OF_EVENTS = new Object();
+
+    private final LinkedBlockingQueue<Object> events = new LinkedBlockingQueue<>();
+    private volatile boolean isClosed = false;
+
+    private EventQueue() {
+    }
+
+    @SuppressWarnings("unused")
+    public static Object createEventQueue() {
+        return new EventQueue();
+    }
+
+    @SuppressWarnings("unused")
+    public static void putEvent(Object queue, Object event) {
+        EventQueue eventQueue = (EventQueue) queue;
+        if (eventQueue.isClosed) {
+            return;
+        }
+        eventQueue.events.add(event == null ? END_OF_EVENTS : event);
+        if (eventQueue.isClosed) {
+            // The queue is closed while the event is added.
+            eventQueue.events.clear();
+            eventQueue.events.add(END_OF_EVENTS);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public static Object takeEvent(Environment env, Object queue) {
+        EventQueue eventQueue = (EventQueue) queue;
+        if (eventQueue.isClosed) {
+            return null;
+        }
+        // Waiting for an event must not block other strands scheduled on the runtime.
+        Object event = env.yieldAndRun(() -> {
+            try {
+                return eventQueue.events.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return ErrorCreator.createError(fromString("Interrupted while waiting for the agent events"));
+            }
+        });
+        return event == END_OF_EVENTS ? null : event;
+    }
+
+    @SuppressWarnings("unused")
+    public static void closeEventQueue(Object queue) {
+        EventQueue eventQueue = (EventQueue) queue;
+        eventQueue.isClosed = true;
+        eventQueue.events.clear();
+        // Wakes up a consumer waiting for an event.
+        eventQueue.events.add(END_OF_EVENTS);
+    }
+
+    @SuppressWarnings("unused")
+    public static boolean isEventQueueClosed(Object queue) {
+        return ((EventQueue) queue).isClosed;
+    }
+}
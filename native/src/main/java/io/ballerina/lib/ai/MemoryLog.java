@@ -0,0 +1,589 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.lib.ai;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BString;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+
+/**
+ * An append-only log of chat memory records, which keeps the latest window of messages of each session durable.
+ * <p>
+ * Each record is written as a line of {@code <crc32>\t<kind>\t<session ID>\t<payload>}, where the checksum covers
+ * the rest of the line. Appended records are buffered in memory and written in batches with a single fsync, either
+ * periodically or when the batch is full. The offsets of the records retained in the window of each session are
+ * indexed, so that a session can be read without scanning the log. The records which are not yet written are read
+ * from the pending batch. When most of the log is made up of records that are no longer retained, the log is
+ * compacted in the background by rewriting the retained records to a new file, which atomically replaces the log.
+ * The records are copied without blocking the appends and flushes, except for the records written during the copy,
+ * which are copied while replacing the log. On opening, the log is replayed to rebuild the index, and a torn or
+ * corrupted tail left by a crash is truncated.
+ * <p>
+ * A log is owned by a single memory at a time. An exclusive lock on a file next to the log is held while the log is
+ * open, so that another memory, in this or another process, fails to open the log instead of corrupting it.
+ */
+public final class MemoryLog {
+    static final String LOG_FILE_NAME = "memory.log";
+    static final String COMPACTION_FILE_NAME = "memory.log.compact";
+    static final String LOCK_FILE_NAME = "memory.log.lock";
+    private static final String SYSTEM_RECORD = "S";
+    private static final String MESSAGE_RECORD = "M";
+    private static final String DELETE_RECORD = "D";
+    private static final byte NEW_LINE = '\n';
+    private static final byte SEPARATOR = '\t';
+    // The log is compacted when the retained records are less than this fraction of the log.
+    private static final double COMPACTION_RATIO = 0.5;
+    private static final long MIN_COMPACTION_SIZE = 4L * 1024 * 1024;
+
+    private final Path directory;
+    private final Path logPath;
+    private final int windowSize;
+    private final int maxBatchSize;
+    private final ConcurrentLinkedQueue<PendingRecord> pendingRecords = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingRecordCount = new AtomicInteger();
+    private final AtomicBoolean isFlushScheduled = new AtomicBoolean();
+    private final AtomicBoolean isCompactionScheduled = new AtomicBoolean();
+    // Held for the whole of a compaction, so that the log is compacted by one thread at a time and is not closed
+    // while the retained records are being copied.
+    private final Object compactionLock = new Object();
+    private final ScheduledExecutorService flusher;
+    // The lock file is locked separately from the log, since a compaction replaces the log file.
+    private final FileChannel lockChannel;
+    private final FileLock fileLock;
+    // Records are appended while holding the read lock, and the log is closed while holding the write lock,
+    // so that no record is appended after the final flush of the log.
+    private final ReentrantReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile boolean isClosed;
+    private volatile IOException flushFailure;
+    // The following fields are guarded by the monitor of the log.
+    private final Map<String, SessionIndex> index = new HashMap<>();
+    private FileChannel channel;
+    private long logSize;
+    private long retainedSize;
+
+    private MemoryLog(Path directory, int windowSize, int maxBatchSize, long flushIntervalMillis) throws IOException {
+        this.directory = directory;
+        this.logPath = directory.resolve(LOG_FILE_NAME);
+        this.windowSize = windowSize;
+        this.maxBatchSize = maxBatchSize;
+        Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve(LOCK_FILE_NAME), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        this.fileLock = lockLog(lockChannel);
+        try {
+            // A compaction interrupted by a crash leaves the previous log intact.
+            Files.deleteIfExists(directory.resolve(COMPACTION_FILE_NAME));
+            this.channel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            recover();
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            // Closing the channel releases the lock of the log.
+            lockChannel.close();
+            throw e;
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ai-memory-log-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @SuppressWarnings("unused")
+    public static Object openMemoryLog(Environment env, BString directory, long windowSize, long maxBatchSize,
+                                       long flushIntervalMillis) {
+        return env.yieldAndRun(() -> {
+            try {
+                return ValueCreator.createHandleValue(new MemoryLog(Path.of(directory.getValue()),
+                        (int) Math.max(1, windowSize), (int) Math.max(1, maxBatchSize),
+                        Math.max(1, flushIntervalMillis)));
+            } catch (IOException | RuntimeException e) {
+                return createError("Failed to open the memory log at " + directory.getValue(), e);
+            }
+        });
+    }
+
+    @SuppressWarnings("unused")
+    public static Object appendMemoryRecord(Object log, BString kind, BString sessionId, BString payload) {
+        return ((MemoryLog) log).append(kind.getValue(), sessionId.getValue(), payload.getValue());
+    }
+
+    @SuppressWarnings("unused")
+    public static Object readMemoryRecords(Environment env, Object log, BString sessionId) {
+        return env.yieldAndRun(() -> ((MemoryLog) log).read(sessionId.getValue()));
+    }
+
+    @SuppressWarnings("unused")
+    public static Object flushMemoryLog(Environment env, Object log) {
+        return env.yieldAndRun(() -> ((MemoryLog) log).flush());
+    }
+
+    @SuppressWarnings("unused")
+    public static Object compactMemoryLog(Environment env, Object log) {
+        return env.yieldAndRun(() -> ((MemoryLog) log).compact());
+    }
+
+    @SuppressWarnings("unused")
+    public static Object closeMemoryLog(Environment env, Object log) {
+        return env.yieldAndRun(() -> ((MemoryLog) log).close());
+    }
+
+    private static FileLock lockLog(FileChannel lockChannel) throws IOException {
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // The log is already opened by another memory of this process.
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("The memory log is already in use by another memory");
+        }
+        return lock;
+    }
+
+    private BError append(String kind, String sessionId, String payload) {
+        closeLock.readLock().lock();
+        try {
+            if (isClosed) {
+                return createError("Memory log is closed", null);
+            }
+            IOException failure = flushFailure;
+            if (failure != null) {
+                return createError("Failed to write to the memory log", failure);
+            }
+            pendingRecords.add(new PendingRecord(kind, sessionId, payload, encode(kind, sessionId, payload)));
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        if (pendingRecordCount.incrementAndGet() >= maxBatchSize && isFlushScheduled.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    isFlushScheduled.set(false);
+                    flushQuietly();
+                });
+            } catch (RejectedExecutionException e) {
+                // The log is being closed, which flushes the pending records.
+                isFlushScheduled.set(false);
+            }
+        }
+        return null;
+    }
+
+    private synchronized Object read(String sessionId) {
+        if (flushFailure != null) {
+            return createError("Failed to write to the memory log", flushFailure);
+        }
+        // The records are either written and indexed, or pending, since the pending records are taken and indexed
+        // while holding the monitor. The records are referred to by their offsets if written, and by their payloads
+        // if pending.
+        SessionIndex sessionIndex = index.get(sessionId);
+        Object systemRecord = sessionIndex == null ? null : sessionIndex.systemRecord;
+        ArrayDeque<Object> messageRecords = sessionIndex == null ? new ArrayDeque<>()
+                : new ArrayDeque<>(sessionIndex.messageRecords);
+        for (PendingRecord pendingRecord : pendingRecords) {
+            if (!pendingRecord.sessionId.equals(sessionId)) {
+                continue;
+            }
+            if (DELETE_RECORD.equals(pendingRecord.kind)) {
+                systemRecord = null;
+                messageRecords.clear();
+            } else if (SYSTEM_RECORD.equals(pendingRecord.kind)) {
+                systemRecord = pendingRecord.payload;
+            } else {
+                messageRecords.addLast(pendingRecord.payload);
+                if (messageRecords.size() > windowSize) {
+                    messageRecords.removeFirst();
+                }
+            }
+        }
+        List<BString> payloads = new ArrayList<>();
+        try {
+            if (systemRecord != null) {
+                payloads.add(fromString(getPayload(systemRecord)));
+            }
+            for (Object messageRecord : messageRecords) {
+                payloads.add(fromString(getPayload(messageRecord)));
+            }
+        } catch (IOException e) {
+            return createError("Failed to read the memory of the session " + sessionId, e);
+        }
+        return ValueCreator.createArrayValue(payloads.toArray(new BString[0]));
+    }
+
+    private String getPayload(Object record) throws IOException {
+        return record instanceof RecordRef recordRef ? readPayload(recordRef) : (String) record;
+    }
+
+    private void flushQuietly() {
+        // The failure is reported by the subsequent operations on the log.
+        flush();
+    }
+
+    private synchronized BError flush() {
+        if (isClosed) {
+            return null;
+        }
+        return writePendingRecords();
+    }
+
+    private synchronized BError writePendingRecords() {
+        if (flushFailure != null) {
+            return createError("Failed to write to the memory log", flushFailure);
+        }
+        if (pendingRecords.isEmpty()) {
+            return null;
+        }
+        List<PendingRecord> batch = new ArrayList<>();
+        ByteArrayOutputStream batchContent = new ByteArrayOutputStream();
+        PendingRecord pendingRecord;
+        while ((pendingRecord = pendingRecords.poll()) != null) {
+            batch.add(pendingRecord);
+            batchContent.writeBytes(pendingRecord.line);
+        }
+        pendingRecordCount.addAndGet(-batch.size());
+        try {
+            writeFully(channel, ByteBuffer.wrap(batchContent.toByteArray()), logSize);
+            channel.force(false);
+        } catch (IOException e) {
+            flushFailure = e;
+            return createError("Failed to write to the memory log", e);
+        }
+        long offset = logSize;
+        for (PendingRecord record : batch) {
+            apply(record.kind, record.sessionId, new RecordRef(offset, record.line.length));
+            offset += record.line.length;
+        }
+        logSize = offset;
+        if (logSize >= MIN_COMPACTION_SIZE && retainedSize < logSize * COMPACTION_RATIO) {
+            scheduleCompaction();
+        }
+        return null;
+    }
+
+    private void scheduleCompaction() {
+        if (!isCompactionScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            flusher.execute(() -> {
+                // A failure to replace the log is reported by the subsequent operations on the log, while a failed
+                // copy leaves the log intact to be compacted again.
+                try {
+                    compact();
+                } finally {
+                    isCompactionScheduled.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The log is being closed.
+            isCompactionScheduled.set(false);
+        }
+    }
+
+    private BError compact() {
+        synchronized (compactionLock) {
+            long copiedLogSize;
+            List<RecordRef> retainedRecords = new ArrayList<>();
+            synchronized (this) {
+                BError error = flush();
+                if (error != null || isClosed) {
+                    return error;
+                }
+                copiedLogSize = logSize;
+                for (SessionIndex sessionIndex : index.values()) {
+                    if (sessionIndex.systemRecord != null) {
+                        retainedRecords.add(sessionIndex.systemRecord);
+                    }
+                    retainedRecords.addAll(sessionIndex.messageRecords);
+                }
+            }
+            // The log is replaced only by this thread, hence the records written so far are read without the
+            // monitor, while the records are appended to the log and read from it.
+            Path compactionPath = directory.resolve(COMPACTION_FILE_NAME);
+            Map<Long, Long> compactedOffsets = new HashMap<>();
+            long offset = 0;
+            try (FileChannel compactionChannel = FileChannel.open(compactionPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (RecordRef record : retainedRecords) {
+                    copyRecord(record, compactionChannel, offset);
+                    compactedOffsets.put(record.offset, offset);
+                    offset += record.length;
+                }
+                synchronized (this) {
+                    return replaceWithCompactedLog(compactionChannel, compactionPath, compactedOffsets, copiedLogSize,
+                            offset);
+                }
+            } catch (IOException e) {
+                return createError("Failed to compact the memory log", e);
+            }
+        }
+    }
+
+    // Copies the records written during the compaction to the compacted log, and replaces the log with it.
+    private BError replaceWithCompactedLog(FileChannel compactionChannel, Path compactionPath,
+                                           Map<Long, Long> compactedOffsets, long copiedLogSize, long copiedSize)
+            throws IOException {
+        copyRecord(new RecordRef(copiedLogSize, (int) (logSize - copiedLogSize)), compactionChannel, copiedSize);
+        compactionChannel.force(true);
+        try {
+            channel.close();
+            Files.move(compactionPath, logPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            channel = FileChannel.open(logPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            flushFailure = e;
+            return createError("Failed to replace the memory log with the compacted log", e);
+        }
+        // The records retained now were either retained when the copy started, or written after it.
+        for (SessionIndex sessionIndex : index.values()) {
+            if (sessionIndex.systemRecord != null) {
+                sessionIndex.systemRecord = relocate(sessionIndex.systemRecord, compactedOffsets, copiedLogSize,
+                        copiedSize);
+            }
+            List<RecordRef> messageRecords = new ArrayList<>(sessionIndex.messageRecords);
+            sessionIndex.messageRecords.clear();
+            for (RecordRef messageRecord : messageRecords) {
+                sessionIndex.messageRecords.addLast(relocate(messageRecord, compactedOffsets, copiedLogSize,
+                        copiedSize));
+            }
+        }
+        logSize = copiedSize + logSize - copiedLogSize;
+        return null;
+    }
+
+    private static RecordRef relocate(RecordRef record, Map<Long, Long> compactedOffsets, long copiedLogSize,
+                                      long copiedSize) {
+        long offset = record.offset >= copiedLogSize ? copiedSize + record.offset - copiedLogSize
+                : compactedOffsets.get(record.offset);
+        return new RecordRef(offset, record.length);
+    }
+
+    private BError close() {
+        flusher.shutdown();
+        synchronized (compactionLock) {
+            return closeLog();
+        }
+    }
+
+    private BError closeLog() {
+        closeLock.writeLock().lock();
+        try {
+            if (isClosed) {
+                return null;
+            }
+            isClosed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        synchronized (this) {
+            // No record is appended after the log is marked as closed, hence all the records are written here.
+            BError error = writePendingRecords();
+            try {
+                channel.close();
+                fileLock.release();
+                lockChannel.close();
+            } catch (IOException e) {
+                return createError("Failed to close the memory log", e);
+            }
+            return error;
+        }
+    }
+
+    private void recover() throws IOException {
+        long offset = 0;
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(logPath))) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int value;
+            while ((value = input.read()) != -1) {
+                line.write(value);
+                if (value != NEW_LINE) {
+                    continue;
+                }
+                byte[] recordLine = line.toByteArray();
+                line.reset();
+                String[] fields = decode(recordLine);
+                if (fields == null) {
+                    break;
+                }
+                apply(fields[0], fields[1], new RecordRef(offset, recordLine.length));
+                offset += recordLine.length;
+            }
+        }
+        // Records after the last valid record are partially written, hence discarded.
+        channel.truncate(offset);
+        channel.force(true);
+        logSize = offset;
+    }
+
+    private void apply(String kind, String sessionId, RecordRef record) {
+        if (DELETE_RECORD.equals(kind)) {
+            SessionIndex sessionIndex = index.remove(sessionId);
+            if (sessionIndex != null) {
+                retainedSize -= sessionIndex.size();
+            }
+            return;
+        }
+        SessionIndex sessionIndex = index.computeIfAbsent(sessionId, key -> new SessionIndex());
+        retainedSize += record.length;
+        if (SYSTEM_RECORD.equals(kind)) {
+            if (sessionIndex.systemRecord != null) {
+                retainedSize -= sessionIndex.systemRecord.length;
+            }
+            sessionIndex.systemRecord = record;
+            return;
+        }
+        sessionIndex.messageRecords.addLast(record);
+        if (sessionIndex.messageRecords.size() > windowSize) {
+            retainedSize -= sessionIndex.messageRecords.removeFirst().length;
+        }
+    }
+
+    private String readPayload(RecordRef record) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(record.length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, record.offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of the memory log");
+            }
+        }
+        String[] fields = decode(buffer.array());
+        if (fields == null) {
+            throw new IOException("Corrupted record in the memory log at offset " + record.offset);
+        }
+        return fields[2];
+    }
+
+    private RecordRef copyRecord(RecordRef record, FileChannel target, long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(record.length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, record.offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of the memory log");
+            }
+        }
+        buffer.flip();
+        writeFully(target, buffer, offset);
+        return new RecordRef(offset, record.length);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static byte[] encode(String kind, String sessionId, String payload) {
+        String encodedSessionId = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(sessionId.getBytes(StandardCharsets.UTF_8));
+        byte[] content = (kind + (char) SEPARATOR + encodedSessionId + (char) SEPARATOR + payload)
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] checksum = String.format("%08x", checksum(content)).getBytes(StandardCharsets.UTF_8);
+        byte[] line = new byte[checksum.length + 1 + content.length + 1];
+        System.arraycopy(checksum, 0, line, 0, checksum.length);
+        line[checksum.length] = SEPARATOR;
+        System.arraycopy(content, 0, line, checksum.length + 1, content.length);
+        line[line.length - 1] = NEW_LINE;
+        return line;
+    }
+
+    // Returns the kind, session ID and payload of the record, or null if the record is corrupted.
+    private static String[] decode(byte[] line) {
+        String text = new String(line, 0, line.length - 1, StandardCharsets.UTF_8);
+        String[] fields = text.split("\t", 4);
+        if (fields.length != 4 || line[line.length - 1] != NEW_LINE) {
+            return null;
+        }
+        byte[] content = text.substring(fields[0].length() + 1).getBytes(StandardCharsets.UTF_8);
+        try {
+            if (Long.parseLong(fields[0], 16) != checksum(content)) {
+                return null;
+            }
+            String sessionId = new String(Base64.getUrlDecoder().decode(fields[2]), StandardCharsets.UTF_8);
+            return new String[]{fields[1], sessionId, fields[3]};
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long checksum(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return crc.getValue();
+    }
+
+    private static BError createError(String message, Throwable cause) {
+        String detail = cause == null || cause.getMessage() == null ? "" : ": " + cause.getMessage();
+        return ErrorCreator.createError(fromString(message + detail));
+    }
+
+    private record PendingRecord(String kind, String sessionId, String payload, byte[] line) {
+    }
+
+    private record RecordRef(long offset, int length) {
+    }
+
+    private static final class SessionIndex {
+        private RecordRef systemRecord;
+        private final ArrayDeque<RecordRef> messageRecords = new ArrayDeque<>();
+
+        private long size() {
+            long size = systemRecord == null ? 0 : systemRecord.length;
+            for (RecordRef messageRecord : messageRecords) {
+                size += messageRecord.length;
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.lib.ai;
+
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the metrics registered by the agents, keyed by the name and the tags of each metric.
+ * A metric is recorded on every iteration of an agent, hence a registered metric is looked up without a lock, and
+ * only registering a new metric is serialized.
+ */
+public final class MetricCache {
+    private static final ConcurrentHashMap<String, BObject> METRICS = new ConcurrentHashMap<>();
+
+    private MetricCache() {
+    }
+
+    @SuppressWarnings("unused")
+    public static Object getCachedGauge(BString key) {
+        return METRICS.get(key.getValue());
+    }
+
+    @SuppressWarnings("unused")
+    public static Object getCachedCounter(BString key) {
+        return METRICS.get(key.getValue());
+    }
+
+    @SuppressWarnings("unused")
+    public static void cacheMetric(BString key, BObject metric) {
+        METRICS.put(key.getValue(), metric);
+    }
+}
@@ -25,20 +25,24 @@ import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BObject;
 import io.ballerina.runtime.api.values.BString;
 
-import java.util.concurrent.CompletableFuture;
-
 import static io.ballerina.runtime.api.utils.StringUtils.fromString;
 
-public class NativeHttpToChatServiceAdaptor {
+/**
+ * Dispatches the chat messages received by the agent listener to the resource functions of the chat services.
+ */
+public final class NativeHttpToChatServiceAdaptor {
+
+    private NativeHttpToChatServiceAdaptor() {
+    }
+
+    @SuppressWarnings("unused")
     public static Object invokeOnChatMessageFunction(Environment env, BMap<BString, Object> message,
                                                      BString eventFunction, BObject serviceObj) {
-        Object[] args = new Object[]{message, true};
+        // The service is called on a new strand, while the calling strand yields instead of blocking its thread.
+        // Errors are returned to the dispatcher, which reports them.
         return env.yieldAndRun(() -> {
-            CompletableFuture<Object> balFuture = new CompletableFuture<>();
             try {
-                Object result = env.getRuntime().callMethod(serviceObj, eventFunction.getValue(), null, args);
-                Utils.notifySuccess(balFuture, result);
-                return Utils.getResult(balFuture);
+                return env.getRuntime().callMethod(serviceObj, eventFunction.getValue(), null, message);
             } catch (BError bError) {
                 BString errorMessage = fromString("service method invocation failed: " + bError.getErrorMessage());
                 return ErrorCreator.createError(errorMessage, bError);
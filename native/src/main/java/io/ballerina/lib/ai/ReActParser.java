@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.lib.ai;
+
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.MapType;
+import io.ballerina.runtime.api.types.PredefinedTypes;
+import io.ballerina.runtime.api.utils.JsonUtils;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+
+/**
+ * Extracts the action of a ReAct agent from the response of the model.
+ * The JSON blob of the action is located with a single scan for the code fence, and parsed directly into a JSON
+ * value, instead of normalizing and splitting the response with regular expressions.
+ */
+public final class ReActParser {
+    private static final String CODE_FENCE = "```";
+    private static final String JSON_LANGUAGE = "json";
+    // Tools without inputs are at times given an empty object within a string
+    private static final String QUOTED_EMPTY_OBJECT = "\"{}\"";
+    private static final String EMPTY_OBJECT = "{}";
+    private static final String ACTION_KEY = "action";
+    private static final String INPUT_KEY_SUFFIX = "input";
+    private static final BString ACTION_NAME_KEY = fromString("name");
+    private static final BString ACTION_ARGUMENTS_KEY = fromString("arguments");
+    private static final MapType JSON_MAP_TYPE = TypeCreator.createMapType(PredefinedTypes.TYPE_JSON);
+
+    private ReActParser() {
+    }
+
+    /**
+     * Parses the action given in the response of the model.
+     *
+     * @param llmResponse response of the model
+     * @return the action with the `name` and `arguments` keys, an error if the action is not a valid JSON object,
+     * or nil if the response does not contain an action
+     */
+    @SuppressWarnings("unused")
+    public static Object parseReActAction(BString llmResponse) {
+        String jsonBlob = extractJsonBlob(llmResponse.getValue().strip());
+        if (jsonBlob == null) {
+            return null;
+        }
+        Object action;
+        try {
+            action = JsonUtils.parse(jsonBlob.replace(QUOTED_EMPTY_OBJECT, EMPTY_OBJECT));
+        } catch (BError e) {
+            return e;
+        }
+        if (!(action instanceof BMap<?, ?> jsonAction)) {
+            return ErrorCreator.createError(fromString("The action JSON_BLOB is not a JSON object"));
+        }
+
+        BMap<BString, Object> normalizedAction = ValueCreator.createMapValue(JSON_MAP_TYPE);
+        for (Map.Entry<?, ?> entry : jsonAction.entrySet()) {
+            String key = entry.getKey().toString().toLowerCase(Locale.ROOT);
+            if (key.equals(ACTION_KEY)) {
+                normalizedAction.put(ACTION_NAME_KEY, entry.getValue());
+            } else if (isActionInputKey(key)) {
+                normalizedAction.put(ACTION_ARGUMENTS_KEY, entry.getValue());
+            }
+        }
+        return normalizedAction;
+    }
+
+    private static String extractJsonBlob(String response) {
+        int fenceStart = response.indexOf(CODE_FENCE);
+        if (fenceStart < 0) {
+            // The blob is given without a code fence, either alone or surrounded by text
+            int jsonStart = response.indexOf('{');
+            int jsonEnd = response.lastIndexOf('}');
+            return jsonStart >= 0 && jsonEnd > jsonStart ? response.substring(jsonStart, jsonEnd + 1) : null;
+        }
+        int blobStart = fenceStart + CODE_FENCE.length();
+        if (response.startsWith(JSON_LANGUAGE, blobStart)) {
+            blobStart += JSON_LANGUAGE.length();
+        }
+        int blobEnd = response.indexOf(CODE_FENCE, blobStart);
+        return blobEnd < 0 ? null : response.substring(blobStart, blobEnd);
+    }
+
+    // Matches keys such as `action_input`, `action input` and `actioninput`
+    private static boolean isActionInputKey(String key) {
+        int separatorLength = key.length() - ACTION_KEY.length() - INPUT_KEY_SUFFIX.length();
+        return (separatorLength == 0 || separatorLength == 1)
+                && key.startsWith(ACTION_KEY) && key.endsWith(INPUT_KEY_SUFFIX);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.lib.ai;
+
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+
+/**
+ * Computes the keys of the responses cached for the model requests, and stores the cached responses on disk.
+ * <p>
+ * A key is the SHA-256 hash of the canonical JSON form of the request, in which the keys of the objects are sorted,
+ * so that equal requests have the same key regardless of the order in which their fields are given. Each response
+ * is stored on disk in a file named by its key, which is replaced atomically, and expires with the last modified
+ * time of the file.
+ */
+public final class ResponseCache {
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final String RESPONSE_FILE_EXTENSION = ".json";
+    private static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private ResponseCache() {
+    }
+
+    /**
+     * Computes a key of a JSON value, which is the same for the values that are equal irrespective of the order of
+     * their fields. It keys the model requests of the cached responses, as well as the tool calls.
+     *
+     * @param value               the value, such as a model request or the inputs of a tool call
+     * @param normalizeWhitespace whether the strings of the value are trimmed and their whitespace is collapsed
+     * @return the hexadecimal SHA-256 hash of the canonical form of the value
+     */
+    @SuppressWarnings("unused")
+    public static BString getCanonicalJsonKey(BMap<?, ?> value, boolean normalizeWhitespace) {
+        StringBuilder canonicalValue = new StringBuilder();
+        appendCanonicalJson(value, normalizeWhitespace, canonicalValue);
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+        byte[] hash = digest.digest(canonicalValue.toString().getBytes(StandardCharsets.UTF_8));
+        return fromString(HexFormat.of().formatHex(hash));
+    }
+
+    /**
+     * Reads a response cached on disk, deleting it if it has expired.
+     *
+     * @param directory  the directory of the cached responses
+     * @param key        the cache key of the request
+     * @param ttlMillis  the time in milliseconds for which a cached response is returned
+     * @return the cached response, nil if there is no unexpired response, or an error if it cannot be read
+     */
+    @SuppressWarnings("unused")
+    public static Object readCachedModelResponse(BString directory, BString key, long ttlMillis) {
+        Path responsePath = Path.of(directory.getValue(), key.getValue() + RESPONSE_FILE_EXTENSION);
+        try {
+            long age = System.currentTimeMillis() - Files.getLastModifiedTime(responsePath).toMillis();
+            if (age > ttlMillis) {
+                Files.deleteIfExists(responsePath);
+                return null;
+            }
+            return fromString(Files.readString(responsePath, StandardCharsets.UTF_8));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            return createError("Failed to read the cached response " + responsePath, e);
+        }
+    }
+
+    /**
+     * Writes a response to the disk cache, replacing the response previously cached for the same key.
+     *
+     * @param directory the directory of the cached responses, which is created if it does not exist
+     * @param key       the cache key of the request
+     * @param response  the response to cache
+     * @return nil on success, or an error if the response cannot be written
+     */
+    @SuppressWarnings("unused")
+    public static Object writeCachedModelResponse(BString directory, BString key, BString response) {
+        Path directoryPath = Path.of(directory.getValue());
+        try {
+            Files.createDirectories(directoryPath);
+            // The response is written to a temporary file first, so that a partially written response is never read
+            Path temporaryPath = Files.createTempFile(directoryPath, key.getValue(), TEMPORARY_FILE_EXTENSION);
+            try {
+                Files.writeString(temporaryPath, response.getValue(), StandardCharsets.UTF_8);
+                Files.move(temporaryPath, directoryPath.resolve(key.getValue() + RESPONSE_FILE_EXTENSION),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporaryPath);
+            }
+            return null;
+        } catch (IOException e) {
+            return createError("Failed to write the cached response to " + directoryPath, e);
+        }
+    }
+
+    private static void appendCanonicalJson(Object value, boolean normalizeWhitespace, StringBuilder builder) {
+        if (value instanceof BMap<?, ?> map) {
+            Object[] keys = map.getKeys();
+            Arrays.sort(keys, Comparator.comparing(Object::toString));
+            builder.append('{');
+            for (int i = 0; i < keys.length; i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                appendString(keys[i].toString(), builder);
+                builder.append(':');
+                appendCanonicalJson(map.get(keys[i]), normalizeWhitespace, builder);
+            }
+            builder.append('}');
+        } else if (value instanceof BArray array) {
+            builder.append('[');
+            for (int i = 0; i < array.size(); i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                appendCanonicalJson(array.get(i), normalizeWhitespace, builder);
+            }
+            builder.append(']');
+        } else if (value instanceof BString string) {
+            String content = string.getValue();
+            appendString(normalizeWhitespace ? WHITESPACE.matcher(content.strip()).replaceAll(" ") : content,
+                    builder);
+        } else {
+            builder.append(value);
+        }
+    }
+
+    private static void appendString(String value, StringBuilder builder) {
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            if (character == '"' || character == '\\') {
+                builder.append('\\');
+            }
+            builder.append(character);
+        }
+        builder.append('"');
+    }
+
+    private static BError createError(String message, Throwable cause) {
+        String detail = cause.getMessage() == null ? "" : ": " + cause.getMessage();
+        return ErrorCreator.createError(fromString(message + detail));
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.lib.ai;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.creators.ErrorCreator;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+
+/**
+ * Provides per-session mutual exclusion for the executions of agents.
+ * The locks are keyed by the memory instance and the session ID, since the order of the updates to a session matters
+ * only within the memory holding it. Executions that share a memory and a session ID are run one after the other,
+ * even when they belong to different agents, while the executions of other sessions proceed in parallel. A lock
+ * entry is kept only while at least one execution holds or waits on it.
+ */
+public final class SessionLocks {
+    private static final ConcurrentHashMap<SessionKey, SessionLock> LOCKS = new ConcurrentHashMap<>();
+
+    private SessionLocks() {
+    }
+
+    @SuppressWarnings("unused")
+    public static void acquireSessionLock(Environment env, BObject memory, BString sessionId) {
+        SessionLock sessionLock = LOCKS.compute(new SessionKey(memory, sessionId.getValue()), (key, existing) -> {
+            SessionLock current = existing == null ? new SessionLock() : existing;
+            current.users++;
+            return current;
+        });
+        // Waiting for the lock must not block other strands scheduled on the runtime.
+        env.yieldAndRun(() -> {
+            sessionLock.lock.lock();
+            return null;
+        });
+    }
+
+    @SuppressWarnings("unused")
+    public static Object releaseSessionLock(BObject memory, BString sessionId) {
+        boolean[] isReleased = {false};
+        LOCKS.computeIfPresent(new SessionKey(memory, sessionId.getValue()), (key, current) -> {
+            if (!current.lock.isHeldByCurrentThread()) {
+                // The entry is retained, since the lock is still held by another execution.
+                return current;
+            }
+            current.lock.unlock();
+            isReleased[0] = true;
+            current.users--;
+            return current.users == 0 ? null : current;
+        });
+        if (isReleased[0]) {
+            return null;
+        }
+        return ErrorCreator.createError(fromString("Lock of the session " + sessionId.getValue()
+                + " is not held by the execution releasing it"));
+    }
+
+    /**
+     * Identifies a session by the identity of the memory holding it, as memories are not compared by value.
+     */
+    private static final class SessionKey {
+        private final BObject memory;
+        private final String sessionId;
+
+        private SessionKey(BObject memory, String sessionId) {
+            this.memory = memory;
+            this.sessionId = sessionId;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof SessionKey key && memory == key.memory && sessionId.equals(key.sessionId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(memory) + sessionId.hashCode();
+        }
+    }
+
+    private static final class SessionLock {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int users = 0;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2025, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.lib.ai;
+
+import io.ballerina.runtime.api.Module;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.FunctionType;
+import io.ballerina.runtime.api.types.Parameter;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BFunctionPointer;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Holds the reflection metadata of a tool function, which is computed once per function type and reused by every
+ * call to the tool. The metadata of the least recently used functions is evicted once too many functions are
+ * cached, so that the functions of the modules no longer in use are not retained.
+ */
+final class ToolFunctionMetadata {
+    private static final int MAX_CACHED_FUNCTIONS = 1024;
+    private static final Map<FunctionTypeKey, ToolFunctionMetadata> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<FunctionTypeKey, ToolFunctionMetadata>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<FunctionTypeKey, ToolFunctionMetadata> eldest) {
+                    return size() > MAX_CACHED_FUNCTIONS;
+                }
+            });
+
+    final Module module;
+    final BString[] parameterNames;
+    // The name of the function which computes the default value of each parameter, or null if it has no default
+    final String[] defaultFunctionNames;
+    // A read-only map of the parameter names to their typedescs
+    final BMap<BString, Object> parameterTypes;
+
+    private ToolFunctionMetadata(FunctionType functionType) {
+        Parameter[] parameters = functionType.getParameters();
+        this.module = functionType.getPackage();
+        this.parameterNames = new BString[parameters.length];
+        this.defaultFunctionNames = new String[parameters.length];
+        this.parameterTypes = ValueCreator.createMapValue();
+        for (int i = 0; i < parameters.length; i++) {
+            parameterNames[i] = StringUtils.fromString(parameters[i].name);
+            defaultFunctionNames[i] = parameters[i].isDefault ? parameters[i].defaultFunctionName : null;
+            parameterTypes.put(parameterNames[i], ValueCreator.createTypedescValue(parameters[i].type));
+        }
+        parameterTypes.freezeDirect();
+    }
+
+    static ToolFunctionMetadata of(BFunctionPointer functionPointer) {
+        FunctionType functionType = (FunctionType) functionPointer.getType();
+        return CACHE.computeIfAbsent(new FunctionTypeKey(functionType), key -> new ToolFunctionMetadata(functionType));
+    }
+
+    /**
+     * Identifies a function type by reference, since structurally equal function types of different functions
+     * have different parameter names and defaults.
+     */
+    private record FunctionTypeKey(FunctionType functionType) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof FunctionTypeKey key && key.functionType == functionType;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(functionType);
+        }
+    }
+}
@@ -19,38 +19,29 @@
 package io.ballerina.lib.ai;
 
 import io.ballerina.runtime.api.Environment;
-import io.ballerina.runtime.api.creators.ErrorCreator;
 import io.ballerina.runtime.api.creators.TypeCreator;
 import io.ballerina.runtime.api.creators.ValueCreator;
-import io.ballerina.runtime.api.types.FunctionType;
+import io.ballerina.runtime.api.types.ArrayType;
 import io.ballerina.runtime.api.types.MapType;
-import io.ballerina.runtime.api.types.Parameter;
 import io.ballerina.runtime.api.types.PredefinedTypes;
 import io.ballerina.runtime.api.types.RecordType;
 import io.ballerina.runtime.api.types.ReferenceType;
 import io.ballerina.runtime.api.types.Type;
 import io.ballerina.runtime.api.utils.StringUtils;
-import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BArray;
 import io.ballerina.runtime.api.values.BFunctionPointer;
 import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BString;
 import io.ballerina.runtime.api.values.BTypedesc;
 
 import java.util.Arrays;
-import java.util.LinkedHashMap;
-import java.util.concurrent.CompletableFuture;
-
-import static io.ballerina.lib.ai.ModuleUtils.isModuleDefinedError;
 
 public class Utils {
+    private static final ArrayType ANYDATA_ARRAY_TYPE = TypeCreator.createArrayType(PredefinedTypes.TYPE_ANYDATA);
+
     @SuppressWarnings("unused")
     public static BMap<BString, Object> getParameterTypes(BFunctionPointer functionPointer) {
-        FunctionType functionType = (FunctionType) functionPointer.getType();
-        Parameter[] parameters = functionType.getParameters();
-        BMap<BString, Object> typedefs = ValueCreator.createMapValue();
-        Arrays.stream(parameters).forEach(param -> typedefs.put(StringUtils.fromString(param.name),
-                ValueCreator.createTypedescValue(param.type)));
-        return typedefs;
+        return ToolFunctionMetadata.of(functionPointer).parameterTypes;
     }
 
     @SuppressWarnings("unused")
@@ -71,55 +62,25 @@ public class Utils {
     }
 
     @SuppressWarnings("unused")
-    public static BMap<BString, Object> getArgsWithDefaultValues(Environment env,
-                                                                 BFunctionPointer functionPointer,
-                                                                 BMap<BString, Object> args) {
-        FunctionType functionType = (FunctionType) functionPointer.getType();
-        Parameter[] parameters = functionType.getParameters();
-        LinkedHashMap<String, Object> argsWithDefaultValues = new LinkedHashMap<>();
-        for (Parameter parameter : parameters) {
-            BString parameterName = StringUtils.fromString(parameter.name);
-            Object value = args.containsKey(parameterName) ? args.get(parameterName) :
-                    getDefaultParameterValue(env, functionPointer, parameter, argsWithDefaultValues.values().toArray());
-            argsWithDefaultValues.put(parameter.name, value);
+    public static BArray getToolArguments(Environment env, BFunctionPointer functionPointer,
+                                          BMap<BString, Object> args) {
+        ToolFunctionMetadata metadata = ToolFunctionMetadata.of(functionPointer);
+        int parameterCount = metadata.parameterNames.length;
+        Object[] arguments = new Object[parameterCount];
+        for (int i = 0; i < parameterCount; i++) {
+            BString parameterName = metadata.parameterNames[i];
+            arguments[i] = args.containsKey(parameterName) ? args.get(parameterName) :
+                    getDefaultParameterValue(env, metadata, i, Arrays.copyOf(arguments, i));
         }
-        MapType anydataMapType = TypeCreator.createMapType(PredefinedTypes.TYPE_ANYDATA);
-        BMap<BString, Object> parametersWithDefaultValue = ValueCreator.createMapValue(anydataMapType);
-        argsWithDefaultValues
-                .forEach((key, value) -> parametersWithDefaultValue.put(StringUtils.fromString(key), value));
-        return parametersWithDefaultValue;
+        return ValueCreator.createArrayValue(arguments, ANYDATA_ARRAY_TYPE);
     }
 
-    private static Object getDefaultParameterValue(Environment env, BFunctionPointer functionPointer,
-                                                   Parameter parameter,
+    private static Object getDefaultParameterValue(Environment env, ToolFunctionMetadata metadata, int index,
                                                    Object[] previousPositionalArgs) {
-        if (!parameter.isDefault) {
+        String defaultFunctionName = metadata.defaultFunctionNames[index];
+        if (defaultFunctionName == null) {
             return null;
         }
-        return env.getRuntime().callFunction(functionPointer.getType().getPackage(),
-                parameter.defaultFunctionName, null, previousPositionalArgs
-        );
-    }
-
-    public static void notifySuccess(CompletableFuture<Object> future, Object result) {
-        if (result instanceof BError error) {
-            if (!isModuleDefinedError(error)) {
-                error.printStackTrace();
-            }
-        }
-        future.complete(result);
-    }
-
-    public static Object getResult(CompletableFuture<Object> balFuture) {
-        try {
-            return balFuture.get();
-        } catch (BError error) {
-            throw error;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw ErrorCreator.createError(e);
-        } catch (Throwable throwable) {
-            throw ErrorCreator.createError(throwable);
-        }
+        return env.getRuntime().callFunction(metadata.module, defaultFunctionName, null, previousPositionalArgs);
     }
 }